@@ -1,10 +1,20 @@
-// Copyright 2024 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// Copyright 2024-2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
 // SPDX-License-Identifier: Apache-2.0
 package uk.ipfreely.sets;
 
 import uk.ipfreely.Addr;
 
+import java.math.BigInteger;
+import java.util.Iterator;
+
+/**
+ * Base type for sets of other than one {@link Range}.
+ * Implementations must be immutable: size, hash code and fingerprint are computed on first use and retained.
+ *
+ * @param <A> address type
+ */
 abstract class AbstractAddressSet<A extends Addr<A>> implements AddressSet<A> {
+    private volatile Digest digest;
 
     @Override
     public boolean equals(Object obj) {
@@ -15,10 +25,21 @@ abstract class AbstractAddressSet<A extends Addr<A>> implements AddressSet<A> {
     }
 
     private boolean eq(AddressSet<?> other) {
-        if (!other.size().equals(size())) {
+        if (other instanceof AbstractAddressSet<?> o) {
+            if (!digest().matches(o.digest())) {
+                return false;
+            }
+        } else if (!other.size().equals(size())) {
             return false;
         }
+        return sameRanges(other);
+    }
 
+    /**
+     * @param other set of equal size
+     * @return true if ranges are equal
+     */
+    boolean sameRanges(AddressSet<?> other) {
         var me = ranges().iterator();
         var you = other.ranges().iterator();
         while(me.hasNext() && you.hasNext()) {
@@ -33,7 +54,80 @@ abstract class AbstractAddressSet<A extends Addr<A>> implements AddressSet<A> {
 
     @Override
     public int hashCode() {
-        return ranges().mapToInt(Object::hashCode)
-                .reduce(0, (n, r) -> n * 31 + r);
+        return digest().hash;
+    }
+
+    @Override
+    public BigInteger size() {
+        return digest().size;
+    }
+
+    @Override
+    public long sizeAsLong() {
+        Digest d = digest();
+        return d.sizeHigh == 0 && d.sizeLow >= 0 ? d.sizeLow : -1;
+    }
+
+    private Digest digest() {
+        Digest d = digest;
+        if (d == null) {
+            // racy but idempotent
+            d = new Digest(ranges().iterator());
+            digest = d;
+        }
+        return d;
+    }
+
+    /**
+     * Summary of {@link #ranges()}.
+     */
+    private static final class Digest {
+        final int hash;
+        // 128-bit fingerprint
+        final long high;
+        final long low;
+        final long sizeHigh;
+        final long sizeLow;
+        final BigInteger size;
+
+        Digest(Iterator<? extends Range<?>> ranges) {
+            int h = 0;
+            long fh = 0;
+            long fl = 0;
+            long sh = 0;
+            long sl = 0;
+            while (ranges.hasNext()) {
+                Range<?> r = ranges.next();
+                h = h * 31 + r.hashCode();
+                Addr<?> first = r.first();
+                Addr<?> last = r.last();
+                fh = Hashing.mix(fh ^ first.highBits() ^ Hashing.mix(first.lowBits() + Hashing.GOLDEN));
+                fl = Hashing.mix(fl + Hashing.GOLDEN ^ last.highBits() ^ Hashing.mix(last.lowBits()));
+                // size += last - first + 1; cannot overflow as set is not the whole family
+                long dl = last.lowBits() - first.lowBits();
+                long dh = last.highBits() - first.highBits() - Unsigned.borrow(last.lowBits(), first.lowBits());
+                dh += Unsigned.carry(dl, 1);
+                dl++;
+                sh += dh + Unsigned.carry(sl, dl);
+                sl += dl;
+            }
+            this.hash = h;
+            this.high = fh;
+            this.low = fl;
+            this.sizeHigh = sh;
+            this.sizeLow = sl;
+            this.size = Unsigned.toBigInteger(sh, sl);
+        }
+
+        /**
+         * @return false if sets are definitely unequal
+         */
+        boolean matches(Digest other) {
+            return hash == other.hash
+                    && high == other.high
+                    && low == other.low
+                    && sizeHigh == other.sizeHigh
+                    && sizeLow == other.sizeLow;
+        }
     }
 }
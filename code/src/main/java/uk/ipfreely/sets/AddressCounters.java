@@ -0,0 +1,350 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static uk.ipfreely.sets.AddressHashSet.check;
+import static uk.ipfreely.sets.AddressHashSet.inRange;
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Concurrent hit counters keyed by address for rate limiting and abuse detection.
+ * </p>
+ * <p>
+ *     Counts live in an open-addressing table of primitive keys and atomic cells,
+ *     so counting allocates nothing once an address is present.
+ *     No locks are taken.
+ *     Counting an address already present never waits;
+ *     inserting an address may wait for another thread to finish publishing an insert into the same slot.
+ *     Addresses counted by several threads at once are given striped cells
+ *     so those threads do not contend.
+ * </p>
+ * <p>
+ *     Growth, {@link #decay()} and {@link #reset()} move counts to a new table
+ *     while other threads keep counting.
+ *     Each slot is frozen atomically as it moves and counts arriving afterwards go to the new table,
+ *     so no count is lost.
+ *     Growth is carried out by the thread that fills the table; other threads move on to the new table.
+ *     Reads are not atomic snapshots when counting is concurrent.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     AddressCounters&lt;V4&gt; hits = AddressCounters.of(Family.v4());
+ *     if (hits.increment(client) &gt; limit) {
+ *         reject(request);
+ *     }
+ *     // periodically
+ *     List&lt;Map.Entry&lt;V4, Long&gt;&gt; abusers = hits.top(10);
+ *     hits.decay();
+ * </code></pre>
+ *
+ * @param <A> address type
+ */
+public final class AddressCounters<A extends Addr<A>> {
+    // shift that discards counts
+    private static final int DROP = Long.SIZE;
+
+    private final Family<A> family;
+    // oldest table not yet fully migrated
+    private final AtomicReference<CounterTable> table;
+
+    private AddressCounters(Family<A> family, int capacity) {
+        this.family = family;
+        this.table = new AtomicReference<>(new CounterTable(family, capacity, 0));
+    }
+
+    /**
+     * New counters.
+     *
+     * @param family address family
+     * @return counters
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> AddressCounters<A> of(Family<A> family) {
+        return of(family, 0);
+    }
+
+    /**
+     * New counters sized to hold a number of addresses without growing.
+     *
+     * @param family address family
+     * @param expectedSize anticipated number of addresses
+     * @return counters
+     * @param <A> address type
+     * @throws IllegalArgumentException if size is negative
+     */
+    public static <A extends Addr<A>> AddressCounters<A> of(Family<A> family, int expectedSize) {
+        validate(expectedSize >= 0, "Expected size must not be negative", expectedSize, IllegalArgumentException::new);
+        return new AddressCounters<>(Objects.requireNonNull(family), AddressTable.capacity(family, expectedSize));
+    }
+
+    /**
+     * Counter family.
+     *
+     * @return family
+     */
+    public Family<A> family() {
+        return family;
+    }
+
+    /**
+     * Number of addresses counted since the last {@link #reset()}, less those removed by {@link #decay()}.
+     *
+     * @return size
+     */
+    public int size() {
+        return table.get().size();
+    }
+
+    /**
+     * Adds one to count.
+     *
+     * @param address address
+     * @return count after adding; see {@link #add(long, long, long)}
+     */
+    public long increment(A address) {
+        return add(address.highBits(), address.lowBits(), 1);
+    }
+
+    /**
+     * Adds one to count by value.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @return count after adding; see {@link #add(long, long, long)}
+     * @throws IllegalArgumentException if value is out of range for family
+     */
+    public long increment(long high, long low) {
+        return add(high, low, 1);
+    }
+
+    /**
+     * Adds to count.
+     *
+     * @param address address
+     * @param delta non-negative amount
+     * @return count after adding; see {@link #add(long, long, long)}
+     * @throws IllegalArgumentException if delta is negative
+     */
+    public long add(A address, long delta) {
+        return add(address.highBits(), address.lowBits(), delta);
+    }
+
+    /**
+     * Adds to count by value.
+     * For an address counted by several threads at once the result is read from a shared estimate
+     * that may trail the exact count by a few thousand; {@link #count(long, long)} is exact.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @param delta non-negative amount
+     * @return count after adding; approximate for striped addresses
+     * @throws IllegalArgumentException if value is out of range for family or delta is negative
+     */
+    public long add(long high, long low, long delta) {
+        check(family, high, low);
+        validate(delta >= 0, "Delta must not be negative", delta, IllegalArgumentException::new);
+        long count = table.get().increment(high, low, delta, false);
+        advance();
+        return count;
+    }
+
+    /**
+     * Current count.
+     *
+     * @param address address
+     * @return count or zero
+     */
+    public long count(A address) {
+        return count(address.highBits(), address.lowBits());
+    }
+
+    /**
+     * Current count by value.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @return count or zero
+     */
+    public long count(long high, long low) {
+        return inRange(family, high, low) ? table.get().total(high, low) : 0;
+    }
+
+    /**
+     * Visits every non-zero count with primitive keys.
+     *
+     * @param visitor receives {@link Addr#highBits()}, {@link Addr#lowBits()} and count
+     */
+    public void forEach(Visitor visitor) {
+        CounterTable t = table.get();
+        for (int s = 0; s < t.capacity(); s++) {
+            if (t.ready(s)) {
+                long count = t.count(s);
+                if (count > 0) {
+                    visitor.visit(t.high(s), t.low(s), count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy of non-zero counts.
+     *
+     * @return immutable map
+     */
+    public Map<A, Long> snapshot() {
+        Map<A, Long> result = new HashMap<>();
+        forEach((high, low, count) -> result.put(family.parse(high, low), count));
+        return Map.copyOf(result);
+    }
+
+    /**
+     * Greatest counts.
+     * Ties are broken arbitrarily.
+     *
+     * @param k maximum number of results
+     * @return up to k non-zero counts in descending order
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<Map.Entry<A, Long>> top(int k) {
+        validate(k >= 0, "k must not be negative", k, IllegalArgumentException::new);
+        TopK heap = new TopK(Math.min(k, size()));
+        forEach(heap::offer);
+        List<Map.Entry<A, Long>> result = new ArrayList<>(heap.size);
+        while (heap.size > 0) {
+            result.add(Map.entry(family.parse(heap.highs[0], heap.lows[0]), heap.counts[0]));
+            heap.poll();
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Halves every count, discarding addresses whose count becomes zero.
+     * Applied periodically this weights recent activity exponentially.
+     */
+    public void decay() {
+        rebuild(1);
+    }
+
+    /**
+     * Discards all counts.
+     */
+    public void reset() {
+        rebuild(DROP);
+    }
+
+    /**
+     * Appends a table to the chain and migrates its predecessor.
+     * Concurrent rebuilds each retire a distinct table so their shifts compose.
+     */
+    private void rebuild(int shift) {
+        CounterTable head = table.get();
+        head.append(new CounterTable(family, head.capacity(), shift)).migrate();
+        advance();
+    }
+
+    /**
+     * Drops migrated tables from the head of the chain.
+     */
+    private void advance() {
+        for (CounterTable h = table.get(); h.done(); h = table.get()) {
+            table.compareAndSet(h, h.next());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AddressCounters{" + family + ", " + size() + " addresses}";
+    }
+
+    /**
+     * Receives counts with primitive keys.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Receives count.
+         *
+         * @param high {@link Addr#highBits()}
+         * @param low {@link Addr#lowBits()}
+         * @param count non-zero count
+         */
+        void visit(long high, long low, long count);
+    }
+
+    /**
+     * Bounded binary min-heap of primitive entries.
+     */
+    private static final class TopK {
+        private final long[] highs;
+        private final long[] lows;
+        private final long[] counts;
+        private int size;
+
+        TopK(int k) {
+            highs = new long[k];
+            lows = new long[k];
+            counts = new long[k];
+        }
+
+        void offer(long high, long low, long count) {
+            if (size < counts.length) {
+                set(size, high, low, count);
+                up(size++);
+            } else if (size > 0 && count > counts[0]) {
+                set(0, high, low, count);
+                down(0);
+            }
+        }
+
+        void poll() {
+            size--;
+            set(0, highs[size], lows[size], counts[size]);
+            down(0);
+        }
+
+        private void set(int i, long high, long low, long count) {
+            highs[i] = high;
+            lows[i] = low;
+            counts[i] = count;
+        }
+
+        private void swap(int i, int j) {
+            long h = highs[i];
+            long l = lows[i];
+            long c = counts[i];
+            set(i, highs[j], lows[j], counts[j]);
+            set(j, h, l, c);
+        }
+
+        private void up(int i) {
+            for (int p = (i - 1) / 2; i > 0 && counts[i] < counts[p]; i = p, p = (i - 1) / 2) {
+                swap(i, p);
+            }
+        }
+
+        private void down(int i) {
+            for (int c = 2 * i + 1; c < size; i = c, c = 2 * i + 1) {
+                if (c + 1 < size && counts[c + 1] < counts[c]) {
+                    c++;
+                }
+                if (counts[i] <= counts[c]) {
+                    return;
+                }
+                swap(i, c);
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static uk.ipfreely.sets.AddressHashSet.check;
+import static uk.ipfreely.sets.AddressHashSet.inRange;
+
+/**
+ * <p>
+ *     Mutable hash map keyed by address without per-entry or per-key objects.
+ * </p>
+ * <p>
+ *     Keys are stored as in {@link AddressHashSet} with values in a parallel array.
+ *     Values must not be null.
+ *     Primitive methods take {@link Addr#highBits()} and {@link Addr#lowBits()} values
+ *     and {@link #forEach(Visitor)} iterates without creating addresses.
+ *     Iteration order is unspecified.
+ * </p>
+ * <p>
+ *     Instances are not thread-safe and must not be modified during iteration.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     AddressHashMap&lt;V6, State&gt; clients = AddressHashMap.of(Family.v6());
+ *     State state = clients.computeIfAbsent(client, c -&gt; new State());
+ * </code></pre>
+ *
+ * @param <A> address type
+ * @param <V> value type
+ */
+public final class AddressHashMap<A extends Addr<A>, V> {
+    private final Family<A> family;
+    private final AddressTable table;
+
+    private AddressHashMap(Family<A> family, int expected) {
+        this.family = family;
+        this.table = new AddressTable(family, expected, true);
+    }
+
+    /**
+     * New empty map.
+     *
+     * @param family key family
+     * @return map
+     * @param <A> address type
+     * @param <V> value type
+     */
+    public static <A extends Addr<A>, V> AddressHashMap<A, V> of(Family<A> family) {
+        return of(family, 0);
+    }
+
+    /**
+     * New empty map sized to hold a number of entries without growing.
+     *
+     * @param family key family
+     * @param expectedSize anticipated size
+     * @return map
+     * @param <A> address type
+     * @param <V> value type
+     * @throws IllegalArgumentException if size is negative
+     */
+    public static <A extends Addr<A>, V> AddressHashMap<A, V> of(Family<A> family, int expectedSize) {
+        return new AddressHashMap<>(Objects.requireNonNull(family), expectedSize);
+    }
+
+    /**
+     * Key family.
+     *
+     * @return family
+     */
+    public Family<A> family() {
+        return family;
+    }
+
+    /**
+     * Number of entries.
+     *
+     * @return size
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Tests for no entries.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    /**
+     * Value for key.
+     *
+     * @param key address
+     * @return value or null
+     */
+    public V get(A key) {
+        return get(key.highBits(), key.lowBits());
+    }
+
+    /**
+     * Value for key by value.
+     * Values out of range for the family are never present.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @return value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long high, long low) {
+        int slot = inRange(family, high, low) ? table.indexOf(high, low) : -1;
+        return slot < 0 ? null : (V) table.value(slot);
+    }
+
+    /**
+     * Tests for key.
+     *
+     * @param key address
+     * @return true if present
+     */
+    public boolean containsKey(A key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates value with key.
+     *
+     * @param key address
+     * @param value not null
+     * @return previous value or null
+     */
+    public V put(A key, V value) {
+        return put(key.highBits(), key.lowBits(), value);
+    }
+
+    /**
+     * Associates value with key by value.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @param value not null
+     * @return previous value or null
+     * @throws IllegalArgumentException if key is out of range for family
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long high, long low, V value) {
+        Objects.requireNonNull(value);
+        check(family, high, low);
+        int slot = table.insert(high, low);
+        if (slot < 0) {
+            table.value(-slot - 1, value);
+            return null;
+        }
+        V old = (V) table.value(slot);
+        table.value(slot, value);
+        return old;
+    }
+
+    /**
+     * Value for key, computing and storing it if absent.
+     *
+     * @param key address
+     * @param fn creates value; must not return null
+     * @return existing or computed value
+     */
+    public V computeIfAbsent(A key, Function<? super A, ? extends V> fn) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        V value = Objects.requireNonNull(fn.apply(key));
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Removes entry.
+     *
+     * @param key address
+     * @return removed value or null
+     */
+    public V remove(A key) {
+        return remove(key.highBits(), key.lowBits());
+    }
+
+    /**
+     * Removes entry by value.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @return removed value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long high, long low) {
+        int slot = inRange(family, high, low) ? table.indexOf(high, low) : -1;
+        if (slot < 0) {
+            return null;
+        }
+        V old = (V) table.value(slot);
+        table.removeAt(slot);
+        return old;
+    }
+
+    /**
+     * Removes all entries retaining capacity.
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Visits every entry with primitive keys.
+     *
+     * @param visitor receives {@link Addr#highBits()}, {@link Addr#lowBits()} and value of each entry
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<? super V> visitor) {
+        for (int s = table.next(0); s >= 0; s = table.next(s + 1)) {
+            visitor.visit(table.high(s), table.low(s), (V) table.value(s));
+        }
+    }
+
+    /**
+     * All entries.
+     *
+     * @return entries in unspecified order
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<Map.Entry<A, V>> entries() {
+        return IntStream.iterate(table.next(0), s -> s >= 0, s -> table.next(s + 1))
+                .mapToObj(s -> Map.entry(family.parse(table.high(s), table.low(s)), (V) table.value(s)));
+    }
+
+    @Override
+    public String toString() {
+        return "AddressHashMap{" + family + ", " + size() + " entries}";
+    }
+
+    /**
+     * Receives entries with primitive keys.
+     *
+     * @param <V> value type
+     */
+    @FunctionalInterface
+    public interface Visitor<V> {
+        /**
+         * Receives entry.
+         *
+         * @param high {@link Addr#highBits()}
+         * @param low {@link Addr#lowBits()}
+         * @param value entry value
+         */
+        void visit(long high, long low, V value);
+    }
+}
@@ -0,0 +1,235 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Mutable hash set of addresses without per-address objects.
+ * </p>
+ * <p>
+ *     Addresses are stored in an open-addressing table as primitive {@code int}s (IPv4)
+ *     or {@code long} pairs (IPv6) and hashed with a strong mixing function,
+ *     so hosts sharing low bits across many networks do not cluster.
+ *     Primitive methods take {@link Addr#highBits()} and {@link Addr#lowBits()} values
+ *     and {@link #forEach(Visitor)} iterates without creating addresses.
+ *     Iteration order is unspecified.
+ * </p>
+ * <p>
+ *     Instances are not thread-safe and must not be modified during iteration.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     AddressHashSet&lt;V6&gt; seen = AddressHashSet.of(Family.v6());
+ *     if (seen.add(packetHigh, packetLow)) {
+ *         newClients++;
+ *     }
+ * </code></pre>
+ *
+ * @param <A> address type
+ * @see AddressHashMap
+ */
+public final class AddressHashSet<A extends Addr<A>> {
+    private final Family<A> family;
+    private final AddressTable table;
+
+    private AddressHashSet(Family<A> family, int expected) {
+        this.family = family;
+        this.table = new AddressTable(family, expected, false);
+    }
+
+    /**
+     * New empty set.
+     *
+     * @param family address family
+     * @return set
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> AddressHashSet<A> of(Family<A> family) {
+        return of(family, 0);
+    }
+
+    /**
+     * New empty set sized to hold a number of addresses without growing.
+     *
+     * @param family address family
+     * @param expectedSize anticipated size
+     * @return set
+     * @param <A> address type
+     * @throws IllegalArgumentException if size is negative
+     */
+    public static <A extends Addr<A>> AddressHashSet<A> of(Family<A> family, int expectedSize) {
+        return new AddressHashSet<>(Objects.requireNonNull(family), expectedSize);
+    }
+
+    /**
+     * Set family.
+     *
+     * @return family
+     */
+    public Family<A> family() {
+        return family;
+    }
+
+    /**
+     * Number of addresses.
+     *
+     * @return size
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Tests for no addresses.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    /**
+     * Adds address.
+     *
+     * @param address member
+     * @return true if added
+     */
+    public boolean add(A address) {
+        return table.insert(address.highBits(), address.lowBits()) < 0;
+    }
+
+    /**
+     * Adds address by value.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @return true if added
+     * @throws IllegalArgumentException if value is out of range for family
+     */
+    public boolean add(long high, long low) {
+        check(family, high, low);
+        return table.insert(high, low) < 0;
+    }
+
+    /**
+     * Tests membership.
+     *
+     * @param address candidate
+     * @return true if present
+     */
+    public boolean contains(A address) {
+        return table.indexOf(address.highBits(), address.lowBits()) >= 0;
+    }
+
+    /**
+     * Tests membership by value.
+     * Values out of range for the family are never present.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @return true if present
+     */
+    public boolean contains(long high, long low) {
+        return inRange(family, high, low) && table.indexOf(high, low) >= 0;
+    }
+
+    /**
+     * Removes address.
+     *
+     * @param address member
+     * @return true if removed
+     */
+    public boolean remove(A address) {
+        return remove(address.highBits(), address.lowBits());
+    }
+
+    /**
+     * Removes address by value.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @return true if removed
+     */
+    public boolean remove(long high, long low) {
+        int slot = inRange(family, high, low) ? table.indexOf(high, low) : -1;
+        if (slot < 0) {
+            return false;
+        }
+        table.removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Removes all addresses retaining capacity.
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Visits every address as primitive values.
+     *
+     * @param visitor receives {@link Addr#highBits()} and {@link Addr#lowBits()} of each member
+     */
+    public void forEach(Visitor visitor) {
+        for (int s = table.next(0); s >= 0; s = table.next(s + 1)) {
+            visitor.visit(table.high(s), table.low(s));
+        }
+    }
+
+    /**
+     * Visits every address.
+     *
+     * @param action receives each member
+     */
+    public void forEachAddress(Consumer<? super A> action) {
+        forEach((high, low) -> action.accept(family.parse(high, low)));
+    }
+
+    /**
+     * All addresses.
+     *
+     * @return members in unspecified order
+     */
+    public Stream<A> stream() {
+        return IntStream.iterate(table.next(0), s -> s >= 0, s -> table.next(s + 1))
+                .mapToObj(s -> family.parse(table.high(s), table.low(s)));
+    }
+
+    @Override
+    public String toString() {
+        return "AddressHashSet{" + family + ", " + size() + " addresses}";
+    }
+
+    static void check(Family<?> family, long high, long low) {
+        validate(inRange(family, high, low), "Value out of range for family", low, IllegalArgumentException::new);
+    }
+
+    static boolean inRange(Family<?> family, long high, long low) {
+        return family == Family.v6() || (high == 0 && (low & 0xFFFFFFFF00000000L) == 0);
+    }
+
+    /**
+     * Receives addresses as primitive values.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Receives address.
+         *
+         * @param high {@link Addr#highBits()}
+         * @param low {@link Addr#lowBits()}
+         */
+        void visit(long high, long low);
+    }
+}
@@ -0,0 +1,48 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.function.IntPredicate;
+
+/**
+ * <p>
+ *     Membership test over primitive address values.
+ *     No IPv6 address matches a predicate created from a set of IPv4 addresses and vice versa.
+ * </p>
+ *
+ * @see AddressSets#compile(AddressSet)
+ */
+public interface AddressPredicate extends IntPredicate {
+    /**
+     * Tests IPv4 address.
+     *
+     * @param address unsigned IPv4 value as in {@link Family#parse(int)}
+     * @return true if address is a member
+     */
+    @Override
+    boolean test(int address);
+
+    /**
+     * Tests IPv6 address.
+     *
+     * @param high {@link Addr#highBits()}
+     * @param low {@link Addr#lowBits()}
+     * @return true if address is a member
+     */
+    boolean test(long high, long low);
+
+    /**
+     * Tests address of either family.
+     *
+     * @param address candidate
+     * @return true if address is a member
+     */
+    default boolean contains(Addr<?> address) {
+        return address.family() == Family.v4()
+                ? test((int) address.lowBits())
+                : test(address.highBits(), address.lowBits());
+    }
+}
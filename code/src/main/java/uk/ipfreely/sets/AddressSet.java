@@ -6,10 +6,13 @@ import uk.ipfreely.Addr;
 import uk.ipfreely.Family;
 
 import java.math.BigInteger;
+import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import static uk.ipfreely.sets.Validation.validate;
+
 /**
  * <p>
  *     Discrete ordered set interface of zero to {@link Family#max()} {@link Addr}esses.
@@ -153,6 +156,110 @@ public interface AddressSet<A extends Addr<A>> extends Iterable<A> {
         return ranges().map(Range::size).reduce(BigInteger.ZERO, BigInteger::add);
     }
 
+    /**
+     * <p>
+     *     Cardinality of the set without {@link BigInteger} arithmetic where the type allows.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     long n = set.sizeAsLong();
+     *     boolean enumerable = n &gt;= 0 &amp;&amp; n &lt;= 1_000_000;
+     * </code></pre>
+     *
+     * @return {@link #size()} or -1 if size is greater than {@link Long#MAX_VALUE}
+     */
+    default long sizeAsLong() {
+        BigInteger size = size();
+        return size.bitLength() < Long.SIZE ? size.longValue() : -1;
+    }
+
+    /**
+     * <p>
+     *     Number of members less than address.
+     * </p>
+     * <p>
+     *     The default implementation iterates {@link #ranges()}.
+     *     Sets of more than one range created by {@link AddressSets} answer in O(log n) time.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     // page 3 of 100 starts at addresses().skip(rank)
+     *     BigInteger rank = set.rank(set.select(300));
+     * </code></pre>
+     *
+     * @param address boundary; need not be a member
+     * @return count of members less than address
+     */
+    default BigInteger rank(A address) {
+        BigInteger rank = BigInteger.ZERO;
+        for (Iterator<Range<A>> it = ranges().iterator(); it.hasNext();) {
+            Range<A> r = it.next();
+            if (r.first().compareTo(address) >= 0) {
+                break;
+            }
+            if (r.last().compareTo(address) >= 0) {
+                return rank.add(address.subtract(r.first()).toBigInteger());
+            }
+            rank = rank.add(r.size());
+        }
+        return rank;
+    }
+
+    /**
+     * <p>
+     *     Member at index in iteration order.
+     * </p>
+     * <p>
+     *     The default implementation iterates {@link #ranges()}.
+     *     Sets of more than one range created by {@link AddressSets} answer in O(log n) time.
+     * </p>
+     *
+     * @param index zero to {@link #size()} exclusive
+     * @return address at index
+     * @throws IndexOutOfBoundsException if index is negative or not less than size
+     */
+    default A select(BigInteger index) {
+        validate(index.signum() >= 0, "Index must not be negative", index, IndexOutOfBoundsException::new);
+        BigInteger remaining = index;
+        for (Iterator<Range<A>> it = ranges().iterator(); it.hasNext();) {
+            Range<A> r = it.next();
+            BigInteger size = r.size();
+            if (remaining.compareTo(size) < 0) {
+                A first = r.first();
+                return first.add(first.family().parse(remaining));
+            }
+            remaining = remaining.subtract(size);
+        }
+        throw new IndexOutOfBoundsException("Index must be less than size; got '" + index + "'");
+    }
+
+    /**
+     * Version of {@link #select(BigInteger)} for {@code long} indices.
+     *
+     * @param index zero to {@link #size()} exclusive
+     * @return address at index
+     * @throws IndexOutOfBoundsException if index is negative or not less than size
+     */
+    default A select(long index) {
+        return select(BigInteger.valueOf(index));
+    }
+
+    /**
+     * Number of members within range.
+     * Uses {@link #rank(Addr)}.
+     *
+     * @param range bounds
+     * @return count of members from first to last inclusive
+     */
+    default BigInteger countWithin(Range<A> range) {
+        A last = range.last();
+        BigInteger upper = rank(last);
+        if (contains(last)) {
+            upper = upper.add(BigInteger.ONE);
+        }
+        return upper.subtract(rank(range.first()));
+    }
+
     /**
      * Tests for the empty set.
      *
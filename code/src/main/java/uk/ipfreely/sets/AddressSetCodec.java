@@ -0,0 +1,612 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.ParseException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32C;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Compact, versioned binary encoding of {@link AddressSet}s.
+ * </p>
+ * <table border="1">
+ *     <caption>Version 1 Layout</caption>
+ *     <tr><th>Field</th><th>Encoding</th></tr>
+ *     <tr><td>Magic</td><td>ASCII {@code "IPAS"}</td></tr>
+ *     <tr><td>Version</td><td>byte {@code 1}</td></tr>
+ *     <tr><td>Family</td><td>byte {@code 4} (IPv4), {@code 6} (IPv6) or {@code 0} (empty set)</td></tr>
+ *     <tr><td>Range count</td><td>varint</td></tr>
+ *     <tr><td>Payload length in bytes</td><td>varint</td></tr>
+ *     <tr><td>Payload</td><td>varint gap &amp; varint span per {@link Range}</td></tr>
+ *     <tr><td>Checksum</td><td>big-endian CRC-32C of all preceding bytes</td></tr>
+ * </table>
+ * <p>
+ *     Varints are unsigned <a target="_top" href="https://en.wikipedia.org/wiki/LEB128">LEB128</a>
+ *     of up to 128 bits.
+ *     The gap of the first range is {@link Range#first()}.
+ *     The gap of subsequent ranges is {@code first - previousLast - 2}
+ *     because ranges in a set are never contiguous.
+ *     The span is {@code last - first}.
+ *     Header varints may be padded with redundant continuation bytes
+ *     so that a writer can fill them in after streaming the payload.
+ * </p>
+ * <p>
+ *     Decoders consume exactly the encoded bytes so encoded sets can be concatenated.
+ *     Malformed data raises {@link ParseException}.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     try (OutputStream out = Files.newOutputStream(path)) {
+ *         AddressSetCodec.encode(denyList, out);
+ *     }
+ *     try (InputStream in = Files.newInputStream(path)) {
+ *         AddressSet&lt;V4&gt; copy = AddressSetCodec.decode(Family.v4(), in);
+ *     }
+ * </code></pre>
+ */
+public final class AddressSetCodec {
+    static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'I', 'P', 'A', 'S'};
+    private static final int EMPTY = 0;
+    private static final int V4 = 4;
+    private static final int V6 = 6;
+    private static final int BUFFER = 8192;
+    private static final int MAX_VARINT = 19;
+    private static final int MAX_HEADER = MAGIC.length + 2 + MAX_VARINT * 2;
+    private static final int CHECKSUM = Integer.BYTES;
+    // enough for a non-negative long
+    private static final int PADDED_VARINT = 10;
+    private static final int PADDED_HEADER = MAGIC.length + 2 + PADDED_VARINT * 2;
+    // reflected CRC-32C polynomial
+    private static final int POLYNOMIAL = 0x82F6_3B78;
+
+    private AddressSetCodec() {}
+
+    /**
+     * Exact number of bytes {@link #encode(AddressSet, OutputStream)} will write.
+     *
+     * @param set the set
+     * @return encoded length
+     */
+    public static long encodedLength(AddressSet<?> set) {
+        var e = new Encoder(set.ranges().iterator());
+        return e.header(new byte[MAX_HEADER]) + e.length + CHECKSUM;
+    }
+
+    /**
+     * Writes set to stream.
+     * The stream is neither flushed nor closed.
+     *
+     * @param set source
+     * @param out destination
+     * @throws IOException on I/O error
+     */
+    public static void encode(AddressSet<?> set, OutputStream out) throws IOException {
+        new Encoder(set.ranges().iterator()).write(set.ranges().iterator(), (b, len) -> out.write(b, 0, len));
+    }
+
+    /**
+     * Writes ranges to channel from its current position, consuming them once.
+     * The header is written with padded varints after the payload.
+     * The channel is left positioned after the checksum.
+     *
+     * @param ranges ascending, non-contiguous ranges of one family
+     * @param out destination
+     * @throws IOException on I/O error
+     */
+    static void encode(Iterator<? extends Range<?>> ranges, FileChannel out) throws IOException {
+        new Encoder().write(ranges, out);
+    }
+
+    /**
+     * Writes set to buffer from the current position.
+     *
+     * @param set source
+     * @param out destination
+     * @throws BufferOverflowException if there is insufficient space; nothing is written
+     */
+    public static void encode(AddressSet<?> set, ByteBuffer out) {
+        var e = new Encoder(set.ranges().iterator());
+        if (e.header(new byte[MAX_HEADER]) + e.length + CHECKSUM > out.remaining()) {
+            throw new BufferOverflowException();
+        }
+        e.write(set.ranges().iterator(), (b, len) -> out.put(b, 0, len));
+    }
+
+    /**
+     * Reads set of any family from stream.
+     *
+     * @param in source
+     * @return decoded set
+     * @throws IOException on I/O error
+     * @throws EOFException if the stream ends before the set
+     * @throws ParseException on malformed data
+     */
+    public static AddressSet<?> decode(InputStream in) throws IOException {
+        return new Decoder<>(Source.of(in)).read(null);
+    }
+
+    /**
+     * Reads set of given family from stream.
+     *
+     * @param family expected family
+     * @param in source
+     * @return decoded set
+     * @param <A> address type
+     * @throws IOException on I/O error
+     * @throws EOFException if the stream ends before the set
+     * @throws ParseException on malformed data or wrong family
+     */
+    public static <A extends Addr<A>> AddressSet<A> decode(Family<A> family, InputStream in) throws IOException {
+        return new Decoder<>(Source.of(in)).read(family);
+    }
+
+    /**
+     * Reads set of any family from the current position of the buffer.
+     *
+     * @param in source
+     * @return decoded set
+     * @throws ParseException on malformed data or buffer underflow
+     */
+    public static AddressSet<?> decode(ByteBuffer in) {
+        return decode(null, in);
+    }
+
+    /**
+     * Reads set of given family from the current position of the buffer.
+     *
+     * @param family expected family
+     * @param in source
+     * @return decoded set
+     * @param <A> address type
+     * @throws ParseException on malformed data, buffer underflow or wrong family
+     */
+    public static <A extends Addr<A>> AddressSet<A> decode(Family<A> family, ByteBuffer in) {
+        return new Decoder<>(Source.of(in)).read(family);
+    }
+
+    /**
+     * Reads ranges from stream on demand.
+     * The header is read immediately and the checksum verified after the last range.
+     * Iteration wraps {@link IOException}s in {@link UncheckedIOException}.
+     *
+     * @param family expected family
+     * @param in source
+     * @return ranges in ascending order
+     * @param <A> address type
+     * @throws IOException on I/O error
+     * @throws ParseException on malformed header or wrong family
+     */
+    static <A extends Addr<A>> Iterator<Range<A>> iterator(Family<A> family, InputStream in) throws IOException {
+        var decoder = new Decoder<>(Source.of(in));
+        Family<A> actual = decoder.header(family);
+        long count = decoder.count;
+        if (count == 0) {
+            decoder.trailer();
+        }
+        return new Iterator<>() {
+            private long index;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public Range<A> next() {
+                validate(hasNext(), "Iterator exhausted", null, NoSuchElementException::new);
+                try {
+                    Range<A> r = decoder.range(actual, index++);
+                    if (index == count) {
+                        decoder.trailer();
+                    }
+                    return r;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    static int varint(byte[] buf, int offset, long high, long low) {
+        int n = offset;
+        long h = high;
+        long l = low;
+        while (h != 0 || (l & ~0x7FL) != 0) {
+            buf[n++] = (byte) (l | 0x80);
+            l = (l >>> 7) | (h << 57);
+            h >>>= 7;
+        }
+        buf[n++] = (byte) l;
+        return n;
+    }
+
+    private static int paddedVarint(byte[] buf, int offset, long value) {
+        int n = offset;
+        long v = value;
+        for (int i = 1; i < PADDED_VARINT; i++) {
+            buf[n++] = (byte) (v | 0x80);
+            v >>>= 7;
+        }
+        buf[n++] = (byte) v;
+        return n;
+    }
+
+    /**
+     * CRC-32C of two concatenated byte sequences from their CRCs as in zlib's {@code crc32_combine}.
+     *
+     * @param crc1 checksum of first sequence
+     * @param crc2 checksum of second sequence
+     * @param len2 length of second sequence
+     * @return checksum of concatenation
+     */
+    static int combine(int crc1, int crc2, long len2) {
+        // operator appending one zero bit
+        int[] op = new int[Integer.SIZE];
+        op[0] = POLYNOMIAL;
+        for (int i = 1; i < op.length; i++) {
+            op[i] = 1 << (i - 1);
+        }
+        // one zero byte
+        for (int i = 0; i < 3; i++) {
+            op = square(op);
+        }
+        int crc = crc1;
+        for (long len = len2; len != 0; len >>>= 1) {
+            crc = (len & 1) == 0 ? crc : times(op, crc);
+            op = square(op);
+        }
+        return crc ^ crc2;
+    }
+
+    private static int times(int[] matrix, int vector) {
+        int sum = 0;
+        for (int i = 0, v = vector; v != 0; i++, v >>>= 1) {
+            sum ^= (v & 1) == 0 ? 0 : matrix[i];
+        }
+        return sum;
+    }
+
+    private static int[] square(int[] matrix) {
+        int[] result = new int[matrix.length];
+        for (int i = 0; i < matrix.length; i++) {
+            result[i] = times(matrix, matrix[i]);
+        }
+        return result;
+    }
+
+    static int varintLength(long high, long low) {
+        int bits = Long.SIZE * 2 - Unsigned.leadingZeros(high, low);
+        return bits == 0 ? 1 : (bits + 6) / 7;
+    }
+
+    @FunctionalInterface
+    private interface Sink<X extends Exception> {
+        void write(byte[] b, int len) throws X;
+    }
+
+    private static final class Encoder {
+        private int family = EMPTY;
+        private long count;
+        private long length;
+        // previous last
+        private long ph;
+        private long pl;
+        // current gap and span
+        private long gh;
+        private long gl;
+        private long sh;
+        private long sl;
+
+        Encoder() {}
+
+        /**
+         * Measures ranges for {@link #header(byte[])}.
+         */
+        Encoder(Iterator<? extends Range<?>> it) {
+            while (it.hasNext()) {
+                delta(it.next());
+                length += varintLength(gh, gl) + varintLength(sh, sl);
+            }
+        }
+
+        private void delta(Range<?> r) {
+            Addr<?> first = r.first();
+            Addr<?> last = r.last();
+            long fh = first.highBits();
+            long fl = first.lowBits();
+            if (count == 0) {
+                family = first.family() == Family.v4() ? V4 : V6;
+                gh = fh;
+                gl = fl;
+            } else {
+                // gap = first - (previous + 2)
+                long xl = pl + 2;
+                long xh = ph + Unsigned.carry(pl, 2);
+                validate(Unsigned.compare(fh, fl, xh, xl) >= 0, "Ranges must be ordered and non-contiguous", r, IllegalArgumentException::new);
+                gl = fl - xl;
+                gh = fh - xh - Unsigned.borrow(fl, xl);
+            }
+            ph = last.highBits();
+            pl = last.lowBits();
+            sl = pl - fl;
+            sh = ph - fh - Unsigned.borrow(pl, fl);
+            count++;
+        }
+
+        int header(byte[] buf) {
+            int n = prefix(buf);
+            n = varint(buf, n, 0, count);
+            return varint(buf, n, 0, length);
+        }
+
+        private int prefix(byte[] buf) {
+            System.arraycopy(MAGIC, 0, buf, 0, MAGIC.length);
+            int n = MAGIC.length;
+            buf[n++] = VERSION;
+            buf[n++] = (byte) family;
+            return n;
+        }
+
+        /**
+         * Writes header, payload and checksum.
+         *
+         * @param it the measured ranges again
+         */
+        <X extends Exception> void write(Iterator<? extends Range<?>> it, Sink<X> sink) throws X {
+            byte[] buf = new byte[BUFFER];
+            var crc = new CRC32C();
+            int n = header(buf);
+            count = 0;
+            n = payload(it, buf, n, crc, sink);
+            crc.update(buf, 0, n);
+            n = checksum(buf, n, (int) crc.getValue());
+            sink.write(buf, n);
+        }
+
+        /**
+         * Writes payload and checksum then goes back for the header.
+         */
+        void write(Iterator<? extends Range<?>> it, FileChannel channel) throws IOException {
+            long start = channel.position();
+            channel.position(start + PADDED_HEADER);
+            Sink<IOException> sink = (b, len) -> {
+                ByteBuffer bb = ByteBuffer.wrap(b, 0, len);
+                while (bb.hasRemaining()) {
+                    channel.write(bb);
+                }
+            };
+            byte[] buf = new byte[BUFFER];
+            var crc = new CRC32C();
+            int n = payload(it, buf, 0, crc, sink);
+            crc.update(buf, 0, n);
+            length = channel.position() - start - PADDED_HEADER + n;
+
+            byte[] header = new byte[PADDED_HEADER];
+            int h = prefix(header);
+            h = paddedVarint(header, h, count);
+            paddedVarint(header, h, length);
+            var headerCrc = new CRC32C();
+            headerCrc.update(header);
+            n = checksum(buf, n, combine((int) headerCrc.getValue(), (int) crc.getValue(), length));
+            sink.write(buf, n);
+
+            ByteBuffer bb = ByteBuffer.wrap(header);
+            long position = start;
+            while (bb.hasRemaining()) {
+                position += channel.write(bb, position);
+            }
+        }
+
+        private <X extends Exception> int payload(Iterator<? extends Range<?>> it, byte[] buf, int offset, CRC32C crc, Sink<X> sink) throws X {
+            int n = offset;
+            while (it.hasNext()) {
+                // room for both varints and the checksum
+                if (buf.length - n < MAX_VARINT * 2 + CHECKSUM) {
+                    crc.update(buf, 0, n);
+                    sink.write(buf, n);
+                    n = 0;
+                }
+                delta(it.next());
+                n = varint(buf, n, gh, gl);
+                n = varint(buf, n, sh, sl);
+            }
+            return n;
+        }
+
+        private static int checksum(byte[] buf, int offset, int sum) {
+            int n = offset;
+            for (int shift = 24; shift >= 0; shift -= Byte.SIZE) {
+                buf[n++] = (byte) (sum >> shift);
+            }
+            return n;
+        }
+    }
+
+    private abstract static class Source<X extends Exception> {
+        /**
+         * Reads exactly {@code len} bytes.
+         */
+        abstract void read(byte[] b, int len) throws X;
+
+        static Source<IOException> of(InputStream in) {
+            return new Source<>() {
+                @Override
+                void read(byte[] b, int len) throws IOException {
+                    if (in.readNBytes(b, 0, len) != len) {
+                        throw new EOFException("Encoded set truncated");
+                    }
+                }
+            };
+        }
+
+        static Source<RuntimeException> of(ByteBuffer in) {
+            return new Source<>() {
+                @Override
+                void read(byte[] b, int len) {
+                    validate(in.remaining() >= len, "Encoded set truncated", in, ParseException::new);
+                    in.get(b, 0, len);
+                }
+            };
+        }
+    }
+
+    private static final class Decoder<X extends Exception> {
+        private final Source<X> source;
+        private final CRC32C crc = new CRC32C();
+        private final byte[] buf = new byte[BUFFER];
+        private int pos;
+        private int limit;
+        private long remaining;
+        private long count;
+        private long length;
+        // previous last
+        private long ph;
+        private long pl;
+        // last decoded varint
+        private long vh;
+        private long vl;
+
+        Decoder(Source<X> source) {
+            this.source = source;
+        }
+
+        @SuppressWarnings("unchecked")
+        <A extends Addr<A>> AddressSet<A> read(Family<A> expected) throws X {
+            Family<A> family = header(expected);
+            // header is untrusted so storage grows with ranges actually decoded
+            List<Range<A>> ranges = new ArrayList<>((int) Math.min(count, BUFFER));
+            for (int i = 0; i < count; i++) {
+                ranges.add(range(family, i));
+            }
+            trailer();
+            return AddressSets.fromSorted(ranges.toArray(new Range[0]));
+        }
+
+        @SuppressWarnings("unchecked")
+        <A extends Addr<A>> Family<A> header(Family<A> expected) throws X {
+            byte[] header = new byte[MAGIC.length + 2];
+            source.read(header, header.length);
+            crc.update(header);
+            for (int i = 0; i < MAGIC.length; i++) {
+                validate(header[i] == MAGIC[i], "Not an encoded address set", header[i], ParseException::new);
+            }
+            validate(header[MAGIC.length] == VERSION, "Unsupported version", header[MAGIC.length], ParseException::new);
+            int tag = header[MAGIC.length + 1];
+            validate(tag == EMPTY || tag == V4 || tag == V6, "Unknown family", tag, ParseException::new);
+            Family<?> family = tag == V4 ? Family.v4() : Family.v6();
+            validate(expected == null || tag == EMPTY || expected == family, "Wrong IP type", family, ParseException::new);
+
+            // header varints are read one byte at a time to avoid consuming payload
+            remaining = MAX_VARINT * 2;
+            count = headerVarint();
+            length = headerVarint();
+            validate(tag != EMPTY || count == 0, "Empty set has ranges", count, ParseException::new);
+            validate(count <= length / 2, "Range count exceeds payload", count, ParseException::new);
+            validate(count < Integer.MAX_VALUE, "Too many ranges", count, ParseException::new);
+            remaining = length;
+            return (Family<A>) family;
+        }
+
+        void trailer() throws X {
+            validate(remaining == 0 && pos == limit, "Payload length mismatch", length, ParseException::new);
+
+            int expectedSum = (int) crc.getValue();
+            source.read(buf, CHECKSUM);
+            int actualSum = 0;
+            for (int i = 0; i < CHECKSUM; i++) {
+                actualSum = (actualSum << Byte.SIZE) | (buf[i] & 0xFF);
+            }
+            validate(expectedSum == actualSum, "Checksum mismatch", actualSum, ParseException::new);
+        }
+
+        private long headerVarint() throws X {
+            varint(true);
+            validate(vh == 0 && vl >= 0, "Header value out of range", vl, ParseException::new);
+            return vl;
+        }
+
+        /**
+         * Decodes range at index.
+         */
+        <A extends Addr<A>> Range<A> range(Family<A> family, long i) throws X {
+            long maxHigh = family == Family.v4() ? 0 : -1L;
+            long maxLow = family == Family.v4() ? 0xFFFF_FFFFL : -1L;
+            varint(false);
+            long fh;
+            long fl;
+            if (i == 0) {
+                fh = vh;
+                fl = vl;
+            } else {
+                validate(!Unsigned.overflows(ph, pl, 0, 2), "Address overflow", i, ParseException::new);
+                long xl = pl + 2;
+                long xh = ph + Unsigned.carry(pl, 2);
+                validate(!Unsigned.overflows(xh, xl, vh, vl), "Address overflow", i, ParseException::new);
+                fl = xl + vl;
+                fh = xh + vh + Unsigned.carry(xl, vl);
+            }
+            varint(false);
+            validate(!Unsigned.overflows(fh, fl, vh, vl), "Address overflow", i, ParseException::new);
+            ph = fh + vh + Unsigned.carry(fl, vl);
+            pl = fl + vl;
+            validate(Unsigned.compare(ph, pl, maxHigh, maxLow) <= 0, "Address out of range", i, ParseException::new);
+            return AddressSets.range(family.parse(fh, fl), family.parse(ph, pl));
+        }
+
+        private int next(boolean header) throws X {
+            if (pos == limit) {
+                validate(remaining > 0, "Payload truncated", remaining, ParseException::new);
+                int len = header ? 1 : (int) Math.min(buf.length, remaining);
+                source.read(buf, len);
+                crc.update(buf, 0, len);
+                remaining -= len;
+                pos = 0;
+                limit = len;
+            }
+            return buf[pos++];
+        }
+
+        private void varint(boolean header) throws X {
+            long h = 0;
+            long l = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = next(header);
+                long v = b & 0x7F;
+                if (shift < Long.SIZE) {
+                    l |= v << shift;
+                    if (shift > Long.SIZE - 7) {
+                        h |= v >>> (Long.SIZE - shift);
+                    }
+                } else {
+                    validate(shift < 126 || v <= 3, "Varint overflow", shift, ParseException::new);
+                    h |= v << (shift - Long.SIZE);
+                }
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+                validate(shift < 126, "Varint too long", shift, ParseException::new);
+            }
+            vh = h;
+            vl = l;
+        }
+    }
+}
@@ -2,8 +2,9 @@ package uk.ipfreely.sets;
 
 import uk.ipfreely.Addr;
 
-import java.util.ArrayList;
+import java.util.AbstractCollection;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
@@ -12,28 +13,45 @@ import java.util.function.Supplier;
 import java.util.stream.Collector;
 
 final class AddressSetCollector<A extends Addr<A>> implements Collector<AddressSet<A>, Collection<AddressSet<A>>, AddressSet<A>> {
-    private static final AddressSetCollector<?> IMPL = new AddressSetCollector<>();
+    private static final AddressSetCollector<?> IMPL = new AddressSetCollector<>(SearchLayout.SORTED, false);
+    private static final AddressSetCollector<?> EYTZINGER = new AddressSetCollector<>(SearchLayout.EYTZINGER, false);
+    private static final AddressSetCollector<?> CONCURRENT = new AddressSetCollector<>(SearchLayout.SORTED, true);
 
-    private AddressSetCollector() {}
+    private final SearchLayout layout;
+    private final boolean concurrent;
+
+    private AddressSetCollector(SearchLayout layout, boolean concurrent) {
+        this.layout = layout;
+        this.concurrent = concurrent;
+    }
 
     @SuppressWarnings("unchecked")
-    static <A extends Addr<A>> AddressSetCollector<A> impl() {
-        return (AddressSetCollector<A>) IMPL;
+    static <A extends Addr<A>> AddressSetCollector<A> impl(SearchLayout layout) {
+        return (AddressSetCollector<A>) (layout == SearchLayout.EYTZINGER ? EYTZINGER : IMPL);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A extends Addr<A>> AddressSetCollector<A> concurrent() {
+        return (AddressSetCollector<A>) CONCURRENT;
+    }
+
+    static <A extends Addr<A>> Collector<A, ?, AddressSet<A>> addresses() {
+        return Collector.<A, RangeBuffer<A>, AddressSet<A>>of(
+                RangeBuffer::new,
+                RangeBuffer::addAddress,
+                AddressSetCollector::combine,
+                b -> b.toSet(SearchLayout.SORTED),
+                Characteristics.UNORDERED);
     }
 
     @Override
     public Supplier<Collection<AddressSet<A>>> supplier() {
-        return ArrayList::new;
+        return concurrent ? Striped::new : RangeBuffer::new;
     }
 
     @Override
     public BiConsumer<Collection<AddressSet<A>>, AddressSet<A>> accumulator() {
-        return AddressSetCollector::accumulate;
-    }
-
-    private static <A extends Addr<A>> void accumulate(Collection<AddressSet<A>> c, AddressSet<A> s) {
-        c.add(s);
-        compact(c);
+        return Collection::add;
     }
 
     @Override
@@ -41,27 +59,84 @@ final class AddressSetCollector<A extends Addr<A>> implements Collector<AddressS
         return AddressSetCollector::combine;
     }
 
-    private static <A extends Addr<A>> Collection<AddressSet<A>> combine(Collection<AddressSet<A>> c0, Collection<AddressSet<A>> c1) {
-        c0.addAll(c1);
-        compact(c0);
+    private static <C extends Collection<?>> C combine(C c0, C c1) {
+        @SuppressWarnings("unchecked")
+        Collection<Object> target = (Collection<Object>) c0;
+        target.addAll(c1);
         return c0;
     }
 
-    private static <A extends Addr<A>> void compact(Collection<AddressSet<A>> c) {
-        if (c.size() >= 512) {
-            AddressSet<A> compact = AddressSets.from(c);
-            c.clear();
-            c.add(compact);
-        }
-    }
-
     @Override
     public Function<Collection<AddressSet<A>>, AddressSet<A>> finisher() {
-        return AddressSets::from;
+        return c -> buffer(c).toSet(layout);
+    }
+
+    private static <A extends Addr<A>> RangeBuffer<A> buffer(Collection<AddressSet<A>> c) {
+        return c instanceof Striped<A> s ? s.merge() : (RangeBuffer<A>) c;
     }
 
     @Override
     public Set<Characteristics> characteristics() {
-        return Set.of();
+        return concurrent
+                ? Set.of(Characteristics.CONCURRENT, Characteristics.UNORDERED)
+                : Set.of(Characteristics.UNORDERED);
+    }
+
+    /**
+     * Thread-safe container spreading writers over independently locked buffers.
+     */
+    private static final class Striped<A extends Addr<A>> extends AbstractCollection<AddressSet<A>> {
+        private final RangeBuffer<A>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        Striped() {
+            int n = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+            stripes = new RangeBuffer[n];
+            for (int i = 0; i < n; i++) {
+                stripes[i] = new RangeBuffer<>();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public boolean add(AddressSet<A> set) {
+            RangeBuffer<A> stripe = stripes[(int) Hashing.mix(Thread.currentThread().getId()) & (stripes.length - 1)];
+            synchronized (stripe) {
+                return stripe.add(set);
+            }
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends AddressSet<A>> c) {
+            if (c instanceof Striped<?> s) {
+                @SuppressWarnings("unchecked")
+                RangeBuffer<A> other = ((Striped<A>) s).merge();
+                RangeBuffer<A> stripe = stripes[0];
+                synchronized (stripe) {
+                    return stripe.addAll(other);
+                }
+            }
+            return super.addAll(c);
+        }
+
+        RangeBuffer<A> merge() {
+            RangeBuffer<A> result = new RangeBuffer<>();
+            for (RangeBuffer<A> stripe : stripes) {
+                synchronized (stripe) {
+                    result.addAll(stripe);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Iterator<AddressSet<A>> iterator() {
+            return merge().iterator();
+        }
+
+        @Override
+        public int size() {
+            return merge().size();
+        }
     }
 }
@@ -5,6 +5,7 @@ package uk.ipfreely.sets;
 import uk.ipfreely.Addr;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Spliterator;
 import java.util.function.Consumer;
@@ -88,4 +89,10 @@ final class AddressSetSpliterator<A extends Addr<A>> implements Spliterator<A> {
                 ? estimate
                 : -1;
     }
+
+    @Override
+    public Comparator<? super A> getComparator() {
+        // null because A implements Comparable & everything SORTED in natural order
+        return null;
+    }
 }
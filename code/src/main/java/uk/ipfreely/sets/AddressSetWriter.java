@@ -0,0 +1,266 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Streams {@link AddressSet}s as text, one entry per line, through a reusable buffer.
+ *     Addresses are formatted without creating intermediate {@link String}s or {@link Block}s.
+ * </p>
+ * <ul>
+ *     <li>{@link #cidrNotation()}: minimal list of CIDR blocks like {@code 10.0.0.0/8}.</li>
+ *     <li>{@link #rangeNotation()}: one {@code first-last} line per {@link Range}; single addresses are written alone.</li>
+ * </ul>
+ * <p>
+ *     Output is US-ASCII and each line ends with {@code '\n'}.
+ *     Addresses are in canonical {@link Addr#toString()} form.
+ *     Sinks are neither flushed nor closed.
+ *     Instances are immutable and thread-safe.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     try (Writer out = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+ *         AddressSetWriter.cidrNotation().write(denyList, out);
+ *     }
+ * </code></pre>
+ */
+public final class AddressSetWriter {
+    private static final int BUFFER = 8192;
+
+    private final boolean cidr;
+    private final int chunk;
+
+    private AddressSetWriter(boolean cidr, int chunk) {
+        this.cidr = cidr;
+        this.chunk = chunk;
+    }
+
+    /**
+     * Writes sets as the minimal list of CIDR blocks.
+     *
+     * @return writer
+     * @see Range#blocks()
+     * @see Block#cidrNotation()
+     */
+    public static AddressSetWriter cidrNotation() {
+        return new AddressSetWriter(true, 0);
+    }
+
+    /**
+     * Writes sets as one {@code first-last} line per {@link Range}.
+     * Ranges of a single address are written as the address alone.
+     *
+     * @return writer
+     * @see AddressSet#ranges()
+     */
+    public static AddressSetWriter rangeNotation() {
+        return new AddressSetWriter(false, 0);
+    }
+
+    /**
+     * <p>
+     *     Version of this writer that formats chunks of ranges on the {@link ForkJoinPool#commonPool()}.
+     *     Output order is preserved.
+     *     Only a bounded number of formatted chunks are held in memory.
+     * </p>
+     *
+     * @param rangesPerChunk number of {@link Range}s formatted per task; must be greater than zero
+     * @return parallel writer
+     */
+    public AddressSetWriter parallel(int rangesPerChunk) {
+        validate(rangesPerChunk > 0, "Chunk size must be greater than zero", rangesPerChunk, IllegalArgumentException::new);
+        return new AddressSetWriter(cidr, rangesPerChunk);
+    }
+
+    /**
+     * Writes set to character stream.
+     *
+     * @param set source
+     * @param out destination
+     * @throws IOException on I/O error
+     */
+    public void write(AddressSet<?> set, Writer out) throws IOException {
+        char[] chars = new char[BUFFER];
+        write(set, (bytes, len) -> {
+            for (int off = 0; off < len; off += chars.length) {
+                int n = Math.min(chars.length, len - off);
+                for (int i = 0; i < n; i++) {
+                    chars[i] = (char) bytes[off + i];
+                }
+                out.write(chars, 0, n);
+            }
+        });
+    }
+
+    /**
+     * Writes set to byte stream as US-ASCII.
+     *
+     * @param set source
+     * @param out destination
+     * @throws IOException on I/O error
+     */
+    public void write(AddressSet<?> set, OutputStream out) throws IOException {
+        write(set, (bytes, len) -> out.write(bytes, 0, len));
+    }
+
+    /**
+     * Writes set to channel as US-ASCII.
+     * The channel should be in blocking mode.
+     *
+     * @param set source
+     * @param out destination
+     * @throws IOException on I/O error
+     */
+    public void write(AddressSet<?> set, WritableByteChannel out) throws IOException {
+        write(set, (bytes, len) -> {
+            ByteBuffer buf = ByteBuffer.wrap(bytes, 0, len);
+            while (buf.hasRemaining()) {
+                out.write(buf);
+            }
+        });
+    }
+
+    private <A extends Addr<A>> void write(AddressSet<A> set, Sink sink) throws IOException {
+        Iterator<Range<A>> ranges = set.ranges().iterator();
+        if (chunk > 0) {
+            parallel(ranges, sink);
+            return;
+        }
+        Buffer buf = new Buffer(sink);
+        while (ranges.hasNext()) {
+            format(ranges.next(), buf);
+        }
+        buf.drain();
+    }
+
+    private <A extends Addr<A>> void parallel(Iterator<Range<A>> ranges, Sink sink) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int window = Math.max(2, pool.getParallelism() * 2);
+        Deque<ForkJoinTask<Buffer>> pending = new ArrayDeque<>(window);
+        while (ranges.hasNext()) {
+            List<Range<A>> batch = new ArrayList<>(chunk);
+            while (batch.size() < chunk && ranges.hasNext()) {
+                batch.add(ranges.next());
+            }
+            pending.add(pool.submit(() -> format(batch)));
+            if (pending.size() >= window) {
+                pending.remove().join().drain(sink);
+            }
+        }
+        while (!pending.isEmpty()) {
+            pending.remove().join().drain(sink);
+        }
+    }
+
+    private <A extends Addr<A>> Buffer format(List<Range<A>> batch) throws IOException {
+        Buffer buf = new Buffer(null);
+        for (Range<A> r : batch) {
+            format(r, buf);
+        }
+        return buf;
+    }
+
+    private void format(Range<?> r, Buffer buf) throws IOException {
+        Addr<?> first = r.first();
+        Addr<?> last = r.last();
+        int width = first.family().width();
+        if (cidr) {
+            blocks(buf, width, first.highBits(), first.lowBits(), last.highBits(), last.lowBits());
+        } else {
+            range(buf, width, first.highBits(), first.lowBits(), last.highBits(), last.lowBits());
+        }
+    }
+
+    private static void blocks(Buffer buf, int width, long fh, long fl, long lh, long ll) throws IOException {
+        long h = fh;
+        long l = fl;
+        while (true) {
+            int bits = Unsigned.blockBits(h, l, lh, ll, width);
+            buf.reserve(Ascii.MAX_CIDR);
+            byte[] bytes = buf.bytes;
+            int n = Ascii.address(bytes, buf.length, h, l, width);
+            bytes[n++] = '/';
+            n = Ascii.decimal(bytes, n, width - bits);
+            bytes[n++] = '\n';
+            buf.length = n;
+
+            long eh = h | Unsigned.hostMaskHigh(bits);
+            long el = l | Unsigned.hostMaskLow(bits);
+            if (eh == lh && el == ll) {
+                return;
+            }
+            l = el + 1;
+            h = l == 0 ? eh + 1 : eh;
+        }
+    }
+
+    private static void range(Buffer buf, int width, long fh, long fl, long lh, long ll) throws IOException {
+        buf.reserve(Ascii.MAX_RANGE);
+        byte[] bytes = buf.bytes;
+        int n = Ascii.address(bytes, buf.length, fh, fl, width);
+        if (fh != lh || fl != ll) {
+            bytes[n++] = '-';
+            n = Ascii.address(bytes, n, lh, ll, width);
+        }
+        bytes[n++] = '\n';
+        buf.length = n;
+    }
+
+    @FunctionalInterface
+    private interface Sink {
+        void write(byte[] bytes, int len) throws IOException;
+    }
+
+    /**
+     * Flushes to sink when full or grows when there is no sink.
+     */
+    private static final class Buffer {
+        private final Sink sink;
+        byte[] bytes = new byte[BUFFER];
+        int length;
+
+        Buffer(Sink sink) {
+            this.sink = sink;
+        }
+
+        void reserve(int n) throws IOException {
+            if (bytes.length - length >= n) {
+                return;
+            }
+            if (sink == null) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            } else {
+                drain();
+            }
+        }
+
+        void drain() throws IOException {
+            drain(sink);
+        }
+
+        void drain(Sink target) throws IOException {
+            if (length > 0) {
+                target.write(bytes, length);
+                length = 0;
+            }
+        }
+    }
+}
@@ -5,12 +5,15 @@ package uk.ipfreely.sets;
 import uk.ipfreely.Addr;
 import uk.ipfreely.Family;
 import uk.ipfreely.ParseException;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
 
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import static uk.ipfreely.sets.Validation.validate;
 
@@ -67,20 +70,82 @@ public final class AddressSets {
      * @param <A> address type
      * @param <S> set type
      */
-    @SuppressWarnings("unchecked")
     public static <A extends Addr<A>, S extends AddressSet<A>> AddressSet<A> from(Iterable<S> sets) {
+        return from(sets, SearchLayout.SORTED);
+    }
+
+    /**
+     * <p>Version of {@link #from(Iterable)} with explicit {@link SearchLayout}.</p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     AddressSet&lt;V6&gt; reputation = AddressSets.from(blocks, SearchLayout.EYTZINGER);
+     * </code></pre>
+     *
+     * @param sets source sets
+     * @param layout lookup structure for sets of more than one range
+     * @return union of given sets
+     * @param <A> address type
+     * @param <S> set type
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Addr<A>, S extends AddressSet<A>> AddressSet<A> from(Iterable<S> sets, SearchLayout layout) {
+        Objects.requireNonNull(layout);
         var sorted = new TreeSet<Range<A>>(AddressSets::compare);
         for (S set : sets) {
             set.ranges().forEach(r -> rationalize(sorted, r));
         }
-        final Range<A>[] data = sorted.toArray(new Range[0]);
-        if (data.length == 0) {
+        return fromSorted(sorted.toArray(new Range[0]), layout);
+    }
+
+    /**
+     * <p>
+     *     Version of {@link #from(Iterable, SearchLayout)} that uses the {@link ForkJoinPool#commonPool()}.
+     *     Input sets are merged pairwise up a balanced tree; each merge is a linear pass over sorted ranges.
+     *     Intended for hundreds of inputs or millions of ranges; for small inputs prefer {@link #from(Iterable)}.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     List&lt;AddressSet&lt;V4&gt;&gt; feeds = loadFeeds();
+     *     AddressSet&lt;V4&gt; policy = AddressSets.parallelFrom(feeds, SearchLayout.EYTZINGER);
+     * </code></pre>
+     *
+     * @param sets source sets
+     * @param layout lookup structure for sets of more than one range
+     * @return union of given sets
+     * @param <A> address type
+     * @param <S> set type
+     */
+    public static <A extends Addr<A>, S extends AddressSet<A>> AddressSet<A> parallelFrom(Collection<S> sets, SearchLayout layout) {
+        Objects.requireNonNull(layout);
+        return ParallelUnion.union(List.copyOf(sets), layout);
+    }
+
+    /**
+     * @param ranges ordered, non-contiguous ranges; array is retained
+     * @return set
+     * @param <A> address type
+     */
+    static <A extends Addr<A>> AddressSet<A> fromSorted(Range<A>[] ranges) {
+        return fromSorted(ranges, SearchLayout.SORTED);
+    }
+
+    /**
+     * @param ranges ordered, non-contiguous ranges; array is retained
+     * @param layout search layout
+     * @return set
+     * @param <A> address type
+     */
+    @SuppressWarnings("unchecked")
+    static <A extends Addr<A>> AddressSet<A> fromSorted(Range<A>[] ranges, SearchLayout layout) {
+        if (ranges.length == 0) {
             return (AddressSet<A>) Empty.IMPL;
         }
-        if (data.length == 1) {
-            return data[0];
+        if (ranges.length == 1) {
+            return ranges[0];
         }
-        return new ArraySet<>(data);
+        return layout == SearchLayout.EYTZINGER
+                ? new EytzingerSet<>(ranges)
+                : new ArraySet<>(ranges);
     }
 
     /**
@@ -98,9 +163,9 @@ public final class AddressSets {
         if (collection instanceof AddressSet<A> as) {
             return as;
         }
-        return StreamSupport.stream(collection.spliterator(), false)
-                .map(AddressSets::address)
-                .collect(collector());
+        RangeBuffer<A> buffer = new RangeBuffer<>();
+        collection.forEach(buffer::addAddress);
+        return buffer.toSet(SearchLayout.SORTED);
     }
 
     private static <A extends Addr<A>> void rationalize(SortedSet<Range<A>> target, Range<A> r) {
@@ -146,6 +211,11 @@ public final class AddressSets {
                 return BigInteger.ONE;
             }
 
+            @Override
+            public long sizeAsLong() {
+                return 1;
+            }
+
             @Override
             public int maskSize() {
                 return first().family().width();
@@ -184,10 +254,24 @@ public final class AddressSets {
         validate(maskSize <= width, "Mask must not exceed address width 32 (IPv4) or 128 (IPv6)", maskSize, IllegalArgumentException::new);
         validate(first.trailingZeros() >= width - maskSize, "Mask must cover network address bits", maskSize, IllegalArgumentException::new);
 
-        var masks = family.subnets().masks();
-        final A complement = masks.get(maskSize).not();
-        final A last = first.or(complement);
-        return block(first, last);
+        return compact(first, maskSize);
+    }
+
+    /**
+     * @param first network address with zero host bits
+     * @param maskSize valid mask size for first
+     * @return block
+     * @param <A> address type
+     */
+    @SuppressWarnings("unchecked")
+    static <A extends Addr<A>> Block<A> compact(A first, int maskSize) {
+        if (maskSize == first.family().width()) {
+            return address(first);
+        }
+        Block<?> block = first instanceof V4 v4
+                ? new V4Block(v4, maskSize)
+                : new V6Block((V6) first, maskSize);
+        return (Block<A>) block;
     }
 
     /**
@@ -204,31 +288,9 @@ public final class AddressSets {
      * @return block
      */
     public static <A extends Addr<A>> Block<A> block(final A first, final A last) {
-        if (first.equals(last)) {
-            return address(first);
-        }
-
-        final class AddressBlock extends AbstractRange<A> implements Block<A> {
-
-            @Override
-            public A first() {
-                return first;
-            }
-
-            @Override
-            public A last() {
-                return last;
-            }
-
-            @Override
-            public String toString() {
-                return "{" + cidrNotation() + "}";
-            }
-        }
-
-        var block = new AddressBlock();
-        validate(first.family().subnets().maskBits(first, last) >= 0, "Not an IP block", block, IllegalArgumentException::new);
-        return block;
+        int maskSize = first.family().subnets().maskBits(first, last);
+        validate(maskSize >= 0, "Not an IP block", "{" + first + "-" + last + "}", IllegalArgumentException::new);
+        return compact(first, maskSize);
     }
 
     /**
@@ -310,14 +372,163 @@ public final class AddressSets {
     }
 
     /**
-     * {@link Collector} for creating {@link AddressSet} from {@link Stream}.
-     * This collector reduces intermediate states when the number of sets reaches a threshold.
+     * <p>
+     *     {@link Collector} for creating {@link AddressSet} from {@link Stream}.
+     *     Ranges accumulate in primitive buffers which are coalesced when full,
+     *     so memory is proportional to the distinct ranges seen rather than the number of sets.
+     *     Parallel streams merge sorted per-thread buffers.
+     * </p>
+     * <p>
+     *     The collector is {@link Collector.Characteristics#UNORDERED}.
+     * </p>
      *
      * @return collector
+     * @see #concurrentCollector()
+     * @see #addressCollector()
      * @param <A> address family
      */
     public static <A extends Addr<A>> Collector<AddressSet<A>, Collection<AddressSet<A>>, AddressSet<A>> collector() {
-        return AddressSetCollector.impl();
+        return AddressSetCollector.impl(SearchLayout.SORTED);
+    }
+
+    /**
+     * Version of {@link #collector()} with explicit {@link SearchLayout}.
+     *
+     * @param layout lookup structure for sets of more than one range
+     * @return collector
+     * @param <A> address family
+     */
+    public static <A extends Addr<A>> Collector<AddressSet<A>, Collection<AddressSet<A>>, AddressSet<A>> collector(SearchLayout layout) {
+        return AddressSetCollector.impl(Objects.requireNonNull(layout));
+    }
+
+    /**
+     * <p>
+     *     Version of {@link #collector()} that is {@link Collector.Characteristics#CONCURRENT}.
+     *     Parallel streams accumulate into a single container whose buffers are striped by thread,
+     *     avoiding per-thread containers and the combine step.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     AddressSet&lt;V4&gt; seen = log.parallelStream()
+     *                 .map(entry -&gt; entry.source())
+     *                 .map(AddressSets::address)
+     *                 .collect(AddressSets.concurrentCollector());
+     * </code></pre>
+     *
+     * @return collector
+     * @param <A> address family
+     */
+    public static <A extends Addr<A>> Collector<AddressSet<A>, Collection<AddressSet<A>>, AddressSet<A>> concurrentCollector() {
+        return AddressSetCollector.concurrent();
+    }
+
+    /**
+     * <p>
+     *     {@link Collector} for creating {@link AddressSet} from a {@link Stream} of addresses.
+     *     Addresses are buffered as primitive values without creating an intermediate set per address.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     AddressSet&lt;V6&gt; seen = log.stream()
+     *                 .map(entry -&gt; entry.source())
+     *                 .collect(AddressSets.addressCollector());
+     * </code></pre>
+     *
+     * @return collector
+     * @param <A> address family
+     */
+    public static <A extends Addr<A>> Collector<A, ?, AddressSet<A>> addressCollector() {
+        return AddressSetCollector.addresses();
+    }
+
+    /**
+     * <p>
+     *     Least over-covering approximation of a set by at most a given number of CIDR blocks.
+     *     Suits devices such as hardware ACLs and security groups with entry limits.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     BlockCover&lt;V4&gt; acl = AddressSets.cover(denyList, 250);
+     *     BigInteger collateral = acl.overCoverage();
+     * </code></pre>
+     *
+     * @param set addresses to cover
+     * @param maxBlocks block limit; at least one
+     * @return optimal cover
+     * @param <A> address type
+     * @throws IllegalArgumentException if limit is less than one
+     */
+    public static <A extends Addr<A>> BlockCover<A> cover(AddressSet<A> set, int maxBlocks) {
+        validate(maxBlocks >= 1, "Block limit must be at least 1", maxBlocks, IllegalArgumentException::new);
+        return BlockCover.of(set, maxBlocks);
+    }
+
+    /**
+     * <p>
+     *     Uniform random sampler of set members.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     Sampler&lt;V4&gt; sampler = AddressSets.sampler(pool, RandomGenerator.getDefault());
+     *     List&lt;V4&gt; ten = sampler.distinct(10);
+     * </code></pre>
+     *
+     * @param set non-empty source
+     * @param rng source of randomness; the sampler's stream splits if this is a
+     *            {@link java.util.random.RandomGenerator.SplittableGenerator}
+     * @return sampler
+     * @param <A> address type
+     * @throws IllegalArgumentException if set is empty
+     */
+    public static <A extends Addr<A>> Sampler<A> sampler(AddressSet<A> set, RandomGenerator rng) {
+        return Sampler.of(Objects.requireNonNull(set), Objects.requireNonNull(rng));
+    }
+
+    /**
+     * <p>
+     *     Keyed pseudo-random order over set members.
+     *     Each member is visited exactly once without holding the order in memory.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     Permutation&lt;V4&gt; order = AddressSets.permutation(targets, seed);
+     *     Iterator&lt;V4&gt; resumed = order.iterator(checkpoint, order.size());
+     * </code></pre>
+     *
+     * @param set source
+     * @param key selects the order; equal keys produce equal orders for equal sets
+     * @return permutation
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Permutation<A> permutation(AddressSet<A> set, long key) {
+        return Permutation.of(Objects.requireNonNull(set), key);
+    }
+
+    /**
+     * <p>
+     *     Compiles set to a predicate over primitive address values.
+     * </p>
+     * <p>
+     *     A hidden class is generated for the set containing a balanced tree of comparisons
+     *     against constant range boundaries.
+     *     The JIT can inline the resulting straight-line code into callers,
+     *     avoiding the interface dispatch and address object comparisons of {@link AddressSet#contains(Addr)}.
+     *     Intended for sets of a few to a few thousand ranges evaluated many times;
+     *     generation costs milliseconds and each class occupies metaspace until the predicate becomes unreachable.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     AddressPredicate blocked = AddressSets.compile(denyList);
+     *     boolean drop = blocked.test(packetSourceIPv4);
+     * </code></pre>
+     *
+     * @param set source
+     * @return compiled predicate
+     * @throws IllegalArgumentException if set has more than 4096 ranges
+     */
+    public static AddressPredicate compile(AddressSet<?> set) {
+        return SetCompiler.compile(Objects.requireNonNull(set));
     }
 
     private static final class Empty<A extends Addr<A>> extends AbstractAddressSet<A> {
@@ -348,51 +559,4 @@ public final class AddressSets {
             return "{}";
         }
     }
-
-    private static final class ArraySet<A extends Addr<A>> extends AbstractAddressSet<A> {
-        private final Range<A>[] ranges;
-
-        ArraySet(Range<A>[] ranges) {
-            this.ranges = ranges;
-        }
-
-        @Override
-        public Stream<Range<A>> ranges() {
-            return Stream.of(ranges);
-        }
-
-        @Override
-        public boolean contains(Addr<?> address) {
-            for (Range<A> range : ranges) {
-                if (range.contains(address)) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        @Override
-        public Iterator<A> iterator() {
-            return new RangeArrayIterator<>(ranges);
-        }
-
-        @Override
-        public boolean isEmpty() {
-            return false;
-        }
-
-        @Override
-        public String toString() {
-            final int LIMIT = 5;
-            var buf = new StringJoiner(", ", "{", "}");
-            for (int i = 0; i < Math.min(ranges.length, LIMIT); i++) {
-                buf.add(ranges[i].toString());
-            }
-            if (ranges.length > LIMIT) {
-                buf.add("[" + ranges.length + "...]");
-            }
-            return buf.toString();
-        }
-    }
-
 }
@@ -0,0 +1,218 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Family;
+
+import java.util.Arrays;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Linear probing hash table of primitive address keys with optional values.
+ *     IPv4 keys are held as {@code int}s and IPv6 keys as pairs of {@code long}s.
+ *     Occupancy is a bitmap so every key value is usable.
+ *     Removal shifts following entries back so there are no tombstones.
+ * </p>
+ * <p>
+ *     Keys are hashed with a 64-bit finalizer so addresses differing only in high bits spread evenly.
+ * </p>
+ */
+final class AddressTable {
+    private static final int MIN = 16;
+    private static final int MAX = 1 << 30;
+    // keeps two longs per slot within array limits
+    private static final int MAX_WIDE = MAX / 2;
+
+    private final boolean narrow;
+    private final boolean valued;
+    private final int max;
+    private int[] narrowKeys;
+    private long[] wideKeys;
+    private long[] used;
+    private Object[] values;
+    private int mask;
+    private int size;
+    // size that triggers growth
+    private int limit;
+
+    AddressTable(Family<?> family, int expected, boolean valued) {
+        validate(expected >= 0, "Expected size must not be negative", expected, IllegalArgumentException::new);
+        this.narrow = family == Family.v4();
+        this.valued = valued;
+        this.max = maxCapacity(family);
+        allocate(capacity(family, expected));
+    }
+
+    /**
+     * @return power of two holding expected keys under the load limit, within bounds for family
+     */
+    static int capacity(Family<?> family, int expected) {
+        long needed = expected + (expected + 2) / 3L;
+        return (int) Math.max(MIN, Math.min(maxCapacity(family), Long.highestOneBit(needed) << 1));
+    }
+
+    static int maxCapacity(Family<?> family) {
+        return family == Family.v4() ? MAX : MAX_WIDE;
+    }
+
+    private void allocate(int capacity) {
+        mask = capacity - 1;
+        limit = capacity - capacity / 4;
+        narrowKeys = narrow ? new int[capacity] : null;
+        wideKeys = narrow ? null : new long[capacity * 2];
+        used = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+        values = valued ? new Object[capacity] : null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int home(long high, long low) {
+        return (int) Hashing.address(high, low) & mask;
+    }
+
+    private boolean occupied(int slot) {
+        return (used[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    private boolean matches(int slot, long high, long low) {
+        return narrow
+                ? narrowKeys[slot] == (int) low
+                : wideKeys[slot * 2 + 1] == low && wideKeys[slot * 2] == high;
+    }
+
+    long high(int slot) {
+        return narrow ? 0 : wideKeys[slot * 2];
+    }
+
+    long low(int slot) {
+        return narrow ? narrowKeys[slot] & 0xFFFFFFFFL : wideKeys[slot * 2 + 1];
+    }
+
+    Object value(int slot) {
+        return values[slot];
+    }
+
+    void value(int slot, Object value) {
+        values[slot] = value;
+    }
+
+    /**
+     * @return slot of key or -1
+     */
+    int indexOf(long high, long low) {
+        for (int i = home(high, low); occupied(i); i = (i + 1) & mask) {
+            if (matches(i, high, low)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return slot of existing key or {@code -slot - 1} of inserted key
+     */
+    int insert(long high, long low) {
+        int i = home(high, low);
+        for (; occupied(i); i = (i + 1) & mask) {
+            if (matches(i, high, low)) {
+                return i;
+            }
+        }
+        if (size >= limit) {
+            grow();
+            return insert(high, low);
+        }
+        write(i, high, low);
+        size++;
+        return -i - 1;
+    }
+
+    private void write(int slot, long high, long low) {
+        if (narrow) {
+            narrowKeys[slot] = (int) low;
+        } else {
+            wideKeys[slot * 2] = high;
+            wideKeys[slot * 2 + 1] = low;
+        }
+        used[slot >>> 6] |= 1L << slot;
+    }
+
+    private void grow() {
+        validate(mask + 1 < max, "Table capacity exceeded", size, IllegalStateException::new);
+        int[] oldNarrow = narrowKeys;
+        long[] oldWide = wideKeys;
+        long[] oldUsed = used;
+        Object[] oldValues = values;
+        int oldCapacity = mask + 1;
+        allocate(oldCapacity * 2);
+        for (int s = next(oldUsed, 0, oldCapacity); s >= 0; s = next(oldUsed, s + 1, oldCapacity)) {
+            long high = narrow ? 0 : oldWide[s * 2];
+            long low = narrow ? oldNarrow[s] & 0xFFFFFFFFL : oldWide[s * 2 + 1];
+            int i = home(high, low);
+            while (occupied(i)) {
+                i = (i + 1) & mask;
+            }
+            write(i, high, low);
+            if (valued) {
+                values[i] = oldValues[s];
+            }
+        }
+    }
+
+    /**
+     * Removes entry shifting later entries of the probe sequence back.
+     */
+    void removeAt(int slot) {
+        int gap = slot;
+        for (int j = (slot + 1) & mask; occupied(j); j = (j + 1) & mask) {
+            int home = home(high(j), low(j));
+            // move unless home lies cyclically in (gap, j]
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                write(gap, high(j), low(j));
+                if (valued) {
+                    values[gap] = values[j];
+                }
+                gap = j;
+            }
+        }
+        used[gap >>> 6] &= ~(1L << gap);
+        if (valued) {
+            values[gap] = null;
+        }
+        size--;
+    }
+
+    void clear() {
+        Arrays.fill(used, 0);
+        if (valued) {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * @return first occupied slot not less than from or -1
+     */
+    int next(int from) {
+        return next(used, from, mask + 1);
+    }
+
+    private static int next(long[] bits, int from, int capacity) {
+        if (from >= capacity) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = bits[w] & -1L << from;
+        while (word == 0) {
+            if (++w == bits.length) {
+                return -1;
+            }
+            word = bits[w];
+        }
+        return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+}
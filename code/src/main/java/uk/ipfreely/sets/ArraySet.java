@@ -0,0 +1,176 @@
+// Copyright 2024-2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * Set of two or more ordered, non-contiguous ranges.
+ * {@link #contains(Addr)} is a binary search.
+ * Prefix sums of range sizes answer {@link #rank(Addr)} and {@link #select(BigInteger)} by binary search.
+ *
+ * @param <A> address type
+ */
+class ArraySet<A extends Addr<A>> extends AbstractAddressSet<A> {
+    final Range<A>[] ranges;
+    // 128-bit count of addresses in ranges before index; last element is the size
+    private final long[] beforeHigh;
+    private final long[] beforeLow;
+    private final BigInteger size;
+
+    /**
+     * @param ranges ordered, non-contiguous ranges; array is retained
+     */
+    ArraySet(Range<A>[] ranges) {
+        this.ranges = ranges;
+        int n = ranges.length;
+        beforeHigh = new long[n + 1];
+        beforeLow = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            A first = ranges[i].first();
+            A last = ranges[i].last();
+            // size = last - first + 1; cannot overflow as set is not the whole family
+            long sl = last.lowBits() - first.lowBits();
+            long sh = last.highBits() - first.highBits() - Unsigned.borrow(last.lowBits(), first.lowBits());
+            sh += Unsigned.carry(sl, 1);
+            sl++;
+            long l = beforeLow[i];
+            beforeLow[i + 1] = l + sl;
+            beforeHigh[i + 1] = beforeHigh[i] + sh + Unsigned.carry(l, sl);
+        }
+        size = Unsigned.toBigInteger(beforeHigh[n], beforeLow[n]);
+    }
+
+    @Override
+    public Stream<Range<A>> ranges() {
+        return Stream.of(ranges);
+    }
+
+    @Override
+    public boolean contains(Addr<?> address) {
+        if (address.family() != ranges[0].first().family()) {
+            return false;
+        }
+        int i = floor(address.highBits(), address.lowBits());
+        return i >= 0 && ranges[i].contains(address);
+    }
+
+    /**
+     * @return index of greatest range starting at or before value or -1
+     */
+    private int floor(long high, long low) {
+        int lo = 0;
+        int hi = ranges.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            A first = ranges[mid].first();
+            if (Unsigned.compare(first.highBits(), first.lowBits(), high, low) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi;
+    }
+
+    @Override
+    public BigInteger size() {
+        return size;
+    }
+
+    @Override
+    public long sizeAsLong() {
+        int n = ranges.length;
+        return beforeHigh[n] == 0 && beforeLow[n] >= 0 ? beforeLow[n] : -1;
+    }
+
+    @Override
+    boolean sameRanges(AddressSet<?> other) {
+        if (!(other instanceof ArraySet<?> o)) {
+            return super.sameRanges(other);
+        }
+        return Arrays.equals(ranges, o.ranges);
+    }
+
+    @Override
+    public BigInteger rank(A address) {
+        long high = address.highBits();
+        long low = address.lowBits();
+        int i = floor(high, low);
+        if (i < 0) {
+            return BigInteger.ZERO;
+        }
+        A first = ranges[i].first();
+        A last = ranges[i].last();
+        if (Unsigned.compare(high, low, last.highBits(), last.lowBits()) > 0) {
+            return Unsigned.toBigInteger(beforeHigh[i + 1], beforeLow[i + 1]);
+        }
+        // before + address - first
+        long dl = low - first.lowBits();
+        long dh = high - first.highBits() - Unsigned.borrow(low, first.lowBits());
+        long bl = beforeLow[i];
+        return Unsigned.toBigInteger(beforeHigh[i] + dh + Unsigned.carry(bl, dl), bl + dl);
+    }
+
+    @Override
+    public A select(BigInteger index) {
+        validate(index.signum() >= 0 && index.compareTo(size) < 0, "Index must be from zero to size exclusive", index, IndexOutOfBoundsException::new);
+        return select(index.shiftRight(Long.SIZE).longValue(), index.longValue());
+    }
+
+    /**
+     * @param high index high bits
+     * @param low index low bits; index must be less than size
+     * @return member at index
+     */
+    A select(long high, long low) {
+        // greatest range with before <= index
+        int lo = 0;
+        int hi = ranges.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Unsigned.compare(beforeHigh[mid], beforeLow[mid], high, low) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        A first = ranges[hi].first();
+        // first + index - before
+        long ol = low - beforeLow[hi];
+        long oh = high - beforeHigh[hi] - Unsigned.borrow(low, beforeLow[hi]);
+        long fl = first.lowBits();
+        return first.family().parse(first.highBits() + oh + Unsigned.carry(fl, ol), fl + ol);
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return new RangeArrayIterator<>(ranges);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        final int LIMIT = 5;
+        var buf = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < Math.min(ranges.length, LIMIT); i++) {
+            buf.add(ranges[i].toString());
+        }
+        if (ranges.length > LIMIT) {
+            buf.add("[" + ranges.length + "...]");
+        }
+        return buf.toString();
+    }
+}
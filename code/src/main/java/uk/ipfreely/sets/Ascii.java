@@ -0,0 +1,111 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation free address formatting.
+ * Output is identical to {@link uk.ipfreely.V4#toString()} and {@link uk.ipfreely.V6#toString()}.
+ */
+final class Ascii {
+    /** Longest possible CIDR line: 39 character IPv6 + "/128" + newline. */
+    static final int MAX_CIDR = 39 + 4 + 1;
+    /** Longest possible range line: two 39 character IPv6 + '-' + newline. */
+    static final int MAX_RANGE = 39 * 2 + 2;
+
+    private static final int SEGMENTS = 8;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private Ascii() {}
+
+    static int address(byte[] buf, int off, long high, long low, int width) {
+        return width == Integer.SIZE
+                ? v4(buf, off, (int) low)
+                : v6(buf, off, high, low);
+    }
+
+    static int v4(byte[] buf, int off, int value) {
+        int n = decimal(buf, off, (value >>> 24) & 0xFF);
+        buf[n++] = '.';
+        n = decimal(buf, n, (value >>> 16) & 0xFF);
+        buf[n++] = '.';
+        n = decimal(buf, n, (value >>> 8) & 0xFF);
+        buf[n++] = '.';
+        return decimal(buf, n, value & 0xFF);
+    }
+
+    static int v6(byte[] buf, int off, long high, long low) {
+        if (high == 0 && low >= 0xffff_0000_0000L && low <= 0xffff_ffff_ffffL) {
+            int n = off;
+            buf[n++] = ':';
+            buf[n++] = ':';
+            buf[n++] = 'f';
+            buf[n++] = 'f';
+            buf[n++] = 'f';
+            buf[n++] = 'f';
+            buf[n++] = ':';
+            return v4(buf, n, (int) low);
+        }
+        // longest run of zero segments; first wins
+        int z0 = -1;
+        int zn = -1;
+        int run = 0;
+        for (int i = 0; i < SEGMENTS; i++) {
+            if (segment(high, low, i) == 0) {
+                run++;
+                if (run > 1 && run > zn - z0) {
+                    z0 = i - run + 1;
+                    zn = i + 1;
+                }
+            } else {
+                run = 0;
+            }
+        }
+        if (z0 < 0) {
+            return hex(buf, off, high, low, 0, SEGMENTS);
+        }
+        int n = hex(buf, off, high, low, 0, z0);
+        buf[n++] = ':';
+        buf[n++] = ':';
+        return hex(buf, n, high, low, zn, SEGMENTS);
+    }
+
+    static int decimal(byte[] buf, int off, int value) {
+        int n = off;
+        if (value >= 100) {
+            buf[n++] = (byte) ('0' + value / 100);
+            buf[n++] = (byte) ('0' + value / 10 % 10);
+        } else if (value >= 10) {
+            buf[n++] = (byte) ('0' + value / 10);
+        }
+        buf[n++] = (byte) ('0' + value % 10);
+        return n;
+    }
+
+    private static int hex(byte[] buf, int off, long high, long low, int from, int to) {
+        int n = off;
+        for (int i = from; i < to; i++) {
+            if (i != from) {
+                buf[n++] = ':';
+            }
+            int s = segment(high, low, i);
+            boolean digits = false;
+            for (int shift = 12; shift > 0; shift -= 4) {
+                int nibble = (s >>> shift) & 0xF;
+                digits |= nibble != 0;
+                if (digits) {
+                    buf[n++] = HEX[nibble];
+                }
+            }
+            buf[n++] = HEX[s & 0xF];
+        }
+        return n;
+    }
+
+    private static int segment(long high, long low, int index) {
+        long bits = index < SEGMENTS / 2 ? high : low;
+        int shift = (3 - (index & 3)) * Short.SIZE;
+        return (int) (bits >>> shift) & 0xFFFF;
+    }
+}
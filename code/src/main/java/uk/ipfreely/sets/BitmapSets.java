@@ -0,0 +1,82 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Family;
+import uk.ipfreely.V4;
+
+import java.util.Objects;
+
+/**
+ * <p>
+ *     Static factory methods for compressed bitmap {@link AddressSet}s of {@link V4} addresses.
+ * </p>
+ * <p>
+ *     Sets of scattered addresses cost one {@link Range} per address when range-based.
+ *     Bitmap sets partition addresses by their high 16 bits into
+ *     <a target="_top" href="https://roaringbitmap.org/">roaring</a>-style containers:
+ *     sorted arrays, bitmaps or runs, whichever is smallest.
+ *     Membership tests are a binary search over at most 65536 keys and a container lookup.
+ * </p>
+ * <p>
+ *     Methods in this type choose the representation with the smaller estimated heap cost,
+ *     so results may be bitmap or range-based.
+ *     Either way results satisfy the {@link AddressSet} contract and are equal to the range-based equivalent.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     int[] observed = scannerLog.sourceAddresses();
+ *     AddressSet&lt;V4&gt; scanners = BitmapSets.of(observed);
+ *     AddressSet&lt;V4&gt; blocked = BitmapSets.intersection(scanners, customerRanges);
+ * </code></pre>
+ */
+public final class BitmapSets {
+    private BitmapSets() {}
+
+    /**
+     * Creates set from unsigned IPv4 values.
+     *
+     * @param addresses values as in {@link Family#parse(int)}; any order; duplicates permitted
+     * @return set of addresses
+     */
+    public static AddressSet<V4> of(int... addresses) {
+        return RoaringSet.of(addresses);
+    }
+
+    /**
+     * Converts set to bitmap or range-based representation, whichever is smaller.
+     *
+     * @param set source
+     * @return equal set
+     */
+    public static AddressSet<V4> compact(AddressSet<V4> set) {
+        if (set instanceof Range || set.isEmpty()) {
+            return set;
+        }
+        return RoaringSet.choose(RoaringSet.bitmap(set));
+    }
+
+    /**
+     * Union of sets.
+     * Operands are converted to bitmaps if necessary and combined container by container.
+     *
+     * @param a operand
+     * @param b operand
+     * @return addresses in either set
+     */
+    public static AddressSet<V4> union(AddressSet<V4> a, AddressSet<V4> b) {
+        return RoaringSet.choose(RoaringSet.union(RoaringSet.bitmap(Objects.requireNonNull(a)), RoaringSet.bitmap(Objects.requireNonNull(b))));
+    }
+
+    /**
+     * Intersection of sets.
+     * Operands are converted to bitmaps if necessary and combined container by container.
+     *
+     * @param a operand
+     * @param b operand
+     * @return addresses in both sets
+     */
+    public static AddressSet<V4> intersection(AddressSet<V4> a, AddressSet<V4> b) {
+        return RoaringSet.choose(RoaringSet.intersection(RoaringSet.bitmap(Objects.requireNonNull(a)), RoaringSet.bitmap(Objects.requireNonNull(b))));
+    }
+}
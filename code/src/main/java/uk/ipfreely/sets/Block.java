@@ -79,6 +79,16 @@ public interface Block<A extends Addr<A>> extends Range<A> {
         return first().family().subnets().count(maskSize());
     }
 
+    /**
+     * Number of {@link Addr}esses in block if it fits.
+     *
+     * @return block size or -1 if size is greater than {@link Long#MAX_VALUE}
+     */
+    default long sizeAsLong() {
+        int host = first().family().width() - maskSize();
+        return host < Long.SIZE - 1 ? 1L << host : -1;
+    }
+
     /**
      * Block is never empty.
      *
@@ -107,4 +117,73 @@ public interface Block<A extends Addr<A>> extends Range<A> {
 
         return StreamSupport.stream(new SubnetSpliterator<>(first, last(), size), false);
     }
+
+    /**
+     * <p>
+     *     Subnet at index in the order of {@link #subnets(int)} computed without enumeration.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     Block&lt;V6&gt; site = AddressSets.parseCidr(Family.v6(), "2001:db8:abcd::/48");
+     *     // 2001:db8:abcd:270f::/64
+     *     Block&lt;V6&gt; lan = site.subnet(64, BigInteger.valueOf(9_999));
+     * </code></pre>
+     *
+     * @param size between {@link #maskSize()} and {@link Family#width()} inclusive
+     * @param index from zero inclusive to 2<sup>size - maskSize()</sup> exclusive
+     * @return subnet block
+     * @throws IllegalArgumentException if size is out of bounds
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     * @see #subnetIndexOf(Block)
+     */
+    default Block<A> subnet(int size, BigInteger index) {
+        A first = first();
+        var family = first.family();
+        validate(size >= maskSize(), "Not enough mask bits", size, IllegalArgumentException::new);
+        validate(size <= family.width(), "Too many mask bits", size, IllegalArgumentException::new);
+        validate(index.signum() >= 0 && index.bitLength() <= size - maskSize(), "Index must be from zero to subnet count exclusive", index, IndexOutOfBoundsException::new);
+        A offset = family.parse(index).shift(size - family.width());
+        return AddressSets.compact(first.add(offset), size);
+    }
+
+    /**
+     * Version of {@link #subnet(int, BigInteger)} for indices that fit in {@code long}.
+     *
+     * @param size between {@link #maskSize()} and {@link Family#width()} inclusive
+     * @param index from zero inclusive to 2<sup>size - maskSize()</sup> exclusive
+     * @return subnet block
+     * @throws IllegalArgumentException if size is out of bounds
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    default Block<A> subnet(int size, long index) {
+        A first = first();
+        var family = first.family();
+        validate(size >= maskSize(), "Not enough mask bits", size, IllegalArgumentException::new);
+        validate(size <= family.width(), "Too many mask bits", size, IllegalArgumentException::new);
+        int bits = size - maskSize();
+        validate(index >= 0 && (bits >= Long.SIZE - 1 || index < 1L << bits), "Index must be from zero to subnet count exclusive", index, IndexOutOfBoundsException::new);
+        A offset = family.parse(0, index).shift(size - family.width());
+        return AddressSets.compact(first.add(offset), size);
+    }
+
+    /**
+     * <p>
+     *     Index of subnet in the order of {@link #subnets(int)} computed without enumeration.
+     * </p>
+     * <pre><code>
+     *     // EXAMPLE
+     *     Block&lt;V4&gt; pool = AddressSets.parseCidr(Family.v4(), "10.0.0.0/8");
+     *     // 513
+     *     BigInteger index = pool.subnetIndexOf(AddressSets.parseCidr(Family.v4(), "10.2.1.0/24"));
+     * </code></pre>
+     *
+     * @param subnet block within this block
+     * @return index such that {@code subnet(subnet.maskSize(), index)} equals subnet
+     * @throws IllegalArgumentException if subnet is not within this block
+     */
+    default BigInteger subnetIndexOf(Block<A> subnet) {
+        A first = first();
+        validate(subnet.maskSize() >= maskSize() && contains(subnet.first()), "Not a subnet", subnet, IllegalArgumentException::new);
+        return subnet.first().subtract(first).shift(first.family().width() - subnet.maskSize()).toBigInteger();
+    }
 }
@@ -0,0 +1,157 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Single pass aggregation of sorted addresses and ranges into the minimal list of CIDR {@link Block}s.
+ * </p>
+ * <p>
+ *     Input must be ordered by first address; duplicates, overlaps and adjacent input are merged.
+ *     A block is emitted as soon as it is the largest aligned block at its position,
+ *     or when a gap in the input shows nothing later can extend it.
+ *     Memory use is constant.
+ *     Output is the exact minimal decomposition of {@code AddressSets.from(input)},
+ *     the same blocks written by {@link AddressSetWriter#cidrNotation()}.
+ * </p>
+ * <p>
+ *     Instances are not thread-safe.
+ *     Use {@link #processor()} for a {@link Flow.Processor}.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     BlockAggregator&lt;V4&gt; aggregator = BlockAggregator.of(block -&gt; out.println(block.cidrNotation()));
+ *     sortedSources.forEach(aggregator::accept);
+ *     aggregator.complete();
+ * </code></pre>
+ *
+ * @param <A> address type
+ */
+public final class BlockAggregator<A extends Addr<A>> {
+    private final Consumer<? super Block<A>> sink;
+    // first of previous input for order check
+    private A previous;
+    // next address to emit; null if nothing pending
+    private A first;
+    // greatest address seen
+    private A last;
+    private boolean completed;
+
+    private BlockAggregator(Consumer<? super Block<A>> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Aggregator that pushes blocks to a consumer.
+     *
+     * @param sink receives blocks in ascending order
+     * @return aggregator
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> BlockAggregator<A> of(Consumer<? super Block<A>> sink) {
+        return new BlockAggregator<>(Objects.requireNonNull(sink));
+    }
+
+    /**
+     * <p>
+     *     {@link Flow.Processor} version supporting one subscriber.
+     *     Input is requested in batches as the subscriber signals demand
+     *     so memory is bounded by the batch size.
+     * </p>
+     *
+     * @return new processor
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Flow.Processor<Range<A>, Block<A>> processor() {
+        return new BlockProcessor<>();
+    }
+
+    /**
+     * Adds address.
+     *
+     * @param address not less than the first address of any previous input
+     * @throws IllegalArgumentException if out of order
+     * @throws IllegalStateException if complete
+     */
+    public void accept(A address) {
+        add(address, address);
+    }
+
+    /**
+     * Adds range.
+     *
+     * @param range first address not less than the first address of any previous input
+     * @throws IllegalArgumentException if out of order
+     * @throws IllegalStateException if complete
+     */
+    public void accept(Range<A> range) {
+        add(range.first(), range.last());
+    }
+
+    private void add(A f, A l) {
+        validate(!completed, "Aggregator is complete", f, IllegalStateException::new);
+        validate(previous == null || previous.compareTo(f) <= 0, "Input must be ordered by first address", f, IllegalArgumentException::new);
+        previous = f;
+        if (last != null && last.compareTo(l) >= 0) {
+            // covered by earlier input
+            return;
+        }
+        if (last == null || last.next().compareTo(f) < 0) {
+            flush();
+            first = f;
+        } else if (first == null) {
+            first = last.next();
+        }
+        last = l;
+        emitAligned();
+    }
+
+    /**
+     * Emits the largest aligned blocks at the front of the pending range.
+     */
+    private void emitAligned() {
+        int width = first.family().width();
+        while (first != null) {
+            Block<A> b = AddressSets.block(first, width - Math.min(width, first.trailingZeros()));
+            if (b.last().compareTo(last) > 0) {
+                return;
+            }
+            sink.accept(b);
+            first = b.last().equals(last) ? null : b.last().next();
+        }
+    }
+
+    /**
+     * Emits the largest aligned blocks that end at or before the last address.
+     */
+    private void flush() {
+        if (first != null) {
+            int width = first.family().width();
+            while (first != null) {
+                int bits = Unsigned.blockBits(first.highBits(), first.lowBits(), last.highBits(), last.lowBits(), width);
+                Block<A> b = AddressSets.block(first, width - bits);
+                sink.accept(b);
+                first = b.last().equals(last) ? null : b.last().next();
+            }
+        }
+    }
+
+    /**
+     * Emits remaining blocks.
+     * Further input is rejected.
+     */
+    public void complete() {
+        if (!completed) {
+            completed = true;
+            flush();
+        }
+    }
+}
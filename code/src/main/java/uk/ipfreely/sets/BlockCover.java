@@ -0,0 +1,264 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ *     Approximation of an {@link AddressSet} by a bounded number of CIDR {@link Block}s
+ *     covering every member and as few other addresses as possible.
+ * </p>
+ * <p>
+ *     The set's blocks are the leaves of a binary prefix trie compressed to its branching nodes,
+ *     so the trie has fewer nodes than twice the block count and is no deeper than the address width.
+ *     A tree knapsack computes, for each node and each budget up to the limit,
+ *     the least over-coverage achievable with blocks inside the node:
+ *     either the node's own prefix or the best split of the budget between its children.
+ *     Budgets are capped by leaf counts, bounding the work by the block count times the limit.
+ *     The cover is recovered top-down from the retained tables.
+ * </p>
+ * <p>
+ *     Over-coverage is compared exactly as unsigned 128-bit values held in pairs of {@code long}s.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     BlockCover&lt;V4&gt; acl = AddressSets.cover(denyList, 250);
+ *     acl.blocks().forEach(b -&gt; rules.add(b.cidrNotation()));
+ * </code></pre>
+ *
+ * @param <A> address type
+ * @see AddressSets#cover(AddressSet, int)
+ */
+public final class BlockCover<A extends Addr<A>> {
+    private static final long[] LEAF = {0, 0};
+
+    private final List<Block<A>> blocks;
+    private final BigInteger over;
+
+    private BlockCover(List<Block<A>> blocks, AddressSet<A> source) {
+        this.blocks = List.copyOf(blocks);
+        BigInteger covered = BigInteger.ZERO;
+        for (Block<A> b : blocks) {
+            covered = covered.add(b.size());
+        }
+        this.over = covered.subtract(source.size());
+    }
+
+    static <A extends Addr<A>> BlockCover<A> of(AddressSet<A> set, int max) {
+        @SuppressWarnings("unchecked")
+        Block<A>[] leaves = set.ranges().flatMap(Range::blocks).toArray(Block[]::new);
+        if (leaves.length <= max) {
+            return new BlockCover<>(Arrays.asList(leaves), set);
+        }
+        return new BlockCover<>(new Trie<>(leaves, max).cover(), set);
+    }
+
+    /**
+     * Covering blocks.
+     *
+     * @return ascending, disjoint blocks; no more than the limit
+     */
+    public List<Block<A>> blocks() {
+        return blocks;
+    }
+
+    /**
+     * Union of {@link #blocks()}.
+     * Adjacent blocks are merged in linear time.
+     *
+     * @return superset of the source
+     */
+    public AddressSet<A> set() {
+        RangeBuffer<A> buffer = new RangeBuffer<>();
+        blocks.forEach(buffer::add);
+        return buffer.toSet(SearchLayout.SORTED);
+    }
+
+    /**
+     * Addresses covered that are not in the source.
+     *
+     * @return count
+     */
+    public BigInteger overCoverage() {
+        return over;
+    }
+
+    /**
+     * Compressed prefix trie.
+     * Node ids below the leaf count are leaves; internal node {@code i} is {@code n + i}
+     * and is the common prefix of leaves {@code i} and {@code i + 1}.
+     */
+    private static final class Trie<A extends Addr<A>> {
+        private final Block<A>[] leaves;
+        private final int max;
+        private final int width;
+        private final int n;
+        // internal node prefix lengths
+        private final int[] depth;
+        private final int[] left;
+        private final int[] right;
+        // leaf index range per node
+        private final int[] lo;
+        private final int[] hi;
+        // least over-coverage by budget minus one as unsigned high, low pairs
+        private final long[][] tables;
+        private final int root;
+
+        Trie(Block<A>[] leaves, int max) {
+            this.leaves = leaves;
+            this.max = max;
+            this.width = leaves[0].first().family().width();
+            this.n = leaves.length;
+            int m = n - 1;
+            depth = new int[m];
+            left = new int[m];
+            right = new int[m];
+            lo = new int[m];
+            hi = new int[m];
+            tables = new long[m][];
+            for (int i = 0; i < m; i++) {
+                depth[i] = leaves[i].first().xor(leaves[i + 1].first()).leadingZeros();
+            }
+            root = build();
+            solve(root);
+        }
+
+        /**
+         * Cartesian tree over prefix lengths; shallowest prefix is the root.
+         *
+         * @return root node
+         */
+        private int build() {
+            int m = n - 1;
+            int[] cartLeft = new int[m];
+            int[] cartRight = new int[m];
+            Arrays.fill(cartLeft, -1);
+            Arrays.fill(cartRight, -1);
+            int[] stack = new int[m];
+            int top = 0;
+            for (int i = 0; i < m; i++) {
+                int last = -1;
+                while (top > 0 && depth[stack[top - 1]] > depth[i]) {
+                    last = stack[--top];
+                }
+                cartLeft[i] = last;
+                if (top > 0) {
+                    cartRight[stack[top - 1]] = i;
+                }
+                stack[top++] = i;
+            }
+            for (int i = 0; i < m; i++) {
+                left[i] = cartLeft[i] < 0 ? i : n + cartLeft[i];
+                right[i] = cartRight[i] < 0 ? i + 1 : n + cartRight[i];
+            }
+            return n + stack[0];
+        }
+
+        /**
+         * Post-order; recursion depth is bounded by the address width.
+         *
+         * @return members under node as high, low pair
+         */
+        private long[] solve(int node) {
+            if (node < n) {
+                return power(width - leaves[node].maskSize());
+            }
+            int i = node - n;
+            long[] lm = solve(left[i]);
+            long[] rm = solve(right[i]);
+            long mh = lm[0] + rm[0] + Unsigned.carry(lm[1], rm[1]);
+            long ml = lm[1] + rm[1];
+            lo[i] = left[i] < n ? left[i] : lo[left[i] - n];
+            hi[i] = right[i] < n ? right[i] : hi[right[i] - n];
+            long[] l = table(left[i]);
+            long[] r = table(right[i]);
+            int len = Math.min(max, (l.length + r.length) / 2);
+            long[] t = new long[len * 2];
+            Arrays.fill(t, -1L);
+            // node's own prefix; modular arithmetic is exact as the difference fits
+            long[] size = power(width - depth[i]);
+            t[0] = size[0] - mh - Unsigned.borrow(size[1], ml);
+            t[1] = size[1] - ml;
+            for (int a = 0; a < l.length / 2; a++) {
+                for (int b = 0; b < r.length / 2 && a + b + 1 < len; b++) {
+                    long ch = l[2 * a] + r[2 * b] + Unsigned.carry(l[2 * a + 1], r[2 * b + 1]);
+                    long cl = l[2 * a + 1] + r[2 * b + 1];
+                    int k = 2 * (a + b + 1);
+                    if (Unsigned.compare(ch, cl, t[k], t[k + 1]) < 0) {
+                        t[k] = ch;
+                        t[k + 1] = cl;
+                    }
+                }
+            }
+            // non-increasing: the prefix contains the children's prefixes and a spare block can refine a side
+            tables[i] = t;
+            return new long[] {mh, ml};
+        }
+
+        /**
+         * Block size by host bits; 2^128 wraps to zero.
+         */
+        private static long[] power(int bits) {
+            long high = bits >= Long.SIZE && bits < Long.SIZE * 2 ? 1L << (bits - Long.SIZE) : 0;
+            long low = bits < Long.SIZE ? 1L << bits : 0;
+            return new long[] {high, low};
+        }
+
+        private long[] table(int node) {
+            return node < n ? LEAF : tables[node - n];
+        }
+
+        List<Block<A>> cover() {
+            List<Block<A>> result = new ArrayList<>();
+            cover(root, max, result);
+            return result;
+        }
+
+        private void cover(int node, int budget, List<Block<A>> result) {
+            if (node < n) {
+                result.add(leaves[node]);
+                return;
+            }
+            int i = node - n;
+            long[] t = tables[i];
+            if (budget > hi[i] - lo[i]) {
+                result.addAll(Arrays.asList(leaves).subList(lo[i], hi[i] + 1));
+                return;
+            }
+            // fewest blocks reaching the least over-coverage
+            int k = Math.min(budget, t.length / 2);
+            while (k > 1 && Unsigned.compare(t[2 * k - 2], t[2 * k - 1], t[2 * k - 4], t[2 * k - 3]) == 0) {
+                k--;
+            }
+            if (k == 1) {
+                A first = leaves[lo[i]].first();
+                result.add(AddressSets.block(first.and(first.family().subnets().masks().get(depth[i])), depth[i]));
+                return;
+            }
+            // best split of exactly k blocks
+            long[] l = table(left[i]);
+            long[] r = table(right[i]);
+            int best = -1;
+            long bh = -1;
+            long bl = -1;
+            for (int a = Math.max(0, k - 1 - r.length / 2); a < Math.min(l.length / 2, k - 1); a++) {
+                int b = k - a - 2;
+                long ch = l[2 * a] + r[2 * b] + Unsigned.carry(l[2 * a + 1], r[2 * b + 1]);
+                long cl = l[2 * a + 1] + r[2 * b + 1];
+                if (best < 0 || Unsigned.compare(ch, cl, bh, bl) < 0) {
+                    best = a;
+                    bh = ch;
+                    bl = cl;
+                }
+            }
+            cover(left[i], best + 1, result);
+            cover(right[i], k - best - 1, result);
+        }
+    }
+}
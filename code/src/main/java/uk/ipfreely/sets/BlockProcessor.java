@@ -0,0 +1,169 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Flow;
+
+/**
+ * <p>
+ *     {@link Flow.Processor} adapter for {@link BlockAggregator}.
+ *     Ranges are requested in batches while the subscriber has outstanding demand and no blocks are buffered,
+ *     so the buffer holds at most the blocks produced by one batch.
+ *     Signals are serialized by the instance lock; re-entrant calls are queued by a work counter.
+ * </p>
+ *
+ * @param <A> address type
+ */
+final class BlockProcessor<A extends Addr<A>> implements Flow.Processor<Range<A>, Block<A>> {
+    private static final int BATCH = 64;
+
+    private final Queue<Block<A>> buffer = new ArrayDeque<>();
+    private final BlockAggregator<A> aggregator = BlockAggregator.of(buffer::add);
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super Block<A>> downstream;
+    private long demand;
+    // ranges requested from upstream but not received
+    private long outstanding;
+    private boolean done;
+    private Throwable error;
+    private boolean terminated;
+    private int work;
+
+    @Override
+    public synchronized void subscribe(Flow.Subscriber<? super Block<A>> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (downstream != null) {
+            subscriber.onSubscribe(new Rejected());
+            subscriber.onError(new IllegalStateException("Processor supports one subscriber"));
+            return;
+        }
+        downstream = subscriber;
+        subscriber.onSubscribe(new Downstream());
+        drain();
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public synchronized void onNext(Range<A> item) {
+        outstanding--;
+        if (done) {
+            return;
+        }
+        try {
+            aggregator.accept(item);
+        } catch (IllegalArgumentException e) {
+            upstream.cancel();
+            fail(e);
+        }
+        drain();
+    }
+
+    @Override
+    public synchronized void onError(Throwable throwable) {
+        if (!done) {
+            fail(throwable);
+            drain();
+        }
+    }
+
+    @Override
+    public synchronized void onComplete() {
+        if (!done) {
+            done = true;
+            aggregator.complete();
+            drain();
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        done = true;
+        error = throwable;
+        buffer.clear();
+    }
+
+    private void drain() {
+        if (work++ > 0) {
+            return;
+        }
+        do {
+            if (downstream != null && !terminated) {
+                while (demand > 0 && !buffer.isEmpty()) {
+                    demand--;
+                    downstream.onNext(buffer.remove());
+                }
+                if (done && buffer.isEmpty()) {
+                    terminated = true;
+                    if (error == null) {
+                        downstream.onComplete();
+                    } else {
+                        downstream.onError(error);
+                    }
+                } else if (!done && demand > 0 && buffer.isEmpty() && outstanding == 0 && upstream != null) {
+                    outstanding = BATCH;
+                    upstream.request(BATCH);
+                }
+            }
+        } while (--work > 0);
+    }
+
+    /**
+     * Subscription given to downstream.
+     */
+    private final class Downstream implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            synchronized (BlockProcessor.this) {
+                if (n <= 0) {
+                    if (upstream != null) {
+                        upstream.cancel();
+                    }
+                    fail(new IllegalArgumentException("Demand must be positive: " + n));
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (BlockProcessor.this) {
+                terminated = true;
+                done = true;
+                buffer.clear();
+                if (upstream != null) {
+                    upstream.cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * Subscription given to surplus subscribers.
+     */
+    private static final class Rejected implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            // terminated
+        }
+
+        @Override
+        public void cancel() {
+            // terminated
+        }
+    }
+}
@@ -11,9 +11,6 @@ import static uk.ipfreely.sets.Validation.validate;
 
 final class BlockSpliterator<A extends Addr<A>> implements Spliterator<Block<A>> {
 
-    // Math.log(2.0)
-    private static final double LOG_2 = 0.6931471805599453;
-
     private A start;
     private final A end;
 
@@ -30,15 +27,10 @@ final class BlockSpliterator<A extends Addr<A>> implements Spliterator<Block<A>>
         if (start == null) {
             return false;
         }
-        // https://blog.ip2location.com/knowledge-base/how-to-convert-ip-address-range-into-cidr/
+        // largest aligned block that does not pass the end; exact for all widths
         final int width = start.family().width();
-        int maxSize = width - start.trailingZeros();
-        A size = end.subtract(start).next();
-        double l = Math.log(size.doubleValue());
-        double x = l / LOG_2;
-        int maxDiff = (int) (width - Math.floor(x));
-        int maskSize = Math.max(maxSize, maxDiff);
-        var block = AddressSets.block(start, maskSize);
+        int bits = Unsigned.blockBits(start.highBits(), start.lowBits(), end.highBits(), end.lowBits(), width);
+        var block = AddressSets.compact(start, width - bits);
         A last = block.last();
         start = last.equals(end) ? null : last.next();
         action.accept(block);
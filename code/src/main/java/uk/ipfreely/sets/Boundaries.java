@@ -0,0 +1,206 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Ordered, non-overlapping range boundaries in primitive arrays.
+ * Lookups are binary searches.
+ *
+ * @param <A> address type
+ */
+abstract class Boundaries<A extends Addr<A>> {
+    final Family<A> family;
+    final int count;
+
+    private Boundaries(Family<A> family, int count) {
+        this.family = family;
+        this.count = count;
+    }
+
+    /**
+     * @param family address family
+     * @param fh first high bits
+     * @param fl first low bits
+     * @param lh last high bits
+     * @param ll last low bits
+     * @param count number of ranges; arrays may be longer
+     * @return boundaries over copies of the arrays
+     * @param <A> address type
+     */
+    static <A extends Addr<A>> Boundaries<A> of(Family<A> family, long[] fh, long[] fl, long[] lh, long[] ll, int count) {
+        if (family == Family.v4()) {
+            int[] first = new int[count];
+            int[] last = new int[count];
+            for (int i = 0; i < count; i++) {
+                first[i] = (int) fl[i];
+                last[i] = (int) ll[i];
+            }
+            return new V4s<>(family, first, last);
+        }
+        return new V6s<>(family,
+                Arrays.copyOf(fh, count), Arrays.copyOf(fl, count),
+                Arrays.copyOf(lh, count), Arrays.copyOf(ll, count));
+    }
+
+    /**
+     * @param i index
+     * @return range at index
+     */
+    final Range<A> range(int i) {
+        return AddressSets.range(family.parse(firstHigh(i), firstLow(i)), family.parse(lastHigh(i), lastLow(i)));
+    }
+
+    /**
+     * @param address candidate
+     * @return index of range containing address or -1
+     */
+    final int indexOf(Addr<?> address) {
+        if (address.family() != family) {
+            return -1;
+        }
+        long high = address.highBits();
+        long low = address.lowBits();
+        int i = floor(high, low);
+        return i >= 0 && Unsigned.compare(high, low, lastHigh(i), lastLow(i)) <= 0 ? i : -1;
+    }
+
+    /**
+     * @param address lower bound
+     * @return index of first range ending at or after address; {@link #count} if none
+     */
+    final int ceiling(Addr<?> address) {
+        int i = floor(address.highBits(), address.lowBits());
+        if (i < 0) {
+            return 0;
+        }
+        return Unsigned.compare(address.highBits(), address.lowBits(), lastHigh(i), lastLow(i)) <= 0 ? i : i + 1;
+    }
+
+    /**
+     * @param span query
+     * @return ascending indices of ranges overlapping span
+     */
+    final IntStream overlapping(Range<?> span) {
+        int from = ceiling(span.first());
+        Addr<?> last = span.last();
+        int to = floor(last.highBits(), last.lowBits()) + 1;
+        return IntStream.range(from, Math.max(from, to));
+    }
+
+    /**
+     * @return index of greatest range starting at or before value or -1
+     */
+    abstract int floor(long high, long low);
+
+    abstract long firstHigh(int i);
+
+    abstract long firstLow(int i);
+
+    abstract long lastHigh(int i);
+
+    abstract long lastLow(int i);
+
+    private static final class V4s<A extends Addr<A>> extends Boundaries<A> {
+        private static final long UINT = 0xFFFF_FFFFL;
+        private final int[] first;
+        private final int[] last;
+
+        V4s(Family<A> family, int[] first, int[] last) {
+            super(family, first.length);
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        int floor(long high, long low) {
+            int value = (int) low;
+            int lo = 0;
+            int hi = count - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (Integer.compareUnsigned(first[mid], value) <= 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+
+        @Override
+        long firstHigh(int i) {
+            return 0;
+        }
+
+        @Override
+        long firstLow(int i) {
+            return first[i] & UINT;
+        }
+
+        @Override
+        long lastHigh(int i) {
+            return 0;
+        }
+
+        @Override
+        long lastLow(int i) {
+            return last[i] & UINT;
+        }
+    }
+
+    private static final class V6s<A extends Addr<A>> extends Boundaries<A> {
+        private final long[] fh;
+        private final long[] fl;
+        private final long[] lh;
+        private final long[] ll;
+
+        V6s(Family<A> family, long[] fh, long[] fl, long[] lh, long[] ll) {
+            super(family, fh.length);
+            this.fh = fh;
+            this.fl = fl;
+            this.lh = lh;
+            this.ll = ll;
+        }
+
+        @Override
+        int floor(long high, long low) {
+            int lo = 0;
+            int hi = count - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (Unsigned.compare(fh[mid], fl[mid], high, low) <= 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+
+        @Override
+        long firstHigh(int i) {
+            return fh[i];
+        }
+
+        @Override
+        long firstLow(int i) {
+            return fl[i];
+        }
+
+        @Override
+        long lastHigh(int i) {
+            return lh[i];
+        }
+
+        @Override
+        long lastLow(int i) {
+            return ll[i];
+        }
+    }
+}
@@ -0,0 +1,345 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Family;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Fixed capacity linear probing table of counts keyed by primitive address values.
+ *     Keys are never removed.
+ * </p>
+ * <p>
+ *     A thread inserting a key claims an empty slot with a compare-and-set, writes the key and publishes the slot.
+ *     Threads probing a claimed slot wait for publication, which is a few writes away.
+ *     Insertion stops at a load limit but racing inserts may pass it, so probes are bounded by the capacity.
+ * </p>
+ * <p>
+ *     Counts are single compare-and-set attempts on a per-slot cell.
+ *     A failed attempt means another thread is counting the same address,
+ *     so the slot is given {@link Stripes} that spread further counts over padded cells.
+ * </p>
+ * <p>
+ *     A table is replaced by retiring it to a successor and migrating every slot.
+ *     Migration freezes a slot's cells by adding {@link Long#MIN_VALUE}, which atomically
+ *     captures the count and makes later adds negative, and marks empty slots as moved.
+ *     Adds that meet a frozen cell or moved slot go to the successor instead, so no count is lost.
+ *     Counts moved into a successor are scaled by its shift; counts arriving later are not.
+ *     Successors may themselves be retired, forming a chain that readers and writers follow.
+ * </p>
+ */
+final class CounterTable {
+    static final long FULL = -1;
+    static final long RETIRED = -2;
+
+    private static final int EMPTY = 0;
+    private static final int CLAIMED = 1;
+    private static final int READY = 2;
+    private static final int MOVED = 3;
+
+    private static final int STRIPES = Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+    // longs per cache line
+    private static final int PAD = 8;
+    private static final int REFRESH = 64;
+    private static final Stripes FROZEN = new Stripes();
+
+    private final Family<?> family;
+    private final int shift;
+    private final int stride;
+    private final int mask;
+    private final int limit;
+    private final AtomicIntegerArray state;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray counts;
+    private final AtomicReferenceArray<Stripes> hot;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicReference<CounterTable> next = new AtomicReference<>();
+    private volatile boolean done;
+
+    /**
+     * @param shift right shift applied to counts moved in from a predecessor; {@link Long#SIZE} or more discards them
+     */
+    CounterTable(Family<?> family, int capacity, int shift) {
+        this.family = family;
+        this.shift = shift;
+        this.stride = family == Family.v4() ? 1 : 2;
+        this.mask = capacity - 1;
+        this.limit = capacity - capacity / 4;
+        this.state = new AtomicIntegerArray(capacity);
+        this.keys = new AtomicLongArray(capacity * stride);
+        this.counts = new AtomicLongArray(capacity);
+        this.hot = new AtomicReferenceArray<>(capacity);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int home(long high, long low) {
+        return (int) Hashing.address(high, low) & mask;
+    }
+
+    boolean claim(int slot) {
+        return state.compareAndSet(slot, EMPTY, CLAIMED);
+    }
+
+    void publish(int slot, long high, long low) {
+        if (stride == 2) {
+            keys.set(slot * 2, high);
+        }
+        keys.set(slot * stride + stride - 1, low);
+        state.set(slot, READY);
+    }
+
+    boolean ready(int slot) {
+        return state.get(slot) == READY;
+    }
+
+    long high(int slot) {
+        return stride == 2 ? keys.get(slot * 2) : 0;
+    }
+
+    long low(int slot) {
+        return keys.get(slot * stride + stride - 1);
+    }
+
+    private void await(int slot) {
+        while (state.get(slot) == CLAIMED) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private boolean matches(int slot, long high, long low) {
+        await(slot);
+        return low(slot) == low && high(slot) == high;
+    }
+
+    /**
+     * Adds to count of key in this table only, inserting it if absent.
+     *
+     * @return count after adding, {@link #FULL} or {@link #RETIRED} if the key's count lives in the successor
+     */
+    long add(long high, long low, long delta) {
+        int i = home(high, low);
+        for (int probes = 0; probes <= mask; probes++, i = (i + 1) & mask) {
+            if (state.get(i) == EMPTY) {
+                if (size.get() >= limit) {
+                    return FULL;
+                }
+                if (claim(i)) {
+                    size.incrementAndGet();
+                    publish(i, high, low);
+                    return add(i, delta);
+                }
+            }
+            if (state.get(i) == MOVED) {
+                return RETIRED;
+            }
+            if (matches(i, high, low)) {
+                return add(i, delta);
+            }
+        }
+        return FULL;
+    }
+
+    private long add(int slot, long delta) {
+        Stripes striped = hot.get(slot);
+        if (striped == null) {
+            long c = counts.get(slot);
+            boolean added = c >= 0 && counts.compareAndSet(slot, c, c + delta);
+            // otherwise frozen or contended
+            striped = added ? null : c < 0 ? FROZEN : promote(slot);
+            if (added) {
+                return c + delta;
+            }
+        }
+        long estimate = striped == FROZEN ? RETIRED : striped.add(delta);
+        return estimate < 0 ? RETIRED : (counts.get(slot) & Long.MAX_VALUE) + estimate;
+    }
+
+    /**
+     * @return stripes of slot; {@link #FROZEN} if migrated first
+     */
+    Stripes promote(int slot) {
+        hot.compareAndSet(slot, null, new Stripes());
+        return hot.get(slot);
+    }
+
+    /**
+     * Adds to count in this table or its successors, growing the last table if full.
+     *
+     * @param moved true if the count comes from a predecessor and successors' shifts apply
+     * @return count after adding
+     * @throws IllegalStateException if capacity is exhausted
+     */
+    long increment(long high, long low, long delta, boolean moved) {
+        CounterTable t = this;
+        while (true) {
+            long count = moved && delta == 0 ? 0 : t.add(high, low, delta);
+            if (count >= 0) {
+                return count;
+            }
+            CounterTable n = t.next.get();
+            t = n == null ? t.grow() : n;
+            delta = moved ? t.scale(delta) : delta;
+        }
+    }
+
+    private CounterTable grow() {
+        validate(capacity() < AddressTable.maxCapacity(family), "Counter capacity exceeded", size(), IllegalStateException::new);
+        CounterTable n = new CounterTable(family, capacity() * 2, 0);
+        return retire(n) ? migrate() : next.get();
+    }
+
+    long scale(long count) {
+        return shift >= Long.SIZE ? 0 : count >>> shift;
+    }
+
+    boolean retire(CounterTable successor) {
+        return next.compareAndSet(null, successor);
+    }
+
+    /**
+     * Retires the last table of the chain.
+     *
+     * @return retired table
+     */
+    CounterTable append(CounterTable successor) {
+        return retire(successor) ? this : next.get().append(successor);
+    }
+
+    CounterTable next() {
+        return next.get();
+    }
+
+    /**
+     * True once every count has been moved to the successor.
+     */
+    boolean done() {
+        return done;
+    }
+
+    /**
+     * Moves every count to the successor.
+     *
+     * @return successor
+     */
+    CounterTable migrate() {
+        CounterTable n = next.get();
+        for (int s = 0; s <= mask; s++) {
+            long kept = n.scale(freeze(s));
+            if (kept > 0) {
+                n.increment(high(s), low(s), kept, true);
+            }
+        }
+        done = true;
+        return n;
+    }
+
+    /**
+     * @return count captured from slot
+     */
+    long freeze(int slot) {
+        if (state.compareAndSet(slot, EMPTY, MOVED)) {
+            return 0;
+        }
+        await(slot);
+        long count = counts.getAndAdd(slot, Long.MIN_VALUE);
+        Stripes striped = hot.compareAndExchange(slot, null, FROZEN);
+        return striped == null ? count : count + striped.freeze();
+    }
+
+    /**
+     * @return slot of key or -1
+     */
+    int find(long high, long low) {
+        int i = home(high, low);
+        for (int probes = 0; probes <= mask && state.get(i) != EMPTY && state.get(i) != MOVED; probes++, i = (i + 1) & mask) {
+            if (matches(i, high, low)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Count of key following successors where it has moved.
+     *
+     * @return count or zero
+     */
+    long total(long high, long low) {
+        int slot = find(high, low);
+        long count = slot < 0 || counts.get(slot) < 0 ? -1 : count(slot);
+        CounterTable n = next.get();
+        return count >= 0 || n == null ? Math.max(0, count) : n.total(high, low);
+    }
+
+    /**
+     * Frozen cells read as their value when frozen plus any adds that arrived later.
+     *
+     * @return count of published slot
+     */
+    long count(int slot) {
+        Stripes striped = hot.get(slot);
+        return (counts.get(slot) & Long.MAX_VALUE) + (striped == null ? 0 : striped.sum());
+    }
+
+    /**
+     * <p>
+     *     Cache line padded cells for an address counted by several threads at once.
+     *     Each thread adds to a cell chosen by its identity and cells freeze like slot counts.
+     * </p>
+     * <p>
+     *     Adding does not read other threads' cells.
+     *     The sum is refreshed into a shared estimate whenever a cell passes a multiple of {@link #REFRESH},
+     *     so the estimate trails the sum by less than {@code STRIPES * REFRESH}.
+     * </p>
+     */
+    static final class Stripes {
+        // estimate then cells, each on its own line
+        private final AtomicLongArray cells = new AtomicLongArray((STRIPES + 1) * PAD);
+
+        /**
+         * @return estimate of sum or {@link #RETIRED} if frozen
+         */
+        long add(long delta) {
+            int i = (1 + ((int) Hashing.mix(System.identityHashCode(Thread.currentThread())) & (STRIPES - 1))) * PAD;
+            long v = cells.addAndGet(i, delta);
+            if (v < 0) {
+                return RETIRED;
+            }
+            if ((v - delta) / REFRESH != v / REFRESH) {
+                cells.accumulateAndGet(0, sum(), Math::max);
+            }
+            return cells.get(0);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (int s = 1; s <= STRIPES; s++) {
+                sum += cells.get(s * PAD) & Long.MAX_VALUE;
+            }
+            return sum;
+        }
+
+        long freeze() {
+            long sum = 0;
+            for (int s = 1; s <= STRIPES; s++) {
+                sum += cells.getAndAdd(s * PAD, Long.MIN_VALUE);
+            }
+            return sum;
+        }
+    }
+}
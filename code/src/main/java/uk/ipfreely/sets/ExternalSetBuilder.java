@@ -0,0 +1,257 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Builds {@link AddressSet}s from more addresses and ranges than fit in memory as objects.
+ * </p>
+ * <p>
+ *     Input accumulates in a primitive buffer that merges ordered and contiguous input on arrival.
+ *     When the buffer reaches its share of the memory budget it is sorted, coalesced
+ *     and spilled to a temporary file in the {@link AddressSetCodec} format.
+ *     Building merges the spilled runs in passes, each reading no more runs than the budget allows,
+ *     and streams the final merge into the result.
+ *     Temporary files are deleted when the builder is built or closed.
+ * </p>
+ * <p>
+ *     Memory use stays within the budget throughout except for the result of {@link #build()}.
+ *     Use {@link #build(Path)} for results that should not be held on the heap.
+ *     Instances are not thread-safe.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     try (ExternalSetBuilder&lt;V4&gt; builder = ExternalSetBuilder.of(Family.v4(), 256L &lt;&lt; 20, tmp)) {
+ *         for (String line : dump) {
+ *             builder.add(Family.v4().parse(line));
+ *         }
+ *         AddressSet&lt;V4&gt; seen = builder.build(path);
+ *     }
+ * </code></pre>
+ *
+ * @param <A> address type
+ */
+public final class ExternalSetBuilder<A extends Addr<A>> implements Closeable {
+    /**
+     * Least memory budget in bytes.
+     */
+    public static final long MIN_BUDGET = 1 << 16;
+
+    // buffered range including array growth and normalization copies
+    private static final long RANGE_BYTES = 160;
+    // codec buffer and merge state per open run
+    private static final long RUN_BYTES = 1 << 14;
+    // bounds open files
+    private static final int MAX_FAN_IN = 512;
+
+    private final Family<A> family;
+    private final Path directory;
+    private final int capacity;
+    private final int fanIn;
+    private final RangeBuffer<A> buffer = new RangeBuffer<>();
+    private final Deque<Path> runs = new ArrayDeque<>();
+    private boolean closed;
+
+    private ExternalSetBuilder(Family<A> family, long budget, Path directory) {
+        this.family = family;
+        this.directory = directory;
+        this.capacity = (int) Math.min(Integer.MAX_VALUE / 8, budget / RANGE_BYTES);
+        this.fanIn = (int) Math.min(MAX_FAN_IN, budget / RUN_BYTES);
+    }
+
+    /**
+     * New builder.
+     *
+     * @param family address family
+     * @param memoryBudget bytes; at least {@link #MIN_BUDGET}
+     * @param directory for temporary files
+     * @return builder
+     * @param <A> address type
+     * @throws IllegalArgumentException if budget is too small
+     */
+    public static <A extends Addr<A>> ExternalSetBuilder<A> of(Family<A> family, long memoryBudget, Path directory) {
+        validate(memoryBudget >= MIN_BUDGET, "Memory budget too small", memoryBudget, IllegalArgumentException::new);
+        return new ExternalSetBuilder<>(Objects.requireNonNull(family), memoryBudget, Objects.requireNonNull(directory));
+    }
+
+    /**
+     * Adds address.
+     *
+     * @param address member
+     * @throws IOException on spill failure
+     * @throws IllegalStateException if built or closed
+     */
+    public void add(A address) throws IOException {
+        validate(!closed, "Builder is closed", address, IllegalStateException::new);
+        buffer.addAddress(address);
+        spillIfFull();
+    }
+
+    /**
+     * Adds members of set.
+     *
+     * @param set members
+     * @throws IOException on spill failure
+     * @throws IllegalStateException if built or closed
+     */
+    public void add(AddressSet<A> set) throws IOException {
+        validate(!closed, "Builder is closed", set, IllegalStateException::new);
+        Iterator<Range<A>> it = set.ranges().iterator();
+        while (it.hasNext()) {
+            buffer.add(it.next());
+            spillIfFull();
+        }
+    }
+
+    private void spillIfFull() throws IOException {
+        if (buffer.size() >= capacity) {
+            spill();
+        }
+    }
+
+    private void spill() throws IOException {
+        Path run = Files.createTempFile(directory, "ipas", ".run");
+        runs.add(run);
+        try (FileChannel out = FileChannel.open(run, StandardOpenOption.WRITE)) {
+            AddressSetCodec.encode(buffer.ranges(), out);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Union of input held on the heap.
+     * The builder is closed.
+     *
+     * @return set
+     * @throws IOException on I/O error
+     * @throws IllegalStateException if built or closed
+     */
+    @SuppressWarnings("unchecked")
+    public AddressSet<A> build() throws IOException {
+        List<Range<A>> result = new ArrayList<>();
+        finish(it -> it.forEachRemaining(result::add));
+        return AddressSets.fromSorted(result.toArray(new Range[0]));
+    }
+
+    /**
+     * Union of input written to a file and mapped.
+     * The builder is closed.
+     *
+     * @param file destination; created or truncated
+     * @return set backed by file
+     * @throws IOException on I/O error
+     * @throws IllegalStateException if built or closed
+     * @see MappedAddressSets
+     */
+    public AddressSet<A> build(Path file) throws IOException {
+        finish(it -> MappedAddressSets.write(it, file));
+        return MappedAddressSets.open(family, file);
+    }
+
+    private void finish(Drain<A> drain) throws IOException {
+        validate(!closed, "Builder is closed", null, IllegalStateException::new);
+        try {
+            if (runs.isEmpty()) {
+                drain.accept(buffer.ranges());
+                return;
+            }
+            if (!buffer.isEmpty()) {
+                spill();
+            }
+            while (runs.size() > fanIn) {
+                List<Path> batch = new ArrayList<>(runs).subList(0, fanIn);
+                Path merged = Files.createTempFile(directory, "ipas", ".run");
+                runs.add(merged);
+                try (Merge merge = new Merge(batch); FileChannel out = FileChannel.open(merged, StandardOpenOption.WRITE)) {
+                    AddressSetCodec.encode(merge.ranges(), out);
+                }
+                for (Path run : batch) {
+                    runs.remove(run);
+                    Files.delete(run);
+                }
+            }
+            try (Merge merge = new Merge(List.copyOf(runs))) {
+                drain.accept(merge.ranges());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * @return number of spilled runs
+     */
+    int runs() {
+        return runs.size();
+    }
+
+    /**
+     * Discards input and deletes temporary files.
+     *
+     * @throws IOException on I/O error
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        buffer.clear();
+        while (!runs.isEmpty()) {
+            Files.deleteIfExists(runs.remove());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Drain<A extends Addr<A>> {
+        void accept(Iterator<Range<A>> ranges) throws IOException;
+    }
+
+    /**
+     * Union of runs.
+     */
+    private final class Merge implements Closeable {
+        private final List<Path> files;
+        private final List<InputStream> open = new ArrayList<>();
+
+        Merge(List<Path> files) {
+            this.files = files;
+        }
+
+        Iterator<Range<A>> ranges() throws IOException {
+            List<Iterator<Range<A>>> sources = new ArrayList<>();
+            for (Path file : files) {
+                InputStream in = Files.newInputStream(file);
+                open.add(in);
+                sources.add(AddressSetCodec.iterator(family, in));
+            }
+            return RangeStreams.union(sources).iterator();
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (InputStream in : open) {
+                in.close();
+            }
+        }
+    }
+}
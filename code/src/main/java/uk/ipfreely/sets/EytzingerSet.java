@@ -0,0 +1,102 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+/**
+ * {@link ArraySet} with range boundaries copied into a primitive array in
+ * <a target="_top" href="https://arxiv.org/abs/1509.05053">Eytzinger</a> (breadth-first) order.
+ * The first levels of the implicit tree share cache lines
+ * and each probe is the child of the previous one, so descent touches fewer lines than binary search.
+ * Each node stores first then last; IPv4 as two ints and IPv6 as four longs.
+ * Values are stored with the sign bit flipped so unsigned values compare as signed.
+ *
+ * @param <A> address type
+ */
+final class EytzingerSet<A extends Addr<A>> extends ArraySet<A> {
+    private final Family<A> family;
+    private final int[] v4;
+    private final long[] v6;
+
+    EytzingerSet(Range<A>[] ranges) {
+        super(ranges);
+        this.family = ranges[0].first().family();
+        int n = ranges.length;
+        if (family == Family.v4()) {
+            v4 = new int[(n + 1) * 2];
+            v6 = null;
+        } else {
+            v4 = null;
+            v6 = new long[(n + 1) * 4];
+        }
+        fill(0, 1);
+    }
+
+    /**
+     * In-order traversal of implicit tree assigns sorted ranges to nodes.
+     *
+     * @param i next sorted index
+     * @param k node
+     * @return next sorted index
+     */
+    private int fill(int i, int k) {
+        if (k > ranges.length) {
+            return i;
+        }
+        int next = fill(i, 2 * k);
+        Range<A> r = ranges[next];
+        if (v4 != null) {
+            v4[2 * k] = (int) r.first().lowBits() ^ Integer.MIN_VALUE;
+            v4[2 * k + 1] = (int) r.last().lowBits() ^ Integer.MIN_VALUE;
+        } else {
+            v6[4 * k] = r.first().highBits() ^ Long.MIN_VALUE;
+            v6[4 * k + 1] = r.first().lowBits() ^ Long.MIN_VALUE;
+            v6[4 * k + 2] = r.last().highBits() ^ Long.MIN_VALUE;
+            v6[4 * k + 3] = r.last().lowBits() ^ Long.MIN_VALUE;
+        }
+        return fill(next + 1, 2 * k + 1);
+    }
+
+    @Override
+    public boolean contains(Addr<?> address) {
+        if (address.family() != family) {
+            return false;
+        }
+        return v4 != null
+                ? contains4((int) address.lowBits() ^ Integer.MIN_VALUE)
+                : contains6(address.highBits() ^ Long.MIN_VALUE, address.lowBits() ^ Long.MIN_VALUE);
+    }
+
+    private boolean contains4(int x) {
+        int[] tree = v4;
+        int n = ranges.length;
+        int k = 1;
+        int floor = 0;
+        while (k <= n) {
+            int le = tree[2 * k] <= x ? 1 : 0;
+            floor = le == 1 ? k : floor;
+            k = 2 * k + le;
+        }
+        return floor != 0 && x <= tree[2 * floor + 1];
+    }
+
+    private boolean contains6(long xh, long xl) {
+        long[] tree = v6;
+        int n = ranges.length;
+        int k = 1;
+        int floor = 0;
+        while (k <= n) {
+            long h = tree[4 * k];
+            int le = h < xh || h == xh && tree[4 * k + 1] <= xl ? 1 : 0;
+            floor = le == 1 ? k : floor;
+            k = 2 * k + le;
+        }
+        if (floor == 0) {
+            return false;
+        }
+        long h = tree[4 * floor + 2];
+        return xh < h || xh == h && xl <= tree[4 * floor + 3];
+    }
+}
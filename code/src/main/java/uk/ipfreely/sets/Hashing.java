@@ -0,0 +1,38 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+/**
+ * Non-cryptographic 64-bit mixing.
+ */
+final class Hashing {
+    static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private Hashing() {}
+
+    /**
+     * MurmurHash3 finalizer.
+     *
+     * @param h value
+     * @return well distributed bijection of value
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ h >>> 33;
+    }
+
+    /**
+     * Hash of 128-bit address value.
+     * IPv4 values hash as {@code mix(low)} because {@code mix(0)} is zero.
+     *
+     * @param high {@link uk.ipfreely.Addr#highBits()}
+     * @param low {@link uk.ipfreely.Addr#lowBits()}
+     * @return hash
+     */
+    static long address(long high, long low) {
+        return mix(mix(high) ^ low);
+    }
+}
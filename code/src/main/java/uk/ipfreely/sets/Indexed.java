@@ -0,0 +1,52 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.math.BigInteger;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * Non-empty set addressed by unsigned 128-bit member index.
+ */
+final class Indexed<A extends Addr<A>> {
+    // range or array set
+    private final Range<A> range;
+    private final ArraySet<A> array;
+    // greatest index
+    final long maxHigh;
+    final long maxLow;
+
+    private Indexed(AddressSet<A> set) {
+        this.range = set instanceof Range<A> r ? r : null;
+        this.array = set instanceof ArraySet<A> a ? a : null;
+        BigInteger max = set.size().subtract(BigInteger.ONE);
+        this.maxHigh = max.shiftRight(Long.SIZE).longValue();
+        this.maxLow = max.longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A extends Addr<A>> Indexed<A> of(AddressSet<A> set) {
+        validate(!set.isEmpty(), "Set must not be empty", set, IllegalArgumentException::new);
+        AddressSet<A> indexed = set instanceof Range || set instanceof ArraySet
+                ? set
+                : AddressSets.fromSorted(set.ranges().toArray(Range[]::new));
+        return new Indexed<>(indexed);
+    }
+
+    /**
+     * @param indexHigh index high bits
+     * @param indexLow index low bits; index must not exceed max
+     * @return member at index
+     */
+    A select(long indexHigh, long indexLow) {
+        if (array != null) {
+            return array.select(indexHigh, indexLow);
+        }
+        A first = range.first();
+        long fl = first.lowBits();
+        return first.family().parse(first.highBits() + indexHigh + Unsigned.carry(fl, indexLow), fl + indexLow);
+    }
+}
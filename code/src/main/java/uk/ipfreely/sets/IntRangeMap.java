@@ -0,0 +1,170 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ *     {@link RangeMap} specialization for {@code int} values such as ASNs or country indices.
+ *     Values are held in a primitive array and lookups do not allocate.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     IntRangeMap&lt;V6&gt; asns = IntRangeMap.builder(Family.v6())
+ *             .put(AddressSets.parseCidr(Family.v6(), "2001:db8::/48"), 64500)
+ *             .build();
+ *     int asn = asns.get(address, 0);
+ * </code></pre>
+ *
+ * @param <A> address type
+ */
+public final class IntRangeMap<A extends Addr<A>> {
+    private final Boundaries<A> bounds;
+    private final int[] values;
+
+    private IntRangeMap(Boundaries<A> bounds, int[] values) {
+        this.bounds = bounds;
+        this.values = values;
+    }
+
+    /**
+     * New builder.
+     *
+     * @param family address family
+     * @return builder
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Builder<A> builder(Family<A> family) {
+        return new Builder<>(Objects.requireNonNull(family));
+    }
+
+    /**
+     * Map family.
+     *
+     * @return family
+     */
+    public Family<A> family() {
+        return bounds.family;
+    }
+
+    /**
+     * Number of ranges after merging.
+     *
+     * @return range count
+     */
+    public int size() {
+        return bounds.count;
+    }
+
+    /**
+     * Value of range containing address.
+     *
+     * @param address address to look up
+     * @param absent value returned if no range contains address
+     * @return value or {@code absent}
+     */
+    public int get(A address, int absent) {
+        int i = bounds.indexOf(address);
+        return i < 0 ? absent : values[i];
+    }
+
+    /**
+     * Value of range containing address.
+     *
+     * @param address address to look up
+     * @return value or empty
+     */
+    public OptionalInt find(A address) {
+        int i = bounds.indexOf(address);
+        return i < 0 ? OptionalInt.empty() : OptionalInt.of(values[i]);
+    }
+
+    /**
+     * All entries from least to greatest.
+     *
+     * @return entries
+     */
+    public Stream<Map.Entry<Range<A>, Integer>> entries() {
+        return entries(IntStream.range(0, bounds.count));
+    }
+
+    /**
+     * Entries whose ranges overlap span, from least to greatest.
+     * Entry ranges are not clipped to span.
+     *
+     * @param span query range
+     * @return entries
+     */
+    public Stream<Map.Entry<Range<A>, Integer>> entries(Range<A> span) {
+        return entries(bounds.overlapping(span));
+    }
+
+    private Stream<Map.Entry<Range<A>, Integer>> entries(IntStream indices) {
+        return indices.mapToObj(i -> Map.entry(bounds.range(i), values[i]));
+    }
+
+    @Override
+    public String toString() {
+        return "IntRangeMap{" + family() + ", " + size() + " ranges}";
+    }
+
+    /**
+     * <p>
+     *     Collects entries for {@link IntRangeMap}.
+     *     Entries may be added in any order but ranges must not overlap.
+     *     Instances are not thread-safe.
+     * </p>
+     *
+     * @param <A> address type
+     */
+    public static final class Builder<A extends Addr<A>> {
+        private final Family<A> family;
+        private final RangeEntries entries = new RangeEntries();
+        private int[] values = new int[16];
+
+        private Builder(Family<A> family) {
+            this.family = family;
+        }
+
+        /**
+         * Adds entry.
+         *
+         * @param range key
+         * @param value value
+         * @return this
+         */
+        public Builder<A> put(Range<A> range, int value) {
+            int i = entries.add(range);
+            if (i == values.length) {
+                values = Arrays.copyOf(values, i * 2);
+            }
+            values[i] = value;
+            return this;
+        }
+
+        /**
+         * Creates map.
+         * Adjacent ranges with equal values are merged.
+         *
+         * @return immutable map
+         * @throws IllegalArgumentException if ranges overlap
+         */
+        public IntRangeMap<A> build() {
+            var c = entries.coalesce(family, (i, j) -> values[i] == values[j]);
+            int[] merged = new int[c.source.length];
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = values[c.source[i]];
+            }
+            return new IntRangeMap<>(c.bounds, merged);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ *     Immutable index of possibly overlapping {@link Range}s to values
+ *     answering stabbing queries: every value whose range contains an address.
+ * </p>
+ * <p>
+ *     The index is a centered interval tree flattened into primitive arrays.
+ *     Each node holds the ranges containing its center ordered by first address ascending
+ *     and by last address descending,
+ *     so a query visits O(log n) nodes and reads only matching ranges beyond them:
+ *     O(log n + k) for k matches.
+ *     Memory is linear in the number of entries.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     IntervalIndex&lt;V4, String&gt; rules = IntervalIndex.&lt;V4, String&gt;builder(Family.v4())
+ *             .put(AddressSets.range(Family.v4().parse("10.0.0.0"), Family.v4().parse("10.0.0.200")), "deny-scanners")
+ *             .put(AddressSets.parseCidr(Family.v4(), "10.0.0.0/8"), "allow-internal")
+ *             .build();
+ *     // ["deny-scanners", "allow-internal"]
+ *     List&lt;String&gt; matches = rules.get(Family.v4().parse("10.0.0.1"));
+ * </code></pre>
+ *
+ * @param <A> address type
+ * @param <V> value type
+ */
+public final class IntervalIndex<A extends Addr<A>, V> {
+    private static final int NONE = -1;
+
+    private final Family<A> family;
+    private final Object[] values;
+    // entry ranges by entry index
+    private final long[] fh;
+    private final long[] fl;
+    private final long[] lh;
+    private final long[] ll;
+    // entry indices; node spans are ordered by first ascending & last descending respectively
+    private final int[] byFirst;
+    private final int[] byLast;
+    // nodes
+    private final long[] centerHigh;
+    private final long[] centerLow;
+    private final int[] from;
+    private final int[] to;
+    private final int[] left;
+    private final int[] right;
+    private final int root;
+
+    private IntervalIndex(Family<A> family, Object[] values, long[][] columns, Tree tree) {
+        this.family = family;
+        this.values = values;
+        this.fh = columns[0];
+        this.fl = columns[1];
+        this.lh = columns[2];
+        this.ll = columns[3];
+        this.byFirst = tree.byFirst;
+        this.byLast = tree.byLast;
+        int n = tree.nodes;
+        this.centerHigh = Arrays.copyOf(tree.centerHigh, n);
+        this.centerLow = Arrays.copyOf(tree.centerLow, n);
+        this.from = Arrays.copyOf(tree.from, n);
+        this.to = Arrays.copyOf(tree.to, n);
+        this.left = Arrays.copyOf(tree.left, n);
+        this.right = Arrays.copyOf(tree.right, n);
+        this.root = tree.root;
+    }
+
+    /**
+     * New builder.
+     *
+     * @param family address family
+     * @return builder
+     * @param <A> address type
+     * @param <V> value type
+     */
+    public static <A extends Addr<A>, V> Builder<A, V> builder(Family<A> family) {
+        return new Builder<>(Objects.requireNonNull(family));
+    }
+
+    /**
+     * Index family.
+     *
+     * @return family
+     */
+    public Family<A> family() {
+        return family;
+    }
+
+    /**
+     * Number of entries.
+     *
+     * @return entry count
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Values of all ranges containing address in the order they were added to the builder.
+     *
+     * @param address address to look up
+     * @return matching values
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> get(A address) {
+        int[] matches = new int[8];
+        int count = 0;
+        int node = root;
+        long high = address.highBits();
+        long low = address.lowBits();
+        while (node != NONE) {
+            int c = Unsigned.compare(high, low, centerHigh[node], centerLow[node]);
+            for (int i = from[node]; i < to[node]; i++) {
+                int e = c <= 0 ? byFirst[i] : byLast[i];
+                if (c < 0 && Unsigned.compare(fh[e], fl[e], high, low) > 0
+                        || c > 0 && Unsigned.compare(lh[e], ll[e], high, low) < 0) {
+                    break;
+                }
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = e;
+            }
+            node = c < 0 ? left[node] : c > 0 ? right[node] : NONE;
+        }
+        Arrays.sort(matches, 0, count);
+        List<V> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add((V) values[matches[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Allocation free version of {@link #get(Addr)}.
+     * Values are visited in no particular order.
+     *
+     * @param address address to look up
+     * @param action receives matching values
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(A address, Consumer<? super V> action) {
+        int node = root;
+        long high = address.highBits();
+        long low = address.lowBits();
+        while (node != NONE) {
+            int c = Unsigned.compare(high, low, centerHigh[node], centerLow[node]);
+            if (c < 0) {
+                for (int i = from[node]; i < to[node] && Unsigned.compare(fh[byFirst[i]], fl[byFirst[i]], high, low) <= 0; i++) {
+                    action.accept((V) values[byFirst[i]]);
+                }
+                node = left[node];
+            } else if (c > 0) {
+                for (int i = from[node]; i < to[node] && Unsigned.compare(lh[byLast[i]], ll[byLast[i]], high, low) >= 0; i++) {
+                    action.accept((V) values[byLast[i]]);
+                }
+                node = right[node];
+            } else {
+                for (int i = from[node]; i < to[node]; i++) {
+                    action.accept((V) values[byFirst[i]]);
+                }
+                node = NONE;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IntervalIndex{" + family + ", " + size() + " entries}";
+    }
+
+    /**
+     * <p>
+     *     Collects entries for {@link IntervalIndex}.
+     *     Ranges may overlap and may be added in any order.
+     *     Instances are not thread-safe.
+     * </p>
+     *
+     * @param <A> address type
+     * @param <V> value type
+     */
+    public static final class Builder<A extends Addr<A>, V> {
+        private final Family<A> family;
+        private final RangeEntries entries = new RangeEntries();
+        private final List<V> values = new ArrayList<>();
+
+        private Builder(Family<A> family) {
+            this.family = family;
+        }
+
+        /**
+         * Adds entry.
+         *
+         * @param range key
+         * @param value value
+         * @return this
+         */
+        public Builder<A, V> put(Range<A> range, V value) {
+            entries.add(range);
+            values.add(value);
+            return this;
+        }
+
+        /**
+         * Creates index in O(n log n) time.
+         *
+         * @return immutable index
+         */
+        public IntervalIndex<A, V> build() {
+            long[][] columns = entries.columns();
+            var tree = new Tree(columns, entries.order());
+            return new IntervalIndex<>(family, values.toArray(), columns, tree);
+        }
+    }
+
+    /**
+     * Recursive construction state.
+     */
+    private static final class Tree {
+        private final long[] fh;
+        private final long[] fl;
+        private final long[] lh;
+        private final long[] ll;
+        private final int[] scratch;
+        final int[] byFirst;
+        final int[] byLast;
+        long[] centerHigh = new long[16];
+        long[] centerLow = new long[16];
+        int[] from = new int[16];
+        int[] to = new int[16];
+        int[] left = new int[16];
+        int[] right = new int[16];
+        int nodes;
+        final int root;
+
+        /**
+         * @param columns range bits by entry
+         * @param order entry indices ordered by first
+         */
+        Tree(long[][] columns, int[] order) {
+            fh = columns[0];
+            fl = columns[1];
+            lh = columns[2];
+            ll = columns[3];
+            byFirst = order;
+            byLast = new int[order.length];
+            scratch = new int[order.length];
+            root = build(0, order.length);
+        }
+
+        /**
+         * @param start inclusive index into {@link #byFirst}
+         * @param end exclusive index into {@link #byFirst}
+         * @return node index
+         */
+        private int build(int start, int end) {
+            if (start == end) {
+                return NONE;
+            }
+            int median = byFirst[(start + end) >>> 1];
+            long ch = fh[median];
+            long cl = fl[median];
+            // stable partition into ends before center | contains center | starts after center
+            int l = start;
+            int s = 0;
+            for (int i = start; i < end; i++) {
+                int e = byFirst[i];
+                if (Unsigned.compare(lh[e], ll[e], ch, cl) < 0) {
+                    byFirst[l++] = e;
+                } else {
+                    scratch[s++] = e;
+                }
+            }
+            int m = l;
+            int r = 0;
+            for (int i = 0; i < s; i++) {
+                int e = scratch[i];
+                if (Unsigned.compare(fh[e], fl[e], ch, cl) <= 0) {
+                    byFirst[m++] = e;
+                } else {
+                    scratch[r++] = e;
+                }
+            }
+            System.arraycopy(scratch, 0, byFirst, m, r);
+
+            Integer[] descending = new Integer[m - l];
+            for (int i = 0; i < descending.length; i++) {
+                descending[i] = byFirst[l + i];
+            }
+            Arrays.sort(descending, (a, b) -> Unsigned.compare(lh[b], ll[b], lh[a], ll[a]));
+            for (int i = 0; i < descending.length; i++) {
+                byLast[l + i] = descending[i];
+            }
+
+            int node = node(ch, cl, l, m);
+            int lt = build(start, l);
+            int rt = build(m, end);
+            left[node] = lt;
+            right[node] = rt;
+            return node;
+        }
+
+        private int node(long ch, long cl, int start, int end) {
+            if (nodes == from.length) {
+                int capacity = nodes * 2;
+                centerHigh = Arrays.copyOf(centerHigh, capacity);
+                centerLow = Arrays.copyOf(centerLow, capacity);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+            }
+            centerHigh[nodes] = ch;
+            centerLow[nodes] = cl;
+            from[nodes] = start;
+            to[nodes] = end;
+            return nodes++;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ *     {@link RangeMap} specialization for {@code long} values such as customer or network IDs.
+ *     Values are held in a primitive array and lookups do not allocate.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     LongRangeMap&lt;V6&gt; customers = LongRangeMap.builder(Family.v6())
+ *             .put(AddressSets.parseCidr(Family.v6(), "2001:db8::/48"), 1_000_000_007L)
+ *             .build();
+ *     long customer = customers.get(address, -1);
+ * </code></pre>
+ *
+ * @param <A> address type
+ */
+public final class LongRangeMap<A extends Addr<A>> {
+    private final Boundaries<A> bounds;
+    private final long[] values;
+
+    private LongRangeMap(Boundaries<A> bounds, long[] values) {
+        this.bounds = bounds;
+        this.values = values;
+    }
+
+    /**
+     * New builder.
+     *
+     * @param family address family
+     * @return builder
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Builder<A> builder(Family<A> family) {
+        return new Builder<>(Objects.requireNonNull(family));
+    }
+
+    /**
+     * Map family.
+     *
+     * @return family
+     */
+    public Family<A> family() {
+        return bounds.family;
+    }
+
+    /**
+     * Number of ranges after merging.
+     *
+     * @return range count
+     */
+    public int size() {
+        return bounds.count;
+    }
+
+    /**
+     * Value of range containing address.
+     *
+     * @param address address to look up
+     * @param absent value returned if no range contains address
+     * @return value or {@code absent}
+     */
+    public long get(A address, long absent) {
+        int i = bounds.indexOf(address);
+        return i < 0 ? absent : values[i];
+    }
+
+    /**
+     * Value of range containing address.
+     *
+     * @param address address to look up
+     * @return value or empty
+     */
+    public OptionalLong find(A address) {
+        int i = bounds.indexOf(address);
+        return i < 0 ? OptionalLong.empty() : OptionalLong.of(values[i]);
+    }
+
+    /**
+     * All entries from least to greatest.
+     *
+     * @return entries
+     */
+    public Stream<Map.Entry<Range<A>, Long>> entries() {
+        return entries(IntStream.range(0, bounds.count));
+    }
+
+    /**
+     * Entries whose ranges overlap span, from least to greatest.
+     * Entry ranges are not clipped to span.
+     *
+     * @param span query range
+     * @return entries
+     */
+    public Stream<Map.Entry<Range<A>, Long>> entries(Range<A> span) {
+        return entries(bounds.overlapping(span));
+    }
+
+    private Stream<Map.Entry<Range<A>, Long>> entries(IntStream indices) {
+        return indices.mapToObj(i -> Map.entry(bounds.range(i), values[i]));
+    }
+
+    @Override
+    public String toString() {
+        return "LongRangeMap{" + family() + ", " + size() + " ranges}";
+    }
+
+    /**
+     * <p>
+     *     Collects entries for {@link LongRangeMap}.
+     *     Entries may be added in any order but ranges must not overlap.
+     *     Instances are not thread-safe.
+     * </p>
+     *
+     * @param <A> address type
+     */
+    public static final class Builder<A extends Addr<A>> {
+        private final Family<A> family;
+        private final RangeEntries entries = new RangeEntries();
+        private long[] values = new long[16];
+
+        private Builder(Family<A> family) {
+            this.family = family;
+        }
+
+        /**
+         * Adds entry.
+         *
+         * @param range key
+         * @param value value
+         * @return this
+         */
+        public Builder<A> put(Range<A> range, long value) {
+            int i = entries.add(range);
+            if (i == values.length) {
+                values = Arrays.copyOf(values, i * 2);
+            }
+            values[i] = value;
+            return this;
+        }
+
+        /**
+         * Creates map.
+         * Adjacent ranges with equal values are merged.
+         *
+         * @return immutable map
+         * @throws IllegalArgumentException if ranges overlap
+         */
+        public LongRangeMap<A> build() {
+            var c = entries.coalesce(family, (i, j) -> values[i] == values[j]);
+            long[] merged = new long[c.source.length];
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = values[c.source[i]];
+            }
+            return new LongRangeMap<>(c.bounds, merged);
+        }
+    }
+}
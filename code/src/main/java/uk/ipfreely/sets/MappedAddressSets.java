@@ -0,0 +1,150 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.ParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Read-only {@link AddressSet}s stored off-heap in memory-mapped files.
+ * </p>
+ * <p>
+ *     Opening a file maps it without reading the content so takes constant time regardless of size.
+ *     {@link AddressSet#contains(Addr)} is a binary search over the mapped ranges
+ *     and {@link AddressSet#ranges()} reads ranges on demand.
+ *     Processes mapping the same file share the operating system page cache.
+ *     Mappings are released when the returned set becomes unreachable.
+ *     Files MUST NOT be modified while mapped; write to a new file and move it into place instead.
+ * </p>
+ * <p>
+ *     Opening validates the header and file size only.
+ *     Range records are trusted to be ascending and non-contiguous as written by {@link #write(AddressSet, Path)};
+ *     sets mapped from other files behave unpredictably.
+ * </p>
+ * <table border="1">
+ *     <caption>Version 1 Layout</caption>
+ *     <tr><th>Field</th><th>Encoding</th></tr>
+ *     <tr><td>Magic</td><td>ASCII {@code "IPAM"}</td></tr>
+ *     <tr><td>Version</td><td>byte {@code 1}</td></tr>
+ *     <tr><td>Family</td><td>byte {@code 4} (IPv4), {@code 6} (IPv6) or {@code 0} (empty set)</td></tr>
+ *     <tr><td>Reserved</td><td>two zero bytes</td></tr>
+ *     <tr><td>Range count</td><td>64-bit</td></tr>
+ *     <tr><td>Ranges</td><td>first &amp; last as two 32-bit (IPv4) or four 64-bit (IPv6) values per {@link Range}</td></tr>
+ * </table>
+ * <p>
+ *     Values are big-endian and unsigned.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     MappedAddressSets.write(denyList, path);
+ *     // in other processes
+ *     AddressSet&lt;V6&gt; deny = MappedAddressSets.open(Family.v6(), path);
+ * </code></pre>
+ */
+public final class MappedAddressSets {
+    static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'I', 'P', 'A', 'M'};
+    private static final int BUFFER = 1 << 16;
+
+    private MappedAddressSets() {}
+
+    /**
+     * Writes set to file in mappable format.
+     * The file is created or truncated.
+     *
+     * @param set source
+     * @param file destination
+     * @throws IOException on I/O error
+     */
+    public static void write(AddressSet<?> set, Path file) throws IOException {
+        write(set.ranges().iterator(), file);
+    }
+
+    /**
+     * Writes ranges to file in mappable format.
+     *
+     * @param it ascending, non-contiguous ranges of one family
+     * @param file destination
+     * @throws IOException on I/O error
+     */
+    static void write(Iterator<? extends Range<?>> it, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(BUFFER);
+            buf.position(Mapping.HEADER);
+            long count = 0;
+            Family<?> family = null;
+            while (it.hasNext()) {
+                Range<?> r = it.next();
+                Addr<?> first = r.first();
+                Addr<?> last = r.last();
+                family = first.family();
+                if (buf.remaining() < RangeTable.rangeSize(family)) {
+                    Mapping.drain(channel, buf);
+                }
+                if (family == Family.v4()) {
+                    buf.putInt((int) first.lowBits());
+                    buf.putInt((int) last.lowBits());
+                } else {
+                    buf.putLong(first.highBits());
+                    buf.putLong(first.lowBits());
+                    buf.putLong(last.highBits());
+                    buf.putLong(last.lowBits());
+                }
+                count++;
+            }
+            Mapping.drain(channel, buf);
+            Mapping.header(channel, MAGIC, VERSION, family, count);
+        }
+    }
+
+    /**
+     * Maps set of any family from file.
+     *
+     * @param file source
+     * @return set backed by file
+     * @throws IOException on I/O error
+     * @throws ParseException if the header or file size is invalid or a single range is reversed
+     */
+    public static AddressSet<?> open(Path file) throws IOException {
+        return open(null, file);
+    }
+
+    /**
+     * Maps set of given family from file.
+     *
+     * @param family expected family
+     * @param file source
+     * @return set backed by file
+     * @param <A> address type
+     * @throws IOException on I/O error
+     * @throws ParseException if the header or file size is invalid, a single range is reversed or the family is wrong
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Addr<A>> AddressSet<A> open(Family<A> family, Path file) throws IOException {
+        Mapping map = Mapping.map(file);
+        int tag = map.header(MAGIC, VERSION);
+        long count = map.count();
+        if (tag == Mapping.EMPTY) {
+            validate(count == 0 && map.size() == Mapping.HEADER, "Empty set has ranges", count, ParseException::new);
+            return AddressSets.of();
+        }
+        Family<A> actual = (Family<A>) (tag == Mapping.V4 ? Family.v4() : Family.v6());
+        validate(family == null || family == actual, "Wrong IP type", actual, ParseException::new);
+        var table = RangeTable.open(actual, map, 0);
+        validate(count > 0, "Set has no ranges", count, ParseException::new);
+        validate(count > 1 || table.ordered(0), "Range first exceeds last", count, ParseException::new);
+        return count == 1 ? table.range(0) : new MappedSet<>(table);
+    }
+}
@@ -0,0 +1,59 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.util.Iterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link AddressSet} over a mapped {@link RangeTable}.
+ */
+final class MappedSet<A extends Addr<A>> extends AbstractAddressSet<A> {
+    private final RangeTable<A> table;
+
+    /**
+     * @param table more than one range
+     */
+    MappedSet(RangeTable<A> table) {
+        this.table = table;
+    }
+
+    @Override
+    public Stream<Range<A>> ranges() {
+        return LongStream.range(0, table.count()).mapToObj(table::range);
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    @Override
+    public boolean contains(Addr<?> address) {
+        return table.indexOf(address) >= 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        final int LIMIT = 5;
+        long count = table.count();
+        var buf = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < Math.min(count, LIMIT); i++) {
+            buf.add(table.range(i).toString());
+        }
+        if (count > LIMIT) {
+            buf.add("[" + count + "...]");
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,147 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Family;
+import uk.ipfreely.ParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * Read-only memory map of a whole file split into fixed size segments
+ * so files larger than {@link Integer#MAX_VALUE} bytes can be addressed.
+ * Values must be aligned to their own width so they never straddle segments.
+ * Pages are shared with other processes mapping the same file.
+ * <p>
+ *     Mapped file formats share a 16 byte header:
+ *     4 byte magic; version byte; family byte ({@code 0}, {@code 4} or {@code 6});
+ *     two reserved zero bytes; 64-bit record count.
+ * </p>
+ */
+final class Mapping {
+    static final int HEADER = 16;
+    static final int EMPTY = 0;
+    static final int V4 = 4;
+    static final int V6 = 6;
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final ByteBuffer[] segments;
+    private final long size;
+
+    private Mapping(ByteBuffer[] segments, long size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * Maps file.
+     * Mapping does not read file content so is constant time for practical file sizes.
+     * The mapping remains valid after this method returns and is released when unreachable.
+     *
+     * @param file source
+     * @return mapping
+     * @throws IOException on I/O error
+     */
+    static Mapping map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS);
+            ByteBuffer[] segments = new ByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, SEGMENT_MASK + 1));
+            }
+            return new Mapping(segments, size);
+        }
+    }
+
+    /**
+     * Writes header to start of file.
+     *
+     * @param channel destination
+     * @param magic format identifier
+     * @param version format version
+     * @param family family or null for empty
+     * @param count number of records
+     * @throws IOException on I/O error
+     */
+    static void header(FileChannel channel, byte[] magic, int version, Family<?> family, long count) throws IOException {
+        int tag = family == null ? EMPTY : family == Family.v4() ? V4 : V6;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER)
+                .put(magic)
+                .put((byte) version)
+                .put((byte) tag)
+                .putShort((short) 0)
+                .putLong(count)
+                .flip();
+        long position = 0;
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+    }
+
+    /**
+     * Writes buffer content to channel and clears it.
+     *
+     * @param channel destination
+     * @param buf source
+     * @throws IOException on I/O error
+     */
+    static void drain(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    /**
+     * Validates header.
+     *
+     * @param magic expected format identifier
+     * @param version expected format version
+     * @return family tag
+     * @throws ParseException on invalid header
+     */
+    int header(byte[] magic, int version) {
+        validate(size >= HEADER, "File too small", size, ParseException::new);
+        for (int i = 0; i < magic.length; i++) {
+            validate(get(i) == magic[i], "Unrecognized file format", get(i), ParseException::new);
+        }
+        validate(get(magic.length) == version, "Unsupported version", get(magic.length), ParseException::new);
+        int tag = get(magic.length + 1);
+        validate(tag == EMPTY || tag == V4 || tag == V6, "Unknown family", tag, ParseException::new);
+        return tag;
+    }
+
+    /**
+     * @return record count from header
+     */
+    long count() {
+        return getLong(Long.BYTES);
+    }
+
+    long size() {
+        return size;
+    }
+
+    byte get(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)].get((int) (offset & SEGMENT_MASK));
+    }
+
+    int getInt(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)].getInt((int) (offset & SEGMENT_MASK));
+    }
+
+    long getLong(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)].getLong((int) (offset & SEGMENT_MASK));
+    }
+}
@@ -0,0 +1,295 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Batch membership tests of primitive address values against an {@link AddressSet}.
+ * </p>
+ * <p>
+ *     The set's ranges are copied into primitive arrays once, on creation.
+ *     Batches already in ascending order are merge-joined against the ranges using galloping search.
+ *     Other batches are processed in groups of {@value #LANES} branch-free binary searches advanced in lock step
+ *     so the processor can overlap their memory accesses.
+ *     Results are identical to calling {@link AddressSet#contains(Addr)} per address.
+ * </p>
+ * <p>
+ *     Instances are immutable and thread-safe.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     Membership deny = Membership.of(denyList);
+ *     BitSet hits = new BitSet();
+ *     deny.containsAll(sourceAddresses, hits);
+ * </code></pre>
+ */
+public final class Membership {
+    static final int LANES = 8;
+
+    private final Family<?> family;
+    private final int count;
+    // IPv4: first & last with sign bit flipped
+    private final int[] first;
+    private final int[] last;
+    // IPv6: first & last bits with sign bit flipped
+    private final long[] fh;
+    private final long[] fl;
+    private final long[] lh;
+    private final long[] ll;
+
+    private Membership(AddressSet<?> set) {
+        Range<?>[] ranges = set.ranges().toArray(Range[]::new);
+        int n = ranges.length;
+        this.family = n == 0 ? null : ranges[0].first().family();
+        this.count = n;
+        int n4 = family == Family.v4() ? n : 0;
+        int n6 = n - n4;
+        this.first = new int[n4];
+        this.last = new int[n4];
+        for (int i = 0; i < n4; i++) {
+            first[i] = (int) ranges[i].first().lowBits() ^ Integer.MIN_VALUE;
+            last[i] = (int) ranges[i].last().lowBits() ^ Integer.MIN_VALUE;
+        }
+        this.fh = new long[n6];
+        this.fl = new long[n6];
+        this.lh = new long[n6];
+        this.ll = new long[n6];
+        for (int i = 0; i < n6; i++) {
+            fh[i] = ranges[i].first().highBits() ^ Long.MIN_VALUE;
+            fl[i] = ranges[i].first().lowBits() ^ Long.MIN_VALUE;
+            lh[i] = ranges[i].last().highBits() ^ Long.MIN_VALUE;
+            ll[i] = ranges[i].last().lowBits() ^ Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Prepares set for batch queries.
+     *
+     * @param set the set
+     * @return membership tester
+     */
+    public static Membership of(AddressSet<?> set) {
+        return new Membership(Objects.requireNonNull(set));
+    }
+
+    /**
+     * <p>
+     *     Tests IPv4 addresses.
+     *     Bit {@code i} of {@code out} is set if {@code addresses[i]} is in the set and cleared otherwise.
+     *     Bits beyond {@code addresses.length} are not modified.
+     * </p>
+     * <p>
+     *     No address matches a set of IPv6 addresses.
+     * </p>
+     *
+     * @param addresses unsigned IPv4 values as in {@link Family#parse(int)}
+     * @param out results
+     */
+    public void containsAll(int[] addresses, BitSet out) {
+        int n = addresses.length;
+        long[] words = new long[(n + Long.SIZE - 1) / Long.SIZE];
+        if (family == Family.v4()) {
+            if (sorted(addresses)) {
+                join(addresses, words);
+            } else {
+                search(addresses, words);
+            }
+        }
+        publish(words, n, out);
+    }
+
+    /**
+     * <p>
+     *     Tests IPv6 addresses.
+     *     Bit {@code i} of {@code out} is set if the address {@code high[i]}, {@code low[i]} is in the set
+     *     and cleared otherwise.
+     *     Bits beyond {@code high.length} are not modified.
+     * </p>
+     * <p>
+     *     No address matches a set of IPv4 addresses.
+     * </p>
+     *
+     * @param high {@link Addr#highBits()} values
+     * @param low {@link Addr#lowBits()} values; same length as high
+     * @param out results
+     */
+    public void containsAll(long[] high, long[] low, BitSet out) {
+        validate(high.length == low.length, "Arrays must be the same length", low.length, IllegalArgumentException::new);
+        int n = high.length;
+        long[] words = new long[(n + Long.SIZE - 1) / Long.SIZE];
+        if (family == Family.v6()) {
+            if (sorted(high, low)) {
+                join(high, low, words);
+            } else {
+                search(high, low, words);
+            }
+        }
+        publish(words, n, out);
+    }
+
+    private static void publish(long[] words, int n, BitSet out) {
+        out.clear(0, n);
+        out.or(BitSet.valueOf(words));
+    }
+
+    private static boolean sorted(int[] addresses) {
+        for (int i = 1; i < addresses.length; i++) {
+            if (Integer.compareUnsigned(addresses[i - 1], addresses[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sorted(long[] high, long[] low) {
+        for (int i = 1; i < high.length; i++) {
+            if (Unsigned.compare(high[i - 1], low[i - 1], high[i], low[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void join(int[] addresses, long[] words) {
+        int r = 0;
+        for (int i = 0; i < addresses.length; i++) {
+            int x = addresses[i] ^ Integer.MIN_VALUE;
+            if (last[r] < x) {
+                r = gallop(r, x);
+                if (r == count) {
+                    return;
+                }
+            }
+            if (first[r] <= x) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * @return index of first range after r ending at or after x or count
+     */
+    private int gallop(int r, int x) {
+        int lo = r + 1;
+        int step = 1;
+        while (lo + step < count && last[lo + step] < x) {
+            lo += step;
+            step <<= 1;
+        }
+        int hi = Math.min(lo + step, count);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (last[mid] < x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void join(long[] high, long[] low, long[] words) {
+        int r = 0;
+        for (int i = 0; i < high.length; i++) {
+            long xh = high[i] ^ Long.MIN_VALUE;
+            long xl = low[i] ^ Long.MIN_VALUE;
+            if (lessThan(lh[r], ll[r], xh, xl)) {
+                r = gallop(r, xh, xl);
+                if (r == count) {
+                    return;
+                }
+            }
+            if (!lessThan(xh, xl, fh[r], fl[r])) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    private int gallop(int r, long xh, long xl) {
+        int lo = r + 1;
+        int step = 1;
+        while (lo + step < count && lessThan(lh[lo + step], ll[lo + step], xh, xl)) {
+            lo += step;
+            step <<= 1;
+        }
+        int hi = Math.min(lo + step, count);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lessThan(lh[mid], ll[mid], xh, xl)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void search(int[] addresses, long[] words) {
+        int[] base = new int[LANES];
+        int[] x = new int[LANES];
+        for (int start = 0; start < addresses.length; start += LANES) {
+            int lanes = Math.min(LANES, addresses.length - start);
+            for (int j = 0; j < lanes; j++) {
+                base[j] = 0;
+                x[j] = addresses[start + j] ^ Integer.MIN_VALUE;
+            }
+            // greatest index with first <= x, or 0
+            for (int len = count; len > 1; len -= len >>> 1) {
+                int half = len >>> 1;
+                for (int j = 0; j < lanes; j++) {
+                    base[j] = first[base[j] + half] <= x[j] ? base[j] + half : base[j];
+                }
+            }
+            for (int j = 0; j < lanes; j++) {
+                int b = base[j];
+                int i = start + j;
+                if (first[b] <= x[j] && x[j] <= last[b]) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    private void search(long[] high, long[] low, long[] words) {
+        int[] base = new int[LANES];
+        long[] xh = new long[LANES];
+        long[] xl = new long[LANES];
+        for (int start = 0; start < high.length; start += LANES) {
+            int lanes = Math.min(LANES, high.length - start);
+            for (int j = 0; j < lanes; j++) {
+                base[j] = 0;
+                xh[j] = high[start + j] ^ Long.MIN_VALUE;
+                xl[j] = low[start + j] ^ Long.MIN_VALUE;
+            }
+            for (int len = count; len > 1; len -= len >>> 1) {
+                int half = len >>> 1;
+                for (int j = 0; j < lanes; j++) {
+                    int m = base[j] + half;
+                    base[j] = lessThan(xh[j], xl[j], fh[m], fl[m]) ? base[j] : m;
+                }
+            }
+            for (int j = 0; j < lanes; j++) {
+                int b = base[j];
+                int i = start + j;
+                if (!lessThan(xh[j], xl[j], fh[b], fl[b]) && !lessThan(lh[b], ll[b], xh[j], xl[j])) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Signed 128-bit comparison of sign flipped values.
+     */
+    private static boolean lessThan(long h0, long l0, long h1, long l1) {
+        return h0 < h1 || h0 == h1 && l0 < l1;
+    }
+}
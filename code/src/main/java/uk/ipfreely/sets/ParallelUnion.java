@@ -0,0 +1,50 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <p>
+ *     Union of many sets as a fork-join tournament.
+ *     Groups of input sets are buffered as primitive ranges in parallel;
+ *     pairs of buffers are then merged up a balanced tree, each merge a linear pass over sorted runs.
+ * </p>
+ */
+final class ParallelUnion {
+    // sets buffered by a single task
+    private static final int LEAF = 16;
+
+    private ParallelUnion() {}
+
+    /**
+     * @param sets inputs
+     * @param layout search layout
+     * @return union
+     * @param <A> address type
+     */
+    static <A extends Addr<A>> AddressSet<A> union(List<? extends AddressSet<A>> sets, SearchLayout layout) {
+        RangeBuffer<A> buffer = ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> merge(sets, 0, sets.size())));
+        return buffer.toSet(layout, true);
+    }
+
+    private static <A extends Addr<A>> RangeBuffer<A> merge(List<? extends AddressSet<A>> sets, int from, int to) {
+        if (to - from <= LEAF) {
+            RangeBuffer<A> buffer = new RangeBuffer<>();
+            for (int i = from; i < to; i++) {
+                buffer.add(sets.get(i));
+            }
+            return buffer;
+        }
+        int mid = (from + to) >>> 1;
+        ForkJoinTask<RangeBuffer<A>> left = ForkJoinTask.adapt(() -> merge(sets, from, mid)).fork();
+        RangeBuffer<A> right = merge(sets, mid, to);
+        RangeBuffer<A> result = left.join();
+        result.addAll(right);
+        return result;
+    }
+}
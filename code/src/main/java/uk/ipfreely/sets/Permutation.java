@@ -0,0 +1,268 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Every member of an {@link AddressSet} exactly once in a keyed pseudo-random order.
+ * </p>
+ * <p>
+ *     Position <code>p</code> is mapped to a member index by a balanced Feistel network over the smallest even
+ *     number of bits that can hold the greatest index.
+ *     Results beyond the set size are fed back through the network (cycle-walking) until one falls inside,
+ *     which takes fewer than four rounds on average.
+ *     The index is converted to a member by binary search over range sizes.
+ *     Iteration uses constant memory regardless of set size and sets of up to 2<sup>128</sup> members are supported.
+ * </p>
+ * <p>
+ *     Order is determined by the set and the key alone, so iteration can be resumed from any position
+ *     and workers sharing a key can take disjoint position ranges.
+ *     To resume after <code>n</code> members of <code>iterator(from, to)</code> call <code>iterator(from + n, to)</code>.
+ *     Shard <code>i</code> of <code>k</code> covers positions
+ *     <code>size * i / k</code> inclusive to <code>size * (i + 1) / k</code> exclusive.
+ * </p>
+ * <p>
+ *     The order spreads consecutive members across the set but is not cryptographically secure.
+ *     Instances are immutable and thread-safe; iterators are not.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     Permutation&lt;V4&gt; targets = AddressSets.permutation(AddressSets.parseCidr(Family.v4(), "10.0.0.0/8"), seed);
+ *     Iterator&lt;V4&gt; mine = targets.shard(workerIndex, workerCount);
+ * </code></pre>
+ *
+ * @param <A> address type
+ * @see AddressSets#permutation(AddressSet, long)
+ */
+public final class Permutation<A extends Addr<A>> implements Iterable<A> {
+    private static final int ROUNDS = 4;
+
+    // null if empty
+    private final Indexed<A> set;
+    private final BigInteger size;
+    // bits per Feistel half
+    private final int half;
+    private final long mask;
+    private final long[] keys = new long[ROUNDS];
+
+    private Permutation(AddressSet<A> source, long key) {
+        this.set = source.isEmpty() ? null : Indexed.of(source);
+        this.size = source.size();
+        int bits = size.subtract(BigInteger.ONE).bitLength();
+        this.half = Math.max(1, (bits + 1) / 2);
+        this.mask = half == Long.SIZE ? -1L : (1L << half) - 1;
+        for (int i = 0; i < ROUNDS; i++) {
+            keys[i] = Hashing.mix(key + Hashing.GOLDEN * (i + 1));
+        }
+    }
+
+    static <A extends Addr<A>> Permutation<A> of(AddressSet<A> set, long key) {
+        return new Permutation<>(set, key);
+    }
+
+    /**
+     * Number of positions.
+     *
+     * @return set size
+     */
+    public BigInteger size() {
+        return size;
+    }
+
+    /**
+     * Member at position.
+     *
+     * @param position from zero to size exclusive
+     * @return member
+     * @throws IndexOutOfBoundsException if position is out of bounds
+     */
+    public A get(BigInteger position) {
+        validate(position.signum() >= 0 && position.compareTo(size) < 0, "Position must be from zero to size exclusive", position, IndexOutOfBoundsException::new);
+        return at(position.shiftRight(Long.SIZE).longValue(), position.longValue());
+    }
+
+    /**
+     * All members.
+     *
+     * @return iterator
+     */
+    @Override
+    public Iterator<A> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Members at positions from inclusive to exclusive.
+     *
+     * @param from first position
+     * @param to end position
+     * @return iterator
+     * @throws IndexOutOfBoundsException unless zero &lt;= from &lt;= to &lt;= size
+     */
+    public Iterator<A> iterator(BigInteger from, BigInteger to) {
+        validate(from.signum() >= 0 && from.compareTo(to) <= 0, "Positions must be ascending from zero", from, IndexOutOfBoundsException::new);
+        validate(to.compareTo(size) <= 0, "Position must not exceed size", to, IndexOutOfBoundsException::new);
+        return Spliterators.iterator(walk(from, to));
+    }
+
+    /**
+     * Members in one of a number of disjoint shards which together cover the set.
+     *
+     * @param index shard; from zero to count exclusive
+     * @param count number of shards; at least one
+     * @return iterator
+     * @throws IllegalArgumentException if count is less than one or index is out of bounds
+     */
+    public Iterator<A> shard(int index, int count) {
+        validate(count >= 1, "Count must be at least 1", count, IllegalArgumentException::new);
+        validate(index >= 0 && index < count, "Index must be from zero to count exclusive", index, IllegalArgumentException::new);
+        BigInteger k = BigInteger.valueOf(count);
+        BigInteger from = size.multiply(BigInteger.valueOf(index)).divide(k);
+        BigInteger to = size.multiply(BigInteger.valueOf(index + 1L)).divide(k);
+        return iterator(from, to);
+    }
+
+    /**
+     * Splits into contiguous position ranges.
+     *
+     * @return all members
+     */
+    @Override
+    public Spliterator<A> spliterator() {
+        return walk(BigInteger.ZERO, size);
+    }
+
+    /**
+     * All members.
+     *
+     * @return stream
+     */
+    public Stream<A> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    private Walk<A> walk(BigInteger from, BigInteger to) {
+        BigInteger last = to.subtract(BigInteger.ONE);
+        return new Walk<>(this, from.shiftRight(Long.SIZE).longValue(), from.longValue(),
+                last.shiftRight(Long.SIZE).longValue(), last.longValue(), from.equals(to));
+    }
+
+    /**
+     * @return member at position
+     */
+    private A at(long high, long low) {
+        long h = high;
+        long l = low;
+        do {
+            long left;
+            long right;
+            if (half == Long.SIZE) {
+                left = h;
+                right = l;
+            } else {
+                left = (l >>> half | h << (Long.SIZE - half)) & mask;
+                right = l & mask;
+            }
+            for (long key : keys) {
+                long next = left ^ (Hashing.mix(right ^ key) & mask);
+                left = right;
+                right = next;
+            }
+            if (half == Long.SIZE) {
+                h = left;
+                l = right;
+            } else {
+                h = left >>> (Long.SIZE - half);
+                l = right | left << half;
+            }
+        } while (Unsigned.compare(h, l, set.maxHigh, set.maxLow) > 0);
+        return set.select(h, l);
+    }
+
+    private static final class Walk<A extends Addr<A>> implements Spliterator<A> {
+        private final Permutation<A> permutation;
+        private long high;
+        private long low;
+        private final long lastHigh;
+        private final long lastLow;
+        private boolean done;
+
+        Walk(Permutation<A> permutation, long high, long low, long lastHigh, long lastLow, boolean done) {
+            this.permutation = permutation;
+            this.high = high;
+            this.low = low;
+            this.lastHigh = lastHigh;
+            this.lastLow = lastLow;
+            this.done = done;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            if (done) {
+                return false;
+            }
+            A a = permutation.at(high, low);
+            if (high == lastHigh && low == lastLow) {
+                done = true;
+            } else {
+                high += Unsigned.carry(low, 1);
+                low++;
+            }
+            action.accept(a);
+            return true;
+        }
+
+        @Override
+        public Spliterator<A> trySplit() {
+            if (done || high == lastHigh && low == lastLow) {
+                return null;
+            }
+            // mid = first + (last - first) / 2
+            long dl = lastLow - low;
+            long dh = lastHigh - high - Unsigned.borrow(lastLow, low);
+            long hl = dl >>> 1 | dh << (Long.SIZE - 1);
+            long hh = dh >>> 1;
+            long ml = low + hl;
+            long mh = high + hh + Unsigned.carry(low, hl);
+            // must return prefix because ORDERED
+            Walk<A> prefix = new Walk<>(permutation, high, low, mh, ml, false);
+            high = mh + Unsigned.carry(ml, 1);
+            low = ml + 1;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            if (done) {
+                return 0;
+            }
+            long dl = lastLow - low;
+            long dh = lastHigh - high - Unsigned.borrow(lastLow, low);
+            return dh == 0 && dl >= 0 && dl < Long.MAX_VALUE
+                    ? dl + 1
+                    : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            int chrctrstcs = IMMUTABLE | DISTINCT | ORDERED | NONNULL;
+            if (estimateSize() < Long.MAX_VALUE) {
+                // when estimate is less than MAX_VALUE can report exact size
+                chrctrstcs |= SIZED | SUBSIZED;
+            }
+            return chrctrstcs;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Approximate membership filter placed in front of an {@link AddressSet} whose
+ *     {@link AddressSet#contains(Addr)} is expensive - large, memory-mapped or remote-backed sets
+ *     where most lookups are misses.
+ * </p>
+ * <p>
+ *     The set's {@link Block}s are inserted into a blocked Bloom filter as prefixes at a few selected mask lengths:
+ *     the shortest mask in the set and the most frequent masks.
+ *     Each block is inserted at the longest selected length not exceeding its own mask size.
+ *     A lookup probes the address' prefix at each selected length until one matches;
+ *     each probe reads one 64 byte block so definite negatives cost about one cache miss per selected length.
+ *     {@link #mightContain(Addr)} never returns false for a member.
+ *     Non-members are rejected except with approximately the configured false positive probability
+ *     plus any space widened by inserting blocks at shorter lengths.
+ * </p>
+ * <p>
+ *     Instances are immutable apart from their thread-safe metrics.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     Prefilter&lt;V6&gt; filter = Prefilter.of(MappedAddressSets.open(Family.v6(), path), 0.01);
+ *     AddressSet&lt;V6&gt; denied = filter.set();
+ *     boolean drop = denied.contains(source);
+ *     double avoided = (double) filter.rejected() / filter.queries();
+ * </code></pre>
+ *
+ * @param <A> address type
+ */
+public final class Prefilter<A extends Addr<A>> {
+    /**
+     * Default number of mask lengths probed per lookup.
+     */
+    public static final int DEFAULT_PROBES = 2;
+
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * Long.SIZE;
+    private static final int MAX_HASHES = 16;
+    private static final double LN2 = Math.log(2);
+    // blocked filters have a somewhat higher false positive rate than classic filters of the same size
+    private static final double BLOCKING_OVERHEAD = 1.2;
+
+    private final AddressSet<A> source;
+    private final int width;
+    // selected mask lengths ascending
+    private final int[] lengths;
+    private final long[] words;
+    private final int blocks;
+    private final int hashes;
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    private Prefilter(AddressSet<A> source, double falsePositiveRate, int probes) {
+        this.source = source;
+        Iterator<Range<A>> first = source.ranges().iterator();
+        this.width = first.hasNext() ? first.next().family().width() : 0;
+        long[] histogram = new long[width + 1];
+        blocks(source, width, (high, low, maskSize) -> histogram[maskSize]++);
+        this.lengths = select(histogram, probes);
+        long keys = 0;
+        for (long n : histogram) {
+            keys += n;
+        }
+        double perProbe = falsePositiveRate / Math.max(1, lengths.length);
+        double bitsPerKey = -Math.log(perProbe) / (LN2 * LN2) * BLOCKING_OVERHEAD;
+        long blockCount = Math.max(1, (long) Math.ceil(keys * bitsPerKey / BLOCK_BITS));
+        validate(blockCount <= Integer.MAX_VALUE / BLOCK_WORDS, "Filter too large", blockCount, IllegalArgumentException::new);
+        this.blocks = (int) blockCount;
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerKey / BLOCKING_OVERHEAD * LN2)));
+        this.words = new long[blocks * BLOCK_WORDS];
+        blocks(source, width, this::insert);
+    }
+
+    /**
+     * Builds filter with {@link #DEFAULT_PROBES}.
+     *
+     * @param set source
+     * @param falsePositiveRate target probability of non-members passing the filter; between zero and one exclusive
+     * @return filter
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Prefilter<A> of(AddressSet<A> set, double falsePositiveRate) {
+        return of(set, falsePositiveRate, DEFAULT_PROBES);
+    }
+
+    /**
+     * Builds filter.
+     * More probes make lookups slower but reduce the space widened by inserting blocks at shorter mask lengths.
+     *
+     * @param set source
+     * @param falsePositiveRate target probability of non-members passing the filter; between zero and one exclusive
+     * @param probes maximum mask lengths probed per lookup; at least one
+     * @return filter
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Prefilter<A> of(AddressSet<A> set, double falsePositiveRate, int probes) {
+        Objects.requireNonNull(set);
+        validate(falsePositiveRate > 0 && falsePositiveRate < 1, "False positive rate must be between 0 and 1", falsePositiveRate, IllegalArgumentException::new);
+        validate(probes >= 1, "Probes must be at least 1", probes, IllegalArgumentException::new);
+        return new Prefilter<>(set, falsePositiveRate, probes);
+    }
+
+    /**
+     * Minimal CIDR decomposition computed on primitive bits so that very large ranges are exact.
+     */
+    private static void blocks(AddressSet<?> set, int width, BlockVisitor visitor) {
+        set.ranges().forEach(r -> {
+            long h = r.first().highBits();
+            long l = r.first().lowBits();
+            long lh = r.last().highBits();
+            long ll = r.last().lowBits();
+            while (true) {
+                int bits = Unsigned.blockBits(h, l, lh, ll, width);
+                visitor.visit(h, l, width - bits);
+                long eh = h | Unsigned.hostMaskHigh(bits);
+                long el = l | Unsigned.hostMaskLow(bits);
+                if (eh == lh && el == ll) {
+                    return;
+                }
+                l = el + 1;
+                h = l == 0 ? eh + 1 : eh;
+            }
+        });
+    }
+
+    /**
+     * @return the shortest mask then the most frequent up to probes, ascending
+     */
+    private static int[] select(long[] histogram, int probes) {
+        boolean[] chosen = new boolean[histogram.length];
+        int count = 0;
+        for (int m = 0; m < histogram.length && count == 0; m++) {
+            if (histogram[m] > 0) {
+                chosen[m] = true;
+                count++;
+            }
+        }
+        while (count > 0 && count < probes) {
+            int best = -1;
+            for (int m = 0; m < histogram.length; m++) {
+                if (!chosen[m] && histogram[m] > 0 && (best < 0 || histogram[m] > histogram[best])) {
+                    best = m;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            chosen[best] = true;
+            count++;
+        }
+        int[] lengths = new int[count];
+        for (int m = 0, i = 0; m < chosen.length; m++) {
+            if (chosen[m]) {
+                lengths[i++] = m;
+            }
+        }
+        return lengths;
+    }
+
+    private void insert(long high, long low, int maskSize) {
+        int length = lengths[0];
+        for (int l : lengths) {
+            if (l <= maskSize) {
+                length = l;
+            }
+        }
+        long h = hash(high, low, length);
+        int base = block(h);
+        int a = (int) h;
+        int step = (int) (h >>> 23) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (a + i * step) & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Tests filter.
+     * Metrics are not updated.
+     *
+     * @param address candidate
+     * @return false if address is definitely not in the set
+     */
+    public boolean mightContain(Addr<?> address) {
+        if (address.family().width() != width) {
+            return false;
+        }
+        long high = address.highBits();
+        long low = address.lowBits();
+        for (int length : lengths) {
+            if (test(hash(high, low, length))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean test(long h) {
+        int base = block(h);
+        int a = (int) h;
+        int step = (int) (h >>> 23) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (a + i * step) & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int block(long h) {
+        return (int) ((h >>> 32) * blocks >>> 32) * BLOCK_WORDS;
+    }
+
+    /**
+     * @return hash of address prefix at mask length
+     */
+    private long hash(long high, long low, int length) {
+        int host = width - length;
+        long h = high & ~Unsigned.hostMaskHigh(host);
+        long l = low & ~Unsigned.hostMaskLow(host);
+        return Hashing.mix(l ^ Hashing.mix(h ^ length * Hashing.GOLDEN));
+    }
+
+    /**
+     * <p>
+     *     Source set with {@link AddressSet#contains(Addr)} guarded by this filter.
+     *     Lookups rejected by the filter do not reach the source.
+     *     Lookups through this set update the metrics.
+     * </p>
+     * <p>
+     *     {@link Range}s and empty sets answer lookups in constant time and are returned unchanged.
+     * </p>
+     *
+     * @return equal set
+     */
+    public AddressSet<A> set() {
+        return source instanceof Range || lengths.length == 0 ? source : new Filtered();
+    }
+
+    /**
+     * Mask lengths probed per lookup, ascending.
+     *
+     * @return lengths
+     */
+    public int[] lengths() {
+        return lengths.clone();
+    }
+
+    /**
+     * Filter size.
+     *
+     * @return bytes
+     */
+    public long bytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    /**
+     * Lookups through {@link #set()}.
+     *
+     * @return count
+     */
+    public long queries() {
+        return queries.sum();
+    }
+
+    /**
+     * Lookups through {@link #set()} answered by the filter alone.
+     *
+     * @return count
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Lookups through {@link #set()} that passed the filter but were not members.
+     *
+     * @return count
+     */
+    public long falsePositives() {
+        return falsePositives.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Prefilter{" + bytes() + " bytes, queries=" + queries() + ", rejected=" + rejected()
+                + ", falsePositives=" + falsePositives() + "}";
+    }
+
+    private final class Filtered extends AbstractAddressSet<A> {
+        @Override
+        public boolean contains(Addr<?> address) {
+            queries.increment();
+            if (!mightContain(address)) {
+                rejected.increment();
+                return false;
+            }
+            boolean member = source.contains(address);
+            if (!member) {
+                falsePositives.increment();
+            }
+            return member;
+        }
+
+        @Override
+        public Stream<Range<A>> ranges() {
+            return source.ranges();
+        }
+
+        @Override
+        public Iterator<A> iterator() {
+            return source.iterator();
+        }
+
+        @Override
+        public BigInteger size() {
+            return source.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return source.toString();
+        }
+    }
+
+    @FunctionalInterface
+    private interface BlockVisitor {
+        void visit(long high, long low, int maskSize);
+    }
+}
@@ -0,0 +1,306 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.ParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Read-only, memory-mapped longest-prefix-match index of {@link Block} to {@code long} payload.
+ *     Payloads are typically identifiers like ASNs, points of presence or customer IDs;
+ *     {@code int} values are widened.
+ * </p>
+ * <p>
+ *     {@link Builder} flattens nested blocks into ordered, non-overlapping ranges
+ *     each carrying the payload of the most specific block covering it.
+ *     Adjacent ranges with equal payloads are merged.
+ *     The index file is used directly via memory-map without deserialization:
+ *     opening takes constant time and each lookup is a binary search over page-cached records
+ *     shared by all processes that map the file.
+ *     Mappings are released when the index becomes unreachable.
+ *     Files MUST NOT be modified while mapped.
+ * </p>
+ * <table border="1">
+ *     <caption>Version 1 Layout</caption>
+ *     <tr><th>Field</th><th>Encoding</th></tr>
+ *     <tr><td>Magic</td><td>ASCII {@code "IPLM"}</td></tr>
+ *     <tr><td>Version</td><td>byte {@code 1}</td></tr>
+ *     <tr><td>Family</td><td>byte {@code 4} (IPv4) or {@code 6} (IPv6)</td></tr>
+ *     <tr><td>Reserved</td><td>two zero bytes</td></tr>
+ *     <tr><td>Range count</td><td>64-bit</td></tr>
+ *     <tr><td>Ranges</td><td>first &amp; last as two 32-bit (IPv4) or four 64-bit (IPv6) values then 64-bit payload</td></tr>
+ * </table>
+ * <p>
+ *     Values are big-endian.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     PrefixIndex.builder(Family.v4())
+ *             .put(AddressSets.parseCidr(Family.v4(), "10.0.0.0/8"), 64500)
+ *             .put(AddressSets.parseCidr(Family.v4(), "10.1.0.0/16"), 64501)
+ *             .write(path);
+ *     // in other processes
+ *     PrefixIndex&lt;V4&gt; asns = PrefixIndex.open(Family.v4(), path);
+ *     // 64501
+ *     long asn = asns.find(Family.v4().parse("10.1.2.3"), -1);
+ * </code></pre>
+ *
+ * @param <A> address type
+ */
+public final class PrefixIndex<A extends Addr<A>> {
+    static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'I', 'P', 'L', 'M'};
+    private static final int BUFFER = 1 << 16;
+
+    private final RangeTable<A> table;
+    private final Mapping map;
+
+    private PrefixIndex(RangeTable<A> table, Mapping map) {
+        this.table = table;
+        this.map = map;
+    }
+
+    /**
+     * New index builder.
+     *
+     * @param family address family
+     * @return builder
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Builder<A> builder(Family<A> family) {
+        return new Builder<>(Objects.requireNonNull(family));
+    }
+
+    /**
+     * Maps index of any family from file.
+     *
+     * @param file source
+     * @return index backed by file
+     * @throws IOException on I/O error
+     * @throws ParseException if the file is not a valid index
+     */
+    public static PrefixIndex<?> open(Path file) throws IOException {
+        return open(null, file);
+    }
+
+    /**
+     * Maps index of given family from file.
+     *
+     * @param family expected family
+     * @param file source
+     * @return index backed by file
+     * @param <A> address type
+     * @throws IOException on I/O error
+     * @throws ParseException if the file is not a valid index or is the wrong family
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Addr<A>> PrefixIndex<A> open(Family<A> family, Path file) throws IOException {
+        Mapping map = Mapping.map(file);
+        int tag = map.header(MAGIC, VERSION);
+        validate(tag != Mapping.EMPTY, "Index has no family", tag, ParseException::new);
+        Family<A> actual = (Family<A>) (tag == Mapping.V4 ? Family.v4() : Family.v6());
+        validate(family == null || family == actual, "Wrong IP type", actual, ParseException::new);
+        return new PrefixIndex<>(RangeTable.open(actual, map, Long.BYTES), map);
+    }
+
+    /**
+     * Index family.
+     *
+     * @return family
+     */
+    public Family<A> family() {
+        return table.family();
+    }
+
+    /**
+     * Payload of the longest prefix containing address.
+     *
+     * @param address address to look up
+     * @return payload or empty if no prefix matches
+     */
+    public OptionalLong find(A address) {
+        long i = table.indexOf(address);
+        return i < 0 ? OptionalLong.empty() : OptionalLong.of(map.getLong(table.extra(i)));
+    }
+
+    /**
+     * Allocation free version of {@link #find(Addr)}.
+     *
+     * @param address address to look up
+     * @param absent value returned if no prefix matches
+     * @return payload or {@code absent}
+     */
+    public long find(A address, long absent) {
+        long i = table.indexOf(address);
+        return i < 0 ? absent : map.getLong(table.extra(i));
+    }
+
+    /**
+     * Number of flattened ranges in the index.
+     *
+     * @return range count
+     */
+    public long ranges() {
+        return table.count();
+    }
+
+    @Override
+    public String toString() {
+        return "PrefixIndex{" + family() + ", " + ranges() + " ranges}";
+    }
+
+    /**
+     * <p>
+     *     Collects {@link Block}/payload entries and writes index files.
+     *     Entries are held on-heap until written.
+     *     Instances are not thread-safe.
+     * </p>
+     *
+     * @param <A> address type
+     */
+    public static final class Builder<A extends Addr<A>> {
+        private final Family<A> family;
+        private final TreeMap<Block<A>, Long> entries = new TreeMap<>(
+                Comparator.<Block<A>, A>comparing(Block::first).thenComparingInt(Block::maskSize));
+
+        private Builder(Family<A> family) {
+            this.family = family;
+        }
+
+        /**
+         * Adds entry.
+         * An existing entry for the same block is replaced.
+         *
+         * @param block prefix
+         * @param payload value
+         * @return this
+         */
+        public Builder<A> put(Block<A> block, long payload) {
+            entries.put(block, payload);
+            return this;
+        }
+
+        /**
+         * Writes index to file.
+         * The file is created or truncated.
+         * The builder may be reused.
+         *
+         * @param file destination
+         * @throws IOException on I/O error
+         */
+        public void write(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                var out = new Flattener<A>(channel, family);
+                Deque<Map.Entry<Block<A>, Long>> open = new ArrayDeque<>();
+                for (var e : entries.entrySet()) {
+                    A first = e.getKey().first();
+                    while (!open.isEmpty() && open.peek().getKey().last().compareTo(first) < 0) {
+                        var closed = open.pop();
+                        out.until(closed.getKey().last(), closed.getValue());
+                    }
+                    if (!open.isEmpty() && out.before(first)) {
+                        out.until(first.prev(), open.peek().getValue());
+                    }
+                    out.start(first);
+                    open.push(e);
+                }
+                while (!open.isEmpty()) {
+                    var closed = open.pop();
+                    out.until(closed.getKey().last(), closed.getValue());
+                }
+                out.finish();
+            }
+        }
+    }
+
+    /**
+     * Writes flattened ranges, merging adjacent ranges with equal payloads.
+     */
+    private static final class Flattener<A extends Addr<A>> {
+        private final FileChannel channel;
+        private final Family<A> family;
+        private final ByteBuffer buf = ByteBuffer.allocate(BUFFER);
+        private long count;
+        // next unwritten address; null when past max
+        private A cursor;
+        private A pendingFirst;
+        private A pendingLast;
+        private long pendingPayload;
+
+        Flattener(FileChannel channel, Family<A> family) {
+            this.channel = channel;
+            this.family = family;
+            buf.position(Mapping.HEADER);
+        }
+
+        void start(A first) {
+            cursor = first;
+        }
+
+        boolean before(A address) {
+            return cursor.compareTo(address) < 0;
+        }
+
+        /**
+         * Emits range from cursor to last if not already covered.
+         */
+        void until(A last, long payload) throws IOException {
+            if (cursor == null || cursor.compareTo(last) > 0) {
+                return;
+            }
+            if (pendingFirst != null && pendingPayload == payload && pendingLast.next().equals(cursor)) {
+                pendingLast = last;
+            } else {
+                flush();
+                pendingFirst = cursor;
+                pendingLast = last;
+                pendingPayload = payload;
+            }
+            cursor = last.equals(family.max()) ? null : last.next();
+        }
+
+        void finish() throws IOException {
+            flush();
+            Mapping.drain(channel, buf);
+            Mapping.header(channel, MAGIC, VERSION, family, count);
+        }
+
+        private void flush() throws IOException {
+            if (pendingFirst == null) {
+                return;
+            }
+            if (buf.remaining() < RangeTable.rangeSize(family) + Long.BYTES) {
+                Mapping.drain(channel, buf);
+            }
+            if (family == Family.v4()) {
+                buf.putInt((int) pendingFirst.lowBits());
+                buf.putInt((int) pendingLast.lowBits());
+            } else {
+                buf.putLong(pendingFirst.highBits());
+                buf.putLong(pendingFirst.lowBits());
+                buf.putLong(pendingLast.highBits());
+                buf.putLong(pendingLast.lowBits());
+            }
+            buf.putLong(pendingPayload);
+            count++;
+        }
+    }
+}
@@ -62,6 +62,20 @@ public interface Range<A extends Addr<A>> extends AddressSet<A> {
         return last().subtract(first()).next().toBigInteger();
     }
 
+    /**
+     * Number of {@link Addr}es in range if it fits.
+     *
+     * @return size or -1 if size is greater than {@link Long#MAX_VALUE}
+     */
+    default long sizeAsLong() {
+        A first = first();
+        A last = last();
+        // last - first
+        long dl = last.lowBits() - first.lowBits();
+        long dh = last.highBits() - first.highBits() - Unsigned.borrow(last.lowBits(), first.lowBits());
+        return dh == 0 && dl >= 0 && dl < Long.MAX_VALUE ? dl + 1 : -1;
+    }
+
     /**
      * Range is never empty.
      *
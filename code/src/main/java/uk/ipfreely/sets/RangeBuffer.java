@@ -0,0 +1,345 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Mutable union of ranges held as primitive 128-bit first and last values.
+ * </p>
+ * <p>
+ *     Ranges that extend the most recent range in ascending order are merged on arrival,
+ *     so sorted input uses space proportional to the result.
+ *     Other input is appended and the buffer sorted and coalesced when it fills.
+ *     Normalized buffers are combined by a linear merge.
+ * </p>
+ * <p>
+ *     As a {@link Collection} the elements are the buffered ranges, whose union is the result.
+ *     Not thread-safe.
+ * </p>
+ *
+ * @param <A> address type
+ */
+final class RangeBuffer<A extends Addr<A>> extends AbstractCollection<AddressSet<A>> {
+    // first high, first low, last high, last low
+    private static final int STRIDE = 4;
+    private static final int INITIAL = 64;
+    private static final long NARROW = 0xFFFFFFFFL;
+
+    private Family<A> family;
+    private long[] records = new long[INITIAL * STRIDE];
+    private int count;
+    // leading records that are ascending with gaps between them
+    private int clean;
+    // range count that triggers normalization
+    private int threshold = INITIAL;
+
+    @Override
+    public boolean add(AddressSet<A> set) {
+        if (set instanceof Range<A> r) {
+            add(r);
+        } else {
+            set.ranges().forEach(this::add);
+        }
+        return true;
+    }
+
+    void add(Range<A> range) {
+        A first = range.first();
+        A last = range.last();
+        family = first.family();
+        append(first.highBits(), first.lowBits(), last.highBits(), last.lowBits());
+    }
+
+    void addAddress(A address) {
+        family = address.family();
+        long high = address.highBits();
+        long low = address.lowBits();
+        append(high, low, high, low);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends AddressSet<A>> c) {
+        if (c instanceof RangeBuffer<?> b) {
+            @SuppressWarnings("unchecked")
+            RangeBuffer<A> other = (RangeBuffer<A>) b;
+            absorb(other);
+            return true;
+        }
+        return super.addAll(c);
+    }
+
+    private void append(long fh, long fl, long lh, long ll) {
+        int p = (count - 1) * STRIDE;
+        if (count > 0
+                && Unsigned.compare(fh, fl, records[p], records[p + 1]) >= 0
+                && !gap(records[p + 2], records[p + 3], fh, fl)) {
+            // extends previous
+            if (Unsigned.compare(lh, ll, records[p + 2], records[p + 3]) > 0) {
+                records[p + 2] = lh;
+                records[p + 3] = ll;
+            }
+            return;
+        }
+        if (count * STRIDE == records.length) {
+            records = Arrays.copyOf(records, records.length * 2);
+        }
+        if (clean == count && (count == 0 || Unsigned.compare(fh, fl, records[count * STRIDE - 4], records[count * STRIDE - 3]) > 0)) {
+            clean++;
+        }
+        write(records, count++, fh, fl, lh, ll);
+        if (count >= threshold) {
+            normalize();
+            grow();
+        }
+    }
+
+    private void grow() {
+        while (count > threshold / 2) {
+            threshold *= 2;
+        }
+    }
+
+    private static void write(long[] array, int index, long fh, long fl, long lh, long ll) {
+        int i = index * STRIDE;
+        array[i] = fh;
+        array[i + 1] = fl;
+        array[i + 2] = lh;
+        array[i + 3] = ll;
+    }
+
+    /**
+     * @return true if first is greater than last + 1
+     */
+    private static boolean gap(long lastHigh, long lastLow, long firstHigh, long firstLow) {
+        if (Unsigned.compare(firstHigh, firstLow, lastHigh, lastLow) <= 0) {
+            return false;
+        }
+        return firstLow != lastLow + 1 || firstHigh != lastHigh + Unsigned.carry(lastLow, 1);
+    }
+
+    /**
+     * Appends range to normalized output merging where contiguous.
+     *
+     * @return new output count
+     */
+    private static int emit(long[] out, int n, long[] in, int index) {
+        int i = index * STRIDE;
+        long fh = in[i];
+        long fl = in[i + 1];
+        long lh = in[i + 2];
+        long ll = in[i + 3];
+        if (n > 0) {
+            int p = (n - 1) * STRIDE;
+            if (!gap(out[p + 2], out[p + 3], fh, fl)) {
+                if (Unsigned.compare(lh, ll, out[p + 2], out[p + 3]) > 0) {
+                    out[p + 2] = lh;
+                    out[p + 3] = ll;
+                }
+                return n;
+            }
+        }
+        write(out, n, fh, fl, lh, ll);
+        return n + 1;
+    }
+
+    private void normalize() {
+        if (clean == count) {
+            return;
+        }
+        long[] tail = sort(records, clean, count);
+        int n = merge(records, records, clean, tail, tail.length / STRIDE);
+        count = n;
+        clean = n;
+    }
+
+    /**
+     * Merges normalized records into target, which may be the left input.
+     *
+     * @return record count
+     */
+    private static int merge(long[] target, long[] left, int leftCount, long[] right, int rightCount) {
+        long[] l = left == target ? Arrays.copyOf(left, leftCount * STRIDE) : left;
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < leftCount || j < rightCount) {
+            boolean first = j >= rightCount
+                    || i < leftCount && Unsigned.compare(l[i * STRIDE], l[i * STRIDE + 1], right[j * STRIDE], right[j * STRIDE + 1]) <= 0;
+            n = first ? emit(target, n, l, i++) : emit(target, n, right, j++);
+        }
+        return n;
+    }
+
+    /**
+     * Sorts records by first.
+     * Records that fit in 32 bits, which includes all IPv4 records, are packed into single values for a primitive sort.
+     * Otherwise a bottom-up merge sort is used.
+     *
+     * @return sorted copy of records from inclusive to exclusive
+     */
+    private static long[] sort(long[] records, int from, int to) {
+        if (narrow(records, from, to)) {
+            // first and last in upper and lower halves with sign bit flipped for unsigned order
+            long[] packed = new long[to - from];
+            for (int i = from; i < to; i++) {
+                packed[i - from] = (records[i * STRIDE + 1] << Integer.SIZE | records[i * STRIDE + 3]) ^ Long.MIN_VALUE;
+            }
+            Arrays.sort(packed);
+            long[] sorted = new long[packed.length * STRIDE];
+            for (int i = 0; i < packed.length; i++) {
+                long k = packed[i] ^ Long.MIN_VALUE;
+                write(sorted, i, 0, k >>> Integer.SIZE, 0, k & NARROW);
+            }
+            return sorted;
+        }
+        int count = to - from;
+        long[] src = Arrays.copyOfRange(records, from * STRIDE, to * STRIDE);
+        long[] dst = new long[src.length];
+        for (int width = 1; width < count; width *= 2) {
+            for (int lo = 0; lo < count; lo += 2 * width) {
+                int mid = Math.min(lo + width, count);
+                int hi = Math.min(lo + 2 * width, count);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    boolean left = j >= hi
+                            || i < mid && Unsigned.compare(src[i * STRIDE], src[i * STRIDE + 1], src[j * STRIDE], src[j * STRIDE + 1]) <= 0;
+                    System.arraycopy(src, (left ? i++ : j++) * STRIDE, dst, k * STRIDE, STRIDE);
+                }
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+        }
+        return src;
+    }
+
+    /**
+     * @return true if every record fits in 32 bits
+     */
+    private static boolean narrow(long[] records, int from, int to) {
+        for (int r = from * STRIDE; r < to * STRIDE; r += STRIDE) {
+            if ((records[r] | records[r + 2]) != 0 || ((records[r + 1] | records[r + 3]) & ~NARROW) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void absorb(RangeBuffer<A> other) {
+        if (other.count == 0) {
+            return;
+        }
+        family = other.family;
+        int total = count + other.count;
+        if (total < threshold) {
+            // concatenate
+            if (count == 0) {
+                clean = other.clean;
+            } else if (clean == count && other.clean > 0 && gap(records[count * STRIDE - 2], records[count * STRIDE - 1], other.records[0], other.records[1])) {
+                clean += other.clean;
+            }
+            if (total * STRIDE > records.length) {
+                records = Arrays.copyOf(records, Math.max(records.length * 2, total * STRIDE));
+            }
+            System.arraycopy(other.records, 0, records, count * STRIDE, other.count * STRIDE);
+            count = total;
+            return;
+        }
+        normalize();
+        other.normalize();
+        long[] out = new long[total * STRIDE];
+        count = merge(out, records, count, other.records, other.count);
+        clean = count;
+        records = out;
+        threshold = Math.max(threshold, other.threshold);
+        grow();
+    }
+
+    /**
+     * @param layout search layout
+     * @return union of buffered ranges
+     */
+    AddressSet<A> toSet(SearchLayout layout) {
+        return toSet(layout, false);
+    }
+
+    /**
+     * @param layout search layout
+     * @param parallel true to create ranges on the {@link java.util.concurrent.ForkJoinPool#commonPool()}
+     * @return union of buffered ranges
+     */
+    AddressSet<A> toSet(SearchLayout layout, boolean parallel) {
+        normalize();
+        @SuppressWarnings("unchecked")
+        Range<A>[] ranges = new Range[count];
+        if (parallel) {
+            IntStream.range(0, count).parallel().forEach(i -> ranges[i] = range(i));
+        } else {
+            for (int i = 0; i < count; i++) {
+                ranges[i] = range(i);
+            }
+        }
+        return AddressSets.fromSorted(ranges, layout);
+    }
+
+    private Range<A> range(int index) {
+        int i = index * STRIDE;
+        A first = family.parse(records[i], records[i + 1]);
+        if (records[i] == records[i + 2] && records[i + 1] == records[i + 3]) {
+            return AddressSets.address(first);
+        }
+        return AddressSets.range(first, family.parse(records[i + 2], records[i + 3]));
+    }
+
+    /**
+     * @return normalized ranges in ascending order
+     */
+    Iterator<Range<A>> ranges() {
+        normalize();
+        return IntStream.range(0, count).mapToObj(this::range).iterator();
+    }
+
+    @Override
+    public void clear() {
+        records = new long[INITIAL * STRIDE];
+        count = 0;
+        clean = 0;
+        threshold = INITIAL;
+    }
+
+    @Override
+    public Iterator<AddressSet<A>> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public AddressSet<A> next() {
+                validate(hasNext(), "Iterator exhausted", null, NoSuchElementException::new);
+                return range(next++);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+}
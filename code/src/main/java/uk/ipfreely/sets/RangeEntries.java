@@ -0,0 +1,138 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.Arrays;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * Growable primitive storage of builder ranges.
+ * Payloads are held by callers at the index returned from {@link #add(Range)}.
+ */
+final class RangeEntries {
+    private long[] fh = new long[16];
+    private long[] fl = new long[16];
+    private long[] lh = new long[16];
+    private long[] ll = new long[16];
+    private int size;
+
+    /**
+     * @param r range
+     * @return entry index
+     */
+    int add(Range<?> r) {
+        if (size == fh.length) {
+            int capacity = size * 2;
+            fh = Arrays.copyOf(fh, capacity);
+            fl = Arrays.copyOf(fl, capacity);
+            lh = Arrays.copyOf(lh, capacity);
+            ll = Arrays.copyOf(ll, capacity);
+        }
+        Addr<?> first = r.first();
+        Addr<?> last = r.last();
+        fh[size] = first.highBits();
+        fl[size] = first.lowBits();
+        lh[size] = last.highBits();
+        ll[size] = last.lowBits();
+        return size++;
+    }
+
+    /**
+     * @return trimmed copies of first high, first low, last high &amp; last low bits by entry index
+     */
+    long[][] columns() {
+        return new long[][] {
+                Arrays.copyOf(fh, size),
+                Arrays.copyOf(fl, size),
+                Arrays.copyOf(lh, size),
+                Arrays.copyOf(ll, size),
+        };
+    }
+
+    /**
+     * @return entry indices ordered by first address
+     */
+    int[] order() {
+        int[] order = new int[size];
+        boolean sorted = true;
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            sorted &= i == 0 || compareFirst(i - 1, i) <= 0;
+        }
+        if (!sorted) {
+            Integer[] boxed = Arrays.stream(order).boxed().toArray(Integer[]::new);
+            Arrays.sort(boxed, this::compareFirst);
+            for (int i = 0; i < size; i++) {
+                order[i] = boxed[i];
+            }
+        }
+        return order;
+    }
+
+    private int compareFirst(int i, int j) {
+        return Unsigned.compare(fh[i], fl[i], fh[j], fl[j]);
+    }
+
+    /**
+     * Orders entries and merges adjacent entries with equal payloads.
+     *
+     * @param family address family
+     * @param same payload equality by entry index
+     * @return merged ranges and the entry index supplying each payload
+     * @throws IllegalArgumentException if ranges overlap
+     */
+    <A extends Addr<A>> Coalesced<A> coalesce(Family<A> family, Same same) {
+        int[] order = order();
+        long[] ofh = new long[size];
+        long[] ofl = new long[size];
+        long[] olh = new long[size];
+        long[] oll = new long[size];
+        int[] source = new int[size];
+        int n = 0;
+        for (int i : order) {
+            if (n > 0) {
+                int p = n - 1;
+                validate(Unsigned.compare(fh[i], fl[i], olh[p], oll[p]) > 0, "Ranges overlap", i, IllegalArgumentException::new);
+                if (same.test(source[p], i) && adjacent(olh[p], oll[p], fh[i], fl[i])) {
+                    olh[p] = lh[i];
+                    oll[p] = ll[i];
+                    continue;
+                }
+            }
+            ofh[n] = fh[i];
+            ofl[n] = fl[i];
+            olh[n] = lh[i];
+            oll[n] = ll[i];
+            source[n++] = i;
+        }
+        return new Coalesced<>(Boundaries.of(family, ofh, ofl, olh, oll, n), Arrays.copyOf(source, n));
+    }
+
+    private static boolean adjacent(long ph, long pl, long h, long l) {
+        long dl = l - pl;
+        long dh = h - ph - Unsigned.borrow(l, pl);
+        return dh == 0 && dl == 1;
+    }
+
+    /**
+     * Payload equality by entry index.
+     */
+    @FunctionalInterface
+    interface Same {
+        boolean test(int i, int j);
+    }
+
+    static final class Coalesced<A extends Addr<A>> {
+        final Boundaries<A> bounds;
+        final int[] source;
+
+        private Coalesced(Boundaries<A> bounds, int[] source) {
+            this.bounds = bounds;
+            this.source = source;
+        }
+    }
+}
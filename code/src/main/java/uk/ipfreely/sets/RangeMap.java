@@ -0,0 +1,169 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ *     Immutable map of non-overlapping {@link Range}s to values for GeoIP-style data.
+ * </p>
+ * <p>
+ *     Range boundaries are held in primitive arrays and {@link #get(Addr)} is a binary search.
+ *     {@link Builder} merges adjacent ranges with equal values.
+ *     See {@link IntRangeMap} and {@link LongRangeMap} for primitive values.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     RangeMap&lt;V4, String&gt; countries = RangeMap.&lt;V4, String&gt;builder(Family.v4())
+ *             .put(AddressSets.range(Family.v4().parse("1.0.0.0"), Family.v4().parse("1.0.0.255")), "AU")
+ *             .put(AddressSets.range(Family.v4().parse("1.0.1.0"), Family.v4().parse("1.0.3.255")), "CN")
+ *             .build();
+ *     // "CN"
+ *     String country = countries.get(Family.v4().parse("1.0.2.1"));
+ * </code></pre>
+ *
+ * @param <A> address type
+ * @param <V> value type
+ */
+public final class RangeMap<A extends Addr<A>, V> {
+    private final Boundaries<A> bounds;
+    private final Object[] values;
+
+    private RangeMap(Boundaries<A> bounds, Object[] values) {
+        this.bounds = bounds;
+        this.values = values;
+    }
+
+    /**
+     * New builder.
+     *
+     * @param family address family
+     * @return builder
+     * @param <A> address type
+     * @param <V> value type
+     */
+    public static <A extends Addr<A>, V> Builder<A, V> builder(Family<A> family) {
+        return new Builder<>(Objects.requireNonNull(family));
+    }
+
+    /**
+     * Map family.
+     *
+     * @return family
+     */
+    public Family<A> family() {
+        return bounds.family;
+    }
+
+    /**
+     * Number of ranges after merging.
+     *
+     * @return range count
+     */
+    public int size() {
+        return bounds.count;
+    }
+
+    /**
+     * Value of range containing address.
+     *
+     * @param address address to look up
+     * @return value or null if no range contains address
+     */
+    @SuppressWarnings("unchecked")
+    public V get(A address) {
+        int i = bounds.indexOf(address);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    /**
+     * All entries from least to greatest.
+     *
+     * @return entries
+     */
+    public Stream<Map.Entry<Range<A>, V>> entries() {
+        return entries(IntStream.range(0, bounds.count));
+    }
+
+    /**
+     * Entries whose ranges overlap span, from least to greatest.
+     * Entry ranges are not clipped to span.
+     *
+     * @param span query range
+     * @return entries
+     */
+    public Stream<Map.Entry<Range<A>, V>> entries(Range<A> span) {
+        return entries(bounds.overlapping(span));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Stream<Map.Entry<Range<A>, V>> entries(IntStream indices) {
+        return indices.mapToObj(i -> Map.entry(bounds.range(i), (V) values[i]));
+    }
+
+    @Override
+    public String toString() {
+        return "RangeMap{" + family() + ", " + size() + " ranges}";
+    }
+
+    /**
+     * <p>
+     *     Collects entries for {@link RangeMap}.
+     *     Entries may be added in any order but ranges must not overlap.
+     *     Instances are not thread-safe.
+     * </p>
+     *
+     * @param <A> address type
+     * @param <V> value type
+     */
+    public static final class Builder<A extends Addr<A>, V> {
+        private final Family<A> family;
+        private final RangeEntries entries = new RangeEntries();
+        private Object[] values = new Object[16];
+
+        private Builder(Family<A> family) {
+            this.family = family;
+        }
+
+        /**
+         * Adds entry.
+         *
+         * @param range key
+         * @param value non-null value
+         * @return this
+         */
+        public Builder<A, V> put(Range<A> range, V value) {
+            Objects.requireNonNull(value);
+            int i = entries.add(range);
+            if (i == values.length) {
+                values = Arrays.copyOf(values, i * 2);
+            }
+            values[i] = value;
+            return this;
+        }
+
+        /**
+         * Creates map.
+         * Adjacent ranges with {@link Object#equals(Object)} values are merged.
+         *
+         * @return immutable map
+         * @throws IllegalArgumentException if ranges overlap
+         */
+        public RangeMap<A, V> build() {
+            var c = entries.coalesce(family, (i, j) -> values[i].equals(values[j]));
+            Object[] merged = new Object[c.source.length];
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = values[c.source[i]];
+            }
+            return new RangeMap<>(c.bounds, merged);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Static methods for combining sorted {@link Range} sequences lazily.
+ * </p>
+ * <p>
+ *     Sources are consumed one range at a time, so memory is proportional to the number of sources
+ *     rather than the number of ranges.
+ *     Sources must be ascending and must not overlap, as with {@link AddressSet#ranges()};
+ *     adjacent ranges are permitted.
+ *     Ordering is checked as ranges are consumed and violations throw {@link IllegalArgumentException}
+ *     from the consuming operation.
+ *     Results are ascending, non-contiguous ranges.
+ * </p>
+ * <p>
+ *     Closing a result stream closes the source streams.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     Supplier&lt;Stream&lt;Range&lt;V4&gt;&gt;&gt; allowed = () -&gt; RangeStreams.difference(
+ *             RangeStreams.union(feedA.ranges(), feedB.ranges()),
+ *             denied.ranges());
+ *     AddressSet&lt;V4&gt; policy = RangeStreams.view(allowed);
+ * </code></pre>
+ */
+public final class RangeStreams {
+    private RangeStreams() {}
+
+    /**
+     * Union of sorted sources.
+     *
+     * @param sources ascending, non-overlapping ranges
+     * @return ranges in any source
+     * @param <A> address type
+     */
+    @SafeVarargs
+    public static <A extends Addr<A>> Stream<Range<A>> union(Stream<? extends Range<A>>... sources) {
+        return stream(new Union<>(iterators(sources)), sources);
+    }
+
+    /**
+     * Version of {@link #union(Stream[])} for iterators.
+     *
+     * @param sources ascending, non-overlapping ranges
+     * @return ranges in any source
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Stream<Range<A>> union(List<? extends Iterator<? extends Range<A>>> sources) {
+        return stream(new Union<>(checked(sources)));
+    }
+
+    /**
+     * Intersection of sorted sources.
+     *
+     * @param sources ascending, non-overlapping ranges; at least one
+     * @return ranges in every source
+     * @param <A> address type
+     * @throws IllegalArgumentException if there are no sources
+     */
+    @SafeVarargs
+    public static <A extends Addr<A>> Stream<Range<A>> intersection(Stream<? extends Range<A>>... sources) {
+        validate(sources.length > 0, "At least one source required", sources.length, IllegalArgumentException::new);
+        return stream(new Intersection<>(iterators(sources)), sources);
+    }
+
+    /**
+     * Version of {@link #intersection(Stream[])} for iterators.
+     *
+     * @param sources ascending, non-overlapping ranges; at least one
+     * @return ranges in every source
+     * @param <A> address type
+     * @throws IllegalArgumentException if there are no sources
+     */
+    public static <A extends Addr<A>> Stream<Range<A>> intersection(List<? extends Iterator<? extends Range<A>>> sources) {
+        validate(!sources.isEmpty(), "At least one source required", 0, IllegalArgumentException::new);
+        return stream(new Intersection<>(checked(sources)));
+    }
+
+    /**
+     * Difference of sorted sources.
+     *
+     * @param minuend ascending, non-overlapping ranges
+     * @param subtrahend ascending, non-overlapping ranges
+     * @return ranges in minuend but not subtrahend
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Stream<Range<A>> difference(Stream<? extends Range<A>> minuend, Stream<? extends Range<A>> subtrahend) {
+        List<Iterator<Range<A>>> its = iterators(minuend, subtrahend);
+        return stream(new Difference<>(its.get(0), its.get(1)), minuend, subtrahend);
+    }
+
+    /**
+     * Version of {@link #difference(Stream, Stream)} for iterators.
+     *
+     * @param minuend ascending, non-overlapping ranges
+     * @param subtrahend ascending, non-overlapping ranges
+     * @return ranges in minuend but not subtrahend
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> Stream<Range<A>> difference(Iterator<? extends Range<A>> minuend, Iterator<? extends Range<A>> subtrahend) {
+        return stream(new Difference<>(new Ordered<>(minuend), new Ordered<>(subtrahend)));
+    }
+
+    /**
+     * <p>
+     *     Lazily evaluated set over a repeatable source.
+     *     The supplier is called on each traversal of the set and must produce the same ranges each time.
+     *     Up to two ranges are read on creation; if the set is empty or a single range
+     *     it is returned as {@link AddressSet} or {@link Range} per the {@link AddressSet} contract.
+     * </p>
+     * <p>
+     *     Size and hash code are computed on first use and retained.
+     *     Membership tests are a linear scan.
+     * </p>
+     *
+     * @param ranges supplier of ascending, non-overlapping ranges
+     * @return set view
+     * @param <A> address type
+     * @throws IllegalArgumentException if ranges are out of order
+     */
+    public static <A extends Addr<A>> AddressSet<A> view(Supplier<? extends Stream<? extends Range<A>>> ranges) {
+        Objects.requireNonNull(ranges);
+        try (Stream<Range<A>> s = union(ranges.get())) {
+            Iterator<Range<A>> it = s.iterator();
+            if (!it.hasNext()) {
+                return AddressSets.of();
+            }
+            Range<A> first = it.next();
+            if (!it.hasNext()) {
+                return first;
+            }
+        }
+        return new View<>(ranges);
+    }
+
+    @SafeVarargs
+    private static <A extends Addr<A>> List<Iterator<Range<A>>> iterators(Stream<? extends Range<A>>... sources) {
+        List<Iterator<Range<A>>> list = new ArrayList<>(sources.length);
+        for (Stream<? extends Range<A>> s : sources) {
+            list.add(new Ordered<>(s.iterator()));
+        }
+        return list;
+    }
+
+    private static <A extends Addr<A>> List<Iterator<Range<A>>> checked(List<? extends Iterator<? extends Range<A>>> sources) {
+        List<Iterator<Range<A>>> list = new ArrayList<>(sources.size());
+        for (Iterator<? extends Range<A>> it : sources) {
+            list.add(new Ordered<>(it));
+        }
+        return list;
+    }
+
+    private static <A extends Addr<A>> Stream<Range<A>> stream(Iterator<Range<A>> merged, Stream<?>... sources) {
+        int chrctrstcs = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        Stream<Range<A>> result = StreamSupport.stream(Spliterators.spliteratorUnknownSize(new Coalesced<>(merged), chrctrstcs), false);
+        for (Stream<?> s : sources) {
+            result = result.onClose(s::close);
+        }
+        return result;
+    }
+
+    /**
+     * Verifies ascending, non-overlapping ranges.
+     */
+    private static final class Ordered<A extends Addr<A>> implements Iterator<Range<A>> {
+        private final Iterator<? extends Range<A>> source;
+        private Range<A> previous;
+
+        Ordered(Iterator<? extends Range<A>> source) {
+            this.source = Objects.requireNonNull(source);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+
+        @Override
+        public Range<A> next() {
+            Range<A> r = source.next();
+            validate(previous == null || previous.last().compareTo(r.first()) < 0, "Ranges must be ascending and non-overlapping", r, IllegalArgumentException::new);
+            previous = r;
+            return r;
+        }
+    }
+
+    /**
+     * Merges contiguous ranges from a source ordered by first address.
+     */
+    private static final class Coalesced<A extends Addr<A>> implements Iterator<Range<A>> {
+        private final Iterator<Range<A>> source;
+        private Range<A> pending;
+
+        Coalesced(Iterator<Range<A>> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null || source.hasNext();
+        }
+
+        @Override
+        public Range<A> next() {
+            Range<A> r = pending == null ? source.next() : pending;
+            pending = null;
+            while (source.hasNext()) {
+                Range<A> n = source.next();
+                if (!r.contiguous(n)) {
+                    pending = n;
+                    break;
+                }
+                r = r.extremes(n);
+            }
+            // library ranges already honour the Block contract
+            return r instanceof AbstractRange ? r : AddressSets.range(r.first(), r.last());
+        }
+    }
+
+    /**
+     * Current range of a source.
+     */
+    private static final class Cursor<A extends Addr<A>> {
+        private final Iterator<Range<A>> source;
+        Range<A> head;
+
+        Cursor(Iterator<Range<A>> source) {
+            this.source = source;
+        }
+
+        /**
+         * @return false if exhausted
+         */
+        boolean advance() {
+            head = source.hasNext() ? source.next() : null;
+            return head != null;
+        }
+    }
+
+    /**
+     * Ranges from all sources ordered by first address.
+     */
+    private static final class Union<A extends Addr<A>> implements Iterator<Range<A>> {
+        private final List<Iterator<Range<A>>> sources;
+        private PriorityQueue<Cursor<A>> queue;
+
+        Union(List<Iterator<Range<A>>> sources) {
+            this.sources = sources;
+        }
+
+        private PriorityQueue<Cursor<A>> queue() {
+            if (queue == null) {
+                queue = new PriorityQueue<>(Math.max(1, sources.size()), (c0, c1) -> c0.head.first().compareTo(c1.head.first()));
+                for (Iterator<Range<A>> it : sources) {
+                    Cursor<A> c = new Cursor<>(it);
+                    if (c.advance()) {
+                        queue.add(c);
+                    }
+                }
+            }
+            return queue;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue().isEmpty();
+        }
+
+        @Override
+        public Range<A> next() {
+            validate(hasNext(), "Iterator exhausted", null, NoSuchElementException::new);
+            Cursor<A> c = queue.remove();
+            Range<A> r = c.head;
+            if (c.advance()) {
+                queue.add(c);
+            }
+            return r;
+        }
+    }
+
+    /**
+     * Sweep over the current range of every source.
+     */
+    private static final class Intersection<A extends Addr<A>> implements Iterator<Range<A>> {
+        private final List<Cursor<A>> cursors = new ArrayList<>();
+        private boolean started;
+        private boolean exhausted;
+        private Range<A> next;
+
+        Intersection(List<Iterator<Range<A>>> sources) {
+            for (Iterator<Range<A>> it : sources) {
+                cursors.add(new Cursor<>(it));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!started) {
+                started = true;
+                for (Cursor<A> c : cursors) {
+                    exhausted |= !c.advance();
+                }
+            }
+            while (next == null && !exhausted) {
+                A lo = cursors.get(0).head.first();
+                A hi = cursors.get(0).head.last();
+                for (Cursor<A> c : cursors) {
+                    lo = Compare.greatest(lo, c.head.first());
+                    hi = Compare.least(hi, c.head.last());
+                }
+                if (lo.compareTo(hi) <= 0) {
+                    next = AddressSets.range(lo, hi);
+                }
+                for (Cursor<A> c : cursors) {
+                    if (c.head.last().equals(hi)) {
+                        exhausted |= !c.advance();
+                    }
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Range<A> next() {
+            validate(hasNext(), "Iterator exhausted", null, NoSuchElementException::new);
+            Range<A> r = next;
+            next = null;
+            return r;
+        }
+    }
+
+    /**
+     * Minuend ranges with subtrahend ranges removed.
+     */
+    private static final class Difference<A extends Addr<A>> implements Iterator<Range<A>> {
+        private final Iterator<Range<A>> minuend;
+        private final Cursor<A> subtrahend;
+        private boolean started;
+        // remainder of current minuend range
+        private Range<A> piece;
+        private Range<A> next;
+
+        Difference(Iterator<Range<A>> minuend, Iterator<Range<A>> subtrahend) {
+            this.minuend = minuend;
+            this.subtrahend = new Cursor<>(subtrahend);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!started) {
+                started = true;
+                subtrahend.advance();
+            }
+            while (next == null && (piece != null || minuend.hasNext())) {
+                if (piece == null) {
+                    piece = minuend.next();
+                }
+                Range<A> s = subtrahend.head;
+                while (s != null && s.last().compareTo(piece.first()) < 0) {
+                    s = subtrahend.advance() ? subtrahend.head : null;
+                }
+                if (s == null || s.first().compareTo(piece.last()) > 0) {
+                    next = piece;
+                    piece = null;
+                    break;
+                }
+                if (s.first().compareTo(piece.first()) > 0) {
+                    next = AddressSets.range(piece.first(), s.first().prev());
+                }
+                piece = s.last().compareTo(piece.last()) >= 0
+                        ? null
+                        : AddressSets.range(s.last().next(), piece.last());
+            }
+            return next != null;
+        }
+
+        @Override
+        public Range<A> next() {
+            validate(hasNext(), "Iterator exhausted", null, NoSuchElementException::new);
+            Range<A> r = next;
+            next = null;
+            return r;
+        }
+    }
+
+    /**
+     * Set over repeatable range source.
+     */
+    private static final class View<A extends Addr<A>> extends AbstractAddressSet<A> {
+        private final Supplier<? extends Stream<? extends Range<A>>> source;
+
+        View(Supplier<? extends Stream<? extends Range<A>>> source) {
+            this.source = source;
+        }
+
+        @Override
+        public Stream<Range<A>> ranges() {
+            return union(source.get());
+        }
+
+        @Override
+        public Iterator<A> iterator() {
+            return Spliterators.iterator(spliterator());
+        }
+
+        @Override
+        public boolean contains(Addr<?> address) {
+            try (Stream<Range<A>> ranges = ranges()) {
+                return ranges.anyMatch(r -> r.contains(address));
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            final int LIMIT = 5;
+            var buf = new StringJoiner(", ", "{", "}");
+            try (Stream<Range<A>> ranges = ranges()) {
+                Iterator<Range<A>> it = ranges.iterator();
+                for (int i = 0; it.hasNext(); i++) {
+                    Range<A> r = it.next();
+                    if (i == LIMIT) {
+                        buf.add("...");
+                        break;
+                    }
+                    buf.add(r.toString());
+                }
+            }
+            return buf.toString();
+        }
+    }
+}
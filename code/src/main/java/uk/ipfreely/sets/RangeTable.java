@@ -0,0 +1,144 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.ParseException;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * Ordered, non-overlapping range records in a {@link Mapping}.
+ * Each record starts with first &amp; last as two 32-bit (IPv4) or four 64-bit (IPv6) values
+ * followed by any {@code extra} bytes.
+ */
+final class RangeTable<A extends Addr<A>> {
+    private static final long UINT = 0xFFFF_FFFFL;
+
+    private final Family<A> family;
+    private final Mapping map;
+    private final long offset;
+    private final long count;
+    private final boolean v4;
+    private final int stride;
+
+    /**
+     * @param family address family
+     * @param map source
+     * @param offset position of first record
+     * @param count number of records
+     * @param extra bytes following range in each record
+     */
+    RangeTable(Family<A> family, Mapping map, long offset, long count, int extra) {
+        this.family = family;
+        this.map = map;
+        this.offset = offset;
+        this.count = count;
+        this.v4 = family == Family.v4();
+        this.stride = rangeSize(family) + extra;
+    }
+
+    /**
+     * Table of records following the {@link Mapping} header.
+     *
+     * @param family address family
+     * @param map validated mapping
+     * @param extra bytes following range in each record
+     * @return table
+     * @param <A> address type
+     * @throws ParseException if file size does not match header count
+     */
+    static <A extends Addr<A>> RangeTable<A> open(Family<A> family, Mapping map, int extra) {
+        long count = map.count();
+        long stride = rangeSize(family) + extra;
+        long available = map.size() - Mapping.HEADER;
+        boolean sized = count >= 0 && count <= available / stride && available == count * stride;
+        validate(sized, "File size does not match record count", count, ParseException::new);
+        return new RangeTable<>(family, map, Mapping.HEADER, count, extra);
+    }
+
+    static int rangeSize(Family<?> family) {
+        return family == Family.v4() ? Integer.BYTES * 2 : Long.BYTES * 4;
+    }
+
+    Family<A> family() {
+        return family;
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * @return true if first address of range is not after last
+     */
+    boolean ordered(long i) {
+        return Unsigned.compare(firstHigh(i), firstLow(i), lastHigh(i), lastLow(i)) <= 0;
+    }
+
+    Range<A> range(long i) {
+        A first = family.parse(firstHigh(i), firstLow(i));
+        A last = family.parse(lastHigh(i), lastLow(i));
+        return AddressSets.range(first, last);
+    }
+
+    /**
+     * @param address candidate
+     * @return index of range containing address or -1
+     */
+    long indexOf(Addr<?> address) {
+        if (address.family() != family) {
+            return -1;
+        }
+        long high = address.highBits();
+        long low = address.lowBits();
+        long i = floor(high, low);
+        return i >= 0 && Unsigned.compare(high, low, lastHigh(i), lastLow(i)) <= 0 ? i : -1;
+    }
+
+    /**
+     * @return index of greatest range starting at or before value or -1
+     */
+    private long floor(long high, long low) {
+        long lo = 0;
+        long hi = count - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            if (Unsigned.compare(firstHigh(mid), firstLow(mid), high, low) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * @param i record index
+     * @return position of bytes following range
+     */
+    long extra(long i) {
+        return record(i) + rangeSize(family);
+    }
+
+    private long record(long i) {
+        return offset + i * stride;
+    }
+
+    private long firstHigh(long i) {
+        return v4 ? 0 : map.getLong(record(i));
+    }
+
+    private long firstLow(long i) {
+        return v4 ? map.getInt(record(i)) & UINT : map.getLong(record(i) + Long.BYTES);
+    }
+
+    private long lastHigh(long i) {
+        return v4 ? 0 : map.getLong(record(i) + Long.BYTES * 2);
+    }
+
+    private long lastLow(long i) {
+        return v4 ? map.getInt(record(i) + Integer.BYTES) & UINT : map.getLong(record(i) + Long.BYTES * 3);
+    }
+}
@@ -0,0 +1,692 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.V4;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Set of two or more non-contiguous IPv4 ranges as a roaring bitmap.
+ * </p>
+ * <p>
+ *     Addresses are partitioned by their high 16 bits.
+ *     Each partition holds the low 16 bits in whichever container is smallest:
+ *     a sorted array (2 bytes per address), a bitmap (8KiB) or sorted runs (4 bytes per run).
+ * </p>
+ */
+final class RoaringSet extends AbstractAddressSet<V4> {
+    /**
+     * Approximate heap cost of each range in range-based sets: array slot, range and two addresses.
+     */
+    static final int RANGE_BYTES = 48;
+    /**
+     * Approximate heap cost of each container beyond its content: key, reference and object headers.
+     */
+    static final int CONTAINER_BYTES = 40;
+
+    private static final int LOW = 0xFFFF;
+    private static final int WORDS = 1024;
+
+    private final char[] keys;
+    private final Container[] containers;
+    private final long cardinality;
+    private final long rangeCount;
+
+    private RoaringSet(char[] keys, Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+        long card = 0;
+        for (Container c : containers) {
+            card += c.cardinality();
+        }
+        this.cardinality = card;
+        long count = 0;
+        for (Runs runs = new Runs(); runs.advance();) {
+            count++;
+        }
+        this.rangeCount = count;
+    }
+
+    /**
+     * @param addresses unsigned IPv4 values in any order; duplicates permitted
+     * @return set chosen by {@link #choose(RoaringSet)}
+     */
+    static AddressSet<V4> of(int... addresses) {
+        int[] sorted = new int[addresses.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = addresses[i] ^ Integer.MIN_VALUE;
+        }
+        Arrays.sort(sorted);
+        var builder = new Builder();
+        int i = 0;
+        while (i < sorted.length) {
+            int first = sorted[i];
+            int last = first;
+            while (++i < sorted.length && (sorted[i] == last || sorted[i] == last + 1)) {
+                last = sorted[i];
+            }
+            builder.add(Integer.toUnsignedLong(first ^ Integer.MIN_VALUE), Integer.toUnsignedLong(last ^ Integer.MIN_VALUE));
+        }
+        return choose(builder.build());
+    }
+
+    /**
+     * @param set source
+     * @return bitmap of set or null if empty
+     */
+    static RoaringSet bitmap(AddressSet<V4> set) {
+        if (set instanceof RoaringSet r) {
+            return r;
+        }
+        var builder = new Builder();
+        set.ranges().forEach(r -> builder.add(r.first().lowBits(), r.last().lowBits()));
+        return builder.build();
+    }
+
+    /**
+     * Chooses between bitmap and range representations by estimated heap cost.
+     *
+     * @param set bitmap or null if empty
+     * @return smallest representation
+     */
+    static AddressSet<V4> choose(RoaringSet set) {
+        if (set == null) {
+            return AddressSets.of();
+        }
+        if (set.rangeCount > 1 && set.bytes() < set.rangeCount * RANGE_BYTES) {
+            return set;
+        }
+        @SuppressWarnings("unchecked")
+        Range<V4>[] ranges = set.ranges().toArray(Range[]::new);
+        return AddressSets.fromSorted(ranges);
+    }
+
+    /**
+     * @param a operand or null if empty
+     * @param b operand or null if empty
+     * @return union or null if empty
+     */
+    static RoaringSet union(RoaringSet a, RoaringSet b) {
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+        var builder = new Builder();
+        int i = 0;
+        int j = 0;
+        while (i < a.keys.length || j < b.keys.length) {
+            int ka = i < a.keys.length ? a.keys[i] : Integer.MAX_VALUE;
+            int kb = j < b.keys.length ? b.keys[j] : Integer.MAX_VALUE;
+            if (ka < kb) {
+                builder.put(ka, a.containers[i++]);
+            } else if (kb < ka) {
+                builder.put(kb, b.containers[j++]);
+            } else {
+                builder.put(ka, Container.union(a.containers[i++], b.containers[j++]));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param a operand or null if empty
+     * @param b operand or null if empty
+     * @return intersection or null if empty
+     */
+    static RoaringSet intersection(RoaringSet a, RoaringSet b) {
+        if (a == null || b == null) {
+            return null;
+        }
+        var builder = new Builder();
+        int i = 0;
+        int j = 0;
+        while (i < a.keys.length && j < b.keys.length) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (b.keys[j] < a.keys[i]) {
+                j++;
+            } else {
+                Container c = Container.intersection(a.containers[i++], b.containers[j]);
+                if (c != null) {
+                    builder.put(b.keys[j], c);
+                }
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return estimated heap bytes
+     */
+    long bytes() {
+        long bytes = 0;
+        for (Container c : containers) {
+            bytes += c.bytes() + CONTAINER_BYTES;
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean contains(Addr<?> address) {
+        if (address.family() != Family.v4()) {
+            return false;
+        }
+        int value = (int) address.lowBits();
+        int i = Arrays.binarySearch(keys, (char) (value >>> 16));
+        return i >= 0 && containers[i].contains(value & LOW);
+    }
+
+    @Override
+    public BigInteger size() {
+        return BigInteger.valueOf(cardinality);
+    }
+
+    @Override
+    public long sizeAsLong() {
+        return cardinality;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public Stream<Range<V4>> ranges() {
+        Iterator<Range<V4>> it = new Ranges();
+        int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        return StreamSupport.stream(Spliterators.spliterator(it, rangeCount, characteristics), false);
+    }
+
+    @Override
+    public Iterator<V4> iterator() {
+        return new Iterator<>() {
+            private int c;
+            private int v = containers[0].next(0);
+
+            @Override
+            public boolean hasNext() {
+                return c < containers.length;
+            }
+
+            @Override
+            public V4 next() {
+                validate(hasNext(), "Iterator exhausted", null, NoSuchElementException::new);
+                int value = keys[c] << 16 | v;
+                v = v == LOW ? -1 : containers[c].next(v + 1);
+                if (v < 0 && ++c < containers.length) {
+                    v = containers[c].next(0);
+                }
+                return Family.v4().parse(value);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        final int LIMIT = 5;
+        var buf = new StringBuilder("{");
+        ranges().limit(LIMIT).forEach(r -> buf.append(buf.length() > 1 ? ", " : "").append(r));
+        if (rangeCount > LIMIT) {
+            buf.append(", [").append(rangeCount).append("...]");
+        }
+        return buf.append('}').toString();
+    }
+
+    private final class Ranges implements Iterator<Range<V4>> {
+        private final Runs runs = new Runs();
+        private boolean ready = runs.advance();
+
+        @Override
+        public boolean hasNext() {
+            return ready;
+        }
+
+        @Override
+        public Range<V4> next() {
+            validate(hasNext(), "Iterator exhausted", null, NoSuchElementException::new);
+            var range = AddressSets.range(Family.v4().parse((int) runs.first), Family.v4().parse((int) runs.last));
+            ready = runs.advance();
+            return range;
+        }
+    }
+
+    /**
+     * Cursor over maximal runs, merging runs that continue into the next container.
+     */
+    private final class Runs {
+        private int c;
+        private int v = containers[0].next(0);
+        long first;
+        long last;
+
+        boolean advance() {
+            if (c == containers.length) {
+                return false;
+            }
+            first = base(c) | v;
+            int end = containers[c].runEnd(v);
+            while (true) {
+                last = base(c) | end;
+                v = end == LOW ? -1 : containers[c].next(end + 1);
+                if (v >= 0) {
+                    return true;
+                }
+                c++;
+                if (c == containers.length) {
+                    return true;
+                }
+                v = containers[c].next(0);
+                if (v != 0 || base(c) != last + 1) {
+                    return true;
+                }
+                end = containers[c].runEnd(0);
+            }
+        }
+
+        private long base(int i) {
+            return (long) keys[i] << 16;
+        }
+    }
+
+    /**
+     * Accumulates containers in key order.
+     */
+    private static final class Builder {
+        private char[] keys = new char[16];
+        private Container[] containers = new Container[16];
+        private int size;
+        private int key = -1;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int runs;
+
+        /**
+         * @param first unsigned value greater than any previously added
+         * @param last unsigned value greater than or equal to first
+         */
+        void add(long first, long last) {
+            while (first <= last) {
+                int k = (int) (first >>> 16);
+                long end = Math.min(last, (long) k << 16 | LOW);
+                if (k != key) {
+                    flush();
+                    key = k;
+                }
+                if (runs == starts.length) {
+                    starts = Arrays.copyOf(starts, runs * 2);
+                    ends = Arrays.copyOf(ends, runs * 2);
+                }
+                starts[runs] = (int) first & LOW;
+                ends[runs++] = (int) end & LOW;
+                first = end + 1;
+            }
+        }
+
+        private void flush() {
+            if (runs > 0) {
+                put(key, Container.ofRuns(starts, ends, runs));
+                runs = 0;
+            }
+        }
+
+        void put(int k, Container c) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            keys[size] = (char) k;
+            containers[size++] = c;
+        }
+
+        RoaringSet build() {
+            flush();
+            return size == 0 ? null : new RoaringSet(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size));
+        }
+    }
+
+    /**
+     * Non-empty set of 16-bit values.
+     */
+    abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(int v);
+
+        /**
+         * @param from 0 to 65535
+         * @return least member greater than or equal to from or -1
+         */
+        abstract int next(int from);
+
+        /**
+         * @param v member
+         * @return greatest member m where all of v to m are members
+         */
+        abstract int runEnd(int v);
+
+        /**
+         * @param words 1024 word bitmap to set members in
+         */
+        abstract void fill(long[] words);
+
+        /**
+         * @return content bytes
+         */
+        abstract int bytes();
+
+        static Container union(Container x, Container y) {
+            if (x instanceof ArrayContainer a && y instanceof ArrayContainer b) {
+                char[] values = new char[a.values.length + b.values.length];
+                int i = 0;
+                int j = 0;
+                int n = 0;
+                while (i < a.values.length && j < b.values.length) {
+                    char va = a.values[i];
+                    char vb = b.values[j];
+                    values[n++] = va <= vb ? va : vb;
+                    i += va <= vb ? 1 : 0;
+                    j += vb <= va ? 1 : 0;
+                }
+                while (i < a.values.length) {
+                    values[n++] = a.values[i++];
+                }
+                while (j < b.values.length) {
+                    values[n++] = b.values[j++];
+                }
+                return ofValues(values, n);
+            }
+            long[] words = new long[WORDS];
+            x.fill(words);
+            y.fill(words);
+            return ofWords(words);
+        }
+
+        /**
+         * @return intersection or null if empty
+         */
+        static Container intersection(Container x, Container y) {
+            if (y instanceof ArrayContainer && !(x instanceof ArrayContainer)) {
+                return intersection(y, x);
+            }
+            if (x instanceof ArrayContainer a) {
+                char[] values = new char[a.values.length];
+                int n = 0;
+                for (char v : a.values) {
+                    if (y.contains(v)) {
+                        values[n++] = v;
+                    }
+                }
+                return ofValues(values, n);
+            }
+            long[] wx = new long[WORDS];
+            long[] wy = new long[WORDS];
+            x.fill(wx);
+            y.fill(wy);
+            for (int i = 0; i < WORDS; i++) {
+                wx[i] &= wy[i];
+            }
+            return ofWords(wx);
+        }
+
+        /**
+         * @return container or null if empty
+         */
+        static Container ofValues(char[] values, int n) {
+            int[] starts = new int[n];
+            int[] ends = new int[n];
+            int runs = 0;
+            for (int i = 0; i < n; i++) {
+                if (runs > 0 && ends[runs - 1] + 1 == values[i]) {
+                    ends[runs - 1] = values[i];
+                } else {
+                    starts[runs] = values[i];
+                    ends[runs++] = values[i];
+                }
+            }
+            return ofRuns(starts, ends, runs);
+        }
+
+        /**
+         * @return container or null if empty
+         */
+        static Container ofWords(long[] words) {
+            var bitmap = new BitmapContainer(words, 0);
+            int[] starts = new int[16];
+            int[] ends = new int[16];
+            int runs = 0;
+            for (int v = bitmap.next(0); v >= 0;) {
+                if (runs == starts.length) {
+                    starts = Arrays.copyOf(starts, runs * 2);
+                    ends = Arrays.copyOf(ends, runs * 2);
+                }
+                int end = bitmap.runEnd(v);
+                starts[runs] = v;
+                ends[runs++] = end;
+                v = end == LOW ? -1 : bitmap.next(end + 1);
+            }
+            return ofRuns(starts, ends, runs);
+        }
+
+        /**
+         * @param starts ordered, non-adjacent run starts
+         * @param ends inclusive run ends
+         * @param runs run count
+         * @return smallest container or null if empty
+         */
+        static Container ofRuns(int[] starts, int[] ends, int runs) {
+            if (runs == 0) {
+                return null;
+            }
+            int card = 0;
+            for (int i = 0; i < runs; i++) {
+                card += ends[i] - starts[i] + 1;
+            }
+            int arrayBytes = card * Character.BYTES;
+            int runBytes = runs * 2 * Character.BYTES;
+            int bitmapBytes = WORDS * Long.BYTES;
+            if (runBytes <= arrayBytes && runBytes <= bitmapBytes) {
+                char[] s = new char[runs];
+                char[] e = new char[runs];
+                for (int i = 0; i < runs; i++) {
+                    s[i] = (char) starts[i];
+                    e[i] = (char) ends[i];
+                }
+                return new RunContainer(s, e, card);
+            }
+            if (arrayBytes <= bitmapBytes) {
+                char[] values = new char[card];
+                int n = 0;
+                for (int i = 0; i < runs; i++) {
+                    for (int v = starts[i]; v <= ends[i]; v++) {
+                        values[n++] = (char) v;
+                    }
+                }
+                return new ArrayContainer(values);
+            }
+            long[] words = new long[WORDS];
+            for (int i = 0; i < runs; i++) {
+                for (int v = starts[i]; v <= ends[i]; v++) {
+                    words[v >>> 6] |= 1L << v;
+                }
+            }
+            return new BitmapContainer(words, card);
+        }
+    }
+
+    static final class ArrayContainer extends Container {
+        final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        boolean contains(int v) {
+            return Arrays.binarySearch(values, (char) v) >= 0;
+        }
+
+        @Override
+        int next(int from) {
+            int i = Arrays.binarySearch(values, (char) from);
+            i = i < 0 ? -i - 1 : i;
+            return i < values.length ? values[i] : -1;
+        }
+
+        @Override
+        int runEnd(int v) {
+            int i = Arrays.binarySearch(values, (char) v);
+            while (i + 1 < values.length && values[i + 1] == values[i] + 1) {
+                i++;
+            }
+            return values[i];
+        }
+
+        @Override
+        void fill(long[] words) {
+            for (char v : values) {
+                words[v >>> 6] |= 1L << v;
+            }
+        }
+
+        @Override
+        int bytes() {
+            return values.length * Character.BYTES;
+        }
+    }
+
+    static final class BitmapContainer extends Container {
+        private final long[] words;
+        private final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int v) {
+            return (words[v >>> 6] & 1L << v) != 0;
+        }
+
+        @Override
+        int next(int from) {
+            int w = from >>> 6;
+            long bits = words[w] & -1L << from;
+            while (bits == 0) {
+                if (++w == WORDS) {
+                    return -1;
+                }
+                bits = words[w];
+            }
+            return w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        }
+
+        @Override
+        int runEnd(int v) {
+            int w = v >>> 6;
+            long gaps = ~words[w] & -1L << v;
+            while (gaps == 0) {
+                if (++w == WORDS) {
+                    return LOW;
+                }
+                gaps = ~words[w];
+            }
+            return w * Long.SIZE + Long.numberOfTrailingZeros(gaps) - 1;
+        }
+
+        @Override
+        void fill(long[] dest) {
+            for (int i = 0; i < WORDS; i++) {
+                dest[i] |= words[i];
+            }
+        }
+
+        @Override
+        int bytes() {
+            return WORDS * Long.BYTES;
+        }
+    }
+
+    static final class RunContainer extends Container {
+        private final char[] starts;
+        private final char[] ends;
+        private final int cardinality;
+
+        RunContainer(char[] starts, char[] ends, int cardinality) {
+            this.starts = starts;
+            this.ends = ends;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * @return index of greatest run starting at or before v or -1
+         */
+        private int floor(int v) {
+            int i = Arrays.binarySearch(starts, (char) v);
+            return i < 0 ? -i - 2 : i;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int v) {
+            int i = floor(v);
+            return i >= 0 && v <= ends[i];
+        }
+
+        @Override
+        int next(int from) {
+            int i = floor(from);
+            if (i >= 0 && from <= ends[i]) {
+                return from;
+            }
+            return i + 1 < starts.length ? starts[i + 1] : -1;
+        }
+
+        @Override
+        int runEnd(int v) {
+            return ends[floor(v)];
+        }
+
+        @Override
+        void fill(long[] words) {
+            for (int i = 0; i < starts.length; i++) {
+                for (int v = starts[i]; v <= ends[i]; v++) {
+                    words[v >>> 6] |= 1L << v;
+                }
+            }
+        }
+
+        @Override
+        int bytes() {
+            return starts.length * 2 * Character.BYTES;
+        }
+    }
+}
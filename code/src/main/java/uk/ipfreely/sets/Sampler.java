@@ -0,0 +1,177 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Uniform random members of an {@link AddressSet}.
+ * </p>
+ * <p>
+ *     Each sample draws a uniform index below the set size using rejection sampling over
+ *     at most 128 random bits, then finds the member at that index by binary search over
+ *     prefix sums of the range sizes - so ranges are weighted by size without enumerating addresses.
+ *     Sets of up to 2<sup>128</sup> members are supported.
+ * </p>
+ * <p>
+ *     Instances are not thread-safe.
+ *     {@link #stream()} is safe for parallel use when the generator is a {@link SplittableGenerator}.
+ * </p>
+ * <pre><code>
+ *     // EXAMPLE
+ *     Sampler&lt;V6&gt; sampler = AddressSets.sampler(targets, RandomGenerator.of("L64X128MixRandom"));
+ *     V6 probe = sampler.next();
+ * </code></pre>
+ *
+ * @param <A> address type
+ * @see AddressSets#sampler(AddressSet, RandomGenerator)
+ */
+public final class Sampler<A extends Addr<A>> {
+    private final RandomGenerator rng;
+    private final Indexed<A> set;
+    private long high;
+
+    private Sampler(Indexed<A> set, RandomGenerator rng) {
+        this.rng = rng;
+        this.set = set;
+    }
+
+    static <A extends Addr<A>> Sampler<A> of(AddressSet<A> set, RandomGenerator rng) {
+        return new Sampler<>(Indexed.of(set), rng);
+    }
+
+    /**
+     * Random member.
+     * Samples are with replacement.
+     *
+     * @return member
+     */
+    public A next() {
+        long low = uniform(set.maxHigh, set.maxLow);
+        return set.select(high, low);
+    }
+
+    /**
+     * <p>
+     *     Infinite stream of random members with replacement.
+     * </p>
+     * <p>
+     *     If the generator is a {@link SplittableGenerator}
+     *     the stream splits for parallel processing, each split using {@link SplittableGenerator#split()}.
+     *     Other generators produce streams that do not split.
+     * </p>
+     *
+     * @return unordered stream
+     */
+    public Stream<A> stream() {
+        return StreamSupport.stream(new Samples<>(new Sampler<>(set, rng), Long.MAX_VALUE), false);
+    }
+
+    /**
+     * Random members without replacement using Floyd's algorithm.
+     *
+     * @param count number of members; from zero to set size
+     * @return distinct members in ascending order
+     * @throws IllegalArgumentException if count is negative or exceeds set size
+     */
+    public List<A> distinct(int count) {
+        validate(count >= 0, "Count must not be negative", count, IllegalArgumentException::new);
+        // count - 1 <= max
+        long cl = count - 1L;
+        validate(count == 0 || Unsigned.compare(0, cl, set.maxHigh, set.maxLow) <= 0, "Count exceeds set size", count, IllegalArgumentException::new);
+        Set<A> chosen = new HashSet<>();
+        for (int i = count; i > 0; i--) {
+            // j = max - (i - 1)
+            long il = i - 1L;
+            long jl = set.maxLow - il;
+            long jh = set.maxHigh - Unsigned.borrow(set.maxLow, il);
+            long low = uniform(jh, jl);
+            A candidate = set.select(high, low);
+            if (!chosen.add(candidate)) {
+                chosen.add(set.select(jh, jl));
+            }
+        }
+        List<A> result = new ArrayList<>(chosen);
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * @return low bits of uniform value from zero to max inclusive; high bits in {@link #high}
+     */
+    private long uniform(long maxH, long maxL) {
+        if (maxH == 0) {
+            high = 0;
+            if (maxL == 0) {
+                return 0;
+            }
+            long mask = -1L >>> Long.numberOfLeadingZeros(maxL);
+            while (true) {
+                long l = rng.nextLong() & mask;
+                if (Long.compareUnsigned(l, maxL) <= 0) {
+                    return l;
+                }
+            }
+        }
+        long mask = -1L >>> Long.numberOfLeadingZeros(maxH);
+        while (true) {
+            long h = rng.nextLong() & mask;
+            long l = rng.nextLong();
+            if (Unsigned.compare(h, l, maxH, maxL) <= 0) {
+                high = h;
+                return l;
+            }
+        }
+    }
+
+    private static final class Samples<A extends Addr<A>> implements Spliterator<A> {
+        private final Sampler<A> sampler;
+        // halved on split so that short-circuiting parallel streams stop splitting
+        private long estimate;
+
+        Samples(Sampler<A> sampler, long estimate) {
+            this.sampler = sampler;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            action.accept(sampler.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<A> trySplit() {
+            if (estimate > 1 && sampler.rng instanceof SplittableGenerator g) {
+                estimate >>>= 1;
+                return new Samples<>(new Sampler<>(sampler.set, g.split()), estimate);
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+
+/**
+ * <p>
+ *     Memory layout used by {@link AddressSet}s of more than one {@link Range}
+ *     to answer {@link AddressSet#contains(Addr)}.
+ * </p>
+ * <p>
+ *     All layouts produce equal sets.
+ *     The choice only affects lookup speed and memory.
+ * </p>
+ *
+ * @see AddressSets#from(Iterable, SearchLayout)
+ * @see AddressSets#collector(SearchLayout)
+ */
+public enum SearchLayout {
+    /**
+     * Binary search over the ordered {@link Range}s.
+     * No memory beyond the ranges themselves.
+     * The default.
+     */
+    SORTED,
+    /**
+     * <p>
+     *     Range boundaries are also copied into a primitive array in Eytzinger (breadth-first) order
+     *     and searched by branch-free descent of the implicit tree.
+     *     Costs 8 (IPv4) or 32 (IPv6) additional bytes per range.
+     * </p>
+     * <p>
+     *     Binary search over large sets incurs a cache miss on almost every probe;
+     *     this layout keeps the hot top of the tree dense so large sets of
+     *     millions of ranges suffer fewer misses.
+     *     Small sets gain little.
+     * </p>
+     */
+    EYTZINGER
+}
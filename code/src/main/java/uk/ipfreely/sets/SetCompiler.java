@@ -0,0 +1,448 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Family;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static uk.ipfreely.sets.Validation.validate;
+
+/**
+ * <p>
+ *     Compiles {@link AddressSet}s to {@link AddressPredicate} hidden classes.
+ * </p>
+ * <p>
+ *     Each set becomes a balanced tree of comparisons against constant, sign flipped range boundaries
+ *     in static methods taking primitive arguments.
+ *     Subtrees are split into further methods so no method exceeds the JIT's huge method limit (8000 bytes).
+ *     Classes carry stack map frames; every branch target is reached with the method's initial locals
+ *     and an empty operand stack.
+ * </p>
+ */
+final class SetCompiler {
+    static final int MAX_RANGES = 4096;
+
+    private static final String NAME = "uk/ipfreely/sets/CompiledSet";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String PREDICATE = "uk/ipfreely/sets/AddressPredicate";
+    private static final String V4_TEST = "(I)Z";
+    private static final String V6_TEST = "(JJ)Z";
+    // ranges per generated method
+    private static final int V4_CHUNK = 128;
+    private static final int V6_CHUNK = 64;
+
+    private static final int ICONST_0 = 0x03;
+    private static final int ICONST_1 = 0x04;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int LDC2_W = 0x14;
+    private static final int ILOAD_0 = 0x1a;
+    private static final int ILOAD_1 = 0x1b;
+    private static final int LLOAD_0 = 0x1e;
+    private static final int LLOAD_1 = 0x1f;
+    private static final int LLOAD_2 = 0x20;
+    private static final int LLOAD_3 = 0x21;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int IXOR = 0x82;
+    private static final int LXOR = 0x83;
+    private static final int LCMP = 0x94;
+    private static final int IFLT = 0x9b;
+    private static final int IFNE = 0x9a;
+    private static final int IFGT = 0x9d;
+    private static final int IF_ICMPLT = 0xa1;
+    private static final int IF_ICMPGT = 0xa3;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private final boolean v4;
+    private final int chunk;
+    private final int[] first;
+    private final int[] last;
+    private final long[] fh;
+    private final long[] fl;
+    private final long[] lh;
+    private final long[] ll;
+    private final Pool pool = new Pool();
+    private final List<int[]> pending = new ArrayList<>();
+    private final Out methods = new Out();
+    private int methodCount;
+
+    private SetCompiler(Range<?>[] ranges) {
+        int n = ranges.length;
+        v4 = n > 0 && ranges[0].first().family() == Family.v4();
+        chunk = v4 ? V4_CHUNK : V6_CHUNK;
+        first = new int[n];
+        last = new int[n];
+        fh = new long[n];
+        fl = new long[n];
+        lh = new long[n];
+        ll = new long[n];
+        for (int i = 0; i < n; i++) {
+            first[i] = (int) ranges[i].first().lowBits() ^ Integer.MIN_VALUE;
+            last[i] = (int) ranges[i].last().lowBits() ^ Integer.MIN_VALUE;
+            fh[i] = ranges[i].first().highBits() ^ Long.MIN_VALUE;
+            fl[i] = ranges[i].first().lowBits() ^ Long.MIN_VALUE;
+            lh[i] = ranges[i].last().highBits() ^ Long.MIN_VALUE;
+            ll[i] = ranges[i].last().lowBits() ^ Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * @param set source
+     * @return new instance of new hidden class
+     * @throws IllegalArgumentException if set has more than {@link #MAX_RANGES} ranges
+     */
+    static AddressPredicate compile(AddressSet<?> set) {
+        Range<?>[] ranges = set.ranges().toArray(Range[]::new);
+        validate(ranges.length <= MAX_RANGES, "Too many ranges to compile", ranges.length, IllegalArgumentException::new);
+        byte[] bytes = new SetCompiler(ranges).generate();
+        return reflect(() -> {
+            Class<?> type = MethodHandles.lookup().defineHiddenClass(bytes, true).lookupClass();
+            return (AddressPredicate) type.getConstructor().newInstance();
+        });
+    }
+
+    /**
+     * Reflection cannot fail for generated classes; this wraps the checked exceptions declared anyway.
+     */
+    static <T> T reflect(Reflective<T> action) {
+        try {
+            return action.get();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    interface Reflective<T> {
+        T get() throws ReflectiveOperationException;
+    }
+
+    private byte[] generate() {
+        int count = first.length;
+        constructor();
+        Code t4 = new Code();
+        Code t6 = new Code();
+        if (count == 0) {
+            t4.op(ICONST_0).op(IRETURN);
+            t6.op(ICONST_0).op(IRETURN);
+        } else if (v4) {
+            t4.op(ILOAD_1).constant(Integer.MIN_VALUE).op(IXOR).call(method(0, count), V4_TEST).op(IRETURN);
+            t6.op(ICONST_0).op(IRETURN);
+        } else {
+            t4.op(ICONST_0).op(IRETURN);
+            t6.op(LLOAD_1).constant(Long.MIN_VALUE).op(LXOR)
+                    .op(LLOAD_3).constant(Long.MIN_VALUE).op(LXOR)
+                    .call(method(0, count), V6_TEST).op(IRETURN);
+        }
+        method(ACC_PUBLIC, "test", V4_TEST, 2, 2, t4);
+        method(ACC_PUBLIC, "test", V6_TEST, 6, 5, t6);
+        for (int i = 0; i < pending.size(); i++) {
+            int[] span = pending.get(i);
+            Code code = new Code();
+            int no = code.label();
+            node(code, span[0], span[1], no);
+            code.bind(no).op(ICONST_0).op(IRETURN);
+            if (v4) {
+                method(ACC_PRIVATE | ACC_STATIC, "t" + i, V4_TEST, 2, 1, code);
+            } else {
+                method(ACC_PRIVATE | ACC_STATIC, "t" + i, V6_TEST, 4, 4, code);
+            }
+        }
+        return classFile();
+    }
+
+    /**
+     * Reserves static method testing ranges.
+     *
+     * @return method name
+     */
+    private String method(int lo, int hi) {
+        pending.add(new int[] {lo, hi});
+        return "t" + (pending.size() - 1);
+    }
+
+    private void subtree(Code code, int lo, int hi, int no) {
+        if (hi - lo > chunk) {
+            if (v4) {
+                code.op(ILOAD_0).call(method(lo, hi), V4_TEST).op(IRETURN);
+            } else {
+                code.op(LLOAD_0).op(LLOAD_2).call(method(lo, hi), V6_TEST).op(IRETURN);
+            }
+        } else {
+            node(code, lo, hi, no);
+        }
+    }
+
+    /**
+     * Tests range at middle of span then descends into the half that may contain the address.
+     */
+    private void node(Code code, int lo, int hi, int no) {
+        int mid = (lo + hi) >>> 1;
+        int left = lo < mid ? code.label() : no;
+        int right = mid + 1 < hi ? code.label() : no;
+        if (v4) {
+            code.op(ILOAD_0).constant(first[mid]).jump(IF_ICMPLT, left);
+            code.op(ILOAD_0).constant(last[mid]).jump(IF_ICMPGT, right);
+        } else {
+            int ge = code.label();
+            code.op(LLOAD_0).constant(fh[mid]).op(LCMP).jump(IFLT, left);
+            code.op(LLOAD_0).constant(fh[mid]).op(LCMP).jump(IFNE, ge);
+            code.op(LLOAD_2).constant(fl[mid]).op(LCMP).jump(IFLT, left);
+            code.bind(ge);
+            int le = code.label();
+            code.op(LLOAD_0).constant(lh[mid]).op(LCMP).jump(IFGT, right);
+            code.op(LLOAD_0).constant(lh[mid]).op(LCMP).jump(IFNE, le);
+            code.op(LLOAD_2).constant(ll[mid]).op(LCMP).jump(IFGT, right);
+            code.bind(le);
+        }
+        code.op(ICONST_1).op(IRETURN);
+        if (left != no) {
+            code.bind(left);
+            subtree(code, lo, mid, no);
+        }
+        if (right != no) {
+            code.bind(right);
+            subtree(code, mid + 1, hi, no);
+        }
+    }
+
+    private void constructor() {
+        Code code = new Code();
+        code.op(ALOAD_0).op(INVOKESPECIAL).u2(pool.method(OBJECT, "<init>", "()V"));
+        code.op(RETURN);
+        method(ACC_PUBLIC, "<init>", "()V", 1, 1, code);
+    }
+
+    private void method(int access, String name, String descriptor, int maxStack, int maxLocals, Code code) {
+        byte[] body = code.finish();
+        int[] frames = code.frames();
+        Out attrs = new Out();
+        if (frames.length > 0) {
+            Out table = new Out();
+            table.u2(frames.length);
+            int previous = -1;
+            for (int offset : frames) {
+                // same_frame; labels are never more than one node's comparisons (under 64 bytes) apart
+                table.u1(offset - previous - 1);
+                previous = offset;
+            }
+            attrs.u2(pool.utf8("StackMapTable")).u4(table.length()).bytes(table.toArray());
+        }
+        methods.u2(access).u2(pool.utf8(name)).u2(pool.utf8(descriptor)).u2(1);
+        methods.u2(pool.utf8("Code"))
+                .u4(12 + body.length + attrs.length())
+                .u2(maxStack).u2(maxLocals)
+                .u4(body.length).bytes(body)
+                .u2(0)
+                .u2(frames.length > 0 ? 1 : 0).bytes(attrs.toArray());
+        methodCount++;
+    }
+
+    private byte[] classFile() {
+        int self = pool.type(NAME);
+        int parent = pool.type(OBJECT);
+        int iface = pool.type(PREDICATE);
+        Out out = new Out();
+        // Java 8 class file
+        out.u4(0xCAFEBABE).u2(0).u2(52);
+        pool.write(out);
+        out.u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER).u2(self).u2(parent);
+        out.u2(1).u2(iface);
+        out.u2(0);
+        out.u2(methodCount).bytes(methods.toArray());
+        out.u2(0);
+        return out.toArray();
+    }
+
+    private final class Code extends Out {
+        private int[] labels = new int[16];
+        private int labelCount;
+        private int[] fixAt = new int[16];
+        private int[] fixLabel = new int[16];
+        private int fixCount;
+
+        Code op(int opcode) {
+            u1(opcode);
+            return this;
+        }
+
+        Code constant(int value) {
+            if (value >= -1 && value <= 5) {
+                u1(ICONST_0 + value);
+            } else if (value == (byte) value) {
+                u1(BIPUSH).u1(value);
+            } else if (value == (short) value) {
+                u1(SIPUSH).u2(value);
+            } else {
+                int index = pool.integer(value);
+                if (index < 256) {
+                    u1(LDC).u1(index);
+                } else {
+                    u1(LDC_W).u2(index);
+                }
+            }
+            return this;
+        }
+
+        Code constant(long value) {
+            u1(LDC2_W).u2(pool.longValue(value));
+            return this;
+        }
+
+        Code call(String name, String descriptor) {
+            u1(INVOKESTATIC).u2(pool.method(NAME, name, descriptor));
+            return this;
+        }
+
+        int label() {
+            if (labelCount == labels.length) {
+                labels = Arrays.copyOf(labels, labelCount * 2);
+            }
+            labels[labelCount] = -1;
+            return labelCount++;
+        }
+
+        Code bind(int label) {
+            labels[label] = length();
+            return this;
+        }
+
+        Code jump(int opcode, int label) {
+            if (fixCount == fixAt.length) {
+                fixAt = Arrays.copyOf(fixAt, fixCount * 2);
+                fixLabel = Arrays.copyOf(fixLabel, fixCount * 2);
+            }
+            fixAt[fixCount] = length();
+            fixLabel[fixCount++] = label;
+            u1(opcode).u2(0);
+            return this;
+        }
+
+        byte[] finish() {
+            byte[] code = toArray();
+            for (int i = 0; i < fixCount; i++) {
+                int at = fixAt[i];
+                int offset = labels[fixLabel[i]] - at;
+                code[at + 1] = (byte) (offset >> 8);
+                code[at + 2] = (byte) offset;
+            }
+            return code;
+        }
+
+        /**
+         * @return ascending distinct offsets of bound labels
+         */
+        int[] frames() {
+            return Arrays.stream(labels, 0, labelCount).filter(l -> l >= 0).sorted().distinct().toArray();
+        }
+    }
+
+    private static final class Pool {
+        private final Out out = new Out();
+        private final Map<Object, Integer> indices = new HashMap<>();
+        private int next = 1;
+
+        int utf8(String s) {
+            return entry("U" + s, 1, s.getBytes(StandardCharsets.UTF_8), 1);
+        }
+
+        int integer(int value) {
+            return entry(value, 3, new Out().u4(value).toArray(), 1);
+        }
+
+        int longValue(long value) {
+            return entry(value, 5, new Out().u8(value).toArray(), 2);
+        }
+
+        int type(String internalName) {
+            return entry("C" + internalName, 7, new Out().u2(utf8(internalName)).toArray(), 1);
+        }
+
+        int method(String owner, String name, String descriptor) {
+            int type = type(owner);
+            int nameAndType = entry("N" + name + descriptor, 12, new Out().u2(utf8(name)).u2(utf8(descriptor)).toArray(), 1);
+            return entry("M" + owner + name + descriptor, 10, new Out().u2(type).u2(nameAndType).toArray(), 1);
+        }
+
+        private int entry(Object key, int tag, byte[] info, int slots) {
+            Integer existing = indices.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            out.u1(tag);
+            if (tag == 1) {
+                out.u2(info.length);
+            }
+            out.bytes(info);
+            int index = next;
+            next += slots;
+            indices.put(key, index);
+            return index;
+        }
+
+        void write(Out dest) {
+            dest.u2(next).bytes(out.toArray());
+        }
+    }
+
+    /**
+     * Big-endian byte buffer.
+     */
+    private static class Out {
+        private byte[] buf = new byte[64];
+        private int len;
+
+        final Out u1(int b) {
+            if (len == buf.length) {
+                buf = Arrays.copyOf(buf, len * 2);
+            }
+            buf[len++] = (byte) b;
+            return this;
+        }
+
+        final Out u2(int v) {
+            return u1(v >> 8).u1(v);
+        }
+
+        final Out u4(int v) {
+            return u2(v >> 16).u2(v);
+        }
+
+        final Out u8(long v) {
+            return u4((int) (v >> 32)).u4((int) v);
+        }
+
+        final Out bytes(byte[] b) {
+            for (byte x : b) {
+                u1(x);
+            }
+            return this;
+        }
+
+        final int length() {
+            return len;
+        }
+
+        final byte[] toArray() {
+            return Arrays.copyOf(buf, len);
+        }
+    }
+}
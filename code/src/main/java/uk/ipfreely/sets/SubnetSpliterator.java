@@ -11,23 +11,28 @@ import static uk.ipfreely.sets.Validation.validate;
 
 final class SubnetSpliterator<A extends Addr<A>> implements Spliterator<Block<A>> {
     private A current;
-    private final A last;
-    private final A increment;
+    // first address of final block
+    private final A lastStart;
+    private final A blockSize;
+    private final int maskSize;
 
     SubnetSpliterator(A first, A last, int bitSize) {
         validate(bitSize != 0, "Does not support entire internet", bitSize, IllegalArgumentException::new);
 
-        this.current = first;
-        this.last = last;
         var family = first.family();
         // how much to add to get end of current Block
-        this.increment = family.subnets().masks().get(bitSize).not();
+        A increment = family.subnets().masks().get(bitSize).not();
+        this.current = first;
+        this.lastStart = last.subtract(increment);
+        this.blockSize = increment.next();
+        this.maskSize = bitSize;
     }
 
-    private SubnetSpliterator(A first, A last, A increment) {
+    private SubnetSpliterator(A first, A lastStart, A blockSize, int maskSize) {
         this.current = first;
-        this.last = last;
-        this.increment = increment;
+        this.lastStart = lastStart;
+        this.blockSize = blockSize;
+        this.maskSize = maskSize;
     }
 
     @Override
@@ -35,26 +40,25 @@ final class SubnetSpliterator<A extends Addr<A>> implements Spliterator<Block<A>
         if (current == null) {
             return false;
         }
-        A end = current.add(increment);
-        Block<A> b = AddressSets.block(current, end);
+        Block<A> b = AddressSets.compact(current, maskSize);
+        current = current.equals(lastStart) ? null : current.add(blockSize);
         action.accept(b);
-        current = end.equals(last) ? null : end.next();
         return true;
     }
 
     @Override
     public Spliterator<Block<A>> trySplit() {
-        long estimate = estimateSize();
-        if (estimate < 2) {
+        if (current == null || current.equals(lastStart)) {
             return null;
         }
-        A blockSize = increment.next();
-        long half = estimate / 2;
+        int host = current.family().width() - maskSize;
+        // blocks after current
+        A remaining = lastStart.subtract(current).shift(host);
+        // must return prefix because ORDERED
+        A preLastStart = current.add(remaining.shift(1).shift(-host));
         A preStart = current;
-        A multiplicand = blockSize.family().parse(0, half);
-        A preEnd = blockSize.multiply(multiplicand);
-        current = preEnd.next();
-        return new SubnetSpliterator<>(preStart, preEnd, increment);
+        current = preLastStart.add(blockSize);
+        return new SubnetSpliterator<>(preStart, preLastStart, blockSize, maskSize);
     }
 
     @Override
@@ -62,9 +66,7 @@ final class SubnetSpliterator<A extends Addr<A>> implements Spliterator<Block<A>
         if (current == null) {
             return 0;
         }
-        A blockSize = increment.next();
-        A remaining = last.subtract(current);
-        A size = remaining.divide(blockSize);
+        A size = lastStart.subtract(current).shift(current.family().width() - maskSize);
         long high = size.highBits();
         long low = size.lowBits();
         return (high == 0) && (low >= 0) && (low < Long.MAX_VALUE)
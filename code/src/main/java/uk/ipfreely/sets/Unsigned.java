@@ -0,0 +1,142 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import java.math.BigInteger;
+
+/**
+ * 128-bit unsigned integer helpers operating on {@link uk.ipfreely.Addr#highBits()}
+ * and {@link uk.ipfreely.Addr#lowBits()} pairs.
+ * IPv4 values always have zero high bits.
+ */
+final class Unsigned {
+
+    private Unsigned() {}
+
+    static int compare(long h0, long l0, long h1, long l1) {
+        int c = Long.compareUnsigned(h0, h1);
+        return c == 0 ? Long.compareUnsigned(l0, l1) : c;
+    }
+
+    /**
+     * Carry from adding low bits.
+     *
+     * @param l0 low bits
+     * @param l1 low bits
+     * @return 1 if {@code l0 + l1} overflows or 0
+     */
+    static long carry(long l0, long l1) {
+        return Long.compareUnsigned(l0 + l1, l0) < 0 ? 1 : 0;
+    }
+
+    /**
+     * Borrow from subtracting low bits.
+     *
+     * @param l0 minuend low bits
+     * @param l1 subtrahend low bits
+     * @return 1 if {@code l0 - l1} underflows or 0
+     */
+    static long borrow(long l0, long l1) {
+        return Long.compareUnsigned(l0, l1) < 0 ? 1 : 0;
+    }
+
+    /**
+     * Tests if 128-bit addition overflows.
+     *
+     * @param h0 high bits
+     * @param l0 low bits
+     * @param h1 high bits
+     * @param l1 low bits
+     * @return true if the sum exceeds 128 bits
+     */
+    static boolean overflows(long h0, long l0, long h1, long l1) {
+        long c = carry(l0, l1);
+        long h = h1 + c;
+        if (c == 1 && h == 0) {
+            return true;
+        }
+        return Long.compareUnsigned(h0 + h, h0) < 0;
+    }
+
+    static int leadingZeros(long high, long low) {
+        return high == 0
+                ? Long.SIZE + Long.numberOfLeadingZeros(low)
+                : Long.numberOfLeadingZeros(high);
+    }
+
+    static int trailingZeros(long high, long low) {
+        return low == 0
+                ? Long.SIZE + Long.numberOfTrailingZeros(high)
+                : Long.numberOfTrailingZeros(low);
+    }
+
+    /**
+     * Host bits of the largest CIDR block that starts at {@code first} and does not extend past {@code last}.
+     *
+     * @param fh first high bits
+     * @param fl first low bits
+     * @param lh last high bits
+     * @param ll last low bits; must not be less than first
+     * @param width family width
+     * @return number of host bits from zero to width
+     */
+    static int blockBits(long fh, long fl, long lh, long ll, int width) {
+        int alignment = Math.min(trailingZeros(fh, fl), width);
+        // span = last - first + 1
+        long sl = ll - fl;
+        long sh = lh - fh - borrow(ll, fl);
+        sl++;
+        if (sl == 0) {
+            sh++;
+            if (sh == 0) {
+                // 2^128
+                return alignment;
+            }
+        }
+        int fits = Long.SIZE * 2 - 1 - leadingZeros(sh, sl);
+        return Math.min(alignment, fits);
+    }
+
+    /**
+     * Low bits of a host mask.
+     *
+     * @param bits number of host bits from zero to 128
+     * @return mask with the given number of least significant bits set
+     */
+    static long hostMaskLow(int bits) {
+        return bits >= Long.SIZE ? -1L : (1L << bits) - 1;
+    }
+
+    /**
+     * High bits of a host mask.
+     *
+     * @param bits number of host bits from zero to 128
+     * @return high part of mask with the given number of least significant bits set
+     */
+    static long hostMaskHigh(int bits) {
+        if (bits <= Long.SIZE) {
+            return 0L;
+        }
+        return bits >= Long.SIZE * 2 ? -1L : (1L << (bits - Long.SIZE)) - 1;
+    }
+
+    /**
+     * @param high high bits
+     * @param low low bits
+     * @return unsigned value
+     */
+    static BigInteger toBigInteger(long high, long low) {
+        BigInteger l = BigInteger.valueOf(low & Long.MAX_VALUE);
+        if (low < 0) {
+            l = l.setBit(Long.SIZE - 1);
+        }
+        if (high == 0) {
+            return l;
+        }
+        BigInteger h = BigInteger.valueOf(high & Long.MAX_VALUE);
+        if (high < 0) {
+            h = h.setBit(Long.SIZE - 1);
+        }
+        return h.shiftLeft(Long.SIZE).or(l);
+    }
+}
@@ -0,0 +1,77 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.V4;
+
+import java.math.BigInteger;
+
+/**
+ * {@link V4} {@link Block} of two or more addresses.
+ * Holds the network address and mask size; {@link #last()} is derived on demand.
+ */
+final class V4Block extends AbstractRange<V4> implements Block<V4> {
+    private final V4 first;
+    private final int maskSize;
+
+    /**
+     * @param first network address with zero host bits
+     * @param maskSize less than 32
+     */
+    V4Block(V4 first, int maskSize) {
+        this.first = first;
+        this.maskSize = maskSize;
+    }
+
+    private int hostMask() {
+        return -1 >>> maskSize;
+    }
+
+    @Override
+    public V4 first() {
+        return first;
+    }
+
+    @Override
+    public V4 last() {
+        return Family.v4().parse((int) first.lowBits() | hostMask());
+    }
+
+    @Override
+    public Family<V4> family() {
+        return Family.v4();
+    }
+
+    @Override
+    public int maskSize() {
+        return maskSize;
+    }
+
+    @Override
+    public V4 mask() {
+        return Family.v4().subnets().masks().get(maskSize);
+    }
+
+    @Override
+    public BigInteger size() {
+        return Family.v4().subnets().count(maskSize);
+    }
+
+    @Override
+    public long sizeAsLong() {
+        return 1L << (Integer.SIZE - maskSize);
+    }
+
+    @Override
+    public boolean contains(Addr<?> address) {
+        return address instanceof V4
+                && (((int) (address.lowBits() ^ first.lowBits())) & ~hostMask()) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "{" + cidrNotation() + "}";
+    }
+}
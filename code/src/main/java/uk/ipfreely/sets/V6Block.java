@@ -0,0 +1,81 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.V6;
+
+import java.math.BigInteger;
+
+/**
+ * {@link V6} {@link Block} of two or more addresses.
+ * Holds the network address and mask size; {@link #last()} is derived on demand.
+ */
+final class V6Block extends AbstractRange<V6> implements Block<V6> {
+    private final V6 first;
+    private final int maskSize;
+
+    /**
+     * @param first network address with zero host bits
+     * @param maskSize less than 128
+     */
+    V6Block(V6 first, int maskSize) {
+        this.first = first;
+        this.maskSize = maskSize;
+    }
+
+    private int hostBits() {
+        return Long.SIZE * 2 - maskSize;
+    }
+
+    @Override
+    public V6 first() {
+        return first;
+    }
+
+    @Override
+    public V6 last() {
+        int host = hostBits();
+        return Family.v6().parse(first.highBits() | Unsigned.hostMaskHigh(host), first.lowBits() | Unsigned.hostMaskLow(host));
+    }
+
+    @Override
+    public Family<V6> family() {
+        return Family.v6();
+    }
+
+    @Override
+    public int maskSize() {
+        return maskSize;
+    }
+
+    @Override
+    public V6 mask() {
+        return Family.v6().subnets().masks().get(maskSize);
+    }
+
+    @Override
+    public BigInteger size() {
+        return Family.v6().subnets().count(maskSize);
+    }
+
+    @Override
+    public long sizeAsLong() {
+        int host = hostBits();
+        return host < Long.SIZE - 1 ? 1L << host : -1;
+    }
+
+    @Override
+    public boolean contains(Addr<?> address) {
+        int host = hostBits();
+        return address instanceof V6
+                && ((address.highBits() ^ first.highBits()) & ~Unsigned.hostMaskHigh(host)) == 0
+                && ((address.lowBits() ^ first.lowBits()) & ~Unsigned.hostMaskLow(host)) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "{" + cidrNotation() + "}";
+    }
+}
@@ -0,0 +1,176 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class AddressCountersTest {
+
+    @Test
+    void matchesHashMap() {
+        Random random = new Random(50);
+        AddressCounters<V6> actual = AddressCounters.of(v6());
+        Map<V6, Long> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            // ::1 hosts in many /64s
+            V6 a = v6().parse(random.nextInt(5_000), 1);
+            long delta = random.nextInt(3);
+            long sum = expected.merge(a, delta, Long::sum);
+            assertEquals(sum, actual.add(a, delta));
+        }
+        expected.values().removeIf(c -> c == 0);
+        assertEquals(expected, actual.snapshot());
+        for (Map.Entry<V6, Long> e : expected.entrySet()) {
+            assertEquals(e.getValue(), actual.count(e.getKey()));
+        }
+        assertEquals(0, actual.count(v6().parse(-1, -1)));
+    }
+
+    @Test
+    void concurrent() throws InterruptedException {
+        AddressCounters<V4> counters = AddressCounters.of(v4(), 1_000);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    counters.increment(0, i % 100);
+                    counters.increment(v4().parse(1_000));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(8 * 200, counters.count(0, i));
+        }
+        assertEquals(8 * 20_000, counters.count(v4().parse(1_000)));
+        assertEquals(101, counters.size());
+    }
+
+    @Test
+    void concurrentGrowth() throws InterruptedException {
+        AddressCounters<V6> counters = AddressCounters.of(v6());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    counters.increment(i % 50_000, 1);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(50_000, counters.size());
+        long[] total = {0};
+        counters.forEach((high, low, count) -> {
+            assertEquals(32, count);
+            total[0] += count;
+        });
+        assertEquals(8 * 200_000, total[0]);
+    }
+
+    @Test
+    void concurrentDecay() throws InterruptedException {
+        AddressCounters<V4> counters = AddressCounters.of(v4());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    counters.increment(0, i % 20_000);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        int decays = 0;
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            counters.decay();
+            decays++;
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        // every hit is counted, halved once per decay it precedes
+        long total = counters.snapshot().values().stream().mapToLong(Long::longValue).sum();
+        assertTrue(total <= 4 * 200_000, () -> "total");
+        assertTrue(decays > 0);
+        // quiescent counters are exact
+        for (int i = 0; i < 20_000; i++) {
+            counters.increment(0, i);
+        }
+        Map<V4, Long> before = counters.snapshot();
+        counters.decay();
+        for (Map.Entry<V4, Long> e : before.entrySet()) {
+            assertEquals(e.getValue() >>> 1, counters.count(e.getKey()));
+        }
+    }
+
+    @Test
+    void top() {
+        AddressCounters<V4> counters = AddressCounters.of(v4());
+        for (int i = 1; i <= 50; i++) {
+            counters.add(v4().parse(i), i);
+        }
+        counters.add(v4().parse(0), 0);
+        List<Map.Entry<V4, Long>> top = counters.top(3);
+        assertEquals(List.of(
+                Map.entry(v4().parse(50), 50L),
+                Map.entry(v4().parse(49), 49L),
+                Map.entry(v4().parse(48), 48L)), top);
+        assertEquals(50, counters.top(100).size());
+        assertEquals(1L, counters.top(100).get(49).getValue());
+        assertTrue(counters.top(0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> counters.top(-1));
+    }
+
+    @Test
+    void decay() {
+        AddressCounters<V4> counters = AddressCounters.of(v4());
+        counters.add(v4().parse(1), 1);
+        counters.add(v4().parse(2), 5);
+        counters.add(v4().parse(3), 3_000);
+        counters.decay();
+        assertEquals(0, counters.count(v4().parse(1)));
+        assertEquals(2, counters.count(v4().parse(2)));
+        assertEquals(1_500, counters.count(v4().parse(3)));
+        assertEquals(2, counters.size());
+        counters.reset();
+        assertEquals(0, counters.size());
+        assertEquals(0, counters.count(v4().parse(2)));
+        assertEquals(1, counters.increment(v4().parse(2)));
+    }
+
+    @Test
+    void primitive() {
+        AddressCounters<V4> counters = AddressCounters.of(v4());
+        assertEquals(1, counters.increment(0, 0xFFFFFFFFL));
+        Map<Long, Long> visited = new HashMap<>();
+        counters.forEach((high, low, count) -> {
+            assertEquals(0, high);
+            visited.put(low, count);
+        });
+        assertEquals(Map.of(0xFFFFFFFFL, 1L), visited);
+        assertEquals(0, counters.count(0, 1L << 32));
+        assertEquals(0, counters.count(0, 1));
+        assertEquals(v4(), counters.family());
+        assertTrue(counters.toString().contains("1 addresses"));
+        assertThrows(IllegalArgumentException.class, () -> counters.increment(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> counters.add(v4().min(), -1));
+        assertThrows(IllegalArgumentException.class, () -> AddressCounters.of(v4(), -1));
+    }
+}
@@ -0,0 +1,66 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class AddressHashMapTest {
+
+    @Test
+    void matchesHashMap() {
+        Random random = new Random(49);
+        AddressHashMap<V6, Integer> actual = AddressHashMap.of(v6());
+        Map<V6, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            V6 a = v6().parse(random.nextInt(2_000), random.nextInt(3));
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(expected.put(a, i), actual.put(a, i));
+                case 1 -> assertEquals(expected.remove(a), actual.remove(a));
+                case 2 -> assertEquals(expected.computeIfAbsent(a, k -> -1), actual.computeIfAbsent(a, k -> -1));
+                default -> assertEquals(expected.get(a), actual.get(a));
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertEquals(expected, actual.entries().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        Map<V6, Integer> visited = new HashMap<>();
+        actual.forEach((high, low, v) -> visited.put(v6().parse(high, low), v));
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void primitive() {
+        AddressHashMap<V4, String> map = AddressHashMap.of(v4(), 10);
+        assertTrue(map.isEmpty());
+        assertNull(map.put(0, 1, "a"));
+        assertEquals("a", map.put(v4().parse(1), "b"));
+        assertEquals("b", map.get(0, 1));
+        assertTrue(map.containsKey(v4().parse(1)));
+        assertFalse(map.containsKey(v4().parse(2)));
+        assertNull(map.get(1, 1));
+        assertNull(map.remove(1, 1));
+        assertNull(map.remove(v4().parse(2)));
+        assertEquals("b", map.computeIfAbsent(v4().parse(1), a -> "c"));
+        assertEquals("b", map.remove(0, 1));
+        assertNull(map.get(v4().parse(1)));
+        map.put(v4().min(), "x");
+        assertTrue(map.toString().contains("1 entries"));
+        assertEquals(v4(), map.family());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertThrows(NullPointerException.class, () -> map.put(v4().min(), null));
+        assertThrows(NullPointerException.class, () -> map.computeIfAbsent(v4().min(), a -> null));
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, -1, "x"));
+        assertThrows(IllegalArgumentException.class, () -> AddressHashMap.of(v6(), -1));
+    }
+}
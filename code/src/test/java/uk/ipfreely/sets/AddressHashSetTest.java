@@ -0,0 +1,106 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class AddressHashSetTest {
+
+    @Test
+    void matchesHashSet() {
+        Random random = new Random(49);
+        AddressHashSet<V6> actual = AddressHashSet.of(v6());
+        Set<V6> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            // ::1 hosts in many /64s
+            V6 a = v6().parse(random.nextInt(2_000), random.nextInt(3));
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.add(a), actual.add(a));
+                case 1 -> assertEquals(expected.remove(a), actual.remove(a));
+                default -> assertEquals(expected.contains(a), actual.contains(a));
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertEquals(expected, actual.stream().collect(Collectors.toSet()));
+        Set<V6> visited = new HashSet<>();
+        actual.forEachAddress(visited::add);
+        assertEquals(expected, visited);
+        for (V6 a : expected) {
+            assertTrue(actual.contains(a.highBits(), a.lowBits()));
+        }
+    }
+
+    @Test
+    void primitive() {
+        AddressHashSet<V4> set = AddressHashSet.of(v4(), 100);
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(0, 0));
+        assertTrue(set.add(0, 0xFFFFFFFFL));
+        assertFalse(set.add(v4().max()));
+        assertTrue(set.contains(v4().min()));
+        assertTrue(set.contains(0, 0xFFFFFFFFL));
+        assertFalse(set.contains(0, 1L << 32));
+        assertFalse(set.contains(1, 0));
+        assertFalse(set.remove(1, 0));
+        assertFalse(set.remove(0, 1));
+        assertEquals(2, set.size());
+        Set<Long> visited = new HashSet<>();
+        set.forEach((high, low) -> {
+            assertEquals(0, high);
+            visited.add(low);
+        });
+        assertEquals(Set.of(0L, 0xFFFFFFFFL), visited);
+        assertTrue(set.remove(v4().min()));
+        assertFalse(set.contains(v4().min()));
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.stream().count());
+        assertThrows(IllegalArgumentException.class, () -> set.add(0, 1L << 32));
+        assertThrows(IllegalArgumentException.class, () -> set.add(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> AddressHashSet.of(v4(), -1));
+    }
+
+    @Test
+    void wide() {
+        AddressHashSet<V6> set = AddressHashSet.of(v6());
+        assertTrue(set.add(-1, -1));
+        assertTrue(set.add(0, 0));
+        assertTrue(set.contains(v6().max()));
+        assertTrue(set.toString().contains("2 addresses"));
+        assertEquals(v6(), set.family());
+    }
+
+    @Test
+    void grows() {
+        AddressHashSet<V4> set = AddressHashSet.of(v4());
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(set.add(0, i * 256L));
+        }
+        for (int i = 0; i < 100_000; i += 2) {
+            assertTrue(set.remove(0, i * 256L));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i % 2 == 1, set.contains(0, i * 256L));
+        }
+    }
+
+    @Test
+    void capacity() {
+        assertEquals(16, AddressTable.capacity(v6(), 0));
+        assertEquals(1 << 30, AddressTable.capacity(v4(), Integer.MAX_VALUE));
+        // IPv6 keys take two longs per slot
+        assertEquals(1 << 29, AddressTable.capacity(v6(), Integer.MAX_VALUE));
+        assertEquals(1 << 29, AddressTable.maxCapacity(v6()));
+    }
+}
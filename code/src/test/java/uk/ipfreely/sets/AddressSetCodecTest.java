@@ -0,0 +1,320 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ipfreely.ParseException;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+import uk.ipfreely.testing.RandomSets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class AddressSetCodecTest {
+
+    @Test
+    void roundTrip() throws IOException {
+        List<AddressSet<?>> sets = List.of(
+                AddressSets.of(),
+                AddressSets.address(v4().min()),
+                AddressSets.address(v6().max()),
+                AddressSets.block(v4().min(), 0),
+                AddressSets.block(v6().min(), 0),
+                AddressSets.range(v6().parse(0, 1), v6().max()),
+                AddressSets.of(
+                        AddressSets.range(v4().parse("10.0.0.1"), v4().parse("10.0.0.6")),
+                        AddressSets.parseCidr(v4(), "192.168.0.0/16"),
+                        AddressSets.address(v4().max())
+                ),
+                AddressSets.of(
+                        AddressSets.address(v6().min()),
+                        AddressSets.parseCidr(v6(), "fe80::/10"),
+                        AddressSets.address(v6().max())
+                ),
+                RandomSets.generate(v4().parse(0), 2_000, v4()::parse),
+                RandomSets.generate(v6().parse("2001:db8::"), 2_000, n -> v6().parse(0, n))
+        );
+        for (AddressSet<?> set : sets) {
+            byte[] encoded = encode(set);
+            assertEquals(encoded.length, AddressSetCodec.encodedLength(set));
+            assertEquals(set, AddressSetCodec.decode(new ByteArrayInputStream(encoded)));
+            assertEquals(set, AddressSetCodec.decode(ByteBuffer.wrap(encoded)));
+
+            var buf = ByteBuffer.allocate(encoded.length);
+            AddressSetCodec.encode(set, buf);
+            assertArrayEquals(encoded, buf.array());
+            assertFalse(buf.hasRemaining());
+        }
+    }
+
+    @Test
+    void iterator() throws IOException {
+        AddressSet<V6> set = RandomSets.generate(v6().parse("2001:db8::"), 300, n -> v6().parse(0, n));
+        var it = AddressSetCodec.iterator(v6(), new ByteArrayInputStream(encode(set)));
+        List<Range<V6>> actual = new ArrayList<>();
+        it.forEachRemaining(actual::add);
+        assertEquals(set.ranges().toList(), actual);
+        assertThrows(NoSuchElementException.class, it::next);
+
+        AddressSet<V4> empty = AddressSets.of();
+        assertFalse(AddressSetCodec.iterator(v4(), new ByteArrayInputStream(encode(empty))).hasNext());
+
+        byte[] encoded = encode(set);
+        byte[] partial = Arrays.copyOf(encoded, encoded.length / 2);
+        var truncated = AddressSetCodec.iterator(v6(), new ByteArrayInputStream(partial));
+        assertThrows(UncheckedIOException.class, () -> truncated.forEachRemaining(r -> {}));
+        assertThrows(ParseException.class, () -> AddressSetCodec.iterator(v4(), new ByteArrayInputStream(encoded)));
+    }
+
+    @Test
+    void family() throws IOException {
+        AddressSet<V4> v4s = RandomSets.generate(v4().parse(0), 10, v4()::parse);
+        AddressSet<V6> v6s = RandomSets.generate(v6().parse(0), 10, n -> v6().parse(0, n));
+        AddressSet<V4> actual4 = AddressSetCodec.decode(v4(), new ByteArrayInputStream(encode(v4s)));
+        AddressSet<V6> actual6 = AddressSetCodec.decode(v6(), ByteBuffer.wrap(encode(v6s)));
+        assertEquals(v4s, actual4);
+        assertEquals(v6s, actual6);
+        assertEquals(AddressSets.of(), AddressSetCodec.decode(v4(), ByteBuffer.wrap(encode(AddressSets.of()))));
+
+        assertThrows(ParseException.class, () -> AddressSetCodec.decode(v6(), new ByteArrayInputStream(encode(v4s))));
+        assertThrows(ParseException.class, () -> AddressSetCodec.decode(v4(), ByteBuffer.wrap(encode(v6s))));
+    }
+
+    @Test
+    void concatenated() throws IOException {
+        AddressSet<V4> a = RandomSets.generate(v4().parse(0), 100, v4()::parse);
+        AddressSet<V6> b = RandomSets.generate(v6().parse(0), 100, n -> v6().parse(0, n));
+        var out = new ByteArrayOutputStream();
+        AddressSetCodec.encode(a, out);
+        AddressSetCodec.encode(b, out);
+        var in = new ByteArrayInputStream(out.toByteArray());
+        assertEquals(a, AddressSetCodec.decode(in));
+        assertEquals(b, AddressSetCodec.decode(in));
+        assertEquals(-1, in.read());
+
+        var buf = ByteBuffer.wrap(out.toByteArray());
+        assertEquals(a, AddressSetCodec.decode(buf));
+        assertEquals(b, AddressSetCodec.decode(buf));
+        assertFalse(buf.hasRemaining());
+    }
+
+    @Test
+    void channel(@TempDir Path dir) throws IOException {
+        AddressSet<V4> a = RandomSets.generate(v4().parse(0), 3_000, v4()::parse);
+        AddressSet<V6> b = RandomSets.generate(v6().parse(0), 10, n -> v6().parse(0, n));
+        AddressSet<V4> empty = AddressSets.of();
+        Path file = dir.resolve("sets.ipas");
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            AddressSetCodec.encode(a.ranges().iterator(), out);
+            AddressSetCodec.encode(b.ranges().iterator(), out);
+            AddressSetCodec.encode(empty.ranges().iterator(), out);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            assertEquals(a, AddressSetCodec.decode(v4(), in));
+            assertEquals(b, AddressSetCodec.decode(v6(), in));
+            assertEquals(empty, AddressSetCodec.decode(in));
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void combine() {
+        byte[] data = new byte[1_000];
+        new Random(1).nextBytes(data);
+        for (int split : new int[] {0, 1, 7, 500, 1_000}) {
+            var whole = new CRC32C();
+            whole.update(data);
+            var first = new CRC32C();
+            first.update(data, 0, split);
+            var second = new CRC32C();
+            second.update(data, split, data.length - split);
+            int expected = (int) whole.getValue();
+            assertEquals(expected, AddressSetCodec.combine((int) first.getValue(), (int) second.getValue(), data.length - split));
+        }
+    }
+
+    @Test
+    void sparse() throws IOException {
+        @SuppressWarnings("unchecked")
+        Range<V6>[] ranges = new Range[5_000];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = AddressSets.range(v6().parse(i * 3L, 0), v6().parse(i * 3L + 1, -1));
+        }
+        AddressSet<V6> set = AddressSets.fromSorted(ranges);
+        byte[] encoded = encode(set);
+        assertTrue(encoded.length > 8192 * 2);
+        assertEquals(set, AddressSetCodec.decode(v6(), new ByteArrayInputStream(encoded)));
+    }
+
+    @Test
+    void compact() throws IOException {
+        AddressSet<V6> set = RandomSets.generate(v6().parse("2001:db8::"), 2_000, n -> v6().parse(0, n));
+        var text = new ByteArrayOutputStream();
+        AddressSetWriter.cidrNotation().write(set, text);
+        assertTrue(encode(set).length * 5 < text.size());
+    }
+
+    @Test
+    void overflow() {
+        var set = AddressSets.parseCidr(v6(), "fe80::/10");
+        var buf = ByteBuffer.allocate((int) AddressSetCodec.encodedLength(set) - 1);
+        assertThrows(BufferOverflowException.class, () -> AddressSetCodec.encode(set, buf));
+        assertEquals(0, buf.position());
+    }
+
+    @Test
+    void truncated() throws IOException {
+        byte[] encoded = encode(RandomSets.generate(v6().parse(0), 100, n -> v6().parse(0, n)));
+        for (int len : new int[] {0, 3, 6, 7, 20, encoded.length - 1}) {
+            byte[] partial = Arrays.copyOf(encoded, len);
+            assertThrows(EOFException.class, () -> AddressSetCodec.decode(new ByteArrayInputStream(partial)));
+            assertThrows(ParseException.class, () -> AddressSetCodec.decode(ByteBuffer.wrap(partial)));
+        }
+    }
+
+    @Test
+    void corrupt() throws IOException {
+        byte[] encoded = encode(AddressSets.parseCidr(v4(), "10.0.0.0/8"));
+        for (int i = 0; i < encoded.length; i++) {
+            byte[] copy = encoded.clone();
+            copy[i] ^= 0x40;
+            assertThrows(ParseException.class, () -> AddressSetCodec.decode(ByteBuffer.wrap(copy)));
+        }
+    }
+
+    @Test
+    void malformed() {
+        // sanity
+        assertEquals(AddressSets.address(v4().parse(1)), decode(4, 1, 2, 1, 0));
+        // unknown family
+        assertInvalid(5, 0, 0);
+        // empty with ranges
+        assertInvalid(0, 1, 2, 1, 0);
+        // count exceeds payload
+        assertInvalid(4, 2, 2, 1, 0);
+        // payload length mismatch
+        assertInvalid(4, 1, 3, 1, 0, 0);
+        // header value too large
+        assertInvalid(4, 1, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x02);
+        // too many ranges
+        assertInvalid(4, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 0xFE, 0xFF, 0xFF, 0xFF, 0x0F);
+        // declared count far exceeds data
+        assertInvalid(4, 0xFE, 0xFF, 0xFF, 0xFF, 0x07, 0x80, 0x80, 0x80, 0x80, 0x10, 1, 0);
+        // IPv4 out of range
+        assertInvalid(4, 1, 6, 0x80, 0x80, 0x80, 0x80, 0x10, 0);
+        assertInvalid(4, 1, 6, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F, 1);
+        // 128-bit overflow: first at max, then span 1
+        byte[] max = max();
+        assertInvalid(6, 1, max.length + 1, concat(max, 1));
+        // 128-bit overflow: next range after max
+        assertInvalid(6, 2, max.length + 3, concat(max, 0, 0, 0));
+        // 128-bit overflow: gap too large
+        assertInvalid(6, 2, max.length + 3, concat(new int[] {0, 0}, max, 0));
+        // varint overflow: 129th bit
+        byte[] big = max();
+        big[big.length - 1] = 0x04;
+        assertInvalid(6, 1, big.length + 1, concat(big, 0));
+        // varint too long
+        big[big.length - 1] = (byte) 0x83;
+        assertInvalid(6, 1, big.length + 2, concat(big, 0, 0));
+    }
+
+    @Test
+    void header() {
+        byte[] encoded = encode(AddressSets.of());
+        byte[] magic = encoded.clone();
+        magic[0] = 'X';
+        assertThrows(ParseException.class, () -> AddressSetCodec.decode(ByteBuffer.wrap(magic)));
+        byte[] version = encoded.clone();
+        version[4] = AddressSetCodec.VERSION + 1;
+        assertThrows(ParseException.class, () -> AddressSetCodec.decode(ByteBuffer.wrap(version)));
+    }
+
+    @Test
+    void varint() {
+        long[][] values = {{0, 0}, {0, 0x7F}, {0, 0x80}, {0, -1}, {1, 0}, {Long.MIN_VALUE, 0}, {-1, -1}};
+        byte[] buf = new byte[19];
+        for (long[] v : values) {
+            int len = AddressSetCodec.varint(buf, 0, v[0], v[1]);
+            assertEquals(len, AddressSetCodec.varintLength(v[0], v[1]));
+        }
+        assertEquals(19, AddressSetCodec.varintLength(-1, -1));
+    }
+
+    private static byte[] max() {
+        byte[] buf = new byte[19];
+        AddressSetCodec.varint(buf, 0, -1, -1);
+        return buf;
+    }
+
+    private static int[] concat(byte[] head, int... tail) {
+        int[] result = new int[head.length + tail.length];
+        for (int i = 0; i < head.length; i++) {
+            result[i] = head[i] & 0xFF;
+        }
+        System.arraycopy(tail, 0, result, head.length, tail.length);
+        return result;
+    }
+
+    private static int[] concat(int[] head, byte[] middle, int... tail) {
+        int[] m = concat(middle, tail);
+        int[] result = Arrays.copyOf(head, head.length + m.length);
+        System.arraycopy(m, 0, result, head.length, m.length);
+        return result;
+    }
+
+    private static void assertInvalid(int tag, int count, int length, int[] payload) {
+        int[] fields = Arrays.copyOf(new int[] {count, length}, payload.length + 2);
+        System.arraycopy(payload, 0, fields, 2, payload.length);
+        assertInvalid(tag, fields);
+    }
+
+    private static void assertInvalid(int tag, int... fields) {
+        assertThrows(ParseException.class, () -> decode(tag, fields));
+    }
+
+    private static AddressSet<?> decode(int tag, int... fields) {
+        var out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[] {'I', 'P', 'A', 'S', AddressSetCodec.VERSION, (byte) tag});
+        for (int b : fields) {
+            out.write(b);
+        }
+        var crc = new CRC32C();
+        crc.update(out.toByteArray());
+        int sum = (int) crc.getValue();
+        out.writeBytes(ByteBuffer.allocate(4).putInt(sum).array());
+        return AddressSetCodec.decode(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    private static byte[] encode(AddressSet<?> set) {
+        var out = new ByteArrayOutputStream();
+        try {
+            AddressSetCodec.encode(set, out);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -6,9 +6,15 @@ import org.junit.jupiter.api.Test;
 import uk.ipfreely.Family;
 import uk.ipfreely.V4;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collector;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AddressSetCollectorTest {
@@ -18,7 +24,7 @@ class AddressSetCollectorTest {
         AddressSet<V4> home1 = AddressSets.parseCidr(Family.v4(), "127.0.0.1/32");
         AddressSet<V4> home2 = AddressSets.parseCidr(Family.v4(), "127.0.0.2/32");
 
-        AddressSetCollector<V4> collector = AddressSetCollector.impl();
+        AddressSetCollector<V4> collector = AddressSetCollector.impl(SearchLayout.SORTED);
         Collection<AddressSet<V4>> one = collector.supplier().get();
         one.add(home1);
         Collection<AddressSet<V4>> two = collector.supplier().get();
@@ -27,4 +33,38 @@ class AddressSetCollectorTest {
         Collection<AddressSet<V4>> actual = collector.combiner().apply(one, two);
         assertTrue(actual.containsAll(Arrays.asList(home1, home2)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void unordered() {
+        Random random = new Random(11);
+        List<AddressSet<V4>> sets = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int first = random.nextInt(1_000_000);
+            sets.add(AddressSets.range(Family.v4().parse(first), Family.v4().parse(first + random.nextInt(100))));
+        }
+        AddressSet<V4> expected = AddressSets.from(sets);
+        assertEquals(expected, sets.parallelStream().collect(AddressSets.collector()));
+        assertEquals(expected, sets.parallelStream().unordered().collect(AddressSets.concurrentCollector()));
+        assertEquals(expected, sets.stream().collect(AddressSets.concurrentCollector()));
+        assertEquals(Set.of(Collector.Characteristics.UNORDERED), AddressSets.collector().characteristics());
+        assertEquals(Set.of(Collector.Characteristics.UNORDERED, Collector.Characteristics.CONCURRENT),
+                AddressSets.concurrentCollector().characteristics());
+    }
+
+    @Test
+    void concurrentCombiner() {
+        AddressSet<V4> home1 = AddressSets.parseCidr(Family.v4(), "127.0.0.1/32");
+        AddressSet<V4> home3 = AddressSets.parseCidr(Family.v4(), "127.0.0.3/32");
+
+        AddressSetCollector<V4> collector = AddressSetCollector.concurrent();
+        Collection<AddressSet<V4>> one = collector.supplier().get();
+        one.add(home1);
+        Collection<AddressSet<V4>> two = collector.supplier().get();
+        two.addAll(List.of(home3));
+
+        Collection<AddressSet<V4>> actual = collector.combiner().apply(one, two);
+        assertEquals(2, actual.size());
+        assertTrue(actual.containsAll(Arrays.asList(home1, home3)));
+        assertEquals(AddressSets.of(home1, home3), collector.finisher().apply(actual));
+    }
+}
@@ -1,9 +1,21 @@
 package uk.ipfreely.sets;
 
 import org.junit.jupiter.api.Test;
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
 
 class AddressSetTest {
 
@@ -15,4 +27,140 @@ class AddressSetTest {
         );
         assertNotNull(small.spliterator());
     }
+
+    @Test
+    void rankAndSelect() {
+        var ran = new Random(37);
+        for (int trial = 0; trial < 20; trial++) {
+            List<Range<V4>> v4s = new ArrayList<>();
+            List<Range<V6>> v6s = new ArrayList<>();
+            for (int i = 0, n = ran.nextInt(50) + 2; i < n; i++) {
+                V4 a = v4().parse(ran.nextInt());
+                v4s.add(AddressSets.range(a, a.add(v4().parse(ran.nextInt(1000)))).extremes(AddressSets.address(a)));
+                V6 b = v6().parse(ran.nextInt(4) - 1L, ran.nextLong());
+                V6 size = v6().parse(ran.nextInt(2), ran.nextLong());
+                V6 last = b.add(size).compareTo(b) < 0 ? v6().max() : b.add(size);
+                v6s.add(AddressSets.range(b, last));
+            }
+            check(ran, AddressSets.from(v4s), v4());
+            check(ran, AddressSets.from(v6s), v6());
+        }
+    }
+
+    private static <A extends Addr<A>> void check(Random ran, AddressSet<A> set, Family<A> family) {
+        AddressSet<A> slow = new AddressSet<>() {
+            @Override
+            public Stream<Range<A>> ranges() {
+                return set.ranges();
+            }
+
+            @Override
+            public Iterator<A> iterator() {
+                return set.iterator();
+            }
+        };
+        assertEquals(slow.size(), set.size());
+        assertEquals(slow.sizeAsLong(), set.sizeAsLong());
+        assertEquals(set.size().bitLength() < Long.SIZE ? set.size().longValue() : -1, set.sizeAsLong());
+        assertEquals(slow.ranges().mapToInt(Object::hashCode).reduce(0, (n, r) -> n * 31 + r), set.hashCode());
+        if (!(set instanceof Range)) {
+            assertEquals(set, slow);
+        }
+        assertEquals(set, AddressSets.from(List.of(slow)));
+        List<A> probes = new ArrayList<>();
+        set.ranges().forEach(r -> {
+            probes.add(r.first());
+            probes.add(r.last());
+            if (!r.first().equals(family.min())) {
+                probes.add(r.first().prev());
+            }
+            if (!r.last().equals(family.max())) {
+                probes.add(r.last().next());
+            }
+        });
+        probes.add(family.min());
+        probes.add(family.max());
+        for (A a : probes) {
+            BigInteger rank = slow.rank(a);
+            assertEquals(rank, set.rank(a), a::toString);
+            if (set.contains(a)) {
+                assertEquals(a, set.select(rank));
+                assertEquals(a, slow.select(rank));
+            }
+        }
+        BigInteger size = set.size();
+        for (int i = 0; i < 100; i++) {
+            BigInteger index = new BigInteger(size.bitLength() + 1, ran).mod(size);
+            A a = set.select(index);
+            assertEquals(slow.select(index), a);
+            assertEquals(index, set.rank(a));
+            A b = set.select(new BigInteger(size.bitLength() + 1, ran).mod(size));
+            Range<A> within = AddressSets.range(a, a).extremes(AddressSets.range(b, b));
+            assertEquals(slow.countWithin(within), set.countWithin(within));
+        }
+        assertEquals(set.select(0), set.ranges().findFirst().orElseThrow().first());
+        assertEquals(size, set.countWithin(AddressSets.range(family.min(), family.max())));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.select(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.select(size));
+        assertThrows(IndexOutOfBoundsException.class, () -> slow.select(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> slow.select(size));
+    }
+
+    @Test
+    void sizeAsLong() {
+        assertEquals(1, AddressSets.address(v6().max()).sizeAsLong());
+        assertEquals(1L << 32, AddressSets.block(v4().min(), 0).sizeAsLong());
+        assertEquals(1L << 62, AddressSets.parseCidr(v6(), "::/66").sizeAsLong());
+        assertEquals(-1, AddressSets.parseCidr(v6(), "::/65").sizeAsLong());
+        V6 zero = v6().min();
+        assertEquals(Long.MAX_VALUE, AddressSets.range(zero, v6().parse(0, Long.MAX_VALUE - 1)).sizeAsLong());
+        assertEquals(-1, AddressSets.range(zero, v6().parse(0, Long.MAX_VALUE)).sizeAsLong());
+        assertEquals(-1, AddressSets.range(zero, v6().parse(1, 1)).sizeAsLong());
+        assertEquals(4, AddressSets.range(v6().parse(0, -2), v6().parse(1, 1)).sizeAsLong());
+        AddressSet<V4> empty = AddressSets.of();
+        assertEquals(0, empty.sizeAsLong());
+        assertEquals(3, BitmapSets.of(1, 3, 5).sizeAsLong());
+    }
+
+    @Test
+    void equality() {
+        AddressSet<V4> a = AddressSets.of(AddressSets.parseCidr(v4(), "10.0.0.0/24"), AddressSets.address(v4().max()));
+        AddressSet<V4> b = AddressSets.of(AddressSets.parseCidr(v4(), "10.0.1.0/24"), AddressSets.address(v4().max()));
+        AddressSet<V4> c = AddressSets.from(List.of(a), SearchLayout.EYTZINGER);
+        AddressSet<V4> d = BitmapSets.of(a.addresses().mapToInt(v -> (int) v.lowBits()).toArray());
+        assertEquals(a.size(), b.size());
+        assertNotEquals(a, b);
+        assertEquals(a, c);
+        assertEquals(a, d);
+        assertEquals(d, a);
+        assertNotEquals(b, d);
+        assertEquals(a.hashCode(), d.hashCode());
+        assertNotEquals(a, AddressSets.of(a, AddressSets.address(v4().min())));
+        assertNotEquals(a, a.ranges().findFirst().orElseThrow());
+        assertNotEquals(a, "");
+        AddressSet<V4> other = new AddressSet<>() {
+            @Override
+            public Stream<Range<V4>> ranges() {
+                return b.ranges();
+            }
+
+            @Override
+            public Iterator<V4> iterator() {
+                return b.iterator();
+            }
+        };
+        assertNotEquals(a, other);
+    }
+
+    @Test
+    void range() {
+        Range<V4> r = AddressSets.range(v4().parse("10.0.0.10"), v4().parse("10.0.0.20"));
+        assertEquals(BigInteger.ZERO, r.rank(v4().parse("10.0.0.1")));
+        assertEquals(BigInteger.valueOf(5), r.rank(v4().parse("10.0.0.15")));
+        assertEquals(BigInteger.valueOf(11), r.rank(v4().max()));
+        assertEquals(v4().parse("10.0.0.20"), r.select(10));
+        assertEquals(BigInteger.valueOf(3), r.countWithin(AddressSets.range(v4().min(), v4().parse("10.0.0.12"))));
+        AddressSet<V4> empty = AddressSets.of();
+        assertEquals(BigInteger.ZERO, empty.rank(v4().max()));
+    }
 }
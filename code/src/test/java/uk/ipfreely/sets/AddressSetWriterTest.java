@@ -0,0 +1,98 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+import uk.ipfreely.testing.RandomSets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class AddressSetWriterTest {
+
+    @Test
+    void cidr() throws IOException {
+        var set = AddressSets.of(
+                AddressSets.range(v4().parse("10.0.0.1"), v4().parse("10.0.0.6")),
+                AddressSets.parseCidr(v4(), "192.168.0.0/16"),
+                AddressSets.address(v4().max())
+        );
+        String expected = "10.0.0.1/32\n10.0.0.2/31\n10.0.0.4/31\n10.0.0.6/32\n192.168.0.0/16\n255.255.255.255/32\n";
+        assertEquals(expected, string(AddressSetWriter.cidrNotation(), set));
+        assertEquals(expected, string(AddressSetWriter.cidrNotation().parallel(1), set));
+    }
+
+    @Test
+    void range() throws IOException {
+        var set = AddressSets.of(
+                AddressSets.range(v6().parse("fe80::1"), v6().parse("fe80::6")),
+                AddressSets.address(v6().parse("::1"))
+        );
+        String expected = "::1\nfe80::1-fe80::6\n";
+        assertEquals(expected, string(AddressSetWriter.rangeNotation(), set));
+        assertEquals(expected, string(AddressSetWriter.rangeNotation().parallel(1), set));
+    }
+
+    @Test
+    void internet() throws IOException {
+        assertEquals("::/0\n", string(AddressSetWriter.cidrNotation(), AddressSets.block(v6().min(), 0)));
+        assertEquals("0.0.0.0/0\n", string(AddressSetWriter.cidrNotation(), AddressSets.block(v4().min(), 0)));
+        assertEquals("", string(AddressSetWriter.cidrNotation(), AddressSets.of()));
+        var top = AddressSets.range(v6().parse(0, 1), v6().max());
+        assertEquals(expected(top), string(AddressSetWriter.cidrNotation(), top));
+    }
+
+    @Test
+    void large() throws IOException {
+        AddressSet<V4> v4s = RandomSets.generate(v4().parse(0), 2_000, v4()::parse);
+        AddressSet<V6> v6s = RandomSets.generate(v6().parse("2001:db8::"), 2_000, n -> v6().parse(0, n));
+        for (AddressSet<?> set : List.of(v4s, v6s)) {
+            String expected = expected(set);
+            assertEquals(expected, string(AddressSetWriter.cidrNotation(), set));
+            assertEquals(expected, string(AddressSetWriter.cidrNotation().parallel(100), set));
+
+            var bytes = new ByteArrayOutputStream();
+            AddressSetWriter.cidrNotation().parallel(7).write(set, bytes);
+            assertEquals(expected, bytes.toString(StandardCharsets.US_ASCII));
+
+            var channel = new ByteArrayOutputStream();
+            AddressSetWriter.cidrNotation().write(set, Channels.newChannel(channel));
+            assertEquals(expected, channel.toString(StandardCharsets.US_ASCII));
+
+            String ranges = set.ranges()
+                    .map(r -> r.first().equals(r.last()) ? r.first() + "\n" : r.first() + "-" + r.last() + "\n")
+                    .collect(Collectors.joining());
+            assertEquals(ranges, string(AddressSetWriter.rangeNotation(), set));
+            assertEquals(ranges, string(AddressSetWriter.rangeNotation().parallel(1000), set));
+        }
+    }
+
+    @Test
+    void badChunk() {
+        assertThrows(IllegalArgumentException.class, () -> AddressSetWriter.cidrNotation().parallel(0));
+    }
+
+    private static String expected(AddressSet<?> set) {
+        return set.ranges()
+                .flatMap(Range::blocks)
+                .map(b -> b.cidrNotation() + "\n")
+                .collect(Collectors.joining());
+    }
+
+    private static String string(AddressSetWriter writer, AddressSet<?> set) throws IOException {
+        var out = new StringWriter();
+        writer.write(set, out);
+        return out.toString();
+    }
+}
@@ -203,6 +203,72 @@ class AddressSetsTest {
         }
     }
 
+    @Test
+    void concurrentCollector() {
+        AddressSet<V4> expected = AddressSets.range(Family.v4().min(), Family.v4().parse(1024 * 1024));
+        AddressSet<V4> actual = expected.addresses()
+                .parallel()
+                .map(AddressSets::address)
+                .collect(AddressSets.concurrentCollector());
+        assertEquals(expected, actual);
+        AddressSet<V4> sequential = expected.addresses()
+                .filter(this::even)
+                .map(AddressSets::address)
+                .collect(AddressSets.concurrentCollector());
+        assertEquals(expected.size().shiftRight(1).add(BigInteger.ONE), sequential.size());
+    }
+
+    @Test
+    void addressCollector() {
+        AddressSet<V4> expected = AddressSets.range(Family.v4().min(), Family.v4().parse(1024 * 1024));
+        AddressSet<V4> actual = expected.addresses()
+                .parallel()
+                .collect(AddressSets.addressCollector());
+        assertEquals(expected, actual);
+        AddressSet<V6> empty = Stream.<V6>empty().collect(AddressSets.addressCollector());
+        assertEquals(AddressSets.of(), empty);
+    }
+
+    @Test
+    void parallelFrom() {
+        Random random = new Random(44);
+        List<AddressSet<V6>> feeds = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            List<AddressSet<V6>> ranges = new ArrayList<>();
+            for (int j = random.nextInt(200); j > 0; j--) {
+                V6 first = v6().parse(random.nextInt(4), random.nextInt(1_000_000));
+                ranges.add(AddressSets.range(first, first.add(v6().parse(random.nextInt(1_000)))));
+            }
+            feeds.add(ranges.stream().collect(AddressSets.collector()));
+        }
+        AddressSet<V6> expected = feeds.stream().collect(AddressSets.collector());
+        assertEquals(expected, AddressSets.parallelFrom(feeds, SearchLayout.SORTED));
+        assertEquals(expected, AddressSets.parallelFrom(feeds, SearchLayout.EYTZINGER));
+        List<AddressSet<V6>> few = feeds.subList(0, 3);
+        assertEquals(AddressSets.from(few), AddressSets.parallelFrom(few, SearchLayout.SORTED));
+        assertEquals(AddressSets.of(), AddressSets.parallelFrom(List.<AddressSet<V4>>of(), SearchLayout.SORTED));
+        assertThrows(NullPointerException.class, () -> AddressSets.parallelFrom(feeds, null));
+        assertThrows(NullPointerException.class, () -> AddressSets.parallelFrom(Arrays.<AddressSet<V4>>asList(AddressSets.of(), null), SearchLayout.SORTED));
+    }
+
+    @Test
+    void layout() {
+        List<AddressSet<V4>> evens = Stream.iterate(0, i -> i < 200, i -> i + 2)
+                .<AddressSet<V4>>map(i -> AddressSets.address(v4().parse(i)))
+                .toList();
+        AddressSet<V4> sorted = AddressSets.from(evens, SearchLayout.SORTED);
+        AddressSet<V4> eytzinger = AddressSets.from(evens, SearchLayout.EYTZINGER);
+        AddressSet<V4> collected = evens.stream().collect(AddressSets.collector(SearchLayout.EYTZINGER));
+        EqualsTester.test(sorted, eytzinger, collected);
+        for (int i = 0; i < 202; i++) {
+            V4 a = v4().parse(i);
+            assertEquals(sorted.contains(a), eytzinger.contains(a));
+            assertEquals(sorted.contains(a), collected.contains(a));
+        }
+        assertThrows(NullPointerException.class, () -> AddressSets.from(evens, null));
+        assertThrows(NullPointerException.class, () -> AddressSets.collector(null));
+    }
+
     private boolean even(Addr<?> a) {
         return a.lowBits() % 2 == 0;
     }
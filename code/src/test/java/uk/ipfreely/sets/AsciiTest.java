@@ -0,0 +1,49 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.testing.Addresses;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class AsciiTest {
+
+    @Test
+    void matchesToString() {
+        for (Family<?> family : new Family<?>[] {v4(), v6()}) {
+            for (String s : Addresses.valid(family)) {
+                check(family.parse(s));
+            }
+            for (Addr<?> mask : family.subnets().masks()) {
+                check(mask);
+                check(mask.not());
+            }
+        }
+        check(v6().parse("::ffff:10.0.0.1"));
+        check(v6().parse("::fffe:ffff:ffff"));
+        check(v6().parse("1:0:0:1:0:0:0:1"));
+        check(v6().parse("1:0:0:1:0:0:1:1"));
+        check(v6().parse("1:0:1:1:1:1:1:1"));
+        var ran = new Random(0);
+        for (int i = 0; i < 10_000; i++) {
+            long high = ran.nextLong() & ran.nextLong();
+            long low = ran.nextLong() & ran.nextLong() & ran.nextLong();
+            check(v6().parse(high, low));
+            check(v4().parse(ran.nextInt()));
+        }
+    }
+
+    private static void check(Addr<?> address) {
+        byte[] buf = new byte[Ascii.MAX_RANGE];
+        int len = Ascii.address(buf, 0, address.highBits(), address.lowBits(), address.family().width());
+        assertEquals(address.toString(), new String(buf, 0, len, StandardCharsets.US_ASCII));
+    }
+}
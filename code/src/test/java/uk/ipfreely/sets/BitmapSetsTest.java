@@ -0,0 +1,51 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+
+class BitmapSetsTest {
+
+    @Test
+    void of() {
+        assertTrue(BitmapSets.of().isEmpty());
+        assertEquals(AddressSets.address(v4().max()), BitmapSets.of(-1, -1));
+        assertEquals(AddressSets.parseCidr(v4(), "0.0.0.0/30"), BitmapSets.of(3, 2, 1, 0));
+        assertInstanceOf(RoaringSet.class, BitmapSets.of(1, 3, 5, 7));
+    }
+
+    @Test
+    void compact() {
+        AddressSet<V4> empty = AddressSets.of();
+        assertSame(empty, BitmapSets.compact(empty));
+        Range<V4> range = AddressSets.parseCidr(v4(), "10.0.0.0/8");
+        assertSame(range, BitmapSets.compact(range));
+        AddressSet<V4> scattered = AddressSets.of(
+                AddressSets.address(v4().parse(1)),
+                AddressSets.address(v4().parse(3)),
+                AddressSets.address(v4().parse(5)));
+        AddressSet<V4> bitmap = BitmapSets.compact(scattered);
+        assertInstanceOf(RoaringSet.class, bitmap);
+        assertEquals(scattered, bitmap);
+        assertSame(bitmap, BitmapSets.compact(bitmap));
+        AddressSet<V4> wide = AddressSets.of(range, AddressSets.parseCidr(v4(), "192.168.0.0/16"));
+        assertInstanceOf(ArraySet.class, BitmapSets.compact(wide));
+    }
+
+    @Test
+    void operations() {
+        AddressSet<V4> odd = BitmapSets.of(1, 3, 5, 7, 9);
+        AddressSet<V4> even = BitmapSets.of(0, 2, 4, 6, 8);
+        assertEquals(AddressSets.range(v4().parse(0), v4().parse(9)), BitmapSets.union(odd, even));
+        assertTrue(BitmapSets.intersection(odd, even).isEmpty());
+        Range<V4> low = AddressSets.range(v4().parse(0), v4().parse(4));
+        assertEquals(BitmapSets.of(1, 3), BitmapSets.intersection(odd, low));
+        assertEquals(BitmapSets.of(0, 1, 2, 3, 4, 5, 7, 9), BitmapSets.union(low, odd));
+        assertThrows(NullPointerException.class, () -> BitmapSets.union(null, odd));
+        assertThrows(NullPointerException.class, () -> BitmapSets.intersection(odd, null));
+    }
+}
@@ -0,0 +1,96 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class BlockAggregatorTest {
+
+    @Test
+    void matchesBlocks() {
+        Random random = new Random(46);
+        for (int round = 0; round < 100; round++) {
+            List<Range<V4>> input = new ArrayList<>();
+            int next = random.nextInt(1_000);
+            for (int i = random.nextInt(50); i > 0; i--) {
+                int first = next + random.nextInt(20) - 5;
+                int last = first + random.nextInt(random.nextBoolean() ? 4 : 300);
+                input.add(AddressSets.range(v4().parse(Math.max(0, first)), v4().parse(last)));
+                next = Math.max(next, first);
+            }
+            input.sort((r0, r1) -> r0.first().compareTo(r1.first()));
+            List<Block<V4>> actual = new ArrayList<>();
+            BlockAggregator<V4> aggregator = BlockAggregator.of(actual::add);
+            input.forEach(aggregator::accept);
+            aggregator.complete();
+            aggregator.complete();
+            List<Block<V4>> expected = AddressSets.from(input).ranges().flatMap(Range::blocks).collect(Collectors.toList());
+            assertEquals(expected, actual, input::toString);
+        }
+    }
+
+    @Test
+    void emitsEarly() {
+        List<Block<V4>> actual = new ArrayList<>();
+        BlockAggregator<V4> aggregator = BlockAggregator.of(actual::add);
+        for (int i = 0; i < 8; i++) {
+            aggregator.accept(v4().parse(0x0A00_0008 + i));
+        }
+        assertEquals(List.of(AddressSets.parseCidr(v4(), "10.0.0.8/29")), actual);
+        for (int i = 16; i < 18; i++) {
+            aggregator.accept(v4().parse(0x0A00_0000 + i));
+            aggregator.accept(v4().parse(0x0A00_0000 + i));
+        }
+        assertEquals(1, actual.size());
+        aggregator.accept(v4().parse(0x0A00_0020));
+        assertEquals(List.of(
+                AddressSets.parseCidr(v4(), "10.0.0.8/29"),
+                AddressSets.parseCidr(v4(), "10.0.0.16/31")), actual);
+    }
+
+    @Test
+    void extremes() {
+        List<Block<V6>> actual = new ArrayList<>();
+        BlockAggregator<V6> aggregator = BlockAggregator.of(actual::add);
+        aggregator.accept(v6().min());
+        aggregator.accept(AddressSets.range(v6().parse(1), v6().max().prev()));
+        aggregator.accept(v6().max());
+        aggregator.accept(v6().max());
+        assertEquals(List.of(AddressSets.block(v6().min(), 0)), actual);
+        aggregator.complete();
+        assertEquals(1, actual.size());
+    }
+
+    @Test
+    void wideUnaligned() {
+        Block<V6> net = AddressSets.parseCidr(v6(), "2001:db8::/64");
+        List<Block<V6>> actual = new ArrayList<>();
+        BlockAggregator<V6> aggregator = BlockAggregator.of(actual::add);
+        aggregator.accept(AddressSets.range(net.first(), net.last().prev()));
+        aggregator.complete();
+        assertEquals(64, actual.size());
+        assertEquals(AddressSets.parseCidr(v6(), "2001:db8::/65"), actual.get(0));
+        assertEquals(AddressSets.address(net.last().prev()), actual.get(63));
+    }
+
+    @Test
+    void invalid() {
+        BlockAggregator<V4> aggregator = BlockAggregator.of(b -> {});
+        aggregator.accept(v4().parse(10));
+        assertThrows(IllegalArgumentException.class, () -> aggregator.accept(v4().parse(9)));
+        aggregator.complete();
+        assertThrows(IllegalStateException.class, () -> aggregator.accept(v4().parse(11)));
+        assertThrows(NullPointerException.class, () -> BlockAggregator.of(null));
+    }
+}
@@ -0,0 +1,163 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class BlockCoverTest {
+    private static final int DOMAIN = 256;
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+
+    @Test
+    void optimal() {
+        Random random = new Random(47);
+        for (int round = 0; round < 50; round++) {
+            boolean[] members = new boolean[DOMAIN];
+            List<Range<V4>> ranges = new ArrayList<>();
+            for (int i = random.nextInt(20) + 1; i > 0; i--) {
+                int first = random.nextInt(DOMAIN);
+                int last = Math.min(DOMAIN - 1, first + random.nextInt(random.nextBoolean() ? 3 : 40));
+                ranges.add(AddressSets.range(v4().parse(first), v4().parse(last)));
+                for (int a = first; a <= last; a++) {
+                    members[a] = true;
+                }
+            }
+            AddressSet<V4> source = AddressSets.from(ranges);
+            for (int k = 1; k <= 10; k++) {
+                BlockCover<V4> actual = AddressSets.cover(source, k);
+                assertTrue(actual.blocks().size() <= k);
+                assertEquals(actual.set(), AddressSets.of(actual.set(), source));
+                assertEquals(BigInteger.valueOf(oracle(members, 0, DOMAIN, k)), actual.overCoverage(), source + " " + k);
+                assertEquals(actual.set().size().subtract(source.size()), actual.overCoverage());
+                assertBlocks(actual.blocks());
+            }
+        }
+    }
+
+    private static void assertBlocks(List<Block<V4>> blocks) {
+        for (int i = 1; i < blocks.size(); i++) {
+            assertTrue(blocks.get(i - 1).last().compareTo(blocks.get(i).first()) < 0);
+        }
+    }
+
+    /**
+     * Least over-coverage of members in aligned block using at most k blocks inside it.
+     */
+    private static long oracle(boolean[] members, int first, int size, int k) {
+        int count = 0;
+        for (int a = first; a < first + size; a++) {
+            count += members[a] ? 1 : 0;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        if (k == 0) {
+            return INFINITE;
+        }
+        long best = size - count;
+        if (size > 1) {
+            int half = size / 2;
+            for (int a = 0; a <= k; a++) {
+                best = Math.min(best, oracle(members, first, half, a) + oracle(members, first + half, half, k - a));
+            }
+        }
+        return best;
+    }
+
+    @Test
+    void exactWhenWithinLimit() {
+        AddressSet<V4> source = AddressSets.of(
+                AddressSets.parseCidr(v4(), "10.0.0.0/24"),
+                AddressSets.address(v4().parse("10.0.2.1")));
+        BlockCover<V4> actual = AddressSets.cover(source, 2);
+        assertEquals(source, actual.set());
+        assertEquals(BigInteger.ZERO, actual.overCoverage());
+        assertEquals(2, actual.blocks().size());
+    }
+
+    @Test
+    void empty() {
+        AddressSet<V4> none = AddressSets.of();
+        BlockCover<V4> actual = AddressSets.cover(none, 1);
+        assertTrue(actual.blocks().isEmpty());
+        assertTrue(actual.set().isEmpty());
+        assertEquals(BigInteger.ZERO, actual.overCoverage());
+    }
+
+    @Test
+    void single() {
+        AddressSet<V4> source = AddressSets.of(
+                AddressSets.address(v4().parse("10.0.0.1")),
+                AddressSets.address(v4().parse("10.0.0.6")));
+        BlockCover<V4> actual = AddressSets.cover(source, 1);
+        assertEquals(List.of(AddressSets.parseCidr(v4(), "10.0.0.0/29")), actual.blocks());
+        assertEquals(BigInteger.valueOf(6), actual.overCoverage());
+    }
+
+    @Test
+    void ipv6() {
+        AddressSet<V6> source = AddressSets.of(
+                AddressSets.parseCidr(v6(), "2001:db8::/64"),
+                AddressSets.parseCidr(v6(), "2001:db8:0:1::/64"),
+                AddressSets.address(v6().parse("2001:db8:0:3::1")),
+                AddressSets.address(v6().parse("2001:db9::")));
+        BlockCover<V6> two = AddressSets.cover(source, 2);
+        assertEquals(List.of(AddressSets.parseCidr(v6(), "2001:db8::/62"), AddressSets.address(v6().parse("2001:db9::"))), two.blocks());
+        assertEquals(BigInteger.ONE.shiftLeft(65).subtract(BigInteger.ONE), two.overCoverage());
+        BlockCover<V6> three = AddressSets.cover(source, 3);
+        assertEquals(BigInteger.ZERO, three.overCoverage());
+        assertEquals(source, three.set());
+    }
+
+    @Test
+    void ipv6Exact() {
+        // covering either pair with its /8 costs about 2^120; the right pair saves 2^64
+        AddressSet<V6> source = AddressSets.of(
+                AddressSets.address(v6().parse("::1")),
+                AddressSets.address(v6().parse("ff::1")),
+                AddressSets.address(v6().parse("8000::1")),
+                AddressSets.parseCidr(v6(), "80ff::/64"));
+        BlockCover<V6> three = AddressSets.cover(source, 3);
+        BigInteger expected = BigInteger.ONE.shiftLeft(120).subtract(BigInteger.ONE.shiftLeft(64)).subtract(BigInteger.ONE);
+        assertEquals(expected, three.overCoverage());
+        assertEquals(AddressSets.parseCidr(v6(), "8000::/8"), three.blocks().get(2));
+        // whole address space
+        AddressSet<V6> ends = AddressSets.of(
+                AddressSets.address(v6().parse("::1")),
+                AddressSets.address(v6().parse("8000::1")));
+        BlockCover<V6> one = AddressSets.cover(ends, 1);
+        assertEquals(List.of(AddressSets.parseCidr(v6(), "::/0")), one.blocks());
+        assertEquals(BigInteger.ONE.shiftLeft(128).subtract(BigInteger.TWO), one.overCoverage());
+    }
+
+    @Test
+    void ipv6Unaligned() {
+        V6 first = v6().parse("2001:db8::");
+        V6 last = v6().parse("2001:db8::ffff:ffff:ffff:fffe");
+        AddressSet<V6> source = AddressSets.of(
+                AddressSets.range(first, last),
+                AddressSets.parseCidr(v6(), "2001:db9::/64"));
+        BlockCover<V6> one = AddressSets.cover(source, 1);
+        assertEquals(List.of(AddressSets.parseCidr(v6(), "2001:db8::/31")), one.blocks());
+        BlockCover<V6> all = AddressSets.cover(source, 65);
+        assertEquals(BigInteger.ZERO, all.overCoverage());
+        assertEquals(source, all.set());
+    }
+
+    @Test
+    void invalidLimit() {
+        AddressSet<V4> none = AddressSets.of();
+        assertThrows(IllegalArgumentException.class, () -> AddressSets.cover(none, 0));
+    }
+}
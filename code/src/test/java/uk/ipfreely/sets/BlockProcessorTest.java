@@ -0,0 +1,227 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+
+class BlockProcessorTest {
+
+    @Test
+    void backpressure() {
+        List<Range<V4>> input = IntStream.range(0, 1_000)
+                .mapToObj(i -> AddressSets.range(v4().parse(i * 10), v4().parse(i * 10 + 3)))
+                .collect(Collectors.toList());
+        Source source = new Source(input);
+        Flow.Processor<Range<V4>, Block<V4>> processor = BlockAggregator.processor();
+        Sink sink = new Sink();
+        processor.subscribe(sink);
+        source.subscribe(processor);
+        assertEquals(0, source.requested);
+        sink.subscription.request(1);
+        assertEquals(1, sink.received.size());
+        assertEquals(64, source.requested);
+        sink.subscription.request(Long.MAX_VALUE);
+        sink.subscription.request(Long.MAX_VALUE);
+        assertTrue(sink.completed);
+        List<Block<V4>> expected = AddressSets.from(input).ranges().flatMap(Range::blocks).collect(Collectors.toList());
+        assertEquals(expected, sink.received);
+    }
+
+    @Test
+    void async() throws Exception {
+        Flow.Processor<Range<V4>, Block<V4>> processor = BlockAggregator.processor();
+        List<Block<V4>> received = new ArrayList<>();
+        CompletableFuture<Void> done;
+        try (SubmissionPublisher<Range<V4>> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            done = consume(processor, received);
+            for (int i = 0; i < 1_024; i++) {
+                publisher.submit(AddressSets.address(v4().parse(i)));
+            }
+        }
+        done.get(30, TimeUnit.SECONDS);
+        assertEquals(List.of(AddressSets.parseCidr(v4(), "0.0.0.0/22")), received);
+    }
+
+    private static CompletableFuture<Void> consume(Flow.Publisher<Block<V4>> publisher, List<Block<V4>> received) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Block<V4> item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+
+    @Test
+    void errors() {
+        Flow.Processor<Range<V4>, Block<V4>> processor = BlockAggregator.processor();
+        Sink sink = new Sink();
+        processor.subscribe(sink);
+        Source source = new Source(List.of(AddressSets.address(v4().parse(5)), AddressSets.address(v4().parse(1))));
+        source.subscribe(processor);
+        sink.subscription.request(10);
+        assertInstanceOf(IllegalArgumentException.class, sink.error);
+        assertTrue(source.cancelled);
+        processor.onNext(AddressSets.address(v4().parse(9)));
+        processor.onError(new RuntimeException());
+        processor.onComplete();
+        assertTrue(sink.received.isEmpty());
+
+        Flow.Processor<Range<V4>, Block<V4>> failing = BlockAggregator.processor();
+        Sink failed = new Sink();
+        failing.subscribe(failed);
+        failing.onError(new IllegalStateException());
+        assertInstanceOf(IllegalStateException.class, failed.error);
+
+        Flow.Processor<Range<V4>, Block<V4>> negative = BlockAggregator.processor();
+        Sink bad = new Sink();
+        negative.subscribe(bad);
+        bad.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, bad.error);
+        Source late = new Source(List.of());
+        negative.onSubscribe(late.subscription());
+        Flow.Processor<Range<V4>, Block<V4>> early = BlockAggregator.processor();
+        Source first = new Source(List.of());
+        first.subscribe(early);
+        Sink zero = new Sink();
+        early.subscribe(zero);
+        zero.subscription.request(-1);
+        assertTrue(first.cancelled);
+    }
+
+    @Test
+    void subscribers() {
+        Flow.Processor<Range<V4>, Block<V4>> processor = BlockAggregator.processor();
+        Sink one = new Sink();
+        Sink two = new Sink();
+        processor.subscribe(one);
+        processor.subscribe(two);
+        assertInstanceOf(IllegalStateException.class, two.error);
+        two.subscription.request(1);
+        two.subscription.cancel();
+        assertNull(one.error);
+
+        Source source = new Source(List.of(AddressSets.address(v4().parse(1))));
+        source.subscribe(processor);
+        Source other = new Source(List.of());
+        processor.onSubscribe(other.subscription());
+        assertTrue(other.cancelled);
+        one.subscription.cancel();
+        assertTrue(source.cancelled);
+        one.subscription.request(1);
+        assertTrue(one.received.isEmpty());
+        assertFalse(one.completed);
+        Flow.Processor<Range<V4>, Block<V4>> unsubscribed = BlockAggregator.processor();
+        Sink sink = new Sink();
+        unsubscribed.subscribe(sink);
+        sink.subscription.cancel();
+        assertThrows(NullPointerException.class, () -> unsubscribed.subscribe(null));
+    }
+
+    /**
+     * Synchronous publisher.
+     */
+    private static final class Source implements Flow.Publisher<Range<V4>> {
+        private final Iterator<Range<V4>> items;
+        private long requested;
+        private boolean cancelled;
+
+        Source(List<Range<V4>> items) {
+            this.items = items.iterator();
+        }
+
+        Flow.Subscription subscription() {
+            return new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested += n;
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            };
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Range<V4>> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested += n;
+                    for (long i = 0; i < n && items.hasNext() && !cancelled; i++) {
+                        subscriber.onNext(items.next());
+                    }
+                    if (!items.hasNext() && !cancelled) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    private static final class Sink implements Flow.Subscriber<Block<V4>> {
+        private final List<Block<V4>> received = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Block<V4> item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -9,6 +9,8 @@ import uk.ipfreely.V6;
 import uk.ipfreely.testing.SpliteratorTester;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Spliterator;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -131,4 +133,18 @@ class BlockSpliteratorTest {
         Spliterator<Block<V6>> s = new BlockSpliterator<V6>(range.first(), range.last());
         SpliteratorTester.test(s);
     }
-}
\ No newline at end of file
+
+    @Test
+    void wideUnaligned() {
+        // 2^64 - 1 addresses cannot be sized in double precision
+        V6 first = Family.v6().parse("2001:db8::");
+        V6 last = Family.v6().parse("2001:db8::ffff:ffff:ffff:fffe");
+        List<Block<V6>> blocks = new ArrayList<>();
+        new BlockSpliterator<>(first, last).forEachRemaining(blocks::add);
+        assertEquals(64, blocks.size());
+        assertEquals(AddressSets.parseCidr(Family.v6(), "2001:db8::/65"), blocks.get(0));
+        assertEquals(AddressSets.address(last), blocks.get(63));
+        BigInteger size = blocks.stream().map(Block::size).reduce(BigInteger.ZERO, BigInteger::add);
+        assertEquals(AddressSets.range(first, last).size(), size);
+    }
+}
@@ -8,7 +8,9 @@ import uk.ipfreely.*;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static uk.ipfreely.Family.v4;
@@ -120,4 +122,99 @@ public class BlockTest {
     assertThrowsExactly(IllegalArgumentException.class, () -> AddressSets.block(v4().min(), 33));
     assertThrowsExactly(IllegalArgumentException.class, () -> AddressSets.block(v4().max(), 0));
   }
+
+  @Test
+  void compact() {
+    for (int mask = 0; mask < 32; mask++) {
+      V4 first = v4().parse(0xC0A8_0000 & ~(-1 >>> mask));
+      check(first, mask, v4().parse(1));
+    }
+    for (int mask = 0; mask < 128; mask++) {
+      V6 first = v6().parse(0xFE80_0000_0000_0000L, 0).and(v6().subnets().masks().get(mask));
+      check(first, mask, v6().parse(1, 1));
+    }
+    assertThrowsExactly(IllegalArgumentException.class, () -> AddressSets.block(v4().parse(1), v4().parse(2)));
+  }
+
+  private static <A extends Addr<A>> void check(A first, int mask, A probe) {
+    Family<A> family = first.family();
+    Block<A> block = AddressSets.block(first, mask);
+    A last = first.or(family.subnets().masks().get(mask).not());
+    Range<A> range = AddressSets.range(first, last);
+    assertEquals(block, range);
+    assertEquals(range, block);
+    assertEquals(range.hashCode(), block.hashCode());
+    assertEquals(block, AddressSets.block(first, last));
+    assertEquals(first, block.first());
+    assertEquals(last, block.last());
+    assertSame(family, block.family());
+    assertEquals(mask, block.maskSize());
+    assertEquals(family.subnets().masks().get(mask), block.mask());
+    assertEquals(family.subnets().count(mask), block.size());
+    assertEquals(range.sizeAsLong(), block.sizeAsLong());
+    assertEquals("{" + first + "/" + mask + "}", block.toString());
+    assertTrue(block.contains(first));
+    assertTrue(block.contains(last));
+    assertEquals(range.contains(first.prev()), block.contains(first.prev()));
+    assertEquals(range.contains(last.next()), block.contains(last.next()));
+    assertEquals(range.contains(probe), block.contains(probe));
+    assertFalse(block.contains(first.family() == v4() ? v6().min() : v4().min()));
+  }
+
+  @Test
+  void subnetIndex() {
+    Block<V6> site = AddressSets.parseCidr(v6(), "2001:db8:abcd::/48");
+    Block<V6> lan = site.subnet(64, BigInteger.valueOf(9_999));
+    assertEquals(AddressSets.parseCidr(v6(), "2001:db8:abcd:270f::/64"), lan);
+    assertEquals(lan, site.subnet(64, 9_999L));
+    assertEquals(BigInteger.valueOf(9_999), site.subnetIndexOf(lan));
+    assertEquals(site, site.subnet(48, 0L));
+    assertEquals(site.last(), site.subnet(128, BigInteger.TWO.pow(80).subtract(BigInteger.ONE)).first());
+    assertEquals(site.last(), site.subnet(128, Long.MAX_VALUE).first().or(site.mask().not()));
+    assertEquals(BigInteger.TWO.pow(80).subtract(BigInteger.ONE), site.subnetIndexOf(AddressSets.address(site.last())));
+
+    Block<V4> pool = AddressSets.parseCidr(v4(), "10.0.0.0/8");
+    assertEquals(BigInteger.valueOf(513), pool.subnetIndexOf(AddressSets.parseCidr(v4(), "10.2.1.0/24")));
+    var ran = new Random(42);
+    List<Block<V4>> all = pool.subnets(20).collect(Collectors.toList());
+    for (int i = 0; i < 100; i++) {
+      int index = ran.nextInt(all.size());
+      assertEquals(all.get(index), pool.subnet(20, index));
+      assertEquals(BigInteger.valueOf(index), pool.subnetIndexOf(all.get(index)));
+    }
+    Block<V6> all6 = AddressSets.block(v6().min(), 0);
+    assertEquals(AddressSets.address(v6().max()), all6.subnet(128, BigInteger.TWO.pow(128).subtract(BigInteger.ONE)));
+
+    assertThrowsExactly(IllegalArgumentException.class, () -> pool.subnet(7, 0L));
+    assertThrowsExactly(IllegalArgumentException.class, () -> pool.subnet(33, 0L));
+    assertThrowsExactly(IllegalArgumentException.class, () -> pool.subnet(7, BigInteger.ZERO));
+    assertThrowsExactly(IllegalArgumentException.class, () -> pool.subnet(33, BigInteger.ZERO));
+    assertThrowsExactly(IndexOutOfBoundsException.class, () -> pool.subnet(24, 1L << 16));
+    assertThrowsExactly(IndexOutOfBoundsException.class, () -> pool.subnet(24, -1L));
+    assertThrowsExactly(IndexOutOfBoundsException.class, () -> pool.subnet(24, BigInteger.ONE.shiftLeft(16)));
+    assertThrowsExactly(IndexOutOfBoundsException.class, () -> pool.subnet(24, BigInteger.ONE.negate()));
+    assertThrowsExactly(IndexOutOfBoundsException.class, () -> all6.subnet(128, -1L));
+    assertThrowsExactly(IllegalArgumentException.class, () -> pool.subnetIndexOf(AddressSets.parseCidr(v4(), "11.0.0.0/24")));
+    assertThrowsExactly(IllegalArgumentException.class, () -> pool.subnetIndexOf(AddressSets.parseCidr(v4(), "0.0.0.0/4")));
+  }
+
+  @Test
+  void defaults() {
+    Block<V6> compact = AddressSets.parseCidr(v6(), "2001:db8::/32");
+    Block<V6> minimal = new Block<>() {
+      @Override
+      public V6 first() {
+        return compact.first();
+      }
+
+      @Override
+      public V6 last() {
+        return compact.last();
+      }
+    };
+    assertEquals(compact.maskSize(), minimal.maskSize());
+    assertEquals(compact.size(), minimal.size());
+    assertEquals(compact.sizeAsLong(), minimal.sizeAsLong());
+    assertEquals(compact.subnet(48, 7L), minimal.subnet(48, 7L));
+  }
 }
@@ -0,0 +1,163 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class CounterTableTest {
+
+    @Test
+    void waitsForPublication() throws InterruptedException {
+        CounterTable table = new CounterTable(v6(), 16, 0);
+        int slot = table.home(1, 2);
+        assertTrue(table.claim(slot));
+        Thread publisher = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            table.publish(slot, 1, 2);
+        });
+        publisher.start();
+        assertEquals(1, table.add(1, 2, 1));
+        publisher.join();
+        assertEquals(1, table.total(1, 2));
+    }
+
+    @Test
+    void limit() {
+        CounterTable table = new CounterTable(v4(), 16, 0);
+        for (int i = 0; i < 12; i++) {
+            assertEquals(1, table.add(0, i, 1));
+        }
+        assertEquals(CounterTable.FULL, table.add(0, 12, 1));
+        assertEquals(2, table.add(0, 11, 1));
+        assertEquals(12, table.size());
+    }
+
+    @Test
+    void full() {
+        CounterTable table = new CounterTable(v4(), 16, 0);
+        for (int i = 0; i < 16; i++) {
+            assertTrue(table.claim(i));
+            table.publish(i, 0, 100 + i);
+        }
+        assertEquals(CounterTable.FULL, table.add(0, 1, 1));
+        assertEquals(-1, table.find(0, 1));
+        assertEquals(0, table.total(0, 1));
+        assertEquals(1, table.add(0, 100, 1));
+    }
+
+    @Test
+    void striped() {
+        CounterTable table = new CounterTable(v4(), 16, 0);
+        assertEquals(10, table.add(0, 7, 10));
+        int slot = table.find(0, 7);
+        table.promote(slot);
+        long estimate = 0;
+        for (int i = 0; i < 1_000; i++) {
+            estimate = table.add(0, 7, 1);
+        }
+        assertEquals(1_010, table.total(0, 7));
+        assertTrue(estimate <= 1_010 && estimate > 1_010 - 64, () -> "estimate");
+    }
+
+    @Test
+    void migrate() {
+        CounterTable table = new CounterTable(v6(), 16, 0);
+        table.add(0, 1, 5);
+        table.add(0, 2, 1);
+        table.add(0, 3, 100);
+        table.promote(table.find(0, 3));
+        table.add(0, 3, 100);
+        CounterTable next = new CounterTable(v6(), 16, 1);
+        assertSame(table, table.append(next));
+        assertSame(next, table.migrate());
+        assertTrue(table.done());
+        assertSame(next, table.next());
+        // decayed
+        assertEquals(2, next.total(0, 1));
+        assertEquals(0, next.total(0, 2));
+        assertEquals(100, next.total(0, 3));
+        // retired table forwards
+        assertEquals(2, table.total(0, 1));
+        assertEquals(CounterTable.RETIRED, table.add(0, 1, 1));
+        assertEquals(CounterTable.RETIRED, table.add(0, 3, 1));
+        assertEquals(CounterTable.RETIRED, table.add(0, 4, 1));
+        assertEquals(3, table.increment(0, 1, 1, false));
+        assertEquals(1, table.increment(0, 4, 1, false));
+        // moved counts are scaled on the way
+        assertEquals(2, table.increment(0, 5, 4, true));
+        // frozen cells keep their values for readers of the old table plus late striped adds
+        assertEquals(5, table.count(table.find(0, 1)));
+        assertEquals(201, table.count(table.find(0, 3)));
+    }
+
+    @Test
+    void frozenStripes() {
+        CounterTable table = new CounterTable(v4(), 16, 0);
+        table.add(0, 1, 1);
+        int slot = table.find(0, 1);
+        table.promote(slot);
+        table.retire(new CounterTable(v4(), 16, 0));
+        assertEquals(1, table.freeze(slot));
+        assertEquals(CounterTable.RETIRED, table.add(0, 1, 1));
+        assertSame(table.next(), table.append(new CounterTable(v4(), 16, Long.SIZE)));
+        assertEquals(0, table.next().next().scale(Long.MAX_VALUE));
+    }
+
+    @Test
+    void grows() {
+        CounterTable table = new CounterTable(v6(), 16, 0);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(1, table.increment(i, 0, 1, false));
+        }
+        assertTrue(table.done());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(1, table.total(i, 0));
+        }
+        // nothing to move
+        assertEquals(0, table.increment(1_000, 0, 0, true));
+    }
+
+    @Test
+    void concurrentMigration() throws InterruptedException {
+        CounterTable head = new CounterTable(v4(), 16, 0);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    head.increment(0, i % 5_000, 1, false);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        Thread migrator = new Thread(() -> {
+            for (int i = 0; i < 50 && running.get(); i++) {
+                head.append(new CounterTable(v4(), 8_192, 0)).migrate();
+            }
+        });
+        migrator.start();
+        for (Thread t : threads) {
+            t.join();
+        }
+        running.set(false);
+        migrator.join();
+        long total = 0;
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(80, head.total(0, i));
+            total += head.total(0, i);
+        }
+        assertEquals(400_000, total);
+    }
+}
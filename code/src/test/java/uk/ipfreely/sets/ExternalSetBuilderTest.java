@@ -0,0 +1,152 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class ExternalSetBuilderTest {
+
+    @TempDir
+    Path dir;
+
+    @TempDir
+    Path out;
+
+    @Test
+    void spills() throws IOException {
+        Random random = new Random(48);
+        List<AddressSet<V4>> sets = new ArrayList<>();
+        try (ExternalSetBuilder<V4> builder = ExternalSetBuilder.of(v4(), ExternalSetBuilder.MIN_BUDGET, dir)) {
+            for (int i = 0; i < 5_000; i++) {
+                int first = random.nextInt(1_000_000);
+                if (random.nextBoolean()) {
+                    V4 a = v4().parse(first);
+                    sets.add(AddressSets.address(a));
+                    builder.add(a);
+                } else {
+                    AddressSet<V4> r = AddressSets.range(v4().parse(first), v4().parse(first + random.nextInt(100)));
+                    sets.add(r);
+                    builder.add(r);
+                }
+            }
+            // more runs than can be merged at once
+            assertTrue(builder.runs() > 4);
+            AddressSet<V4> expected = sets.stream().collect(AddressSets.collector());
+            assertEquals(expected, builder.build());
+        }
+        assertEmpty(dir);
+    }
+
+    @Test
+    void mapped() throws IOException {
+        Random random = new Random(48);
+        List<AddressSet<V6>> sets = new ArrayList<>();
+        Path file = out.resolve("set.ipam");
+        AddressSet<V6> actual;
+        try (ExternalSetBuilder<V6> builder = ExternalSetBuilder.of(v6(), ExternalSetBuilder.MIN_BUDGET, dir)) {
+            for (int i = 0; i < 1_000; i++) {
+                AddressSet<V6> s = AddressSets.of(
+                        AddressSets.address(v6().parse(random.nextLong(), random.nextInt(1_000))),
+                        AddressSets.address(v6().parse(0, random.nextInt(1_000))));
+                sets.add(s);
+                builder.add(s);
+            }
+            actual = builder.build(file);
+        }
+        assertEquals(sets.stream().collect(AddressSets.collector()), actual);
+        assertEquals(actual, MappedAddressSets.open(v6(), file));
+        assertEmpty(dir);
+    }
+
+    @Test
+    void inMemory() throws IOException {
+        try (ExternalSetBuilder<V4> builder = ExternalSetBuilder.of(v4(), 1L << 30, dir)) {
+            for (int i = 100; i >= 0; i--) {
+                builder.add(v4().parse(i));
+            }
+            assertEquals(0, builder.runs());
+            assertEquals(AddressSets.range(v4().parse(0), v4().parse(100)), builder.build());
+        }
+        try (ExternalSetBuilder<V4> builder = ExternalSetBuilder.of(v4(), 1L << 30, dir)) {
+            assertEquals(AddressSets.of(), builder.build(out.resolve("empty.ipam")));
+        }
+    }
+
+    @Test
+    void closed() throws IOException {
+        var builder = ExternalSetBuilder.of(v4(), ExternalSetBuilder.MIN_BUDGET, dir);
+        builder.add(v4().min());
+        builder.build();
+        assertThrows(IllegalStateException.class, builder::build);
+        assertThrows(IllegalStateException.class, () -> builder.add(v4().min()));
+        assertThrows(IllegalStateException.class, () -> builder.add(AddressSets.address(v4().min())));
+        builder.close();
+    }
+
+    @Test
+    void missingRun() throws IOException {
+        try (ExternalSetBuilder<V4> builder = spilled()) {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path f : files.toList()) {
+                    Files.delete(f);
+                }
+            }
+            assertThrows(NoSuchFileException.class, builder::build);
+        }
+        assertEmpty(dir);
+    }
+
+    @Test
+    void truncatedRun() throws IOException {
+        try (ExternalSetBuilder<V4> builder = spilled()) {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path f : files.toList()) {
+                    try (FileChannel channel = FileChannel.open(f, StandardOpenOption.WRITE)) {
+                        channel.truncate(channel.size() / 2);
+                    }
+                }
+            }
+            assertThrows(EOFException.class, builder::build);
+        }
+        assertEmpty(dir);
+    }
+
+    private ExternalSetBuilder<V4> spilled() throws IOException {
+        var builder = ExternalSetBuilder.of(v4(), ExternalSetBuilder.MIN_BUDGET, dir);
+        for (int i = 0; i < 1_000; i++) {
+            builder.add(v4().parse(i * 2));
+        }
+        assertEquals(2, builder.runs());
+        return builder;
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> ExternalSetBuilder.of(v4(), ExternalSetBuilder.MIN_BUDGET - 1, dir));
+    }
+
+    private static void assertEmpty(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
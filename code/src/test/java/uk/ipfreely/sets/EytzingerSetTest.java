@@ -0,0 +1,70 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+import uk.ipfreely.testing.AddressSetTester;
+
+import java.util.Random;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class EytzingerSetTest {
+
+    @Test
+    void random() {
+        for (int size : new int[] {2, 3, 7, 8, 100, 1_000}) {
+            random(v4(), size, n -> v4().parse((int) n));
+            random(v4(), size, n -> v4().parse((int) (n + 0x7FFF_0000L)));
+            random(v6(), size, n -> v6().parse(0, n));
+            random(v6(), size, n -> v6().parse(n - 50_000, Long.MAX_VALUE + n));
+        }
+    }
+
+    private static <A extends Addr<A>> void random(Family<A> family, int size, LongFunction<A> parse) {
+        var ran = new Random(size);
+        @SuppressWarnings("unchecked")
+        Range<A>[] ranges = new Range[size];
+        long next = 1;
+        for (int i = 0; i < size; i++) {
+            long first = next + ran.nextInt(10);
+            long last = first + ran.nextInt(10);
+            ranges[i] = AddressSets.range(parse.apply(first), parse.apply(last));
+            next = last + 2;
+        }
+        var expected = new ArraySet<>(ranges);
+        var actual = new EytzingerSet<>(ranges);
+        assertEquals(expected, actual);
+        AddressSetTester.test(actual);
+        for (long n = 0; n < next + 2; n++) {
+            A a = parse.apply(n);
+            assertEquals(expected.contains(a), actual.contains(a), a::toString);
+        }
+    }
+
+    @Test
+    void extremes() {
+        @SuppressWarnings("unchecked")
+        Range<V4>[] v4s = new Range[] {AddressSets.address(v4().min()), AddressSets.address(v4().max())};
+        var s4 = new EytzingerSet<>(v4s);
+        assertTrue(s4.contains(v4().min()));
+        assertTrue(s4.contains(v4().max()));
+        assertFalse(s4.contains(v4().parse(1)));
+        assertFalse(s4.contains(v6().min()));
+
+        @SuppressWarnings("unchecked")
+        Range<V6>[] v6s = new Range[] {AddressSets.address(v6().parse(1)), AddressSets.address(v6().max())};
+        var s6 = new EytzingerSet<>(v6s);
+        assertFalse(s6.contains(v6().min()));
+        assertTrue(s6.contains(v6().max()));
+        assertFalse(s6.contains(v6().max().prev()));
+        assertFalse(s6.contains(v4().max()));
+    }
+}
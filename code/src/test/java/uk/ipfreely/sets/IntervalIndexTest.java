@@ -0,0 +1,84 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class IntervalIndexTest {
+
+    @Test
+    void stab() {
+        IntervalIndex<V4, String> rules = IntervalIndex.<V4, String>builder(v4())
+                .put(AddressSets.range(v4().parse("10.0.0.0"), v4().parse("10.0.0.200")), "a")
+                .put(AddressSets.parseCidr(v4(), "10.0.0.0/8"), "b")
+                .put(AddressSets.range(v4().parse("10.0.0.100"), v4().parse("11.0.0.0")), "c")
+                .put(AddressSets.address(v4().parse("10.0.0.150")), "d")
+                .put(AddressSets.parseCidr(v4(), "0.0.0.0/0"), "e")
+                .build();
+        assertEquals(v4(), rules.family());
+        assertEquals(5, rules.size());
+        assertEquals(List.of("a", "b", "e"), rules.get(v4().parse("10.0.0.1")));
+        assertEquals(List.of("a", "b", "c", "d", "e"), rules.get(v4().parse("10.0.0.150")));
+        assertEquals(List.of("c", "e"), rules.get(v4().parse("11.0.0.0")));
+        assertEquals(List.of("e"), rules.get(v4().parse("11.0.0.1")));
+        assertTrue(rules.toString().contains("5"));
+
+        List<String> visited = new ArrayList<>();
+        rules.forEach(v4().parse("10.0.0.150"), visited::add);
+        assertEquals(5, visited.size());
+    }
+
+    @Test
+    void empty() {
+        IntervalIndex<V6, String> rules = IntervalIndex.<V6, String>builder(v6()).build();
+        assertEquals(List.of(), rules.get(v6().min()));
+        rules.forEach(v6().min(), v -> fail());
+    }
+
+    @Test
+    void random() {
+        random(v4(), n -> v4().parse((int) n));
+        random(v6(), n -> v6().parse(n, 0));
+    }
+
+    private static <A extends Addr<A>> void random(Family<A> family, LongFunction<A> parse) {
+        var ran = new Random(5);
+        List<Range<A>> ranges = new ArrayList<>();
+        var builder = IntervalIndex.<A, Integer>builder(family);
+        for (int i = 0; i < 2_000; i++) {
+            long a = ran.nextInt(100_000);
+            long b = a + (ran.nextInt(10) == 0 ? ran.nextInt(50_000) : ran.nextInt(100));
+            Range<A> r = AddressSets.range(parse.apply(a), parse.apply(b));
+            ranges.add(r);
+            builder.put(r, i);
+        }
+        IntervalIndex<A, Integer> index = builder.build();
+        for (int i = 0; i < 2_000; i++) {
+            A address = parse.apply(ran.nextInt(110_000));
+            List<Integer> expected = new ArrayList<>();
+            for (int j = 0; j < ranges.size(); j++) {
+                if (ranges.get(j).contains(address)) {
+                    expected.add(j);
+                }
+            }
+            assertEquals(expected, index.get(address), address::toString);
+            List<Integer> visited = new ArrayList<>();
+            index.forEach(address, visited::add);
+            visited.sort(null);
+            assertEquals(expected, visited);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class LongRangeMapTest {
+
+    @Test
+    void lookup() {
+        LongRangeMap<V6> map = LongRangeMap.builder(v6())
+                .put(AddressSets.parseCidr(v6(), "2001:db8:1::/48"), 4_000_000_001L)
+                .put(AddressSets.parseCidr(v6(), "2001:db8::/48"), 64500)
+                .put(AddressSets.parseCidr(v6(), "2001:db8:2::/47"), 64500)
+                .put(AddressSets.parseCidr(v6(), "2001:db8:4::/48"), 64500)
+                .build();
+        assertEquals(v6(), map.family());
+        assertEquals(3, map.size());
+        assertEquals(64500, map.get(v6().parse("2001:db8::1"), 0));
+        assertEquals(4_000_000_001L, map.get(v6().parse("2001:db8:1::1"), 0));
+        assertEquals(64500, map.get(v6().parse("2001:db8:4:ffff::"), 0));
+        assertEquals(0, map.get(v6().parse("2001:db8:5::"), 0));
+        assertEquals(OptionalLong.of(4_000_000_001L), map.find(v6().parse("2001:db8:1::")));
+        assertEquals(OptionalLong.empty(), map.find(v6().parse("::")));
+        assertEquals(3, map.entries().count());
+        assertEquals(
+                List.of(Map.entry(AddressSets.range(v6().parse("2001:db8:2::"), v6().parse("2001:db8:4:ffff:ffff:ffff:ffff:ffff")), 64500L)),
+                map.entries(AddressSets.parseCidr(v6(), "2001:db8:3::/48")).toList());
+        assertTrue(map.toString().contains("3"));
+    }
+
+    @Test
+    void invalid() {
+        var builder = LongRangeMap.builder(v4())
+                .put(AddressSets.parseCidr(v4(), "10.0.0.0/8"), 1)
+                .put(AddressSets.parseCidr(v4(), "10.1.0.0/16"), 1);
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void many() {
+        var builder = LongRangeMap.builder(v4());
+        for (int i = 0; i < 100; i++) {
+            V4 first = v4().parse(i * 2);
+            builder.put(AddressSets.address(first), i + Long.MIN_VALUE);
+        }
+        LongRangeMap<V4> map = builder.build();
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + Long.MIN_VALUE, map.get(v4().parse(i * 2), -1));
+            assertEquals(-1, map.get(v4().parse(i * 2 + 1), -1));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ipfreely.ParseException;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+import uk.ipfreely.testing.AddressSetTester;
+import uk.ipfreely.testing.EqualsTester;
+import uk.ipfreely.testing.RandomSets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class MappedAddressSetsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrip() throws IOException {
+        List<AddressSet<?>> sets = List.of(
+                AddressSets.of(),
+                AddressSets.address(v4().max()),
+                AddressSets.block(v6().min(), 0),
+                AddressSets.of(
+                        AddressSets.range(v4().parse("10.0.0.1"), v4().parse("10.0.0.6")),
+                        AddressSets.parseCidr(v4(), "192.168.0.0/16"),
+                        AddressSets.address(v4().max())
+                ),
+                AddressSets.of(
+                        AddressSets.address(v6().min()),
+                        AddressSets.parseCidr(v6(), "fe80::/10"),
+                        AddressSets.address(v6().max())
+                )
+        );
+        for (AddressSet<?> set : sets) {
+            Path file = write(set);
+            AddressSet<?> actual = MappedAddressSets.open(file);
+            assertEquals(set, actual);
+            assertEquals(set.hashCode(), actual.hashCode());
+            assertEquals(set.size(), actual.size());
+            assertEquals(set.sizeAsLong(), actual.sizeAsLong());
+            assertEquals(set.isEmpty(), actual.isEmpty());
+            test(actual);
+        }
+    }
+
+    @Test
+    void contiguous() throws IOException {
+        Range<V4> range = AddressSets.range(v4().parse(1), v4().parse(10));
+        AddressSet<V4> actual = MappedAddressSets.open(v4(), write(range));
+        assertInstanceOf(Range.class, actual);
+        assertEquals(range, actual);
+    }
+
+    @Test
+    void large() throws IOException {
+        AddressSet<V4> v4s = RandomSets.generate(v4().parse(0), 20_000, v4()::parse);
+        AddressSet<V6> v6s = RandomSets.generate(v6().parse("2001:db8::"), 20_000, n -> v6().parse(0, n));
+        AddressSet<V4> m4 = MappedAddressSets.open(v4(), write(v4s));
+        AddressSet<V6> m6 = MappedAddressSets.open(v6(), write(v6s));
+        assertEquals(v4s, m4);
+        assertEquals(v6s, m6);
+        EqualsTester.test(v4s, m4, v6s, m6);
+        AddressSetTester.test(m4);
+        AddressSetTester.test(m6);
+        assertTrue(m4.toString().contains("20000..."));
+
+        var ran = new Random(2);
+        for (int i = 0; i < 10_000; i++) {
+            V4 a = v4().parse(ran.nextInt(25_000_000));
+            assertEquals(v4s.contains(a), m4.contains(a), a::toString);
+            V6 b = v6().parse("2001:db8::").add(v6().parse(0, ran.nextInt(25_000_000)));
+            assertEquals(v6s.contains(b), m6.contains(b), b::toString);
+        }
+        assertFalse(m4.contains(v4().min()));
+        assertFalse(m4.contains(v6().parse("::1")));
+        assertFalse(m6.contains(v6().max()));
+        assertEquals(v4s.addresses().limit(1_000).toList(), m4.addresses().limit(1_000).toList());
+    }
+
+    @Test
+    void family() throws IOException {
+        Path v4s = write(AddressSets.of(AddressSets.address(v4().min()), AddressSets.address(v4().max())));
+        Path empty = write(AddressSets.of());
+        assertThrows(ParseException.class, () -> MappedAddressSets.open(v6(), v4s));
+        assertEquals(AddressSets.of(), MappedAddressSets.open(v6(), empty));
+    }
+
+    @Test
+    void invalid() throws IOException {
+        byte[] valid = Files.readAllBytes(write(AddressSets.of(AddressSets.address(v6().min()), AddressSets.address(v6().max()))));
+        assertInvalid(Arrays.copyOf(valid, Mapping.HEADER - 1));
+        assertInvalid(Arrays.copyOf(valid, valid.length - 1));
+        assertInvalid(Arrays.copyOf(valid, valid.length + 32));
+        assertInvalid(modify(valid, 0, 'X'));
+        assertInvalid(modify(valid, 4, MappedAddressSets.VERSION + 1));
+        assertInvalid(modify(valid, 5, 5));
+        assertInvalid(modify(valid, 5, 0));
+        byte[] negative = valid.clone();
+        ByteBuffer.wrap(negative).putLong(8, -1);
+        assertInvalid(negative);
+        byte[] zero = valid.clone();
+        ByteBuffer.wrap(zero).putLong(8, 0);
+        assertInvalid(zero);
+
+        byte[] single = Files.readAllBytes(write(AddressSets.parseCidr(v4(), "192.0.2.0/24")));
+        byte[] reversed = single.clone();
+        ByteBuffer.wrap(reversed).putInt(Mapping.HEADER, 0xC0000300);
+        assertInvalid(reversed);
+    }
+
+    private void assertInvalid(byte[] content) throws IOException {
+        Path file = Files.createTempFile(dir, "invalid", ".bin");
+        Files.write(file, content);
+        assertThrows(ParseException.class, () -> MappedAddressSets.open(file));
+    }
+
+    private static byte[] modify(byte[] content, int index, int value) {
+        byte[] copy = content.clone();
+        copy[index] = (byte) value;
+        return copy;
+    }
+
+    private Path write(AddressSet<?> set) throws IOException {
+        Path file = Files.createTempFile(dir, "set", ".bin");
+        MappedAddressSets.write(set, file);
+        return file;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void test(AddressSet set) {
+        AddressSetTester.test(set);
+    }
+}
@@ -0,0 +1,125 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class MembershipTest {
+
+    @Test
+    void v4s() {
+        var ran = new Random(6);
+        for (int size : new int[] {0, 1, 2, 3, 100, 5_000}) {
+            AddressSet<V4> set = set4(ran, size);
+            var membership = Membership.of(set);
+            for (int n : new int[] {0, 1, 7, 8, 9, 1_000}) {
+                int[] addresses = new int[n];
+                for (int i = 0; i < n; i++) {
+                    addresses[i] = ran.nextInt(size * 40 + 100) + (ran.nextBoolean() ? 0 : Integer.MIN_VALUE);
+                }
+                check(set, membership, addresses);
+                Arrays.sort(addresses);
+                check(set, membership, addresses);
+                check(set, membership, Arrays.stream(addresses).map(i -> i ^ Integer.MIN_VALUE).sorted().map(i -> i ^ Integer.MIN_VALUE).toArray());
+            }
+        }
+    }
+
+    private static void check(AddressSet<V4> set, Membership membership, int[] addresses) {
+        BitSet expected = new BitSet();
+        for (int i = 0; i < addresses.length; i++) {
+            expected.set(i, set.contains(v4().parse(addresses[i])));
+        }
+        expected.set(addresses.length);
+        BitSet actual = new BitSet();
+        actual.set(0, addresses.length + 1);
+        membership.containsAll(addresses, actual);
+        assertEquals(expected, actual);
+    }
+
+    private static AddressSet<V4> set4(Random ran, int size) {
+        @SuppressWarnings("unchecked")
+        Range<V4>[] ranges = new Range[size];
+        long next = ran.nextBoolean() ? 0 : 0x7FFF_FF00L;
+        for (int i = 0; i < size; i++) {
+            long first = next + ran.nextInt(20);
+            long last = first + ran.nextInt(20);
+            ranges[i] = AddressSets.range(v4().parse((int) first), v4().parse((int) last));
+            next = last + 2;
+        }
+        return AddressSets.fromSorted(ranges);
+    }
+
+    @Test
+    void v6s() {
+        var ran = new Random(7);
+        for (int size : new int[] {0, 1, 2, 3, 100, 5_000}) {
+            @SuppressWarnings("unchecked")
+            Range<V6>[] ranges = new Range[size];
+            long next = Long.MAX_VALUE - 50_000;
+            for (int i = 0; i < size; i++) {
+                long first = next + ran.nextInt(20);
+                long last = first + ran.nextInt(20);
+                ranges[i] = AddressSets.range(v6().parse(first, -first), v6().parse(last, -first));
+                next = last + 2;
+            }
+            AddressSet<V6> set = AddressSets.fromSorted(ranges);
+            var membership = Membership.of(set);
+            for (int n : new int[] {0, 1, 7, 8, 9, 1_000}) {
+                long[] high = new long[n];
+                long[] low = new long[n];
+                for (int i = 0; i < n; i++) {
+                    high[i] = Long.MAX_VALUE - 50_000 + ran.nextInt(size * 40 + 100);
+                    low[i] = ran.nextInt(3) == 0 ? -high[i] : ran.nextLong();
+                }
+                check(set, membership, high, low);
+                Integer[] order = new Integer[n];
+                Arrays.setAll(order, i -> i);
+                Arrays.sort(order, (a, b) -> Unsigned.compare(high[a], low[a], high[b], low[b]));
+                check(set, membership,
+                        Arrays.stream(order).mapToLong(i -> high[i]).toArray(),
+                        Arrays.stream(order).mapToLong(i -> low[i]).toArray());
+            }
+        }
+    }
+
+    private static void check(AddressSet<V6> set, Membership membership, long[] high, long[] low) {
+        BitSet expected = new BitSet();
+        for (int i = 0; i < high.length; i++) {
+            expected.set(i, set.contains(v6().parse(high[i], low[i])));
+        }
+        BitSet actual = new BitSet();
+        membership.containsAll(high, low, actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void family() {
+        BitSet out = new BitSet();
+        Membership.of(AddressSets.block(v4().min(), 0)).containsAll(new long[] {0}, new long[] {1}, out);
+        assertTrue(out.isEmpty());
+        Membership.of(AddressSets.block(v6().min(), 0)).containsAll(new int[] {1}, out);
+        assertTrue(out.isEmpty());
+        Membership.of(AddressSets.block(v6().min(), 0)).containsAll(new long[] {0}, new long[] {1}, out);
+        assertTrue(out.get(0));
+    }
+
+    @Test
+    void invalid() {
+        var membership = Membership.of(AddressSets.of());
+        long[] one = new long[1];
+        long[] two = new long[2];
+        BitSet out = new BitSet();
+        assertThrows(IllegalArgumentException.class, () -> membership.containsAll(one, two, out));
+    }
+}
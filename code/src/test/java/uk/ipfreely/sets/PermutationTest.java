@@ -0,0 +1,165 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class PermutationTest {
+
+    @Test
+    void visitsEachMemberOnce() {
+        for (int n = 1; n <= 70; n++) {
+            AddressSet<V4> set = n % 2 == 0
+                    ? AddressSets.range(v4().parse(0x7FFF_FFF0), v4().parse(0x7FFF_FFF0 + n - 1))
+                    : BitmapSets.of(spaced(n));
+            Permutation<V4> permutation = AddressSets.permutation(set, n);
+            List<V4> visited = new ArrayList<>();
+            permutation.forEach(visited::add);
+            assertEquals(BigInteger.valueOf(n), permutation.size());
+            assertEquals(n, new HashSet<>(visited).size());
+            visited.sort(null);
+            assertEquals(set.addresses().collect(Collectors.toList()), visited);
+        }
+    }
+
+    @Test
+    void keyed() {
+        Block<V4> block = AddressSets.parseCidr(v4(), "10.0.0.0/16");
+        List<V4> a = AddressSets.permutation(block, 1).stream().limit(256).collect(Collectors.toList());
+        List<V4> b = AddressSets.permutation(block, 1).stream().limit(256).collect(Collectors.toList());
+        List<V4> c = AddressSets.permutation(block, 2).stream().limit(256).collect(Collectors.toList());
+        assertEquals(a, b);
+        assertNotEquals(a, c);
+        // consecutive members spread across subnets
+        long subnets = a.stream().map(addr -> addr.lowBits() >>> 8).distinct().count();
+        assertTrue(subnets > 128, () -> subnets + " subnets");
+    }
+
+    @Test
+    void resumeAndShard() {
+        AddressSet<V4> set = AddressSets.of(
+                AddressSets.parseCidr(v4(), "192.168.0.0/22"),
+                AddressSets.parseCidr(v4(), "10.0.0.0/24"),
+                AddressSets.address(v4().parse("172.16.0.1")));
+        Permutation<V4> permutation = AddressSets.permutation(set, 39);
+        List<V4> all = new ArrayList<>();
+        permutation.iterator().forEachRemaining(all::add);
+        for (int i = 0; i < all.size(); i += 97) {
+            assertEquals(all.get(i), permutation.get(BigInteger.valueOf(i)));
+        }
+        List<V4> resumed = new ArrayList<>();
+        permutation.iterator(BigInteger.ZERO, BigInteger.valueOf(500)).forEachRemaining(resumed::add);
+        permutation.iterator(BigInteger.valueOf(500), permutation.size()).forEachRemaining(resumed::add);
+        assertEquals(all, resumed);
+        Set<V4> sharded = new HashSet<>();
+        int total = 0;
+        for (int shard = 0; shard < 7; shard++) {
+            Iterator<V4> it = permutation.shard(shard, 7);
+            while (it.hasNext()) {
+                sharded.add(it.next());
+                total++;
+            }
+        }
+        assertEquals(all.size(), total);
+        assertEquals(new HashSet<>(all), sharded);
+        assertEquals(new HashSet<>(all), permutation.stream().parallel().collect(Collectors.toSet()));
+        Iterator<V4> none = permutation.iterator(BigInteger.TEN, BigInteger.TEN);
+        assertFalse(none.hasNext());
+        assertThrows(NoSuchElementException.class, none::next);
+    }
+
+    @Test
+    void huge() {
+        Block<V6> all = AddressSets.block(v6().min(), 0);
+        Permutation<V6> permutation = AddressSets.permutation(all, 0);
+        BigInteger last = all.size().subtract(BigInteger.ONE);
+        assertNotNull(permutation.get(last));
+        assertEquals(1_000, permutation.stream().limit(1_000).distinct().count());
+        Spliterator<V6> spliterator = permutation.spliterator();
+        assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+        assertEquals(0, spliterator.characteristics() & Spliterator.SIZED);
+        Spliterator<V6> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(Long.MAX_VALUE, prefix.estimateSize());
+        List<V6> tail = new ArrayList<>();
+        permutation.iterator(last.subtract(BigInteger.TWO), all.size()).forEachRemaining(tail::add);
+        assertEquals(3, new HashSet<>(tail).size());
+        assertEquals(permutation.get(last), tail.get(2));
+
+        AddressSet<V6> scattered = AddressSets.of(
+                AddressSets.parseCidr(v6(), "2001:db8::/64"),
+                AddressSets.parseCidr(v6(), "fe80::/10"));
+        Permutation<V6> walk = AddressSets.permutation(scattered, 7);
+        assertTrue(walk.stream().limit(1_000).allMatch(scattered::contains));
+    }
+
+    @Test
+    void spliterator() {
+        AddressSet<V4> set = AddressSets.parseCidr(v4(), "10.0.0.0/28");
+        Spliterator<V4> spliterator = AddressSets.permutation(set, 3).spliterator();
+        assertEquals(16, spliterator.estimateSize());
+        assertEquals(Spliterator.SIZED, spliterator.characteristics() & Spliterator.SIZED);
+        Spliterator<V4> prefix = spliterator.trySplit();
+        assertEquals(8, prefix.estimateSize());
+        assertEquals(8, spliterator.estimateSize());
+        Set<V4> seen = new HashSet<>();
+        for (Spliterator<V4> split = prefix.trySplit(); split != null; split = prefix.trySplit()) {
+            split.forEachRemaining(seen::add);
+            assertTrue(prefix.tryAdvance(seen::add));
+        }
+        prefix.forEachRemaining(seen::add);
+        assertEquals(0, prefix.estimateSize());
+        assertNull(prefix.trySplit());
+        spliterator.forEachRemaining(seen::add);
+        assertEquals(16, seen.size());
+    }
+
+    @Test
+    void empty() {
+        AddressSet<V4> empty = AddressSets.of();
+        Permutation<V4> permutation = AddressSets.permutation(empty, 1);
+        assertEquals(BigInteger.ZERO, permutation.size());
+        assertFalse(permutation.iterator().hasNext());
+        assertFalse(permutation.shard(0, 3).hasNext());
+        assertThrows(IndexOutOfBoundsException.class, () -> permutation.get(BigInteger.ZERO));
+    }
+
+    @Test
+    void invalid() {
+        Permutation<V4> permutation = AddressSets.permutation(AddressSets.parseCidr(v4(), "10.0.0.0/30"), 1);
+        BigInteger four = BigInteger.valueOf(4);
+        assertThrows(IndexOutOfBoundsException.class, () -> permutation.get(four));
+        assertThrows(IndexOutOfBoundsException.class, () -> permutation.get(BigInteger.ONE.negate()));
+        assertThrows(IndexOutOfBoundsException.class, () -> permutation.iterator(BigInteger.ONE.negate(), four));
+        assertThrows(IndexOutOfBoundsException.class, () -> permutation.iterator(BigInteger.TWO, BigInteger.ONE));
+        assertThrows(IndexOutOfBoundsException.class, () -> permutation.iterator(BigInteger.ZERO, BigInteger.TEN));
+        assertThrows(IllegalArgumentException.class, () -> permutation.shard(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> permutation.shard(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> permutation.shard(2, 2));
+        assertThrows(NullPointerException.class, () -> AddressSets.permutation(null, 1));
+    }
+
+    private static int[] spaced(int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = 0xFFFF_0000 + i * 3;
+        }
+        return values;
+    }
+}
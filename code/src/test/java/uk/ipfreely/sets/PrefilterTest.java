@@ -0,0 +1,129 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+import uk.ipfreely.testing.AddressSetTester;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class PrefilterTest {
+
+    @Test
+    void v4s() {
+        var ran = new Random(36);
+        int[] addresses = new int[10_000];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = ran.nextInt();
+        }
+        List<AddressSet<V4>> parts = new ArrayList<>();
+        parts.add(BitmapSets.of(addresses));
+        parts.add(AddressSets.parseCidr(v4(), "10.0.0.0/8"));
+        parts.add(AddressSets.parseCidr(v4(), "192.168.0.0/24"));
+        AddressSet<V4> source = AddressSets.from(parts);
+        var filter = Prefilter.of(source, 0.01);
+        assertArrayEquals(new int[] {8, 32}, filter.lengths());
+        AddressSet<V4> set = filter.set();
+        assertEquals(source, set);
+        for (int a : addresses) {
+            assertTrue(set.contains(v4().parse(a)));
+        }
+        assertTrue(set.contains(v4().parse("10.1.2.3")));
+        assertTrue(set.contains(v4().parse("192.168.0.200")));
+        int misses = 0;
+        int passed = 0;
+        for (int i = 0; i < 100_000; i++) {
+            V4 a = v4().parse(ran.nextInt());
+            if (!source.contains(a)) {
+                misses++;
+                passed += filter.mightContain(a) ? 1 : 0;
+            }
+        }
+        assertTrue(passed < misses * 0.03, () -> "false positives " + filter);
+        long queries = filter.queries();
+        assertEquals(addresses.length + 2, queries - filter.rejected() - filter.falsePositives());
+        assertTrue(filter.rejected() == 0 && filter.falsePositives() == 0);
+        for (int i = 0; i < 10_000; i++) {
+            set.contains(v4().parse(0x0B00_0000 | ran.nextInt(0x0100_0000)));
+        }
+        assertEquals(queries + 10_000, filter.queries());
+        assertEquals(10_000, filter.rejected() + filter.falsePositives());
+        assertTrue(filter.rejected() > 9_000);
+        assertTrue(filter.bytes() > 0);
+        assertTrue(filter.toString().contains("rejected=" + filter.rejected()));
+        assertFalse(filter.mightContain(v6().min()));
+        assertFalse(set.contains(v6().min()));
+    }
+
+    @Test
+    void v6s() {
+        var ran = new Random(37);
+        List<Block<V6>> blocks = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            blocks.add(AddressSets.block(v6().parse(ran.nextLong(), 0), 64));
+            blocks.add(AddressSets.address(v6().parse(ran.nextLong(), ran.nextLong())));
+        }
+        AddressSet<V6> source = AddressSets.from(blocks);
+        var filter = Prefilter.of(source, 0.001, 1);
+        assertArrayEquals(new int[] {64}, filter.lengths());
+        for (var b : blocks) {
+            assertTrue(filter.mightContain(b.first()));
+            assertTrue(filter.mightContain(b.last()));
+        }
+        AddressSetTester.test(filter.set());
+        assertEquals(source.toString(), filter.set().toString());
+        assertFalse(filter.set().isEmpty());
+        assertEquals(source.size(), filter.set().size());
+    }
+
+    @Test
+    void wideUnaligned() {
+        Block<V6> net = AddressSets.parseCidr(v6(), "2001:db8::/64");
+        AddressSet<V6> source = AddressSets.of(
+                AddressSets.range(net.first(), net.last().prev()),
+                AddressSets.address(v6().parse("2001:db9::1")));
+        var filter = Prefilter.of(source, 0.01);
+        assertTrue(filter.mightContain(net.first()));
+        assertTrue(filter.mightContain(net.last().prev()));
+        assertTrue(filter.mightContain(v6().parse("2001:db9::1")));
+        assertFalse(filter.set().contains(net.last()));
+        // whole address space except one address
+        AddressSet<V6> most = AddressSets.of(AddressSets.range(v6().min(), v6().max().prev()));
+        assertTrue(Prefilter.of(AddressSets.of(most, AddressSets.address(v6().max())), 0.01).mightContain(v6().max()));
+    }
+
+    @Test
+    void probes() {
+        AddressSet<V4> source = AddressSets.of(AddressSets.address(v4().parse(1)), AddressSets.address(v4().parse(3)));
+        var filter = Prefilter.of(source, 0.5, 10);
+        assertArrayEquals(new int[] {32}, filter.lengths());
+    }
+
+    @Test
+    void unfiltered() {
+        Range<V4> range = AddressSets.parseCidr(v4(), "10.0.0.0/8");
+        assertSame(range, Prefilter.of(range, 0.1).set());
+        AddressSet<V4> empty = AddressSets.of();
+        var filter = Prefilter.of(empty, 0.1);
+        assertSame(empty, filter.set());
+        assertFalse(filter.mightContain(v4().min()));
+        assertEquals(0, filter.lengths().length);
+    }
+
+    @Test
+    void invalid() {
+        AddressSet<V4> empty = AddressSets.of();
+        assertThrows(IllegalArgumentException.class, () -> Prefilter.of(empty, 0));
+        assertThrows(IllegalArgumentException.class, () -> Prefilter.of(empty, 1));
+        assertThrows(IllegalArgumentException.class, () -> Prefilter.of(empty, 0.1, 0));
+        assertThrows(NullPointerException.class, () -> Prefilter.of(null, 0.1));
+    }
+}
@@ -0,0 +1,142 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ipfreely.Addr;
+import uk.ipfreely.Family;
+import uk.ipfreely.ParseException;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class PrefixIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void nested() throws IOException {
+        Path file = dir.resolve("asn.idx");
+        PrefixIndex.builder(v4())
+                .put(AddressSets.parseCidr(v4(), "10.0.0.0/8"), 64500)
+                .put(AddressSets.parseCidr(v4(), "10.1.0.0/16"), 64501)
+                .put(AddressSets.parseCidr(v4(), "10.1.2.0/24"), 64502)
+                .put(AddressSets.parseCidr(v4(), "10.1.3.0/24"), 64501)
+                .put(AddressSets.parseCidr(v4(), "10.2.0.0/16"), 64500)
+                .write(file);
+        PrefixIndex<V4> index = PrefixIndex.open(v4(), file);
+        assertEquals(v4(), index.family());
+        assertEquals(64502, index.find(v4().parse("10.1.2.3"), -1));
+        assertEquals(64501, index.find(v4().parse("10.1.3.3"), -1));
+        assertEquals(64501, index.find(v4().parse("10.1.255.255"), -1));
+        assertEquals(64500, index.find(v4().parse("10.0.0.0"), -1));
+        assertEquals(64500, index.find(v4().parse("10.2.0.0"), -1));
+        assertEquals(64500, index.find(v4().parse("10.255.255.255"), -1));
+        assertEquals(-1, index.find(v4().parse("11.0.0.0"), -1));
+        assertEquals(OptionalLong.of(64502), index.find(v4().parse("10.1.2.0")));
+        assertEquals(OptionalLong.empty(), index.find(v4().parse("9.255.255.255")));
+        // 10.0.0.0-10.0.255.255, 10.1.0.0-10.1.1.255, 10.1.2.0/24, 10.1.3.0-10.1.255.255, 10.2.0.0-10.255.255.255
+        assertEquals(5, index.ranges());
+        assertTrue(index.toString().contains("5"));
+    }
+
+    @Test
+    void extremes() throws IOException {
+        Path file = dir.resolve("v6.idx");
+        PrefixIndex.builder(v6())
+                .put(AddressSets.block(v6().min(), 0), 1)
+                .put(AddressSets.address(v6().max()), 2)
+                .put(AddressSets.address(v6().min()), 3)
+                .put(AddressSets.parseCidr(v6(), "ffff::/16"), 4)
+                .put(AddressSets.parseCidr(v6(), "ffff::/16"), 5)
+                .write(file);
+        PrefixIndex<?> index = PrefixIndex.open(file);
+        assertEquals(v6(), index.family());
+        PrefixIndex<V6> v6s = PrefixIndex.open(v6(), file);
+        assertEquals(3, v6s.find(v6().min(), -1));
+        assertEquals(1, v6s.find(v6().parse("::1"), -1));
+        assertEquals(5, v6s.find(v6().parse("ffff::1"), -1));
+        assertEquals(2, v6s.find(v6().max(), -1));
+        assertEquals(4, v6s.ranges());
+    }
+
+    @Test
+    void empty() throws IOException {
+        Path file = dir.resolve("empty.idx");
+        PrefixIndex.builder(v4()).write(file);
+        PrefixIndex<V4> index = PrefixIndex.open(v4(), file);
+        assertEquals(0, index.ranges());
+        assertEquals(-1, index.find(v4().min(), -1));
+    }
+
+    @Test
+    void random() throws IOException {
+        random(v4(), 24);
+        random(v6(), 120);
+    }
+
+    private <A extends Addr<A>> void random(Family<A> family, int maxMask) throws IOException {
+        var ran = new Random(3);
+        Map<Block<A>, Long> entries = new LinkedHashMap<>();
+        var builder = PrefixIndex.builder(family);
+        A base = family.parse(0xC0000000);
+        for (int i = 0; i < 3_000; i++) {
+            int mask = 8 + ran.nextInt(maxMask - 8);
+            A address = base.add(family.parse(ran.nextInt(1 << 20)).shift(-(family.width() - 32)));
+            Block<A> block = AddressSets.block(family.subnets().masks().get(mask).and(address), mask);
+            long payload = ran.nextInt(4);
+            entries.put(block, payload);
+            builder.put(block, payload);
+        }
+        Path file = Files.createTempFile(dir, "random", ".idx");
+        builder.write(file);
+        PrefixIndex<A> index = PrefixIndex.open(family, file);
+        for (int i = 0; i < 3_000; i++) {
+            A address = base.add(family.parse(ran.nextInt(1 << 20)).shift(-(family.width() - 32)));
+            assertEquals(expected(entries, address), index.find(address, -1), address::toString);
+        }
+    }
+
+    private static <A extends Addr<A>> long expected(Map<Block<A>, Long> entries, A address) {
+        int best = -1;
+        long payload = -1;
+        for (var e : entries.entrySet()) {
+            Block<A> b = e.getKey();
+            if (b.contains(address) && b.maskSize() > best) {
+                best = b.maskSize();
+                payload = e.getValue();
+            }
+        }
+        return payload;
+    }
+
+    @Test
+    void invalid() throws IOException {
+        Path v4s = dir.resolve("v4.idx");
+        PrefixIndex.builder(v4()).put(AddressSets.parseCidr(v4(), "10.0.0.0/8"), 1).write(v4s);
+        assertThrows(ParseException.class, () -> PrefixIndex.open(v6(), v4s));
+
+        Path set = dir.resolve("set.bin");
+        MappedAddressSets.write(AddressSets.of(), set);
+        assertThrows(ParseException.class, () -> PrefixIndex.open(set));
+
+        byte[] content = Files.readAllBytes(v4s);
+        content[5] = 0;
+        Path empty = dir.resolve("bad.idx");
+        Files.write(empty, content);
+        assertThrows(ParseException.class, () -> PrefixIndex.open(empty));
+    }
+}
@@ -0,0 +1,126 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class RangeBufferTest {
+
+    @Test
+    void unsorted() {
+        Random random = new Random(43);
+        for (int n : new int[] {1, 10, 63, 64, 65, 500, 3000}) {
+            List<AddressSet<V4>> sets = new ArrayList<>();
+            RangeBuffer<V4> buffer = new RangeBuffer<>();
+            for (int i = 0; i < n; i++) {
+                int first = random.nextInt(50_000);
+                AddressSet<V4> r = AddressSets.range(v4().parse(first), v4().parse(first + random.nextInt(20)));
+                sets.add(r);
+                buffer.add(r);
+            }
+            assertEquals(AddressSets.from(sets), buffer.toSet(SearchLayout.SORTED), () -> n + " ranges");
+        }
+    }
+
+    @Test
+    void sorted() {
+        RangeBuffer<V4> buffer = new RangeBuffer<>();
+        for (int i = 0; i < 10_000; i += 2) {
+            buffer.addAddress(v4().parse(i));
+            buffer.addAddress(v4().parse(i));
+        }
+        assertEquals(5_000, buffer.size());
+        AddressSet<V4> actual = buffer.toSet(SearchLayout.SORTED);
+        assertEquals(5_000, actual.ranges().count());
+
+        RangeBuffer<V4> contiguous = new RangeBuffer<>();
+        contiguous.add(AddressSets.range(v4().parse(0), v4().parse(100)));
+        contiguous.add(AddressSets.range(v4().parse(50), v4().parse(60)));
+        contiguous.add(AddressSets.range(v4().parse(101), v4().parse(200)));
+        assertEquals(1, contiguous.size());
+        assertEquals(AddressSets.range(v4().parse(0), v4().parse(200)), contiguous.toSet(SearchLayout.SORTED));
+    }
+
+    @Test
+    void max() {
+        V6 max = v6().max();
+        RangeBuffer<V6> buffer = new RangeBuffer<>();
+        buffer.add(AddressSets.range(max.subtract(v6().parse(10)), max));
+        buffer.addAddress(max);
+        buffer.addAddress(max.prev());
+        buffer.add(AddressSets.range(v6().min(), v6().parse(1L, 0L)));
+        buffer.add(AddressSets.range(v6().parse(1L, 1L), max.subtract(v6().parse(11))));
+        assertEquals(AddressSets.block(v6().min(), 0), buffer.toSet(SearchLayout.SORTED));
+    }
+
+    @Test
+    void merges() {
+        Random random = new Random(7);
+        for (int n : new int[] {1, 20, 40, 200, 2_000}) {
+            List<AddressSet<V6>> sets = new ArrayList<>();
+            RangeBuffer<V6> left = new RangeBuffer<>();
+            RangeBuffer<V6> right = new RangeBuffer<>();
+            for (int i = 0; i < n; i++) {
+                V6 first = v6().parse(random.nextInt(3), random.nextInt(10_000));
+                AddressSet<V6> r = AddressSets.range(first, first.add(v6().parse(random.nextInt(30))));
+                sets.add(r);
+                (random.nextBoolean() ? left : right).add(r);
+            }
+            left.addAll(right);
+            left.addAll(new RangeBuffer<>());
+            assertEquals(AddressSets.from(sets), left.toSet(SearchLayout.SORTED), () -> n + " ranges");
+            RangeBuffer<V6> empty = new RangeBuffer<>();
+            empty.addAll(left);
+            assertEquals(AddressSets.from(sets), empty.toSet(SearchLayout.EYTZINGER));
+        }
+    }
+
+    @Test
+    void concatenates() {
+        RangeBuffer<V4> left = new RangeBuffer<>();
+        left.addAddress(v4().parse(10));
+        RangeBuffer<V4> after = new RangeBuffer<>();
+        after.addAddress(v4().parse(20));
+        RangeBuffer<V4> adjacent = new RangeBuffer<>();
+        adjacent.addAddress(v4().parse(21));
+        RangeBuffer<V4> before = new RangeBuffer<>();
+        before.addAddress(v4().parse(5));
+        left.addAll(after);
+        left.addAll(adjacent);
+        left.addAll(before);
+        assertEquals(4, left.size());
+        assertEquals(AddressSets.of(
+                AddressSets.address(v4().parse(5)),
+                AddressSets.address(v4().parse(10)),
+                AddressSets.range(v4().parse(20), v4().parse(21))), left.toSet(SearchLayout.SORTED));
+    }
+
+    @Test
+    void collection() {
+        RangeBuffer<V4> buffer = new RangeBuffer<>();
+        AddressSet<V4> set = AddressSets.of(
+                AddressSets.address(v4().parse(1)),
+                AddressSets.address(v4().parse(3)));
+        buffer.addAll(List.of(set, AddressSets.address(v4().parse(5))));
+        assertEquals(3, buffer.size());
+        Iterator<AddressSet<V4>> it = buffer.iterator();
+        assertEquals(AddressSets.address(v4().parse(1)), it.next());
+        it.next();
+        it.next();
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+        assertEquals(AddressSets.of(), new RangeBuffer<V4>().toSet(SearchLayout.SORTED));
+    }
+}
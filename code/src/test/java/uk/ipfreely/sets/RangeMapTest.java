@@ -0,0 +1,128 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class RangeMapTest {
+
+    @Test
+    void lookup() {
+        RangeMap<V4, String> map = RangeMap.<V4, String>builder(v4())
+                .put(range("1.0.1.0", "1.0.3.255"), "CN")
+                .put(range("1.0.0.0", "1.0.0.255"), "AU")
+                .put(range("1.0.4.0", "1.0.7.255"), "AU")
+                .put(range("1.0.8.0", "1.0.15.255"), "AU")
+                .build();
+        assertEquals(v4(), map.family());
+        assertEquals(3, map.size());
+        assertEquals("AU", map.get(v4().parse("1.0.0.0")));
+        assertEquals("CN", map.get(v4().parse("1.0.2.1")));
+        assertEquals("AU", map.get(v4().parse("1.0.15.255")));
+        assertNull(map.get(v4().parse("1.0.16.0")));
+        assertNull(map.get(v4().parse("0.255.255.255")));
+        assertEquals(
+                List.of(Map.entry(range("1.0.0.0", "1.0.0.255"), "AU"),
+                        Map.entry(range("1.0.1.0", "1.0.3.255"), "CN"),
+                        Map.entry(range("1.0.4.0", "1.0.15.255"), "AU")),
+                map.entries().toList());
+        assertEquals(
+                List.of(Map.entry(range("1.0.1.0", "1.0.3.255"), "CN"),
+                        Map.entry(range("1.0.4.0", "1.0.15.255"), "AU")),
+                map.entries(range("1.0.3.0", "1.0.5.0")).toList());
+        assertEquals(List.of(), map.entries(range("2.0.0.0", "3.0.0.0")).toList());
+        assertEquals(List.of(), map.entries(range("0.0.0.0", "0.0.0.1")).toList());
+        assertEquals(3, map.entries(range("0.0.0.0", "255.255.255.255")).count());
+        assertTrue(map.toString().contains("3"));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void heapPollution() {
+        RangeMap raw = RangeMap.<V4, String>builder(v4())
+                .put(range("0.0.0.0", "0.0.0.0"), "zero")
+                .build();
+        assertNull(raw.get(v6().min()));
+    }
+
+    @Test
+    void shuffled() {
+        var random = new Random(4);
+        TreeMap<V6, Map.Entry<Range<V6>, Integer>> expected = new TreeMap<>();
+        RangeMap.Builder<V6, Integer> builder = RangeMap.builder(v6());
+        V6 next = v6().parse("2001:db8::");
+        for (int i = 0; i < 1_000; i++) {
+            V6 first = next.add(v6().parse(random.nextInt(3)));
+            V6 last = first.add(v6().parse(0, random.nextLong() >>> 1));
+            int value = random.nextInt(3);
+            expected.put(first, Map.entry(AddressSets.range(first, last), value));
+            next = last.next();
+        }
+        var shuffled = new ArrayList<>(expected.values());
+        Collections.shuffle(shuffled, random);
+        shuffled.forEach(e -> builder.put(e.getKey(), e.getValue()));
+        RangeMap<V6, Integer> map = builder.build();
+        assertTrue(map.size() < expected.size());
+        for (var e : expected.values()) {
+            Range<V6> r = e.getKey();
+            assertEquals(e.getValue(), map.get(r.first()));
+            assertEquals(e.getValue(), map.get(r.last()));
+            assertEquals(e.getValue(), map.entries(r).filter(x -> x.getKey().contains(r.first())).findFirst().orElseThrow().getValue());
+            var floor = expected.floorEntry(r.first().prev());
+            if (floor == null || !floor.getValue().getKey().contains(r.first().prev())) {
+                assertNull(map.get(r.first().prev()));
+            }
+        }
+        assertNull(map.get(v6().min()));
+        assertNull(map.get(v6().max()));
+    }
+
+    @Test
+    void extremes() {
+        RangeMap<V6, String> map = RangeMap.<V6, String>builder(v6())
+                .put(AddressSets.address(v6().max()), "max")
+                .put(AddressSets.range(v6().parse(0, -1), v6().max().prev()), "max")
+                .put(AddressSets.range(v6().min(), v6().parse(0, -2)), "min")
+                .build();
+        assertEquals(2, map.size());
+        assertEquals("max", map.get(v6().max()));
+        assertEquals("max", map.get(v6().parse(0, -1)));
+        assertEquals("min", map.get(v6().min()));
+    }
+
+    @Test
+    void invalid() {
+        var builder = RangeMap.<V4, String>builder(v4())
+                .put(range("10.0.0.0", "10.0.0.10"), "a")
+                .put(range("10.0.0.10", "10.0.0.20"), "b");
+        assertThrows(IllegalArgumentException.class, builder::build);
+        var nulls = RangeMap.<V4, String>builder(v4());
+        Range<V4> r = range("10.0.0.0", "10.0.0.10");
+        assertThrows(NullPointerException.class, () -> nulls.put(r, null));
+    }
+
+    @Test
+    void empty() {
+        RangeMap<V4, String> map = RangeMap.<V4, String>builder(v4()).build();
+        assertEquals(0, map.size());
+        assertNull(map.get(v4().min()));
+        assertEquals(0, map.entries(range("0.0.0.0", "255.255.255.255")).count());
+    }
+
+    private static Range<V4> range(String first, String last) {
+        return AddressSets.range(v4().parse(first), v4().parse(last));
+    }
+}
@@ -0,0 +1,164 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+import uk.ipfreely.testing.EqualsTester;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class RangeStreamsTest {
+    private static final int DOMAIN = 2_000;
+
+    @Test
+    void operations() {
+        Random random = new Random(45);
+        for (int round = 0; round < 50; round++) {
+            BitSet a = bits(random);
+            BitSet b = bits(random);
+            BitSet c = bits(random);
+            AddressSet<V4> sa = set(a);
+            AddressSet<V4> sb = set(b);
+            AddressSet<V4> sc = set(c);
+
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            or.or(c);
+            assertEquals(set(or), collect(RangeStreams.union(sa.ranges(), sb.ranges(), sc.ranges())));
+            assertEquals(set(or), collect(RangeStreams.union(List.of(sa.ranges().iterator(), sb.ranges().iterator(), sc.ranges().iterator()))));
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            and.and(c);
+            assertEquals(set(and), collect(RangeStreams.intersection(sa.ranges(), sb.ranges(), sc.ranges())));
+            assertEquals(set(and), collect(RangeStreams.intersection(List.of(sa.ranges().iterator(), sb.ranges().iterator(), sc.ranges().iterator()))));
+
+            BitSet not = (BitSet) a.clone();
+            not.andNot(b);
+            assertEquals(set(not), collect(RangeStreams.difference(sa.ranges(), sb.ranges())));
+            assertEquals(set(not), collect(RangeStreams.difference(sa.ranges().iterator(), sb.ranges().iterator())));
+        }
+    }
+
+    @Test
+    void adjacent() {
+        Stream<Range<V4>> split = Stream.of(range(0, 9), range(10, 19), range(30, 39));
+        assertEquals(List.of(range(0, 19), range(30, 39)), RangeStreams.union(split).collect(Collectors.toList()));
+        Stream<Range<V4>> overlapping = Stream.of(range(0, 9), range(5, 19));
+        assertThrows(IllegalArgumentException.class, () -> RangeStreams.union(overlapping).count());
+        Stream<Range<V4>> unordered = Stream.of(range(10, 19), range(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> RangeStreams.intersection(unordered).count());
+    }
+
+    @Test
+    void extremes() {
+        V6 max = v6().max();
+        Range<V6> all = AddressSets.block(v6().min(), 0);
+        Range<V6> low = AddressSets.range(v6().min(), v6().parse(10));
+        Range<V6> high = AddressSets.range(max.subtract(v6().parse(10)), max);
+        List<Range<V6>> middle = RangeStreams.difference(Stream.of(all), Stream.of(low, high)).collect(Collectors.toList());
+        assertEquals(List.of(AddressSets.range(v6().parse(11), max.subtract(v6().parse(11)))), middle);
+        assertEquals(List.of(all), RangeStreams.union(Stream.of(low, high), middle.stream()).collect(Collectors.toList()));
+        assertEquals(List.of(high), RangeStreams.intersection(Stream.of(all), Stream.of(high)).collect(Collectors.toList()));
+        assertEquals(0, RangeStreams.difference(Stream.of(high), Stream.of(all)).count());
+        assertEquals(0, RangeStreams.intersection(Stream.of(low), Stream.of(high)).count());
+        assertEquals(0, RangeStreams.<V6>union().count());
+    }
+
+    @Test
+    void close() {
+        AtomicInteger closed = new AtomicInteger();
+        Stream<Range<V4>> a = Stream.of(range(0, 1)).onClose(closed::incrementAndGet);
+        Stream<Range<V4>> b = Stream.of(range(3, 4)).onClose(closed::incrementAndGet);
+        try (Stream<Range<V4>> union = RangeStreams.union(a, b)) {
+            assertEquals(2, union.count());
+        }
+        assertEquals(2, closed.get());
+        Stream<Range<V4>> c = Stream.of(range(0, 1)).onClose(closed::incrementAndGet);
+        Stream<Range<V4>> d = Stream.of(range(3, 4)).onClose(closed::incrementAndGet);
+        RangeStreams.difference(c, d).close();
+        RangeStreams.intersection(Stream.of(range(0, 1)).onClose(closed::incrementAndGet)).close();
+        assertEquals(5, closed.get());
+    }
+
+    @Test
+    void view() {
+        AddressSet<V4> a = set(bits(new Random(1)));
+        AddressSet<V4> b = set(bits(new Random(2)));
+        AddressSet<V4> view = RangeStreams.view(() -> RangeStreams.difference(a.ranges(), b.ranges()));
+        AddressSet<V4> expected = collect(RangeStreams.difference(a.ranges(), b.ranges()));
+        EqualsTester.test(expected, view, RangeStreams.view(expected::ranges));
+        assertEquals(expected.size(), view.size());
+        for (int i = 0; i < DOMAIN; i++) {
+            V4 address = v4().parse(i);
+            assertEquals(expected.contains(address), view.contains(address));
+        }
+        assertFalse(view.contains(v6().min()));
+        assertFalse(view.isEmpty());
+        List<V4> addresses = new ArrayList<>();
+        view.forEach(addresses::add);
+        assertEquals(expected.addresses().collect(Collectors.toList()), addresses);
+        assertTrue(view.toString().endsWith(", ...}"), view::toString);
+        AddressSet<V4> pair = RangeStreams.view(() -> Stream.of(range(0, 1), range(3, 4)));
+        assertEquals("{" + range(0, 1) + ", " + range(3, 4) + "}", pair.toString());
+
+        assertEquals(AddressSets.of(), RangeStreams.view(Stream::<Range<V4>>empty));
+        AddressSet<V4> single = RangeStreams.view(() -> Stream.of(range(0, 9), range(10, 15)));
+        assertEquals(AddressSets.parseCidr(v4(), "0.0.0.0/28"), single);
+        assertInstanceOf(Block.class, single);
+    }
+
+    @Test
+    void exhausted() {
+        Iterator<Range<V4>> union = RangeStreams.<V4>union(List.of()).iterator();
+        assertFalse(union.hasNext());
+        assertThrows(NoSuchElementException.class, union::next);
+        Iterator<Range<V4>> and = RangeStreams.intersection(Stream.of(range(0, 1)), Stream.of(range(3, 4))).iterator();
+        assertThrows(NoSuchElementException.class, and::next);
+        Iterator<Range<V4>> not = RangeStreams.difference(Stream.of(range(0, 1)), Stream.of(range(0, 4))).iterator();
+        assertThrows(NoSuchElementException.class, not::next);
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, RangeStreams::<V4>intersection);
+        assertThrows(IllegalArgumentException.class, () -> RangeStreams.<V4>intersection(List.of()));
+        assertThrows(NullPointerException.class, () -> RangeStreams.view(null));
+        assertThrows(NullPointerException.class, () -> RangeStreams.difference(null, List.<Range<V4>>of().iterator()));
+    }
+
+    private static Range<V4> range(int first, int last) {
+        return AddressSets.range(v4().parse(first), v4().parse(last));
+    }
+
+    private static BitSet bits(Random random) {
+        BitSet bits = new BitSet(DOMAIN);
+        for (int i = 0; i < 30; i++) {
+            int first = random.nextInt(DOMAIN);
+            bits.set(first, Math.min(DOMAIN, first + random.nextInt(100)));
+        }
+        return bits;
+    }
+
+    private static AddressSet<V4> set(BitSet bits) {
+        return bits.stream().mapToObj(v4()::parse).collect(AddressSets.addressCollector());
+    }
+
+    private static AddressSet<V4> collect(Stream<Range<V4>> ranges) {
+        return ranges.collect(AddressSets.collector());
+    }
+}
@@ -0,0 +1,186 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.testing.AddressSetTester;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class RoaringSetTest {
+    private static final int KEYS = 8;
+
+    @Test
+    void addresses() {
+        var ran = new Random(35);
+        for (int base : new int[] {0, 0x7FFC_0000, 0xFFF8_0000}) {
+            for (int trial = 0; trial < 10; trial++) {
+                BitSet bits = random(ran);
+                int[] addresses = bits.stream().map(i -> base + i).toArray();
+                int[] shuffled = new int[addresses.length * 2];
+                for (int i = 0; i < shuffled.length; i++) {
+                    shuffled[i] = addresses[ran.nextInt(addresses.length)];
+                }
+                System.arraycopy(addresses, 0, shuffled, 0, addresses.length);
+                AddressSet<V4> actual = RoaringSet.of(shuffled);
+                AddressSet<V4> expected = expected(base, bits);
+                assertEquals(expected, actual);
+                assertEquals(expected.hashCode(), actual.hashCode());
+                assertEquals(BigInteger.valueOf(bits.cardinality()), actual.size());
+                for (int i = 0; i < 1_000; i++) {
+                    V4 a = v4().parse(base - 10 + ran.nextInt(KEYS << 16 + 20));
+                    assertEquals(expected.contains(a), actual.contains(a));
+                }
+                List<V4> values = new ArrayList<>();
+                actual.forEach(values::add);
+                assertEquals(bits.stream().mapToObj(i -> v4().parse(base + i)).collect(Collectors.toList()), values);
+            }
+        }
+    }
+
+    @Test
+    void containers() {
+        BitSet bits = new BitSet();
+        // bitmap
+        for (int i = 0; i < 0x1_0000; i += 2) {
+            bits.set(i);
+        }
+        // runs crossing into next key
+        bits.set(0x1_FF00, 0x2_0100);
+        bits.set(0x2_8000, 0x3_0000);
+        // array
+        bits.set(0x3_0010);
+        bits.set(0x3_0012);
+        bits.set(0x3_0013);
+        // full
+        bits.set(0x4_0000, 0x5_0000);
+        bits.set(0x5_0001);
+        AddressSet<V4> expected = expected(0, bits);
+        AddressSet<V4> actual = RoaringSet.of(bits.stream().toArray());
+        assertInstanceOf(RoaringSet.class, actual);
+        assertEquals(expected, actual);
+        AddressSetTester.test(actual);
+        for (int i = 0; i < 0x6_0000; i++) {
+            assertEquals(bits.get(i), actual.contains(v4().parse(i)));
+        }
+        assertFalse(actual.contains(v6().min()));
+        assertFalse(actual.isEmpty());
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void operations() {
+        var ran = new Random(36);
+        for (int trial = 0; trial < 50; trial++) {
+            int base = ran.nextBoolean() ? 0x0A00_0000 : 0xFFF8_0000;
+            BitSet a = random(ran);
+            BitSet b = random(ran);
+            var ra = RoaringSet.bitmap(expected(base, a));
+            var rb = RoaringSet.bitmap(expected(base, b));
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            assertEquals(expected(base, or), RoaringSet.choose(RoaringSet.union(ra, rb)));
+            assertEquals(expected(base, and), RoaringSet.choose(RoaringSet.intersection(ra, rb)));
+            assertEquals(expected(base, and), RoaringSet.choose(RoaringSet.intersection(rb, ra)));
+        }
+        var one = RoaringSet.bitmap(AddressSets.address(v4().min()));
+        assertSame(one, RoaringSet.union(one, null));
+        assertSame(one, RoaringSet.union(null, one));
+        assertNull(RoaringSet.intersection(one, null));
+        assertNull(RoaringSet.intersection(null, one));
+    }
+
+    @Test
+    void choose() {
+        assertTrue(RoaringSet.choose(null).isEmpty());
+        var one = RoaringSet.bitmap(AddressSets.parseCidr(v4(), "10.0.0.0/8"));
+        assertInstanceOf(Block.class, RoaringSet.choose(one));
+        var few = RoaringSet.bitmap(AddressSets.of(AddressSets.parseCidr(v4(), "10.0.0.0/8"), AddressSets.parseCidr(v4(), "192.168.0.0/16")));
+        assertInstanceOf(ArraySet.class, RoaringSet.choose(few));
+        assertEquals(2 * RoaringSet.CONTAINER_BYTES + 4, RoaringSet.bitmap(AddressSets.of(
+                AddressSets.address(v4().parse(1)), AddressSets.address(v4().parse(0x1_0000)))).bytes());
+    }
+
+    @Test
+    void exhaustion() {
+        AddressSet<V4> set = RoaringSet.of(1, 3);
+        Iterator<V4> it = set.iterator();
+        it.next();
+        it.next();
+        assertThrows(NoSuchElementException.class, it::next);
+        Iterator<Range<V4>> ranges = set.ranges().iterator();
+        ranges.next();
+        ranges.next();
+        assertThrows(NoSuchElementException.class, ranges::next);
+    }
+
+    @Test
+    void big() {
+        int[] addresses = new int[20];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = i * 2;
+        }
+        AddressSet<V4> set = RoaringSet.of(addresses);
+        assertTrue(set.toString().endsWith(", [20...]}"), set::toString);
+    }
+
+    /**
+     * @return random offsets over {@link #KEYS} containers of varying density
+     */
+    private static BitSet random(Random ran) {
+        BitSet bits = new BitSet();
+        for (int k = 0; k < KEYS; k++) {
+            int base = k << 16;
+            switch (ran.nextInt(5)) {
+                case 0:
+                    break;
+                case 1:
+                    for (int i = 0, n = ran.nextInt(100); i < n; i++) {
+                        bits.set(base + ran.nextInt(0x1_0000));
+                    }
+                    break;
+                case 2:
+                    for (int i = 0, n = ran.nextInt(10_000); i < n; i++) {
+                        bits.set(base + ran.nextInt(0x1_0000));
+                    }
+                    break;
+                case 3:
+                    for (int i = 0, n = ran.nextInt(20); i < n; i++) {
+                        int s = ran.nextInt(0x1_0000);
+                        bits.set(base + s, base + Math.min(0x1_0000, s + ran.nextInt(5_000)));
+                    }
+                    break;
+                default:
+                    bits.set(base, base + 0x1_0000);
+                    break;
+            }
+        }
+        return bits;
+    }
+
+    private static AddressSet<V4> expected(int base, BitSet bits) {
+        List<Range<V4>> ranges = new ArrayList<>();
+        for (int i = bits.nextSetBit(0); i >= 0; ) {
+            int end = bits.nextClearBit(i) - 1;
+            ranges.add(AddressSets.range(v4().parse(base + i), v4().parse(base + end)));
+            i = bits.nextSetBit(end + 1);
+        }
+        @SuppressWarnings("unchecked")
+        Range<V4>[] array = ranges.toArray(new Range[0]);
+        return AddressSets.fromSorted(array);
+    }
+}
@@ -0,0 +1,102 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class SamplerTest {
+
+    @Test
+    void weighted() {
+        V4 single = v4().parse("10.0.0.1");
+        AddressSet<V4> set = AddressSets.of(AddressSets.address(single), AddressSets.parseCidr(v4(), "10.0.0.4/30"));
+        var sampler = AddressSets.sampler(set, new SplittableRandom(38));
+        Map<V4, Integer> counts = new HashMap<>();
+        final int samples = 50_000;
+        for (int i = 0; i < samples; i++) {
+            counts.merge(sampler.next(), 1, Integer::sum);
+        }
+        assertEquals(5, counts.size());
+        counts.forEach((a, n) -> assertEquals(samples / 5.0, n, samples * 0.02, a::toString));
+    }
+
+    @Test
+    void huge() {
+        AddressSet<V6> set = AddressSets.of(
+                AddressSets.parseCidr(v6(), "2001:db8::/32"),
+                AddressSets.parseCidr(v6(), "fe80::/10"),
+                AddressSets.address(v6().parse("::1")));
+        var sampler = AddressSets.sampler(set, new SplittableRandom(39));
+        int linkLocal = 0;
+        for (int i = 0; i < 10_000; i++) {
+            V6 a = sampler.next();
+            assertTrue(set.contains(a), a::toString);
+            linkLocal += a.highBits() >>> 54 == 0x3FA ? 1 : 0;
+        }
+        // fe80::/10 is 2^22 times larger
+        assertEquals(10_000, linkLocal);
+        Block<V6> all = AddressSets.block(v6().min(), 0);
+        var everything = AddressSets.sampler(all, new SplittableRandom(40));
+        assertNotEquals(everything.next(), everything.next());
+        Block<V4> one = AddressSets.address(v4().max());
+        assertEquals(v4().max(), AddressSets.sampler(one, new Random()).next());
+    }
+
+    @Test
+    void distinct() {
+        AddressSet<V4> set = BitmapSets.of(1, 3, 5, 7, 9, 11);
+        var sampler = AddressSets.sampler(set, new SplittableRandom(41));
+        assertEquals(set.addresses().collect(Collectors.toList()), sampler.distinct(6));
+        assertEquals(List.of(), sampler.distinct(0));
+        for (int i = 0; i < 100; i++) {
+            List<V4> three = sampler.distinct(3);
+            assertEquals(3, three.size());
+            assertEquals(3, three.stream().distinct().filter(set::contains).count());
+        }
+        assertThrows(IllegalArgumentException.class, () -> sampler.distinct(7));
+        assertThrows(IllegalArgumentException.class, () -> sampler.distinct(-1));
+        Block<V6> big = AddressSets.parseCidr(v6(), "2001:db8::/32");
+        List<V6> sample = AddressSets.sampler(big, new SplittableRandom(42)).distinct(1_000);
+        assertEquals(1_000, sample.stream().distinct().filter(big::contains).count());
+    }
+
+    @Test
+    void stream() {
+        AddressSet<V6> set = AddressSets.of(
+                AddressSets.parseCidr(v6(), "2001:db8::/120"),
+                AddressSets.parseCidr(v6(), "2001:db8:1::/120"));
+        var sampler = AddressSets.sampler(set, new SplittableRandom(43));
+        assertTrue(sampler.stream().parallel().limit(100_000).allMatch(set::contains));
+        assertEquals(BigInteger.valueOf(512), BigInteger.valueOf(sampler.stream().parallel().limit(100_000).distinct().count()));
+        var spliterator = sampler.stream().spliterator();
+        assertNotNull(spliterator.trySplit());
+        assertEquals(Long.MAX_VALUE / 2, spliterator.estimateSize());
+        while (spliterator.trySplit() != null) {
+            assertTrue(spliterator.tryAdvance(a -> assertTrue(set.contains(a))));
+        }
+        assertEquals(1, spliterator.estimateSize());
+        var unsplittable = AddressSets.sampler(set, new Random(44)).stream();
+        assertNull(unsplittable.spliterator().trySplit());
+    }
+
+    @Test
+    void invalid() {
+        AddressSet<V4> empty = AddressSets.of();
+        assertThrows(IllegalArgumentException.class, () -> AddressSets.sampler(empty, new Random()));
+        assertThrows(NullPointerException.class, () -> AddressSets.sampler(empty, null));
+    }
+}
@@ -0,0 +1,117 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+import uk.ipfreely.V4;
+import uk.ipfreely.V6;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.ipfreely.Family.v4;
+import static uk.ipfreely.Family.v6;
+
+class SetCompilerTest {
+
+    @Test
+    void v4s() {
+        var ran = new Random(34);
+        for (int size : new int[] {0, 1, 2, 3, 129, 300, SetCompiler.MAX_RANGES}) {
+            @SuppressWarnings("unchecked")
+            Range<V4>[] ranges = new Range[size];
+            long next = ran.nextInt(3) == 0 ? 0 : ran.nextInt(70_000);
+            for (int i = 0; i < size; i++) {
+                long first = next + ran.nextInt(20);
+                long last = first + ran.nextInt(3) * ran.nextInt(1_000_000);
+                ranges[i] = AddressSets.range(v4().parse((int) first), v4().parse((int) last));
+                next = last + 2;
+            }
+            AddressSet<V4> set = AddressSets.fromSorted(ranges);
+            AddressPredicate compiled = AddressSets.compile(set);
+            for (var r : ranges) {
+                for (V4 a : new V4[] {r.first(), r.last(), r.first().prev(), r.last().next()}) {
+                    assertEquals(set.contains(a), compiled.test((int) a.lowBits()), a::toString);
+                    assertEquals(set.contains(a), compiled.contains(a), a::toString);
+                }
+            }
+            for (int i = 0; i < 10_000; i++) {
+                int a = ran.nextInt((int) Math.min(Integer.MAX_VALUE, next + 100));
+                assertEquals(set.contains(v4().parse(a)), compiled.test(a));
+            }
+            for (V4 a : new V4[] {v4().min(), v4().max()}) {
+                assertEquals(set.contains(a), compiled.test((int) a.lowBits()));
+            }
+            assertFalse(compiled.contains(v6().min()));
+            assertFalse(compiled.test(0, 0));
+        }
+    }
+
+    @Test
+    void v6s() {
+        var ran = new Random(35);
+        for (int size : new int[] {0, 1, 2, 3, 65, 300, SetCompiler.MAX_RANGES}) {
+            @SuppressWarnings("unchecked")
+            Range<V6>[] ranges = new Range[size];
+            long next = ran.nextBoolean() ? 0 : Long.MAX_VALUE - 10_000;
+            for (int i = 0; i < size; i++) {
+                long first = next + ran.nextInt(3);
+                long last = first + ran.nextInt(3);
+                long fl = ran.nextLong();
+                long ll = first == last ? fl | 1 : ran.nextLong();
+                ranges[i] = AddressSets.range(v6().parse(first, fl & -2), v6().parse(last, ll));
+                next = last + 1;
+            }
+            AddressSet<V6> set = AddressSets.fromSorted(ranges);
+            AddressPredicate compiled = AddressSets.compile(set);
+            for (var r : ranges) {
+                for (V6 a : new V6[] {r.first(), r.last(), r.first().prev(), r.last().next()}) {
+                    assertEquals(set.contains(a), compiled.test(a.highBits(), a.lowBits()), a::toString);
+                    assertEquals(set.contains(a), compiled.contains(a), a::toString);
+                }
+                V6 a = v6().parse(r.first().highBits(), ran.nextLong());
+                assertEquals(set.contains(a), compiled.contains(a), a::toString);
+            }
+            for (V6 a : new V6[] {v6().min(), v6().max()}) {
+                assertEquals(set.contains(a), compiled.contains(a));
+            }
+            assertFalse(compiled.contains(v4().min()));
+        }
+    }
+
+    @Test
+    void constants() {
+        // boundaries near the sign bit become small constants after flipping
+        int[] values = {-0x10000, -0x100, -0x10, -2, 0, 2, 4, 0x10, 0x100, 0x10000};
+        @SuppressWarnings("unchecked")
+        Range<V4>[] ranges = new Range[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ranges[i] = AddressSets.address(v4().parse(values[i] ^ Integer.MIN_VALUE));
+        }
+        AddressSet<V4> set = AddressSets.fromSorted(ranges);
+        AddressPredicate compiled = AddressSets.compile(set);
+        for (int v = -0x10001; v <= 0x10001; v++) {
+            int a = v ^ Integer.MIN_VALUE;
+            assertEquals(set.contains(v4().parse(a)), compiled.test(a));
+        }
+    }
+
+    @Test
+    void tooLarge() {
+        @SuppressWarnings("unchecked")
+        Range<V4>[] ranges = new Range[SetCompiler.MAX_RANGES + 1];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = AddressSets.address(v4().parse(i * 2));
+        }
+        AddressSet<V4> set = AddressSets.fromSorted(ranges);
+        assertThrows(IllegalArgumentException.class, () -> AddressSets.compile(set));
+    }
+
+    @Test
+    void reflect() {
+        assertEquals("x", SetCompiler.reflect(() -> "x"));
+        assertThrows(IllegalStateException.class, () -> SetCompiler.reflect(() -> {
+            throw new IllegalAccessException();
+        }));
+    }
+}
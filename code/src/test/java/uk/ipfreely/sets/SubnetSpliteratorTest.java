@@ -4,13 +4,17 @@ package uk.ipfreely.sets;
 
 import org.junit.jupiter.api.Test;
 import uk.ipfreely.V4;
+import uk.ipfreely.V6;
 import uk.ipfreely.testing.SpliteratorTester;
 
+import java.math.BigInteger;
 import java.util.Spliterator;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static uk.ipfreely.Family.v4;
 import static uk.ipfreely.Family.v6;
 
@@ -47,4 +51,39 @@ class SubnetSpliteratorTest {
         assertEquals(Long.MAX_VALUE, s.estimateSize());
         assertEquals(-1L, s.getExactSizeIfKnown());
     }
+
+    @Test
+    void splitsOffset() {
+        Block<V4> block = AddressSets.parseCidr(v4(), "10.0.0.0/16");
+        var s = new SubnetSpliterator<>(block.first(), block.last(), 24);
+        var prefix = s.trySplit();
+        assertEquals(128L, prefix.estimateSize());
+        assertEquals(128L, s.estimateSize());
+        AtomicLong count = new AtomicLong();
+        prefix.forEachRemaining(b -> assertEquals(block.first().add(v4().parse((int) count.getAndIncrement() << 8)), b.first()));
+        s.forEachRemaining(b -> assertEquals(block.first().add(v4().parse((int) count.getAndIncrement() << 8)), b.first()));
+        assertEquals(256L, count.get());
+        assertEquals(256L, block.subnets(24).parallel().distinct().filter(b -> block.contains(b.last())).count());
+    }
+
+    @Test
+    void splitsHuge() {
+        var s = new SubnetSpliterator<>(v6().min(), v6().max(), v6().width());
+        var prefix = s.trySplit();
+        assertEquals(Long.MAX_VALUE, prefix.estimateSize());
+        assertEquals(Long.MAX_VALUE, s.estimateSize());
+        AtomicReference<Block<V6>> first = new AtomicReference<>();
+        assertTrue(s.tryAdvance(first::set));
+        assertEquals(v6().parse(Long.MIN_VALUE, 0), first.get().first());
+        Block<V6> site = AddressSets.parseCidr(v6(), "2001:db8::/32");
+        var subnets = new SubnetSpliterator<>(site.first(), site.last(), 96);
+        var half = subnets.trySplit();
+        var quarter = half.trySplit();
+        assertEquals(1L << 62, quarter.estimateSize());
+        assertEquals(1L << 62, half.estimateSize());
+        assertTrue(subnets.tryAdvance(first::set));
+        assertEquals(site.subnet(96, BigInteger.ONE.shiftLeft(63)), first.get());
+        assertTrue(half.tryAdvance(first::set));
+        assertEquals(site.subnet(96, 1L << 62), first.get());
+    }
 }
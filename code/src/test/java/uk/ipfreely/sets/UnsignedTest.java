@@ -0,0 +1,44 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.sets;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnsignedTest {
+
+    @Test
+    void compare() {
+        assertEquals(0, Unsigned.compare(1, 2, 1, 2));
+        assertTrue(Unsigned.compare(0, -1, 1, 0) < 0);
+        assertTrue(Unsigned.compare(1, -1, 1, 0) > 0);
+    }
+
+    @Test
+    void arithmetic() {
+        assertEquals(1, Unsigned.carry(-1, 1));
+        assertEquals(0, Unsigned.carry(1, 1));
+        assertEquals(1, Unsigned.borrow(0, 1));
+        assertEquals(0, Unsigned.borrow(1, 1));
+    }
+
+    @Test
+    void overflows() {
+        assertFalse(Unsigned.overflows(0, -1, 0, 1));
+        assertTrue(Unsigned.overflows(-1, -1, 0, 1));
+        assertTrue(Unsigned.overflows(0, 1, -1, -1));
+        assertTrue(Unsigned.overflows(Long.MIN_VALUE, 0, Long.MIN_VALUE, 0));
+        assertFalse(Unsigned.overflows(-1, 0, 0, -1));
+    }
+
+    @Test
+    void toBigInteger() {
+        assertEquals(BigInteger.ONE, Unsigned.toBigInteger(0, 1));
+        assertEquals(BigInteger.TWO.pow(64).subtract(BigInteger.ONE), Unsigned.toBigInteger(0, -1));
+        assertEquals(BigInteger.TWO.pow(64), Unsigned.toBigInteger(1, 0));
+        assertEquals(BigInteger.TWO.pow(128).subtract(BigInteger.ONE), Unsigned.toBigInteger(-1, -1));
+    }
+}
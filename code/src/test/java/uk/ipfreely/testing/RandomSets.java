@@ -0,0 +1,40 @@
+// Copyright 2026 https://github.com/ipfreely-uk/java/blob/main/LICENSE
+// SPDX-License-Identifier: Apache-2.0
+package uk.ipfreely.testing;
+
+import uk.ipfreely.Addr;
+import uk.ipfreely.sets.AddressSet;
+import uk.ipfreely.sets.AddressSets;
+import uk.ipfreely.sets.Range;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+public final class RandomSets {
+
+    private RandomSets() {}
+
+    /**
+     * Repeatable set of disjoint, non-adjacent ranges above start.
+     *
+     * @param start address below the first range
+     * @param count number of ranges
+     * @param parse converts small values to addresses of the family
+     * @return set of count ranges
+     * @param <A> address type
+     */
+    public static <A extends Addr<A>> AddressSet<A> generate(A start, int count, IntFunction<A> parse) {
+        var ran = new Random(1);
+        List<Range<A>> ranges = new ArrayList<>(count);
+        A current = start;
+        for (int i = 0; i < count; i++) {
+            A first = current.add(parse.apply(1 + ran.nextInt(1000)));
+            A last = first.add(parse.apply(ran.nextInt(5000)));
+            ranges.add(AddressSets.range(first, last));
+            current = last.next();
+        }
+        return AddressSets.from(ranges);
+    }
+}